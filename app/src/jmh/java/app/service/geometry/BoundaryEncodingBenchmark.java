@@ -0,0 +1,98 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.geometry;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares writing and reading a boundary as [lat, lng] JSON arrays against a polyline6 encoded
+ * string, each including the JSON (de)serialization of the payload. The payload sizes are reported
+ * as the arraysBytes and encodedBytes counters of {@link #payloadSizes}.
+ */
+@State(Scope.Benchmark)
+public class BoundaryEncodingBenchmark {
+
+    @Param({"1000", "100000"})
+    public int vertices;
+
+    private final LibreGeometryFactory geometryFactory = new LibreGeometryFactory();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MultiPolygon boundary;
+    private String arraysJson;
+    private String encodedJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        // a wobbly circle around St. Louis, so deltas aren't uniform
+        Double[][] shell = new Double[vertices + 1][];
+        for (int i = 0; i < vertices; i++) {
+            double angle = 2 * Math.PI * i / vertices;
+            double radius = 0.3 + 0.01 * Math.sin(angle * 37);
+            shell[i] = new Double[]{38.6 + radius * Math.sin(angle), -90.3 + radius * Math.cos(angle)};
+        }
+        shell[vertices] = shell[0];
+        boundary = geometryFactory.createMultiPolygon(shell);
+
+        arraysJson = writeArrays();
+        encodedJson = writeEncoded();
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class PayloadSize {
+        public long arraysBytes;
+        public long encodedBytes;
+    }
+
+    // only the counters matter here; they are reported alongside an average time
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public void payloadSizes(PayloadSize size) {
+        size.arraysBytes = arraysJson.length();
+        size.encodedBytes = encodedJson.length();
+    }
+
+    @Benchmark
+    public String writeArrays() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(LibreGeometryFactory.getCoordinatesFrom(boundary));
+    }
+
+    @Benchmark
+    public String writeEncoded() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(LibreGeometryFactory.getEncodedCoordinatesFrom(boundary));
+    }
+
+    @Benchmark
+    public MultiPolygon readArrays() throws JsonProcessingException {
+        return geometryFactory.createMultiPolygon(objectMapper.readValue(arraysJson, Double[][].class));
+    }
+
+    @Benchmark
+    public MultiPolygon readEncoded() throws JsonProcessingException {
+        return geometryFactory.createMultiPolygon(objectMapper.readValue(encodedJson, String.class));
+    }
+}
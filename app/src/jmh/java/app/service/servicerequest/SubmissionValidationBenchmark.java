@@ -0,0 +1,115 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.servicerequest;
+
+import app.service.servicerequest.ServiceRequestService.InvalidServiceRequestException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the checks of a submission run one after the other against running them through
+ * {@link ConcurrentValidation}, as {@link ServiceRequestService#createServiceRequest} does. The
+ * reCAPTCHA verifier and the boundary and service lookups are stubbed with a jittered sleep around
+ * their typical latency in milliseconds; with an unknown service the lookup fails.
+ */
+@State(Scope.Benchmark)
+public class SubmissionValidationBenchmark {
+
+    @Param({"120"})
+    public int reCaptchaMillis;
+
+    @Param({"1"})
+    public int boundsMillis;
+
+    @Param({"3"})
+    public int serviceMillis;
+
+    @Param({"false", "true"})
+    public boolean unknownService;
+
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // the IO executor the service runs the checks on is a cached pool too
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public Long sequential() {
+        try {
+            verifyReCaptcha();
+            checkBounds();
+            return findService();
+        } catch (InvalidServiceRequestException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public Long concurrent() {
+        ConcurrentValidation validation = new ConcurrentValidation(executor);
+        validation.submit(this::verifyReCaptcha);
+        validation.submit(this::checkBounds);
+        Future<Long> serviceLookup = validation.submit(this::findService);
+        try {
+            validation.awaitAll();
+            return ConcurrentValidation.resultOf(serviceLookup);
+        } catch (InvalidServiceRequestException e) {
+            return null;
+        }
+    }
+
+    private void verifyReCaptcha() {
+        simulate(reCaptchaMillis);
+    }
+
+    private void checkBounds() {
+        simulate(boundsMillis);
+    }
+
+    private Long findService() {
+        simulate(serviceMillis);
+        if (unknownService) {
+            throw new InvalidServiceRequestException("Corresponding service is not found.");
+        }
+        return 1L;
+    }
+
+    private static void simulate(int typicalMillis) {
+        long jitterMicros = ThreadLocalRandom.current().nextLong(typicalMillis * 250L + 1);
+        try {
+            TimeUnit.MICROSECONDS.sleep(typicalMillis * 1000L + jitterMicros);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app;
+
+import app.dto.address.AddressDTO;
+import app.service.geocoding.AddressLookup;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.Produces;
+import io.micronaut.http.annotation.QueryValue;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.annotation.ExecuteOn;
+import io.micronaut.security.annotation.Secured;
+import io.micronaut.security.rules.SecurityRule;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Controller("/api/addresses")
+@Secured(SecurityRule.IS_ANONYMOUS)
+@Tag(name = "Addresses")
+public class AddressController {
+
+    private static final int DEFAULT_SUGGESTIONS = 10;
+
+    private final AddressLookup addressLookup;
+
+    public AddressController(AddressLookup addressLookup) {
+        this.addressLookup = addressLookup;
+    }
+
+    @Get("/autocomplete{?jurisdiction_id,q,limit}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ExecuteOn(TaskExecutors.IO)
+    public List<AddressDTO> autocomplete(@QueryValue("jurisdiction_id") String jurisdiction_id,
+                                         @QueryValue("q") String q,
+                                         @Nullable @QueryValue("limit") Integer limit) {
+        return addressLookup.autocomplete(jurisdiction_id, q, limit == null ? DEFAULT_SUGGESTIONS : limit)
+            .stream()
+            .map(AddressDTO::new)
+            .collect(Collectors.toList());
+    }
+}
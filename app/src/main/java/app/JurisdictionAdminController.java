@@ -14,7 +14,14 @@
 
 package app;
 
+import app.dto.district.CreateDistrictDTO;
+import app.dto.district.DistrictDTO;
+import app.dto.district.PatchDistrictDTO;
 import app.dto.group.GroupDTO;
+import app.dto.heatmap.HeatmapDTO;
+import app.dto.hotspot.HotspotDTO;
+import app.dto.route.RouteDTO;
+import app.dto.spike.SpikeAlertDTO;
 import app.dto.group.CreateUpdateGroupDTO;
 import app.dto.service.CreateServiceDTO;
 import app.dto.service.PatchServiceOrderPositionDTO;
@@ -27,9 +34,18 @@ import app.dto.servicerequest.GetServiceRequestsDTO;
 import app.dto.servicerequest.PatchServiceRequestDTO;
 import app.dto.servicerequest.SensitiveServiceRequestDTO;
 import app.dto.servicedefinition.ServiceDefinitionDTO;
+import app.dto.subscription.CreateSubscriptionDTO;
+import app.dto.subscription.SubscriptionDTO;
+import app.model.servicerequest.ServiceRequestStatus;
 import app.security.RequiresPermissions;
+import app.service.district.DistrictService;
+import app.service.heatmap.HeatmapService;
+import app.service.hotspot.HotspotService;
+import app.service.route.RouteService;
 import app.service.service.ServiceService;
 import app.service.servicerequest.ServiceRequestService;
+import app.service.spike.SpikeDetector;
+import app.service.subscription.SubscriptionService;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.annotation.*;
 import io.micronaut.http.server.types.files.StreamedFile;
@@ -40,6 +56,7 @@ import jakarta.annotation.Nullable;
 
 import javax.validation.Valid;
 import java.net.MalformedURLException;
+import java.time.Instant;
 import java.util.List;
 
 import static app.security.Permission.*;
@@ -50,10 +67,25 @@ public class JurisdictionAdminController {
 
     private final ServiceService serviceService;
     private final ServiceRequestService serviceRequestService;
+    private final DistrictService districtService;
+    private final HeatmapService heatmapService;
+    private final SubscriptionService subscriptionService;
+    private final RouteService routeService;
+    private final HotspotService hotspotService;
+    private final SpikeDetector spikeDetector;
 
-    public JurisdictionAdminController(ServiceService serviceService, ServiceRequestService serviceRequestService) {
+    public JurisdictionAdminController(ServiceService serviceService, ServiceRequestService serviceRequestService,
+                                       DistrictService districtService, HeatmapService heatmapService,
+                                       SubscriptionService subscriptionService, RouteService routeService,
+                                       HotspotService hotspotService, SpikeDetector spikeDetector) {
         this.serviceService = serviceService;
         this.serviceRequestService = serviceRequestService;
+        this.districtService = districtService;
+        this.heatmapService = heatmapService;
+        this.subscriptionService = subscriptionService;
+        this.routeService = routeService;
+        this.hotspotService = hotspotService;
+        this.spikeDetector = spikeDetector;
     }
 
     @Post(uris = { "/services{?jurisdiction_id}", "/services.json{?jurisdiction_id}" })
@@ -147,6 +179,62 @@ public class JurisdictionAdminController {
         return HttpResponse.ok();
     }
 
+    @Get(uris = { "/districts{?jurisdiction_id}", "/districts.json{?jurisdiction_id}" })
+    @ExecuteOn(TaskExecutors.IO)
+    @RequiresPermissions({LIBRE311_ADMIN_VIEW_SYSTEM, LIBRE311_ADMIN_VIEW_TENANT, LIBRE311_ADMIN_VIEW_SUBTENANT})
+    public List<DistrictDTO> indexDistricts(@Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) {
+        return districtService.getListDistricts(jurisdiction_id);
+    }
+
+    @Post(uris = { "/districts{?jurisdiction_id}", "/districts.json{?jurisdiction_id}" })
+    @ExecuteOn(TaskExecutors.IO)
+    @RequiresPermissions({LIBRE311_ADMIN_EDIT_SYSTEM, LIBRE311_ADMIN_EDIT_TENANT, LIBRE311_ADMIN_EDIT_SUBTENANT})
+    public DistrictDTO createDistrict(@Valid @Body CreateDistrictDTO requestDTO,
+                                      @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) {
+        return districtService.createDistrict(requestDTO, jurisdiction_id);
+    }
+
+    @Patch(uris = { "/districts/{districtId}{?jurisdiction_id}", "/districts/{districtId}.json{?jurisdiction_id}" })
+    @ExecuteOn(TaskExecutors.IO)
+    @RequiresPermissions({LIBRE311_ADMIN_EDIT_SYSTEM, LIBRE311_ADMIN_EDIT_TENANT, LIBRE311_ADMIN_EDIT_SUBTENANT})
+    public DistrictDTO updateDistrict(Long districtId, @Valid @Body PatchDistrictDTO requestDTO,
+                                      @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) {
+        return districtService.updateDistrict(districtId, requestDTO, jurisdiction_id);
+    }
+
+    @Delete(uris = { "/districts/{districtId}{?jurisdiction_id}", "/districts/{districtId}.json{?jurisdiction_id}" })
+    @ExecuteOn(TaskExecutors.IO)
+    @RequiresPermissions({LIBRE311_ADMIN_EDIT_SYSTEM, LIBRE311_ADMIN_EDIT_TENANT, LIBRE311_ADMIN_EDIT_SUBTENANT})
+    public HttpResponse<?> deleteDistrict(Long districtId,
+                                          @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) {
+        districtService.deleteDistrict(districtId, jurisdiction_id);
+        return HttpResponse.ok();
+    }
+
+    @Get(uris = { "/subscriptions{?jurisdiction_id}", "/subscriptions.json{?jurisdiction_id}" })
+    @ExecuteOn(TaskExecutors.IO)
+    @RequiresPermissions({LIBRE311_ADMIN_VIEW_SYSTEM, LIBRE311_ADMIN_VIEW_TENANT, LIBRE311_ADMIN_VIEW_SUBTENANT})
+    public List<SubscriptionDTO> indexSubscriptions(@Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) {
+        return subscriptionService.getListSubscriptions(jurisdiction_id);
+    }
+
+    @Post(uris = { "/subscriptions{?jurisdiction_id}", "/subscriptions.json{?jurisdiction_id}" })
+    @ExecuteOn(TaskExecutors.IO)
+    @RequiresPermissions({LIBRE311_ADMIN_EDIT_SYSTEM, LIBRE311_ADMIN_EDIT_TENANT, LIBRE311_ADMIN_EDIT_SUBTENANT})
+    public SubscriptionDTO createSubscription(@Valid @Body CreateSubscriptionDTO requestDTO,
+                                              @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) {
+        return subscriptionService.createSubscription(requestDTO, jurisdiction_id);
+    }
+
+    @Delete(uris = { "/subscriptions/{subscriptionId}{?jurisdiction_id}", "/subscriptions/{subscriptionId}.json{?jurisdiction_id}" })
+    @ExecuteOn(TaskExecutors.IO)
+    @RequiresPermissions({LIBRE311_ADMIN_EDIT_SYSTEM, LIBRE311_ADMIN_EDIT_TENANT, LIBRE311_ADMIN_EDIT_SUBTENANT})
+    public HttpResponse<?> deleteSubscription(Long subscriptionId,
+                                              @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) {
+        subscriptionService.deleteSubscription(subscriptionId, jurisdiction_id);
+        return HttpResponse.ok();
+    }
+
     @Patch(uris = { "/requests/{serviceRequestId}{?jurisdiction_id}",
             "/requests/{serviceRequestId}.json{?jurisdiction_id}" })
     @ExecuteOn(TaskExecutors.IO)
@@ -171,4 +259,41 @@ public class JurisdictionAdminController {
             @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) throws MalformedURLException {
         return serviceRequestService.getAllServiceRequests(requestDTO, jurisdiction_id);
     }
+
+    @Get(uris = { "/requests/heatmap{?jurisdiction_id,service_code,status,start_date,end_date,zoom}" })
+    @ExecuteOn(TaskExecutors.IO)
+    @RequiresPermissions({LIBRE311_REQUEST_VIEW_SYSTEM, LIBRE311_REQUEST_VIEW_TENANT, LIBRE311_REQUEST_VIEW_SUBTENANT})
+    public HeatmapDTO getHeatmap(@Nullable @QueryValue("jurisdiction_id") String jurisdiction_id,
+                                 @Nullable @QueryValue("service_code") List<Long> serviceCodes,
+                                 @Nullable @QueryValue("status") List<ServiceRequestStatus> statuses,
+                                 @Nullable @QueryValue("start_date") Instant startDate,
+                                 @Nullable @QueryValue("end_date") Instant endDate,
+                                 @QueryValue(value = "zoom", defaultValue = "12") int zoom) {
+        return heatmapService.getHeatmap(jurisdiction_id, serviceCodes, statuses, startDate, endDate, zoom);
+    }
+
+    @Get(uris = { "/requests/route{?jurisdiction_id,lat,long}" })
+    @ExecuteOn(TaskExecutors.IO)
+    @RequiresPermissions({LIBRE311_REQUEST_VIEW_SYSTEM, LIBRE311_REQUEST_VIEW_TENANT, LIBRE311_REQUEST_VIEW_SUBTENANT})
+    public RouteDTO getRoute(@Valid @RequestBean GetServiceRequestsDTO requestDTO,
+                             @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id,
+                             @QueryValue("lat") double lat,
+                             @QueryValue("long") double lng) {
+        return routeService.planRoute(requestDTO, jurisdiction_id, lat, lng);
+    }
+
+    @Get(uris = { "/requests/hotspots{?jurisdiction_id,service_code}" })
+    @ExecuteOn(TaskExecutors.IO)
+    @RequiresPermissions({LIBRE311_REQUEST_VIEW_SYSTEM, LIBRE311_REQUEST_VIEW_TENANT, LIBRE311_REQUEST_VIEW_SUBTENANT})
+    public List<HotspotDTO> getHotspots(@Nullable @QueryValue("jurisdiction_id") String jurisdiction_id,
+                                        @Nullable @QueryValue("service_code") List<Long> serviceCodes) {
+        return hotspotService.getHotspots(jurisdiction_id, serviceCodes);
+    }
+
+    @Get(uris = { "/requests/spikes{?jurisdiction_id}" })
+    @ExecuteOn(TaskExecutors.IO)
+    @RequiresPermissions({LIBRE311_REQUEST_VIEW_SYSTEM, LIBRE311_REQUEST_VIEW_TENANT, LIBRE311_REQUEST_VIEW_SUBTENANT})
+    public List<SpikeAlertDTO> getSpikes(@Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) {
+        return spikeDetector.getAlerts(jurisdiction_id);
+    }
 }
@@ -0,0 +1,63 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app;
+
+import app.dto.map.MapClusterDTO;
+import app.dto.map.MapRequestDTO;
+import app.service.map.MapService;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.Produces;
+import io.micronaut.http.annotation.QueryValue;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.annotation.ExecuteOn;
+import io.micronaut.security.annotation.Secured;
+import io.micronaut.security.rules.SecurityRule;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.util.List;
+
+@Controller("/api/map")
+@Secured(SecurityRule.IS_ANONYMOUS)
+@Tag(name = "Map")
+public class MapController {
+
+    private final MapService mapService;
+
+    public MapController(MapService mapService) {
+        this.mapService = mapService;
+    }
+
+    @Get("/requests{?jurisdiction_id,bbox,service_code,limit}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ExecuteOn(TaskExecutors.IO)
+    public List<MapRequestDTO> getRequests(@QueryValue("jurisdiction_id") String jurisdiction_id,
+                                           @QueryValue("bbox") String bbox,
+                                           @Nullable @QueryValue("service_code") List<Long> serviceCodes,
+                                           @Nullable @QueryValue("limit") Integer limit) {
+        return mapService.findRequests(jurisdiction_id, bbox, serviceCodes, limit);
+    }
+
+    @Get("/clusters{?jurisdiction_id,bbox,zoom}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ExecuteOn(TaskExecutors.IO)
+    public List<MapClusterDTO> getClusters(@QueryValue("jurisdiction_id") String jurisdiction_id,
+                                           @QueryValue("bbox") String bbox,
+                                           @QueryValue("zoom") int zoom) {
+        return mapService.findClusters(jurisdiction_id, bbox, zoom);
+    }
+}
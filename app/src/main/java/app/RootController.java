@@ -16,12 +16,12 @@ package app;
 
 import app.dto.discovery.DiscoveryDTO;
 import app.dto.jurisdiction.JurisdictionDTO;
-import app.dto.service.ServiceDTO;
-import app.dto.service.ServiceList;
 import app.dto.servicerequest.*;
-import app.dto.servicedefinition.ServiceDefinitionDTO;
+import app.model.jurisdiction.BoundaryDetail;
+import app.security.JurisdictionValidationFilter;
 import app.service.discovery.DiscoveryEndpointService;
 import app.service.jurisdiction.JurisdictionService;
+import app.service.service.RenderedBody;
 import app.service.service.ServiceService;
 import app.service.servicerequest.ServiceRequestService;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -31,9 +31,11 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.google.common.xml.XmlEscapers;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpResponse;
 import io.micronaut.http.annotation.*;
 import io.micronaut.http.uri.UriBuilder;
 import io.micronaut.scheduling.TaskExecutors;
@@ -43,7 +45,6 @@ import io.micronaut.security.rules.SecurityRule;
 import io.swagger.v3.oas.annotations.Hidden;
 import jakarta.annotation.Nullable;
 
-import java.util.stream.Collectors;
 import javax.validation.Valid;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -88,51 +89,42 @@ public class RootController {
         return HttpResponse.ok(xmlMapper.writeValueAsString(discovery));
     }
 
-    @Get(uris = {"/services{?jurisdiction_id}", "/services.json{?jurisdiction_id}"})
+    @Get(uris = {"/services{?jurisdiction_id,lat,long}", "/services.json{?jurisdiction_id,lat,long}"})
     @Produces(MediaType.APPLICATION_JSON)
     @ExecuteOn(TaskExecutors.IO)
-    public HttpResponse<List<ServiceDTO>> indexJson(@Valid Pageable pageable,
-                                                    @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) {
+    public HttpResponse<byte[]> indexJson(HttpRequest<?> request, @Valid Pageable pageable,
+                                          @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) {
 
-        return HttpResponse.ok(serviceService.findAll(jurisdiction_id));
+        return catalogResponse(request, serviceService.renderServices(jurisdictionIdOf(request, jurisdiction_id), RenderedBody.Format.JSON));
     }
 
-    @Get("/services.xml{?jurisdiction_id}")
+    @Get("/services.xml{?jurisdiction_id,lat,long}")
     @Produces(MediaType.TEXT_XML)
     @ExecuteOn(TaskExecutors.IO)
-    public HttpResponse<String> indexXml(@Valid Pageable pageable,
-                                         @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) throws JsonProcessingException {
+    public HttpResponse<byte[]> indexXml(HttpRequest<?> request, @Valid Pageable pageable,
+                                         @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) {
 
-        XmlMapper xmlMapper = XmlMapper.xmlBuilder().defaultUseWrapper(false).build();
-        List<ServiceDTO> serviceDTOList = serviceService.findAll(jurisdiction_id).stream()
-                .map(serviceDTO -> {
-                    if (serviceDTO.getDescription() != null) {
-                        serviceDTO.setDescription(XmlEscapers.xmlContentEscaper().escape(serviceDTO.getDescription()));
-                    }
-                    return serviceDTO;
-                }).collect(Collectors.toList());
-        ServiceList serviceList = new ServiceList(serviceDTOList);
-
-        return HttpResponse.ok(xmlMapper.writeValueAsString(serviceList));
+        return catalogResponse(request, serviceService.renderServices(jurisdictionIdOf(request, jurisdiction_id), RenderedBody.Format.XML));
     }
 
     @Get(uris = {"/services/{serviceCode}{?jurisdiction_id}", "/services/{serviceCode}.json{?jurisdiction_id}"})
     @Produces(MediaType.APPLICATION_JSON)
     @ExecuteOn(TaskExecutors.IO)
-    public ServiceDefinitionDTO getServiceDefinitionJson(Long serviceCode,
+    public HttpResponse<byte[]> getServiceDefinitionJson(HttpRequest<?> request, Long serviceCode,
                                                          @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) {
 
-        return serviceService.getServiceDefinition(serviceCode, jurisdiction_id);
+        return catalogResponse(request,
+            serviceService.renderServiceDefinition(serviceCode, jurisdiction_id, RenderedBody.Format.JSON));
     }
 
     @Get("/services/{serviceCode}.xml{?jurisdiction_id}")
     @Produces(MediaType.TEXT_XML)
     @ExecuteOn(TaskExecutors.IO)
-    public String getServiceDefinitionXml(Long serviceCode,
-                                          @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) throws JsonProcessingException {
+    public HttpResponse<byte[]> getServiceDefinitionXml(HttpRequest<?> request, Long serviceCode,
+                                                        @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) {
 
-        XmlMapper xmlMapper = XmlMapper.xmlBuilder().build();
-        return xmlMapper.writeValueAsString(serviceService.getServiceDefinition(serviceCode, jurisdiction_id));
+        return catalogResponse(request,
+            serviceService.renderServiceDefinition(serviceCode, jurisdiction_id, RenderedBody.Format.XML));
     }
 
     @Post(uris = {"/requests{?jurisdiction_id}", "/requests.json{?jurisdiction_id}"})
@@ -160,7 +152,7 @@ public class RootController {
         return xmlMapper.writeValueAsString(serviceRequestList);
     }
 
-    @Get(uris = {"/requests{?jurisdiction_id}", "/requests.json{?jurisdiction_id}"})
+    @Get(uris = {"/requests{?jurisdiction_id,lat,long}", "/requests.json{?jurisdiction_id,lat,long}"})
     @Produces(MediaType.APPLICATION_JSON)
     @ExecuteOn(TaskExecutors.IO)
     public HttpResponse<List<ServiceRequestDTO>> getServiceRequestsJson(
@@ -168,7 +160,7 @@ public class RootController {
         @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id,
         HttpRequest<?> request) {
         Page<ServiceRequestDTO> serviceRequestDTOPage = serviceRequestService.findAll(requestDTO,
-            jurisdiction_id, request.getHeaders().getAuthorization().orElse(null));
+            jurisdictionIdOf(request, jurisdiction_id), request.getHeaders().getAuthorization().orElse(null));
         return HttpResponse.ok(serviceRequestDTOPage.getContent())
                 .headers(Map.of(
                         "Access-Control-Expose-Headers", "page-TotalSize, page-TotalPages, page-PageNumber, page-Offset, page-Size ",
@@ -180,7 +172,7 @@ public class RootController {
                 ));
     }
 
-    @Get("/requests.xml{?jurisdiction_id}")
+    @Get("/requests.xml{?jurisdiction_id,lat,long}")
     @Produces(MediaType.TEXT_XML)
     @ExecuteOn(TaskExecutors.IO)
     public HttpResponse<String> getServiceRequestsXml(
@@ -192,7 +184,7 @@ public class RootController {
         XmlMapper xmlMapper = XmlMapper.xmlBuilder().defaultUseWrapper(false).build();
         xmlMapper.registerModule(new JavaTimeModule());
         Page<ServiceRequestDTO> serviceRequestDTOPage = serviceRequestService.findAll(requestDTO,
-                jurisdiction_id, request.getHeaders().getAuthorization().orElse(null))
+                jurisdictionIdOf(request, jurisdiction_id), request.getHeaders().getAuthorization().orElse(null))
                 .map(serviceRequestDTO -> {
                     sanitizeXmlContent(serviceRequestDTO);
                     return serviceRequestDTO;
@@ -234,10 +226,13 @@ public class RootController {
         return xmlMapper.writeValueAsString(serviceRequestList);
     }
 
-    @Get(value =  "/config")
+    @Get(value =  "/config{?detail,encoded}")
     @ExecuteOn(TaskExecutors.IO)
-    public JurisdictionDTO getJurisdictionInfo(@Header("Referer") String referer) throws URISyntaxException {
-        return jurisdictionService.findJurisdictionByHostName(new URI(referer).getHost());
+    public JurisdictionDTO getJurisdictionInfo(@Header("Referer") String referer,
+                                               @Nullable @QueryValue("detail") BoundaryDetail detail,
+                                               @QueryValue(value = "encoded", defaultValue = "false") boolean encoded) throws URISyntaxException {
+        return jurisdictionService.findJurisdictionByHostName(new URI(referer).getHost(),
+                detail == null ? BoundaryDetail.FULL : detail, encoded);
     }
 
     @Get("/swagger-ui")
@@ -254,4 +249,66 @@ public class RootController {
             serviceRequestDTO.setAddress(XmlEscapers.xmlContentEscaper().escape(serviceRequestDTO.getAddress()));
         }
     }
+
+    // the jurisdiction given, or else the one JurisdictionValidationFilter found at the given location
+    private static String jurisdictionIdOf(HttpRequest<?> request, @Nullable String jurisdictionId) {
+        return jurisdictionId != null
+            ? jurisdictionId
+            : request.getAttribute(JurisdictionValidationFilter.RESOLVED_JURISDICTION_ID, String.class).orElse(null);
+    }
+
+    /**
+     * Serves a pre-rendered catalog body, gzip compressed if the client accepts it, or just its
+     * entity tag if the client already has it.
+     */
+    private static HttpResponse<byte[]> catalogResponse(HttpRequest<?> request, RenderedBody body) {
+        boolean gzip = body.getGzipped() != null && acceptsGzip(request.getHeaders().get(HttpHeaders.ACCEPT_ENCODING));
+        String entityTag = body.getEntityTag(gzip);
+
+        MutableHttpResponse<byte[]> response;
+        if (matchesAny(request.getHeaders().get(HttpHeaders.IF_NONE_MATCH), entityTag)) {
+            response = HttpResponse.notModified();
+        } else if (gzip) {
+            response = HttpResponse.ok(body.getGzipped()).header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        } else {
+            response = HttpResponse.ok(body.getBytes());
+        }
+        // clients may keep the body but must check it is still current before using it
+        return response.header(HttpHeaders.ETAG, entityTag)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+            .header(HttpHeaders.CACHE_CONTROL, "no-cache");
+    }
+
+    private static boolean acceptsGzip(@Nullable String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                for (int i = 1; i < parameters.length; i++) {
+                    if (parameters[i].trim().matches("q=0(\\.0*)?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // If-None-Match compares entity tags weakly, so a W/ prefix is ignored
+    private static boolean matchesAny(@Nullable String ifNoneMatch, String entityTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(entityTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
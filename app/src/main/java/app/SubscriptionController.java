@@ -0,0 +1,68 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app;
+
+import app.dto.subscription.CreateSubscriptionDTO;
+import app.dto.subscription.SubscriptionDTO;
+import app.service.subscription.SubscriptionService;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.annotation.Body;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Delete;
+import io.micronaut.http.annotation.Post;
+import io.micronaut.http.annotation.QueryValue;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.annotation.ExecuteOn;
+import io.micronaut.security.annotation.Secured;
+import io.micronaut.security.rules.SecurityRule;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import javax.validation.Valid;
+
+/**
+ * Lets residents subscribe to new service requests in an area. A subscription takes effect once
+ * confirmed with the token emailed to the subscriber, which also cancels it.
+ */
+@Controller("/api/subscriptions")
+@Secured(SecurityRule.IS_ANONYMOUS)
+@Tag(name = "Subscriptions")
+public class SubscriptionController {
+
+    private final SubscriptionService subscriptionService;
+
+    public SubscriptionController(SubscriptionService subscriptionService) {
+        this.subscriptionService = subscriptionService;
+    }
+
+    @Post("{?jurisdiction_id}")
+    @ExecuteOn(TaskExecutors.IO)
+    public SubscriptionDTO subscribe(@Valid @Body CreateSubscriptionDTO requestDTO,
+                                     @QueryValue("jurisdiction_id") String jurisdiction_id) {
+        return subscriptionService.subscribe(requestDTO, jurisdiction_id);
+    }
+
+    @Post("/confirm{?token}")
+    @ExecuteOn(TaskExecutors.IO)
+    public SubscriptionDTO confirm(@QueryValue("token") String token) {
+        return subscriptionService.confirmSubscription(token);
+    }
+
+    @Delete("{?token}")
+    @ExecuteOn(TaskExecutors.IO)
+    public HttpResponse<?> unsubscribe(@QueryValue("token") String token) {
+        subscriptionService.unsubscribe(token);
+        return HttpResponse.ok();
+    }
+}
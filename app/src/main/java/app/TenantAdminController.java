@@ -24,6 +24,8 @@ import io.micronaut.scheduling.TaskExecutors;
 import io.micronaut.scheduling.annotation.ExecuteOn;
 import jakarta.annotation.Nullable;
 
+import java.io.InputStream;
+
 import javax.validation.Valid;
 
 import static app.security.Permission.*;
@@ -52,4 +54,12 @@ public class TenantAdminController {
                                              @Nullable @QueryValue("tenant_id") Long tenant_id) {
         return jurisdictionService.updateJurisdiction(jurisdictionId, requestDTO);
     }
+
+    @Put(uris = {"/jurisdictions/{jurisdictionId}/boundary{?tenant_id}"}, consumes = {"application/geo+json", "application/json"})
+    @ExecuteOn(TaskExecutors.IO)
+    @RequiresPermissions({LIBRE311_ADMIN_EDIT_SYSTEM, LIBRE311_ADMIN_EDIT_TENANT})
+    public JurisdictionDTO importBoundary(String jurisdictionId, @Body InputStream geoJson,
+                                          @Nullable @QueryValue("tenant_id") Long tenant_id) {
+        return jurisdictionService.importBoundary(jurisdictionId, geoJson);
+    }
 }
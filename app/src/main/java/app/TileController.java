@@ -0,0 +1,59 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app;
+
+import app.dto.servicerequest.GetServiceRequestsDTO;
+import app.service.map.TileService;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.Produces;
+import io.micronaut.http.annotation.QueryValue;
+import io.micronaut.http.annotation.RequestBean;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.annotation.ExecuteOn;
+import io.micronaut.security.annotation.Secured;
+import io.micronaut.security.rules.SecurityRule;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import javax.validation.Valid;
+
+@Controller("/api/tiles")
+@Secured(SecurityRule.IS_ANONYMOUS)
+@Tag(name = "Map")
+public class TileController {
+
+    public static final String MVT_MEDIA_TYPE = "application/vnd.mapbox-vector-tile";
+
+    private final TileService tileService;
+
+    public TileController(TileService tileService) {
+        this.tileService = tileService;
+    }
+
+    /**
+     * Service requests as a vector tile with a single "requests" layer of points, each with its
+     * status, service_code and priority. Takes the filters of GET /api/requests.
+     */
+    @Get("/{z}/{x}/{y}.mvt{?jurisdiction_id}")
+    @Produces(MVT_MEDIA_TYPE)
+    @ExecuteOn(TaskExecutors.IO)
+    public HttpResponse<byte[]> getTile(int z, int x, int y,
+                                        @Valid @RequestBean GetServiceRequestsDTO requestDTO,
+                                        @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) {
+        return HttpResponse.ok(tileService.getTile(jurisdiction_id, z, x, y, requestDTO));
+    }
+}
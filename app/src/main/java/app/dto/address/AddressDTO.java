@@ -0,0 +1,89 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.dto.address;
+
+import app.service.geocoding.Address;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+
+@Introspected
+public class AddressDTO {
+
+    @JsonProperty("address")
+    private String addressString;
+
+    @JsonProperty("address_id")
+    private String addressId;
+
+    @JsonProperty("zipcode")
+    private String zipCode;
+
+    @JsonProperty("lat")
+    private double latitude;
+
+    @JsonProperty("long")
+    private double longitude;
+
+    public AddressDTO() {
+    }
+
+    public AddressDTO(Address address) {
+        this.addressString = address.getAddressString();
+        this.addressId = address.getAddressId();
+        this.zipCode = address.getZipCode();
+        this.latitude = address.getLat();
+        this.longitude = address.getLng();
+    }
+
+    public String getAddressString() {
+        return addressString;
+    }
+
+    public void setAddressString(String addressString) {
+        this.addressString = addressString;
+    }
+
+    public String getAddressId() {
+        return addressId;
+    }
+
+    public void setAddressId(String addressId) {
+        this.addressId = addressId;
+    }
+
+    public String getZipCode() {
+        return zipCode;
+    }
+
+    public void setZipCode(String zipCode) {
+        this.zipCode = zipCode;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+}
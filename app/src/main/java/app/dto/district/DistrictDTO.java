@@ -0,0 +1,77 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package app.dto.district;
+
+import app.model.district.District;
+import app.service.geometry.LibreGeometryFactory;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+
+import java.util.Map;
+
+@Introspected
+public class DistrictDTO {
+
+    private Long id;
+
+    private String name;
+
+    @JsonProperty("multi_bounds")
+    private Double[][][][] multiBounds;
+
+    // service request counts keyed by status
+    @JsonProperty("request_counts")
+    private Map<String, Long> requestCounts;
+
+    public DistrictDTO() {
+    }
+
+    public DistrictDTO(District district) {
+        this.id = district.getId();
+        this.name = district.getName();
+        this.multiBounds = LibreGeometryFactory.getMultiCoordinatesFrom(district.getBoundary());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Double[][][][] getMultiBounds() {
+        return multiBounds;
+    }
+
+    public void setMultiBounds(Double[][][][] multiBounds) {
+        this.multiBounds = multiBounds;
+    }
+
+    public Map<String, Long> getRequestCounts() {
+        return requestCounts;
+    }
+
+    public void setRequestCounts(Map<String, Long> requestCounts) {
+        this.requestCounts = requestCounts;
+    }
+}
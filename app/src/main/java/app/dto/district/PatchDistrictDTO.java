@@ -0,0 +1,61 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package app.dto.district;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+
+import javax.validation.constraints.Size;
+
+@Introspected
+public class PatchDistrictDTO {
+
+    private String name;
+
+    // a single polygon with no holes, each coordinate [lat, lng]
+    @Size(min = 4)
+    private Double[][] bounds;
+
+    // polygons, each a shell followed by its holes; takes precedence over bounds
+    @JsonProperty("multi_bounds")
+    @Size(min = 1)
+    private Double[][][][] multiBounds;
+
+    public PatchDistrictDTO() {
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Double[][] getBounds() {
+        return bounds;
+    }
+
+    public void setBounds(Double[][] bounds) {
+        this.bounds = bounds;
+    }
+
+    public Double[][][][] getMultiBounds() {
+        return multiBounds;
+    }
+
+    public void setMultiBounds(Double[][][][] multiBounds) {
+        this.multiBounds = multiBounds;
+    }
+}
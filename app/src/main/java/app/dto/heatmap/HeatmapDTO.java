@@ -0,0 +1,51 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.dto.heatmap;
+
+import io.micronaut.core.annotation.Introspected;
+
+@Introspected
+public class HeatmapDTO {
+
+    // the zoom level whose tiles are the cells
+    private int zoom;
+
+    // flattened x, y, count triples of the cells with requests in them
+    private int[] cells;
+
+    public HeatmapDTO() {
+    }
+
+    public HeatmapDTO(int zoom, int[] cells) {
+        this.zoom = zoom;
+        this.cells = cells;
+    }
+
+    public int getZoom() {
+        return zoom;
+    }
+
+    public void setZoom(int zoom) {
+        this.zoom = zoom;
+    }
+
+    public int[] getCells() {
+        return cells;
+    }
+
+    public void setCells(int[] cells) {
+        this.cells = cells;
+    }
+}
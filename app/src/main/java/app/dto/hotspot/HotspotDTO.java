@@ -0,0 +1,118 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.dto.hotspot;
+
+import app.model.hotspot.Hotspot;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+
+import java.time.Instant;
+
+@Introspected
+public class HotspotDTO {
+
+    @JsonProperty("service_code")
+    private Long serviceCode;
+
+    @JsonProperty("lat")
+    private double latitude;
+
+    @JsonProperty("long")
+    private double longitude;
+
+    @JsonProperty("radius_meters")
+    private double radiusMeters;
+
+    @JsonProperty("request_count")
+    private int requestCount;
+
+    @JsonProperty("window_start")
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Instant windowStart;
+
+    @JsonProperty("window_end")
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Instant windowEnd;
+
+    public HotspotDTO() {
+    }
+
+    public HotspotDTO(Hotspot hotspot) {
+        this.serviceCode = hotspot.getServiceId();
+        this.latitude = hotspot.getLatitude();
+        this.longitude = hotspot.getLongitude();
+        this.radiusMeters = hotspot.getRadiusMeters();
+        this.requestCount = hotspot.getRequestCount();
+        this.windowStart = hotspot.getWindowStart();
+        this.windowEnd = hotspot.getWindowEnd();
+    }
+
+    public Long getServiceCode() {
+        return serviceCode;
+    }
+
+    public void setServiceCode(Long serviceCode) {
+        this.serviceCode = serviceCode;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+
+    public double getRadiusMeters() {
+        return radiusMeters;
+    }
+
+    public void setRadiusMeters(double radiusMeters) {
+        this.radiusMeters = radiusMeters;
+    }
+
+    public int getRequestCount() {
+        return requestCount;
+    }
+
+    public void setRequestCount(int requestCount) {
+        this.requestCount = requestCount;
+    }
+
+    public Instant getWindowStart() {
+        return windowStart;
+    }
+
+    public void setWindowStart(Instant windowStart) {
+        this.windowStart = windowStart;
+    }
+
+    public Instant getWindowEnd() {
+        return windowEnd;
+    }
+
+    public void setWindowEnd(Instant windowEnd) {
+        this.windowEnd = windowEnd;
+    }
+}
@@ -42,10 +42,22 @@ public class CreateJurisdictionDTO {
     @JsonProperty("logo_media_url")
     private String logoMediaUrl;
 
-    @NotEmpty
+    // a single polygon with no holes; required unless multi_bounds is given
     @Size(min = 4)
     private Double[][] bounds;
 
+    // polygons, each a shell followed by its holes, for boundaries with islands or enclaves
+    @JsonProperty("multi_bounds")
+    @Size(min = 1)
+    private Double[][][][] multiBounds;
+
+    // polyline6 encoded alternatives to bounds and multi_bounds
+    @JsonProperty("encoded_bounds")
+    private String encodedBounds;
+
+    @JsonProperty("encoded_multi_bounds")
+    private String[][] encodedMultiBounds;
+
     public CreateJurisdictionDTO() {
     }
 
@@ -96,4 +108,28 @@ public class CreateJurisdictionDTO {
     public void setBounds(Double[][] bounds) {
         this.bounds = bounds;
     }
+
+    public Double[][][][] getMultiBounds() {
+        return multiBounds;
+    }
+
+    public void setMultiBounds(Double[][][][] multiBounds) {
+        this.multiBounds = multiBounds;
+    }
+
+    public String getEncodedBounds() {
+        return encodedBounds;
+    }
+
+    public void setEncodedBounds(String encodedBounds) {
+        this.encodedBounds = encodedBounds;
+    }
+
+    public String[][] getEncodedMultiBounds() {
+        return encodedMultiBounds;
+    }
+
+    public void setEncodedMultiBounds(String[][] encodedMultiBounds) {
+        this.encodedMultiBounds = encodedMultiBounds;
+    }
 }
@@ -20,7 +20,7 @@ import app.service.geometry.LibreGeometryFactory;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonSetter;
 import io.micronaut.core.annotation.Introspected;
-import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.MultiPolygon;
 
 @Introspected
 public class JurisdictionDTO {
@@ -46,8 +46,19 @@ public class JurisdictionDTO {
     @JsonProperty("auth_base_url")
     private String unityAuthUrl;
 
+    // the shell of the largest polygon, for clients that only handle a single polygon
     private Double[][] bounds;
 
+    @JsonProperty("multi_bounds")
+    private Double[][][][] multiBounds;
+
+    // polyline6 encoded alternatives to bounds and multi_bounds
+    @JsonProperty("encoded_bounds")
+    private String encodedBounds;
+
+    @JsonProperty("encoded_multi_bounds")
+    private String[][] encodedMultiBounds;
+
     public JurisdictionDTO() {
     }
 
@@ -135,12 +146,48 @@ public class JurisdictionDTO {
         return bounds;
     }
 
-    public void setBounds(Polygon polygon) {
-        this.bounds = LibreGeometryFactory.getCoordinatesFrom(polygon);
+    public void setBounds(MultiPolygon multiPolygon) {
+        this.bounds = LibreGeometryFactory.getCoordinatesFrom(multiPolygon);
+        this.multiBounds = LibreGeometryFactory.getMultiCoordinatesFrom(multiPolygon);
     }
 
     @JsonSetter
     public void setBounds(Double[][] bounds) {
         this.bounds = bounds;
     }
+
+    public Double[][][][] getMultiBounds() {
+        return multiBounds;
+    }
+
+    public void setMultiBounds(Double[][][][] multiBounds) {
+        this.multiBounds = multiBounds;
+    }
+
+    public String getEncodedBounds() {
+        return encodedBounds;
+    }
+
+    /**
+     * Sets encoded_bounds and encoded_multi_bounds in place of bounds and multi_bounds.
+     */
+    public void setEncodedBounds(MultiPolygon multiPolygon) {
+        this.bounds = null;
+        this.multiBounds = null;
+        this.encodedBounds = LibreGeometryFactory.getEncodedCoordinatesFrom(multiPolygon);
+        this.encodedMultiBounds = LibreGeometryFactory.getEncodedMultiCoordinatesFrom(multiPolygon);
+    }
+
+    @JsonSetter
+    public void setEncodedBounds(String encodedBounds) {
+        this.encodedBounds = encodedBounds;
+    }
+
+    public String[][] getEncodedMultiBounds() {
+        return encodedMultiBounds;
+    }
+
+    public void setEncodedMultiBounds(String[][] encodedMultiBounds) {
+        this.encodedMultiBounds = encodedMultiBounds;
+    }
 }
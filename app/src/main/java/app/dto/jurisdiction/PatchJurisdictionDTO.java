@@ -41,6 +41,18 @@ public class PatchJurisdictionDTO {
     @Size(min = 4)
     private Double[][] bounds;
 
+    // polygons, each a shell followed by its holes; takes precedence over bounds
+    @JsonProperty("multi_bounds")
+    @Size(min = 1)
+    private Double[][][][] multiBounds;
+
+    // polyline6 encoded alternatives to bounds and multi_bounds
+    @JsonProperty("encoded_bounds")
+    private String encodedBounds;
+
+    @JsonProperty("encoded_multi_bounds")
+    private String[][] encodedMultiBounds;
+
     public PatchJurisdictionDTO() {
     }
 
@@ -83,4 +95,28 @@ public class PatchJurisdictionDTO {
     public void setBounds(Double[][] bounds) {
         this.bounds = bounds;
     }
+
+    public Double[][][][] getMultiBounds() {
+        return multiBounds;
+    }
+
+    public void setMultiBounds(Double[][][][] multiBounds) {
+        this.multiBounds = multiBounds;
+    }
+
+    public String getEncodedBounds() {
+        return encodedBounds;
+    }
+
+    public void setEncodedBounds(String encodedBounds) {
+        this.encodedBounds = encodedBounds;
+    }
+
+    public String[][] getEncodedMultiBounds() {
+        return encodedMultiBounds;
+    }
+
+    public void setEncodedMultiBounds(String[][] encodedMultiBounds) {
+        this.encodedMultiBounds = encodedMultiBounds;
+    }
 }
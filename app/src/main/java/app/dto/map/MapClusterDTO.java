@@ -0,0 +1,78 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.dto.map;
+
+import app.service.map.RequestCluster;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+
+@Introspected
+public class MapClusterDTO {
+
+    private int count;
+
+    // the centroid of the clustered requests
+    @JsonProperty("lat")
+    private double latitude;
+
+    @JsonProperty("long")
+    private double longitude;
+
+    // the service most of the clustered requests are for
+    @JsonProperty("service_code")
+    private Long serviceCode;
+
+    public MapClusterDTO() {
+    }
+
+    public MapClusterDTO(RequestCluster cluster) {
+        this.count = cluster.getCount();
+        this.latitude = cluster.getLat();
+        this.longitude = cluster.getLng();
+        this.serviceCode = cluster.getDominantServiceId();
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+
+    public Long getServiceCode() {
+        return serviceCode;
+    }
+
+    public void setServiceCode(Long serviceCode) {
+        this.serviceCode = serviceCode;
+    }
+}
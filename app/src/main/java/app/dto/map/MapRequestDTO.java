@@ -0,0 +1,104 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.dto.map;
+
+import app.model.servicerequest.ServiceRequestPriority;
+import app.model.servicerequest.ServiceRequestStatus;
+import app.service.map.ActiveRequest;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+
+/**
+ * A service request as the map shows it: only what is needed to place and style its marker.
+ */
+@Introspected
+public class MapRequestDTO {
+
+    @JsonProperty("service_request_id")
+    private Long id;
+
+    @JsonProperty("service_code")
+    private Long serviceCode;
+
+    private ServiceRequestStatus status;
+
+    private ServiceRequestPriority priority;
+
+    @JsonProperty("lat")
+    private double latitude;
+
+    @JsonProperty("long")
+    private double longitude;
+
+    public MapRequestDTO() {
+    }
+
+    public MapRequestDTO(ActiveRequest request) {
+        this.id = request.getId();
+        this.serviceCode = request.getServiceId();
+        this.status = request.getStatus();
+        this.priority = request.getPriority();
+        this.latitude = request.getLat();
+        this.longitude = request.getLng();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getServiceCode() {
+        return serviceCode;
+    }
+
+    public void setServiceCode(Long serviceCode) {
+        this.serviceCode = serviceCode;
+    }
+
+    public ServiceRequestStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ServiceRequestStatus status) {
+        this.status = status;
+    }
+
+    public ServiceRequestPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(ServiceRequestPriority priority) {
+        this.priority = priority;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+}
@@ -0,0 +1,57 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.dto.route;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+
+import java.util.List;
+
+/**
+ * A round trip from a depot visiting service requests in order.
+ */
+@Introspected
+public class RouteDTO {
+
+    // including the drive back to the depot
+    @JsonProperty("distance_meters")
+    private double distanceMeters;
+
+    private List<RouteStopDTO> stops;
+
+    public RouteDTO() {
+    }
+
+    public RouteDTO(double distanceMeters, List<RouteStopDTO> stops) {
+        this.distanceMeters = distanceMeters;
+        this.stops = stops;
+    }
+
+    public double getDistanceMeters() {
+        return distanceMeters;
+    }
+
+    public void setDistanceMeters(double distanceMeters) {
+        this.distanceMeters = distanceMeters;
+    }
+
+    public List<RouteStopDTO> getStops() {
+        return stops;
+    }
+
+    public void setStops(List<RouteStopDTO> stops) {
+        this.stops = stops;
+    }
+}
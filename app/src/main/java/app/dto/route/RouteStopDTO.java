@@ -0,0 +1,101 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.dto.route;
+
+import app.model.servicerequest.ServiceRequest;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+
+@Introspected
+public class RouteStopDTO {
+
+    @JsonProperty("service_request_id")
+    private Long id;
+
+    @JsonProperty("service_code")
+    private Long serviceCode;
+
+    private String address;
+
+    @JsonProperty("lat")
+    private double latitude;
+
+    @JsonProperty("long")
+    private double longitude;
+
+    // from the previous stop, or the depot for the first one
+    @JsonProperty("distance_meters")
+    private double distanceMeters;
+
+    public RouteStopDTO() {
+    }
+
+    public RouteStopDTO(ServiceRequest serviceRequest, double distanceMeters) {
+        this.id = serviceRequest.getId();
+        this.serviceCode = serviceRequest.getService().getId();
+        this.address = serviceRequest.getAddressString();
+        this.latitude = serviceRequest.getLocation().getY();
+        this.longitude = serviceRequest.getLocation().getX();
+        this.distanceMeters = distanceMeters;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getServiceCode() {
+        return serviceCode;
+    }
+
+    public void setServiceCode(Long serviceCode) {
+        this.serviceCode = serviceCode;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+
+    public double getDistanceMeters() {
+        return distanceMeters;
+    }
+
+    public void setDistanceMeters(double distanceMeters) {
+        this.distanceMeters = distanceMeters;
+    }
+}
@@ -59,6 +59,17 @@ public class ServiceDTO {
         }
     }
 
+    public ServiceDTO(ServiceDTO serviceDTO) {
+        this.id = serviceDTO.id;
+        this.jurisdictionId = serviceDTO.jurisdictionId;
+        this.serviceName = serviceDTO.serviceName;
+        this.description = serviceDTO.description;
+        this.metadata = serviceDTO.metadata;
+        this.type = serviceDTO.type;
+        this.orderPosition = serviceDTO.orderPosition;
+        this.groupId = serviceDTO.groupId;
+    }
+
     public Long getId() {
         return id;
     }
@@ -14,6 +14,8 @@
 
 package app.dto.servicedefinition;
 
+import app.model.servicedefinition.AttributeValue;
+import app.model.servicedefinition.ServiceDefinitionAttribute;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -22,7 +24,10 @@ import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
 import io.micronaut.core.annotation.Introspected;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Introspected
 @JacksonXmlRootElement(localName = "service_definitions")
@@ -43,6 +48,35 @@ public class ServiceDefinitionDTO {
         this.serviceCode = serviceCode;
     }
 
+    /**
+     * @param attributes the service's attributes in rank order, which gives each its order
+     */
+    public ServiceDefinitionDTO(Long serviceCode, List<ServiceDefinitionAttribute> attributes) {
+        this.serviceCode = serviceCode;
+        this.attributes = new ArrayList<>(attributes.size());
+        for (ServiceDefinitionAttribute serviceDefinitionAttributeEntity : attributes) {
+            ServiceDefinitionAttributeDTO serviceDefinitionAttributeDTO = new ServiceDefinitionAttributeDTO(
+                    serviceDefinitionAttributeEntity.getId(),
+                    serviceDefinitionAttributeEntity.isVariable(),
+                    serviceDefinitionAttributeEntity.getDatatype(),
+                    serviceDefinitionAttributeEntity.isRequired(),
+                    serviceDefinitionAttributeEntity.getDescription(),
+                    this.attributes.size(),
+                    serviceDefinitionAttributeEntity.getDatatypeDescription());
+
+            Set<AttributeValue> attributeValues = serviceDefinitionAttributeEntity.getAttributeValues();
+            if (attributeValues != null) {
+                serviceDefinitionAttributeDTO.setValues(attributeValues.stream()
+                        .map(attributeValueEntity -> new AttributeValueDTO(
+                                attributeValueEntity.getId().toString(),
+                                attributeValueEntity.getValueName()))
+                        .collect(Collectors.toList()));
+            }
+
+            this.attributes.add(serviceDefinitionAttributeDTO);
+        }
+    }
+
     public List<ServiceDefinitionAttributeDTO> getAttributes() {
         return attributes;
     }
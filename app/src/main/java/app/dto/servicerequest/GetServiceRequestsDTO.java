@@ -52,6 +52,10 @@ public class GetServiceRequestsDTO {
     @QueryValue(value = "priority")
     private List<ServiceRequestPriority> priorities;
 
+    @Nullable
+    @QueryValue(value = "district_id")
+    private List<Long> districtIds;
+
     @Valid
     private Pageable pageable;
 
@@ -118,4 +122,13 @@ public class GetServiceRequestsDTO {
     public void setPriorities(@Nullable List<ServiceRequestPriority> priorities) {
         this.priorities = priorities;
     }
+
+    @Nullable
+    public List<Long> getDistrictIds() {
+        return districtIds;
+    }
+
+    public void setDistrictIds(@Nullable List<Long> districtIds) {
+        this.districtIds = districtIds;
+    }
 }
@@ -89,6 +89,12 @@ public class ServiceRequestDTO implements ServiceRequestResponseDTO {
     @JsonProperty("selected_values")
     private List<ServiceDefinitionAttributeDTO> selectedValues;
 
+    @JsonProperty("duplicate_of")
+    private Long duplicateOf;
+
+    @JsonProperty("district_id")
+    private Long districtId;
+
     public ServiceRequestDTO() {
     }
 
@@ -110,6 +116,8 @@ public class ServiceRequestDTO implements ServiceRequestResponseDTO {
         this.longitude = serviceRequest.getLongitude();
         this.mediaUrl = serviceRequest.getMediaUrl();
         this.closedDate = serviceRequest.getClosedDate();
+        this.duplicateOf = serviceRequest.getDuplicateOfId();
+        this.districtId = serviceRequest.getDistrictId();
         if (serviceRequest.getJurisdiction() != null) {
             this.jurisdictionId = serviceRequest.getJurisdiction().getId();
         }
@@ -273,4 +281,20 @@ public class ServiceRequestDTO implements ServiceRequestResponseDTO {
     public void setSelectedValues(List<ServiceDefinitionAttributeDTO> selectedValues) {
         this.selectedValues = selectedValues;
     }
+
+    public Long getDuplicateOf() {
+        return duplicateOf;
+    }
+
+    public void setDuplicateOf(Long duplicateOf) {
+        this.duplicateOf = duplicateOf;
+    }
+
+    public Long getDistrictId() {
+        return districtId;
+    }
+
+    public void setDistrictId(Long districtId) {
+        this.districtId = districtId;
+    }
 }
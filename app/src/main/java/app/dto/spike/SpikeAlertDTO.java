@@ -0,0 +1,131 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.dto.spike;
+
+import app.service.spike.SpikeAlert;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+
+import java.time.Instant;
+
+@Introspected
+public class SpikeAlertDTO {
+
+    @JsonProperty("service_code")
+    private Long serviceCode;
+
+    @JsonProperty("lat")
+    private double latitude;
+
+    @JsonProperty("long")
+    private double longitude;
+
+    @JsonProperty("cell_meters")
+    private double cellMeters;
+
+    @JsonProperty("request_count")
+    private int requestCount;
+
+    // the cell's usual number of requests in a window of the same length
+    @JsonProperty("expected_count")
+    private double expectedCount;
+
+    @JsonProperty("window_start")
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Instant windowStart;
+
+    @JsonProperty("window_end")
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Instant windowEnd;
+
+    public SpikeAlertDTO() {
+    }
+
+    public SpikeAlertDTO(SpikeAlert alert) {
+        this.serviceCode = alert.getServiceId();
+        this.latitude = alert.getLatitude();
+        this.longitude = alert.getLongitude();
+        this.cellMeters = alert.getCellMeters();
+        this.requestCount = alert.getCount();
+        this.expectedCount = alert.getExpected();
+        this.windowStart = alert.getWindowStart();
+        this.windowEnd = alert.getWindowEnd();
+    }
+
+    public Long getServiceCode() {
+        return serviceCode;
+    }
+
+    public void setServiceCode(Long serviceCode) {
+        this.serviceCode = serviceCode;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+
+    public double getCellMeters() {
+        return cellMeters;
+    }
+
+    public void setCellMeters(double cellMeters) {
+        this.cellMeters = cellMeters;
+    }
+
+    public int getRequestCount() {
+        return requestCount;
+    }
+
+    public void setRequestCount(int requestCount) {
+        this.requestCount = requestCount;
+    }
+
+    public double getExpectedCount() {
+        return expectedCount;
+    }
+
+    public void setExpectedCount(double expectedCount) {
+        this.expectedCount = expectedCount;
+    }
+
+    public Instant getWindowStart() {
+        return windowStart;
+    }
+
+    public void setWindowStart(Instant windowStart) {
+        this.windowStart = windowStart;
+    }
+
+    public Instant getWindowEnd() {
+        return windowEnd;
+    }
+
+    public void setWindowEnd(Instant windowEnd) {
+        this.windowEnd = windowEnd;
+    }
+}
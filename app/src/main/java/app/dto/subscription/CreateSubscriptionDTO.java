@@ -0,0 +1,127 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.dto.subscription;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+
+import javax.validation.constraints.Email;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Introspected
+public class CreateSubscriptionDTO {
+
+    @NotBlank
+    @Email(regexp = "^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$")
+    private String email;
+
+    // a single polygon with no holes, each coordinate [lat, lng]
+    @Size(min = 4)
+    private Double[][] bounds;
+
+    // polygons, each a shell followed by its holes
+    @JsonProperty("multi_bounds")
+    @Size(min = 1)
+    private Double[][][][] multiBounds;
+
+    // the center of a circular area, used when neither bounds nor multi_bounds is given
+    @JsonProperty("lat")
+    private Double latitude;
+
+    @JsonProperty("long")
+    private Double longitude;
+
+    @JsonProperty("radius_meters")
+    @Positive
+    private Double radiusMeters;
+
+    // the services to be notified of; all of them when empty
+    @JsonProperty("service_codes")
+    private List<Long> serviceCodes;
+
+    // only checked when a resident subscribes
+    @JsonProperty("g_recaptcha_response")
+    private String gRecaptchaResponse;
+
+    public CreateSubscriptionDTO() {
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public Double[][] getBounds() {
+        return bounds;
+    }
+
+    public void setBounds(Double[][] bounds) {
+        this.bounds = bounds;
+    }
+
+    public Double[][][][] getMultiBounds() {
+        return multiBounds;
+    }
+
+    public void setMultiBounds(Double[][][][] multiBounds) {
+        this.multiBounds = multiBounds;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public Double getRadiusMeters() {
+        return radiusMeters;
+    }
+
+    public void setRadiusMeters(Double radiusMeters) {
+        this.radiusMeters = radiusMeters;
+    }
+
+    public List<Long> getServiceCodes() {
+        return serviceCodes;
+    }
+
+    public void setServiceCodes(List<Long> serviceCodes) {
+        this.serviceCodes = serviceCodes;
+    }
+
+    public String getgRecaptchaResponse() {
+        return gRecaptchaResponse;
+    }
+
+    public void setgRecaptchaResponse(String gRecaptchaResponse) {
+        this.gRecaptchaResponse = gRecaptchaResponse;
+    }
+}
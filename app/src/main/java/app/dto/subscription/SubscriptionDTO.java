@@ -0,0 +1,131 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.dto.subscription;
+
+import app.model.subscription.Subscription;
+import app.service.geometry.LibreGeometryFactory;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Introspected
+public class SubscriptionDTO {
+
+    private Long id;
+
+    private String email;
+
+    @JsonProperty("multi_bounds")
+    private Double[][][][] multiBounds;
+
+    @JsonProperty("lat")
+    private Double latitude;
+
+    @JsonProperty("long")
+    private Double longitude;
+
+    @JsonProperty("radius_meters")
+    private Double radiusMeters;
+
+    @JsonProperty("service_codes")
+    private List<Long> serviceCodes;
+
+    // false until a resident's subscription is confirmed through the email sent to them
+    private boolean confirmed;
+
+    public SubscriptionDTO() {
+    }
+
+    public SubscriptionDTO(Subscription subscription) {
+        this.id = subscription.getId();
+        this.email = subscription.getEmail();
+        if (subscription.getBoundary() != null) {
+            this.multiBounds = LibreGeometryFactory.getMultiCoordinatesFrom(subscription.getBoundary());
+        }
+        if (subscription.getCenter() != null) {
+            this.latitude = subscription.getCenter().getY();
+            this.longitude = subscription.getCenter().getX();
+            this.radiusMeters = subscription.getRadiusMeters();
+        }
+        this.serviceCodes = subscription.getServiceIds().stream().sorted().collect(Collectors.toList());
+        this.confirmed = subscription.isConfirmed();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public Double[][][][] getMultiBounds() {
+        return multiBounds;
+    }
+
+    public void setMultiBounds(Double[][][][] multiBounds) {
+        this.multiBounds = multiBounds;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public Double getRadiusMeters() {
+        return radiusMeters;
+    }
+
+    public void setRadiusMeters(Double radiusMeters) {
+        this.radiusMeters = radiusMeters;
+    }
+
+    public List<Long> getServiceCodes() {
+        return serviceCodes;
+    }
+
+    public void setServiceCodes(List<Long> serviceCodes) {
+        this.serviceCodes = serviceCodes;
+    }
+
+    public boolean isConfirmed() {
+        return confirmed;
+    }
+
+    public void setConfirmed(boolean confirmed) {
+        this.confirmed = confirmed;
+    }
+}
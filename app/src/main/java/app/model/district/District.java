@@ -0,0 +1,84 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package app.model.district;
+
+import app.model.jurisdiction.Jurisdiction;
+import org.locationtech.jts.geom.MultiPolygon;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+
+/**
+ * A named area of a jurisdiction, such as a ward, that service requests are tagged with.
+ */
+@Entity
+@Table(name = "districts")
+public class District {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotEmpty
+    private String name;
+
+    @NotNull
+    private MultiPolygon boundary;
+
+    @ManyToOne
+    @JoinColumn(name = "jurisdiction_id")
+    private Jurisdiction jurisdiction;
+
+    public District() {
+    }
+
+    public District(String name, MultiPolygon boundary, Jurisdiction jurisdiction) {
+        this.name = name;
+        this.boundary = boundary;
+        this.jurisdiction = jurisdiction;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public MultiPolygon getBoundary() {
+        return boundary;
+    }
+
+    public void setBoundary(MultiPolygon boundary) {
+        this.boundary = boundary;
+    }
+
+    public Jurisdiction getJurisdiction() {
+        return jurisdiction;
+    }
+
+    public void setJurisdiction(Jurisdiction jurisdiction) {
+        this.jurisdiction = jurisdiction;
+    }
+}
@@ -0,0 +1,46 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package app.model.district;
+
+import app.model.servicerequest.ServiceRequestStatus;
+import io.micronaut.core.annotation.Introspected;
+
+/**
+ * The number of a jurisdiction's service requests in one district and status.
+ */
+@Introspected
+public class DistrictStatusCount {
+
+    private final Long districtId;
+    private final ServiceRequestStatus status;
+    private final long requestCount;
+
+    public DistrictStatusCount(Long districtId, ServiceRequestStatus status, long requestCount) {
+        this.districtId = districtId;
+        this.status = status;
+        this.requestCount = requestCount;
+    }
+
+    public Long getDistrictId() {
+        return districtId;
+    }
+
+    public ServiceRequestStatus getStatus() {
+        return status;
+    }
+
+    public long getRequestCount() {
+        return requestCount;
+    }
+}
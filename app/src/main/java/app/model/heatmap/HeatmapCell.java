@@ -0,0 +1,122 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.model.heatmap;
+
+import app.model.servicerequest.ServiceRequestStatus;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * The number of a jurisdiction's service requests of one service and status, created in one week,
+ * that are located in one grid cell. Cells are web mercator tiles at a fixed zoom level.
+ */
+@Entity
+@Table(name = "heatmap_cells")
+public class HeatmapCell {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "jurisdiction_id")
+    private String jurisdictionId;
+
+    @Column(name = "service_id")
+    private Long serviceId;
+
+    @Enumerated(EnumType.STRING)
+    private ServiceRequestStatus status;
+
+    // the Monday, in UTC, of the week the requests were created in
+    @Column(name = "week_start")
+    private LocalDate weekStart;
+
+    @Column(name = "cell_x")
+    private int cellX;
+
+    @Column(name = "cell_y")
+    private int cellY;
+
+    @Column(name = "request_count")
+    private int requestCount;
+
+    public HeatmapCell() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getJurisdictionId() {
+        return jurisdictionId;
+    }
+
+    public void setJurisdictionId(String jurisdictionId) {
+        this.jurisdictionId = jurisdictionId;
+    }
+
+    public Long getServiceId() {
+        return serviceId;
+    }
+
+    public void setServiceId(Long serviceId) {
+        this.serviceId = serviceId;
+    }
+
+    public ServiceRequestStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ServiceRequestStatus status) {
+        this.status = status;
+    }
+
+    public LocalDate getWeekStart() {
+        return weekStart;
+    }
+
+    public void setWeekStart(LocalDate weekStart) {
+        this.weekStart = weekStart;
+    }
+
+    public int getCellX() {
+        return cellX;
+    }
+
+    public void setCellX(int cellX) {
+        this.cellX = cellX;
+    }
+
+    public int getCellY() {
+        return cellY;
+    }
+
+    public void setCellY(int cellY) {
+        this.cellY = cellY;
+    }
+
+    public int getRequestCount() {
+        return requestCount;
+    }
+
+    public void setRequestCount(int requestCount) {
+        this.requestCount = requestCount;
+    }
+}
@@ -0,0 +1,37 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.model.heatmap;
+
+import io.micronaut.data.annotation.Query;
+import io.micronaut.data.annotation.Repository;
+import io.micronaut.data.repository.CrudRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface HeatmapCellRepository extends CrudRepository<HeatmapCell, Long> {
+
+    List<HeatmapCell> findByJurisdictionIdAndWeekStartBetween(String jurisdictionId, LocalDate from, LocalDate to);
+
+    boolean existsByJurisdictionId(String jurisdictionId);
+
+    // adds to the cell's count, creating the cell if it doesn't exist yet
+    @Query(value = "INSERT INTO heatmap_cells (jurisdiction_id, service_id, status, week_start, cell_x, cell_y, request_count) " +
+        "VALUES (:jurisdictionId, :serviceId, :status, :weekStart, :cellX, :cellY, :delta) " +
+        "ON DUPLICATE KEY UPDATE request_count = request_count + :delta", nativeQuery = true)
+    void addToCount(String jurisdictionId, Long serviceId, String status, LocalDate weekStart,
+                    int cellX, int cellY, int delta);
+}
@@ -0,0 +1,42 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.model.jurisdiction;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * The resolutions a jurisdiction boundary is stored at. Everything but {@link #FULL} is a
+ * topology preserving simplification of the full boundary, meant for display only.
+ */
+public enum BoundaryDetail {
+    FULL(0), HIGH(0.0001), MEDIUM(0.001), LOW(0.01);
+
+    // the simplification distance tolerance, in degrees
+    private final double tolerance;
+
+    BoundaryDetail(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    @Override
+    @JsonValue
+    public String toString() {
+        return name().toLowerCase();
+    }
+}
@@ -1,11 +1,11 @@
 package app.model.jurisdiction;
 
-import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.MultiPolygon;
 
 public interface JurisdictionBoundary {
     Long getId();
 
-    Polygon getBoundary();
+    MultiPolygon getBoundary();
 
     String getJurisdictionId();
 }
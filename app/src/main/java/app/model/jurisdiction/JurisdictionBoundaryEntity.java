@@ -6,7 +6,7 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
-import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.MultiPolygon;
 
 @Entity
 @Table(name = "jurisdiction_boundary")
@@ -16,7 +16,14 @@ public class JurisdictionBoundaryEntity implements JurisdictionBoundary {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    private Polygon boundary;
+    private MultiPolygon boundary;
+
+    // simplified copies of the boundary for display
+    private MultiPolygon boundaryHigh;
+
+    private MultiPolygon boundaryMedium;
+
+    private MultiPolygon boundaryLow;
 
     String jurisdictionId;
 
@@ -30,14 +37,70 @@ public class JurisdictionBoundaryEntity implements JurisdictionBoundary {
     }
 
     @Override
-    public Polygon getBoundary() {
+    public MultiPolygon getBoundary() {
         return boundary;
     }
 
-    public void setBoundary(Polygon boundary) {
+    public void setBoundary(MultiPolygon boundary) {
         this.boundary = boundary;
     }
 
+    public MultiPolygon getBoundaryHigh() {
+        return boundaryHigh;
+    }
+
+    public void setBoundaryHigh(MultiPolygon boundaryHigh) {
+        this.boundaryHigh = boundaryHigh;
+    }
+
+    public MultiPolygon getBoundaryMedium() {
+        return boundaryMedium;
+    }
+
+    public void setBoundaryMedium(MultiPolygon boundaryMedium) {
+        this.boundaryMedium = boundaryMedium;
+    }
+
+    public MultiPolygon getBoundaryLow() {
+        return boundaryLow;
+    }
+
+    public void setBoundaryLow(MultiPolygon boundaryLow) {
+        this.boundaryLow = boundaryLow;
+    }
+
+    /**
+     * @return the boundary at the given detail, or null if that variant hasn't been computed yet
+     */
+    public MultiPolygon getBoundary(BoundaryDetail detail) {
+        switch (detail) {
+            case HIGH:
+                return boundaryHigh;
+            case MEDIUM:
+                return boundaryMedium;
+            case LOW:
+                return boundaryLow;
+            default:
+                return boundary;
+        }
+    }
+
+    public void setBoundary(BoundaryDetail detail, MultiPolygon boundary) {
+        switch (detail) {
+            case HIGH:
+                this.boundaryHigh = boundary;
+                break;
+            case MEDIUM:
+                this.boundaryMedium = boundary;
+                break;
+            case LOW:
+                this.boundaryLow = boundary;
+                break;
+            default:
+                this.boundary = boundary;
+        }
+    }
+
     @Override
     @NonNull
     public String getJurisdictionId() {
@@ -48,7 +111,7 @@ public class JurisdictionBoundaryEntity implements JurisdictionBoundary {
         this.jurisdictionId = jurisdictionId;
     }
 
-    public static JurisdictionBoundaryEntity from(String jurisdictionId, Polygon boundary) {
+    public static JurisdictionBoundaryEntity from(String jurisdictionId, MultiPolygon boundary) {
         JurisdictionBoundaryEntity jb = new JurisdictionBoundaryEntity();
         jb.setJurisdictionId(jurisdictionId);
         jb.setBoundary(boundary);
@@ -2,10 +2,13 @@ package app.model.jurisdiction;
 
 import io.micronaut.data.annotation.Repository;
 import io.micronaut.data.repository.CrudRepository;
+import java.util.List;
 
 @Repository
 public interface JurisdictionBoundaryRepository extends
     CrudRepository<JurisdictionBoundaryEntity, Long> {
 
     JurisdictionBoundaryEntity findByJurisdictionId(String jurisdictionId);
+
+    List<JurisdictionBoundaryEntity> findAllByBoundaryLowIsNull();
 }
@@ -0,0 +1,85 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.model.service;
+
+import io.micronaut.core.annotation.Nullable;
+
+/**
+ * Rank keys that order services and definition attributes by plain string comparison. A key is a
+ * base-36 fraction of uppercase digits, so a key can always be made between two others and moving
+ * an item only rewrites its own key. Keys never end in 0, which would leave no room before them.
+ */
+public final class OrderRank {
+
+    private static final String DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final int BASE = DIGITS.length();
+    // wide enough for any int once offset to be non-negative
+    private static final int POSITION_WIDTH = 7;
+    private static final char POSITION_SUFFIX = 'I';
+
+    private OrderRank() {
+    }
+
+    /**
+     * @return the key of an item placed by an int position, which orders as the position does; the
+     * V16 migration computes the same keys in SQL
+     */
+    public static String ofPosition(int position) {
+        String digits = Long.toString((long) position - Integer.MIN_VALUE, BASE).toUpperCase();
+        return "0".repeat(POSITION_WIDTH - digits.length()) + digits + POSITION_SUFFIX;
+    }
+
+    /**
+     * @param before the key to come after, or null for the start
+     * @param after the key to come before, or null for the end; greater than before
+     * @return a short key between the two
+     */
+    public static String between(@Nullable String before, @Nullable String after) {
+        String lower = before == null ? "" : before;
+        if (after != null && lower.compareTo(after) >= 0) {
+            throw new IllegalArgumentException(String.format("%s is not before %s", before, after));
+        }
+        return midpoint(lower, after);
+    }
+
+    private static String midpoint(String lower, @Nullable String upper) {
+        if (upper != null) {
+            // keep the digits the two have in common, reading missing digits of the lower key as 0
+            int common = 0;
+            while (common < upper.length() && digitAt(lower, common) == DIGITS.indexOf(upper.charAt(common))) {
+                common++;
+            }
+            if (common > 0) {
+                return upper.substring(0, common)
+                    + midpoint(lower.substring(Math.min(common, lower.length())), upper.substring(common));
+            }
+        }
+
+        int lowerDigit = digitAt(lower, 0);
+        int upperDigit = upper == null ? BASE : DIGITS.indexOf(upper.charAt(0));
+        if (upperDigit - lowerDigit > 1) {
+            return String.valueOf(DIGITS.charAt((lowerDigit + upperDigit) / 2));
+        }
+        // adjacent digits, so the upper key's first digit alone will do if it is followed by more
+        if (upper != null && upper.length() > 1) {
+            return upper.substring(0, 1);
+        }
+        return DIGITS.charAt(lowerDigit) + midpoint(lower.isEmpty() ? "" : lower.substring(1), null);
+    }
+
+    private static int digitAt(String key, int index) {
+        return index < key.length() ? DIGITS.indexOf(key.charAt(index)) : 0;
+    }
+}
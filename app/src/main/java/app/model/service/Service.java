@@ -48,8 +48,13 @@ public class Service {
     @Enumerated(value = EnumType.STRING)
     private ServiceType type = ServiceType.REALTIME;
 
+    // the position last asked for; the position exposed is the service's index in rank order
     private int orderPosition = -1;
 
+    // Orders the services of a group; see OrderRank.
+    @Column(name = "order_rank", nullable = false)
+    private String orderRank = OrderRank.ofPosition(-1);
+
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true, mappedBy = "service")
     @OnDelete(action = OnDeleteAction.CASCADE)
     private List<ServiceRequest> serviceRequests = new ArrayList<>();
@@ -146,7 +151,19 @@ public class Service {
         return orderPosition;
     }
 
+    /**
+     * Also places the service by the position among the others of its group.
+     */
     public void setOrderPosition(int orderPosition) {
         this.orderPosition = orderPosition;
+        this.orderRank = OrderRank.ofPosition(orderPosition);
+    }
+
+    public String getOrderRank() {
+        return orderRank;
+    }
+
+    public void setOrderRank(String orderRank) {
+        this.orderRank = orderRank;
     }
 }
@@ -16,19 +16,37 @@ package app.model.service;
 
 import app.model.jurisdiction.Jurisdiction;
 import app.model.service.group.ServiceGroup;
-import io.micronaut.data.annotation.Id;
+import io.micronaut.data.annotation.Query;
 import io.micronaut.data.annotation.Repository;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
 import io.micronaut.data.repository.PageableRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ServiceRepository extends PageableRepository<Service, Long> {
-    List<Service> findAllByJurisdictionIdOrderByOrderPosition(String jurisdictionId);
-    List<Service> findAllByServiceGroupIdOrderByOrderPositionAsc(Long groupId);
-    void updateOrderPositionByIdAndServiceGroupId(@Id Long id, @Id Long groupId, Integer orderPosition);
+    // services placed at the same position keep the order they were created in
+    Sort RANK_ORDER = Sort.of(Sort.Order.asc("orderRank"), Sort.Order.asc("id"));
+
+    List<Service> findAllByJurisdictionId(String jurisdictionId, Sort sort);
+    List<Service> findAllByServiceGroupId(Long groupId, Sort sort);
+
+    @Query("UPDATE Service s SET s.orderRank = :orderRank WHERE s.id = :id AND s.serviceGroup.id = :groupId")
+    void updateOrder(Long id, Long groupId, String orderRank);
+
+    // the number of services before the given one in its group, in RANK_ORDER
+    @Query("SELECT COUNT(s) FROM Service s WHERE s.serviceGroup.id = :groupId " +
+        "AND (s.orderRank < :orderRank OR (s.orderRank = :orderRank AND s.id < :id))")
+    long countPreceding(Long groupId, String orderRank, Long id);
+
+    // the groups with a service whose rank has grown longer than maxLength
+    @Query("SELECT DISTINCT s.serviceGroup.id FROM Service s WHERE LENGTH(s.orderRank) > :maxLength")
+    List<Long> findGroupIdsWithOrderRanksLongerThan(int maxLength);
+
     Long countByServiceGroup(ServiceGroup serviceGroup);
+    long countByIdInAndJurisdictionId(Collection<Long> ids, String jurisdictionId);
 }
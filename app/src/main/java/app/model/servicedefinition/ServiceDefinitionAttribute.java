@@ -15,6 +15,7 @@
 package app.model.servicedefinition;
 
 import app.model.service.AttributeDataType;
+import app.model.service.OrderRank;
 import app.model.service.Service;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
@@ -46,8 +47,13 @@ public class ServiceDefinitionAttribute {
 
     private String description;
 
+    // the position last asked for; the order exposed is the attribute's index in rank order
     private int attributeOrder;
 
+    // Orders the attributes of a service; see OrderRank.
+    @Column(name = "attribute_rank", nullable = false)
+    private String attributeRank = OrderRank.ofPosition(0);
+
     private String datatypeDescription;
 
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER, mappedBy = "serviceDefinitionAttribute")
@@ -109,8 +115,20 @@ public class ServiceDefinitionAttribute {
         return attributeOrder;
     }
 
+    /**
+     * Also places the attribute by the position among the others of its service.
+     */
     public void setAttributeOrder(int attributeOrder) {
         this.attributeOrder = attributeOrder;
+        this.attributeRank = OrderRank.ofPosition(attributeOrder);
+    }
+
+    public String getAttributeRank() {
+        return attributeRank;
+    }
+
+    public void setAttributeRank(String attributeRank) {
+        this.attributeRank = attributeRank;
     }
 
     public String getDatatypeDescription() {
@@ -14,15 +14,35 @@
 
 package app.model.servicedefinition;
 
-import io.micronaut.data.annotation.Id;
+import io.micronaut.data.annotation.Join;
+import io.micronaut.data.annotation.Query;
 import io.micronaut.data.annotation.Repository;
+import io.micronaut.data.model.Sort;
 import io.micronaut.data.repository.PageableRepository;
 import java.util.List;
 
 @Repository
 public interface ServiceDefinitionAttributeRepository extends PageableRepository<ServiceDefinitionAttribute, Long> {
+    // attributes placed at the same position keep the order they were added in
+    Sort RANK_ORDER = Sort.of(Sort.Order.asc("attributeRank"), Sort.Order.asc("id"));
+
     boolean existsByServiceId(long serviceId);
     List<ServiceDefinitionAttribute> findAllByServiceId(long serviceId);
-    List<ServiceDefinitionAttribute> findAllByServiceIdOrderByAttributeOrderAsc(long serviceId);
-    void updateAttributeOrderByIdAndServiceId(@Id Long id, @Id Long serviceId, Integer attributeOrder);
+    List<ServiceDefinitionAttribute> findAllByServiceId(long serviceId, Sort sort);
+
+    // the attributes of all of a jurisdiction's services with their values, in one query
+    @Join(value = "attributeValues", type = Join.Type.LEFT_FETCH)
+    List<ServiceDefinitionAttribute> findAllByServiceJurisdictionId(String jurisdictionId, Sort sort);
+
+    @Query("UPDATE ServiceDefinitionAttribute sda SET sda.attributeRank = :attributeRank " +
+        "WHERE sda.id = :id AND sda.service.id = :serviceId")
+    void updateOrder(Long id, Long serviceId, String attributeRank);
+
+    // the services with any attributes
+    @Query("SELECT DISTINCT sda.service.id FROM ServiceDefinitionAttribute sda")
+    List<Long> findServiceIds();
+
+    // the services with an attribute whose rank has grown longer than maxLength
+    @Query("SELECT DISTINCT sda.service.id FROM ServiceDefinitionAttribute sda WHERE LENGTH(sda.attributeRank) > :maxLength")
+    List<Long> findServiceIdsWithAttributeRanksLongerThan(int maxLength);
 }
@@ -0,0 +1,94 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.model.servicedefinition;
+
+import io.micronaut.data.annotation.DateCreated;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * A service's definition as it was at some point, kept unchanged for as long as the service so the
+ * answers of requests submitted against it can still be read after the definition is edited.
+ */
+@Entity
+@Table(name = "service_definition_versions")
+public class ServiceDefinitionVersion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "service_id")
+    private Long serviceId;
+
+    // the SHA-256 of the definition's JSON, so an unchanged definition is not stored again
+    private String digest;
+
+    @Column(name = "definition_json", columnDefinition = "MEDIUMTEXT")
+    private String definitionJson;
+
+    @DateCreated
+    private Instant dateCreated;
+
+    public ServiceDefinitionVersion() {
+    }
+
+    public ServiceDefinitionVersion(Long serviceId, String digest, String definitionJson) {
+        this.serviceId = serviceId;
+        this.digest = digest;
+        this.definitionJson = definitionJson;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getServiceId() {
+        return serviceId;
+    }
+
+    public void setServiceId(Long serviceId) {
+        this.serviceId = serviceId;
+    }
+
+    public String getDigest() {
+        return digest;
+    }
+
+    public void setDigest(String digest) {
+        this.digest = digest;
+    }
+
+    public String getDefinitionJson() {
+        return definitionJson;
+    }
+
+    public void setDefinitionJson(String definitionJson) {
+        this.definitionJson = definitionJson;
+    }
+
+    public Instant getDateCreated() {
+        return dateCreated;
+    }
+
+    public void setDateCreated(Instant dateCreated) {
+        this.dateCreated = dateCreated;
+    }
+}
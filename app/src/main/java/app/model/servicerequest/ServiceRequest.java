@@ -44,10 +44,22 @@ public class ServiceRequest {
     @JoinColumn(name = "jurisdiction_id")
     private Jurisdiction jurisdiction;
 
+    // A full copy of the answered attributes, kept by requests submitted before definitions were
+    // versioned; later requests have their definition version and answers instead.
     @Nullable
     @Column(columnDefinition = "TEXT")
     private String attributesJson;
 
+    // The version of the service's definition the request was submitted against, if it had one.
+    @Nullable
+    @Column(name = "service_definition_version_id")
+    private Long serviceDefinitionVersionId;
+
+    // The submitted value of each answered attribute by its code, as a JSON object.
+    @Nullable
+    @Column(name = "attribute_answers", columnDefinition = "TEXT")
+    private String attributeAnswers;
+
     @NotNull
     private Point location;
 
@@ -120,6 +132,16 @@ public class ServiceRequest {
     @Nullable
     private Instant closedDate;
 
+    // The earlier request this one was reported as a duplicate of, if any.
+    @Nullable
+    @Column(name = "duplicate_of_id")
+    private Long duplicateOfId;
+
+    // The district of the jurisdiction the request is located in, if any.
+    @Nullable
+    @Column(name = "district_id")
+    private Long districtId;
+
     @DateCreated
     private Instant dateCreated;
 
@@ -317,6 +339,24 @@ public class ServiceRequest {
         this.attributesJson = attributesJson;
     }
 
+    @Nullable
+    public Long getServiceDefinitionVersionId() {
+        return serviceDefinitionVersionId;
+    }
+
+    public void setServiceDefinitionVersionId(@Nullable Long serviceDefinitionVersionId) {
+        this.serviceDefinitionVersionId = serviceDefinitionVersionId;
+    }
+
+    @Nullable
+    public String getAttributeAnswers() {
+        return attributeAnswers;
+    }
+
+    public void setAttributeAnswers(@Nullable String attributeAnswers) {
+        this.attributeAnswers = attributeAnswers;
+    }
+
     @Nullable
     public Instant getClosedDate() {
         return closedDate;
@@ -347,6 +387,24 @@ public class ServiceRequest {
         this.priority = priority;
     }
 
+    @Nullable
+    public Long getDuplicateOfId() {
+        return duplicateOfId;
+    }
+
+    public void setDuplicateOfId(@Nullable Long duplicateOfId) {
+        this.duplicateOfId = duplicateOfId;
+    }
+
+    @Nullable
+    public Long getDistrictId() {
+        return districtId;
+    }
+
+    public void setDistrictId(@Nullable Long districtId) {
+        this.districtId = districtId;
+    }
+
     public Point getLocation() {
         return location;
     }
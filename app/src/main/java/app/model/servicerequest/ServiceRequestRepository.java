@@ -14,7 +14,11 @@
 
 package app.model.servicerequest;
 
+import app.model.district.DistrictStatusCount;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.data.annotation.Query;
 import io.micronaut.data.annotation.Repository;
+import io.micronaut.data.jpa.repository.JpaSpecificationExecutor;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import io.micronaut.data.model.Sort;
@@ -25,7 +29,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ServiceRequestRepository extends PageableRepository<ServiceRequest, Long> {
+public interface ServiceRequestRepository extends PageableRepository<ServiceRequest, Long>, JpaSpecificationExecutor<ServiceRequest> {
 
     Page<ServiceRequest> findByIdInAndJurisdictionId(List<Long> serviceRequestIds, String jurisdictionId, Pageable pageable);
     List<ServiceRequest> findByIdInAndJurisdictionId(List<Long> serviceRequestIds, String jurisdictionId, Sort sort);
@@ -99,4 +103,31 @@ public interface ServiceRequestRepository extends PageableRepository<ServiceRequ
     List<ServiceRequest> findByJurisdictionIdAndPriorityInAndDateCreatedBefore(String jurisdictionId, List<ServiceRequestPriority> priority, Instant endDate, Sort sort);
     Page<ServiceRequest> findAllByJurisdictionIdAndPriorityIn(String jurisdictionId, List<ServiceRequestPriority> priority, Pageable pageable);
     List<ServiceRequest> findAllByJurisdictionIdAndPriorityIn(String jurisdictionId, List<ServiceRequestPriority> priority, Sort sort);
+
+    // keyset pages for scans over a jurisdiction's requests, optionally only those in the given statuses
+    List<ServiceRequest> findByJurisdictionIdAndIdGreaterThan(String jurisdictionId, Long id, Pageable pageable);
+    List<ServiceRequest> findByJurisdictionIdAndStatusInAndIdGreaterThan(String jurisdictionId, List<ServiceRequestStatus> status, Long id, Pageable pageable);
+    List<ServiceRequest> findByJurisdictionIdAndAddressStringIsNullAndIdGreaterThan(String jurisdictionId, Long id, Pageable pageable);
+    List<ServiceRequest> findByJurisdictionIdAndDateCreatedGreaterThanEqualsAndIdGreaterThan(String jurisdictionId, Instant start, Long id, Pageable pageable);
+
+    @Query("SELECT sr.districtId AS districtId, sr.status AS status, COUNT(sr) AS requestCount " +
+        "FROM ServiceRequest sr WHERE sr.jurisdiction.id = :jurisdictionId AND sr.districtId IS NOT NULL " +
+        "GROUP BY sr.districtId, sr.status")
+    List<DistrictStatusCount> countByDistrictAndStatus(String jurisdictionId);
+
+    @Query("UPDATE ServiceRequest sr SET sr.districtId = :districtId WHERE sr.id IN (:ids)")
+    void updateDistrictId(List<Long> ids, @Nullable Long districtId);
+
+    // only if the request still has the description and media the merge was made from
+    @Query("UPDATE ServiceRequest sr SET sr.description = :description, sr.mediaUrl = :mediaUrl " +
+        "WHERE sr.id = :id AND COALESCE(sr.description, '') = :previousDescription " +
+        "AND COALESCE(sr.mediaUrl, '') = :previousMediaUrl")
+    int updateMergedSubmission(Long id, @Nullable String description, @Nullable String mediaUrl,
+                               String previousDescription, String previousMediaUrl);
+
+    // only fills in what the request is missing, as it may have been given an address meanwhile
+    @Query("UPDATE ServiceRequest sr SET sr.addressString = :addressString, " +
+        "sr.addressId = COALESCE(sr.addressId, :addressId), sr.zipCode = COALESCE(sr.zipCode, :zipCode) " +
+        "WHERE sr.id = :id AND sr.addressString IS NULL")
+    void updateAddress(Long id, String addressString, @Nullable String addressId, @Nullable String zipCode);
 }
@@ -0,0 +1,149 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.model.subscription;
+
+import app.model.jurisdiction.Jurisdiction;
+import io.micronaut.core.annotation.Nullable;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+
+import javax.persistence.*;
+import javax.validation.constraints.Email;
+import javax.validation.constraints.NotEmpty;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A request to be notified of new service requests in an area of a jurisdiction, either a
+ * boundary or a circle around a center, optionally only for some services. Subscriptions made by
+ * residents only take effect once confirmed through their token, which also cancels them.
+ */
+@Entity
+@Table(name = "subscriptions")
+public class Subscription {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotEmpty
+    @Email(regexp = "^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$")
+    private String email;
+
+    @Nullable
+    private MultiPolygon boundary;
+
+    @Nullable
+    private Point center;
+
+    @Nullable
+    @Column(name = "radius_meters")
+    private Double radiusMeters;
+
+    // the services to be notified of; empty for all of them
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "subscription_services", joinColumns = @JoinColumn(name = "subscription_id"))
+    @Column(name = "service_id")
+    private Set<Long> serviceIds = new HashSet<>();
+
+    @ManyToOne
+    @JoinColumn(name = "jurisdiction_id")
+    private Jurisdiction jurisdiction;
+
+    private boolean confirmed = true;
+
+    // null for subscriptions made before tokens were issued
+    @Nullable
+    private String token;
+
+    public Subscription() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    @Nullable
+    public MultiPolygon getBoundary() {
+        return boundary;
+    }
+
+    public void setBoundary(@Nullable MultiPolygon boundary) {
+        this.boundary = boundary;
+    }
+
+    @Nullable
+    public Point getCenter() {
+        return center;
+    }
+
+    public void setCenter(@Nullable Point center) {
+        this.center = center;
+    }
+
+    @Nullable
+    public Double getRadiusMeters() {
+        return radiusMeters;
+    }
+
+    public void setRadiusMeters(@Nullable Double radiusMeters) {
+        this.radiusMeters = radiusMeters;
+    }
+
+    public Set<Long> getServiceIds() {
+        return serviceIds;
+    }
+
+    public void setServiceIds(Set<Long> serviceIds) {
+        this.serviceIds = serviceIds;
+    }
+
+    public Jurisdiction getJurisdiction() {
+        return jurisdiction;
+    }
+
+    public void setJurisdiction(Jurisdiction jurisdiction) {
+        this.jurisdiction = jurisdiction;
+    }
+
+    public boolean isConfirmed() {
+        return confirmed;
+    }
+
+    public void setConfirmed(boolean confirmed) {
+        this.confirmed = confirmed;
+    }
+
+    @Nullable
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(@Nullable String token) {
+        this.token = token;
+    }
+}
@@ -0,0 +1,29 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.model.subscription;
+
+import io.micronaut.data.annotation.Repository;
+import io.micronaut.data.repository.CrudRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SubscriptionRepository extends CrudRepository<Subscription, Long> {
+    List<Subscription> findAllByJurisdictionId(String jurisdictionId);
+    List<Subscription> findAllByJurisdictionIdAndConfirmed(String jurisdictionId, boolean confirmed);
+    Optional<Subscription> findByToken(String token);
+    Optional<Subscription> findByIdAndJurisdictionId(Long id, String jurisdictionId);
+}
@@ -0,0 +1,125 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.security;
+
+import app.security.GradientConcurrencyLimiter.Priority;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import io.micronaut.http.filter.ServerFilterPhase;
+import jakarta.annotation.PostConstruct;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission control in front of the blocking controllers. Runs after the security rules so that
+ * requests already granted a Libre311 permission can be told apart from the rest: anonymous reads
+ * are shed first, then writes, and permitted staff requests only once the whole limit is in use.
+ * Being signed in alone earns no priority.
+ */
+@Filter("/api/**")
+public class ConcurrencyLimitFilter implements HttpServerFilter {
+
+    private static final Map<String, String> SERVICE_UNAVAILABLE_ERROR = Map.of(
+            "code", "503",
+            "description", "The server is busy, please try again shortly"
+    );
+
+    @Property(name = "app.concurrency-limit.enabled")
+    protected boolean enabled;
+
+    @Property(name = "app.concurrency-limit.initial-limit")
+    protected int initialLimit;
+
+    @Property(name = "app.concurrency-limit.min-limit")
+    protected int minLimit;
+
+    @Property(name = "app.concurrency-limit.max-limit")
+    protected int maxLimit;
+
+    @Property(name = "app.concurrency-limit.read-share")
+    protected double readShare;
+
+    @Property(name = "app.concurrency-limit.write-share")
+    protected double writeShare;
+
+    private final MeterRegistry meterRegistry;
+    private GradientConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void initLimiter() {
+        limiter = new GradientConcurrencyLimiter(initialLimit, minLimit, maxLimit, readShare, writeShare);
+
+        meterRegistry.gauge("libre311.concurrency-limit.limit", limiter, GradientConcurrencyLimiter::getLimit);
+        meterRegistry.gauge("libre311.concurrency-limit.in-flight", limiter, GradientConcurrencyLimiter::getInFlight);
+    }
+
+    @Override
+    public int getOrder() {
+        return ServerFilterPhase.SECURITY.after();
+    }
+
+    @Override
+    public Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+        if (!enabled) {
+            return chain.proceed(request);
+        }
+
+        Priority priority = priorityOf(request);
+        if (!limiter.tryAcquire(priority)) {
+            meterRegistry.counter("libre311.concurrency-limit.rejected", "priority", priority.name()).increment();
+            return Publishers.just(HttpResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(List.of(SERVICE_UNAVAILABLE_ERROR)));
+        }
+
+        long start = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        return Flux.from(chain.proceed(request))
+                .doFinally(signal -> {
+                    if (released.compareAndSet(false, true)) {
+                        limiter.release(System.nanoTime() - start);
+                    }
+                });
+    }
+
+    private static Priority priorityOf(HttpRequest<?> request) {
+        if (request.getAttribute(RequiresPermissionsAnnotationRule.GRANTED_PERMISSIONS).isPresent()) {
+            return Priority.ADMIN;
+        }
+        HttpMethod method = request.getMethod();
+        if (method == HttpMethod.GET || method == HttpMethod.HEAD || method == HttpMethod.OPTIONS) {
+            return Priority.ANONYMOUS_READ;
+        }
+        return Priority.WRITE;
+    }
+}
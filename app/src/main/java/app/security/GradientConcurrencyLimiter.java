@@ -0,0 +1,136 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.security;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A concurrency limit that adapts to latency. Each completed request updates a short-term and a
+ * long-term average of its latency; while the short-term average stays close to the long-term one
+ * the limit grows, and as it rises above it (requests queueing on a slow database, say) the limit
+ * shrinks in proportion.
+ * <p>
+ * Each {@link Priority} may only use a share of the limit, so lower priorities are shed first.
+ */
+public class GradientConcurrencyLimiter {
+
+    public enum Priority {
+        ANONYMOUS_READ, WRITE, ADMIN
+    }
+
+    private static final double SHORT_WINDOW_WEIGHT = 0.1;
+    private static final double LONG_WINDOW_WEIGHT = 0.002;
+    private static final double SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double TOLERANCE = 1.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double readShare;
+    private final double writeShare;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    /**
+     * @param readShare  the share of the limit anonymous reads may use
+     * @param writeShare the share of the limit writes may use; admin requests may use all of it
+     */
+    public GradientConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      double readShare, double writeShare) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.readShare = readShare;
+        this.writeShare = writeShare;
+    }
+
+    /**
+     * @return true if the request was admitted, in which case {@link #release(long)} must be
+     * called once it completes
+     */
+    public boolean tryAcquire(Priority priority) {
+        int allowed = Math.max(1, (int) (limit * shareOf(priority)));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param rttNanos how long the request took, whether it completed, failed or was cancelled;
+     *                 requests that time out under load are the ones the limit most needs to see
+     */
+    public void release(long rttNanos) {
+        int wasInFlight = inFlight.getAndDecrement();
+        update(rttNanos, wasInFlight);
+    }
+
+    private synchronized void update(long rttNanos, int wasInFlight) {
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+            return;
+        }
+
+        shortRttNanos += (rttNanos - shortRttNanos) * SHORT_WINDOW_WEIGHT;
+        longRttNanos += (rttNanos - longRttNanos) * LONG_WINDOW_WEIGHT;
+
+        // don't grow the limit when it isn't being used
+        if (wasInFlight < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, TOLERANCE * longRttNanos / shortRttNanos));
+        double queueSize = Math.sqrt(limit);
+        double newLimit = limit * gradient + queueSize;
+        newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+
+        // let the baseline recover once the overload has passed
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+    }
+
+    private double shareOf(Priority priority) {
+        switch (priority) {
+            case ANONYMOUS_READ:
+                return readShare;
+            case WRITE:
+                return writeShare;
+            default:
+                return 1.0;
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -15,7 +15,10 @@
 package app.security;
 
 import app.model.jurisdiction.JurisdictionRepository;
+import app.service.jurisdiction.JurisdictionLocator;
 import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpParameters;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.MutableHttpResponse;
@@ -28,10 +31,28 @@ import reactor.core.scheduler.Schedulers;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
-@Filter(value = {"/api/services/**", "/api/requests/**", "/api/jurisdiction-admin/**"})
+/**
+ * Requires a valid jurisdiction_id on jurisdiction scoped endpoints. The public service and request
+ * listings may instead give lat and long query parameters, in which case the jurisdiction covering
+ * that location is stored in the {@link #RESOLVED_JURISDICTION_ID} request attribute; a location
+ * covered by several jurisdictions is rejected as ambiguous. Submissions may also leave it to be
+ * resolved from the location in the form body.
+ */
+@Filter(value = {"/api/services/**", "/api/requests/**", "/api/jurisdiction-admin/**", "/api/map/**", "/api/tiles/**", "/api/addresses/**"})
 public class JurisdictionValidationFilter implements HttpServerFilter {
 
+    /**
+     * Request attribute holding the jurisdiction resolved from the lat and long query parameters.
+     */
+    public static final String RESOLVED_JURISDICTION_ID = "libre311.resolved-jurisdiction-id";
+
+    private static final Set<String> SUBMISSION_PATHS = Set.of("/api/requests", "/api/requests.json", "/api/requests.xml");
+    private static final Set<String> LOCATABLE_PATHS = Set.of("/api/services", "/api/services.json", "/api/services.xml",
+            "/api/requests", "/api/requests.json", "/api/requests.xml");
+
     private static final Map<String, String> BAD_REQUEST_ERROR = Map.of(
             "code", "400",
             "description", "Request must include jurisdiction_id request parameter"
@@ -42,19 +63,63 @@ public class JurisdictionValidationFilter implements HttpServerFilter {
             "description", "Jurisdiction not found"
     );
 
+    private static final Map<String, String> NO_JURISDICTION_AT_LOCATION_ERROR = Map.of(
+            "code", "404",
+            "description", "No jurisdiction covers the given location"
+    );
+
+    private static final Map<String, String> AMBIGUOUS_LOCATION_ERROR = Map.of(
+            "code", "400",
+            "description", "Several jurisdictions cover the given location, request must include jurisdiction_id request parameter"
+    );
+
     private final JurisdictionRepository jurisdictionRepository;
+    private final JurisdictionLocator jurisdictionLocator;
 
-    public JurisdictionValidationFilter(JurisdictionRepository jurisdictionRepository) {
+    public JurisdictionValidationFilter(JurisdictionRepository jurisdictionRepository,
+                                        JurisdictionLocator jurisdictionLocator) {
         this.jurisdictionRepository = jurisdictionRepository;
+        this.jurisdictionLocator = jurisdictionLocator;
     }
 
     @Override
     public Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
-        return (Publisher<MutableHttpResponse<?>>) request.getParameters().getFirst("jurisdiction_id")
-                .map(jurisdictionId -> jurisdictionId.trim().isEmpty()
-                        ? Publishers.just(HttpResponse.badRequest(List.of(BAD_REQUEST_ERROR)))
-                        : verifyJurisdiction(jurisdictionId, chain, request))
-                .orElse(Publishers.just(HttpResponse.badRequest(List.of(BAD_REQUEST_ERROR))));
+        HttpParameters parameters = request.getParameters();
+        Optional<String> jurisdictionIdParameter = parameters.getFirst("jurisdiction_id");
+        if (jurisdictionIdParameter.isPresent()) {
+            String jurisdictionId = jurisdictionIdParameter.get();
+            return jurisdictionId.trim().isEmpty()
+                    ? Publishers.just(HttpResponse.badRequest(List.of(BAD_REQUEST_ERROR)))
+                    : verifyJurisdiction(jurisdictionId, chain, request);
+        }
+
+        if (request.getMethod() == HttpMethod.POST && SUBMISSION_PATHS.contains(request.getPath())) {
+            return chain.proceed(request);
+        }
+
+        Optional<Double> lat = parameters.getFirst("lat", Double.class);
+        Optional<Double> lng = parameters.getFirst("long", Double.class);
+        if (request.getMethod() == HttpMethod.GET && LOCATABLE_PATHS.contains(request.getPath())
+                && lat.isPresent() && lng.isPresent()) {
+            return resolveJurisdiction(lat.get(), lng.get(), chain, request);
+        }
+
+        return Publishers.just(HttpResponse.badRequest(List.of(BAD_REQUEST_ERROR)));
+    }
+
+    private Publisher<MutableHttpResponse<?>> resolveJurisdiction(double lat, double lng, ServerFilterChain chain, HttpRequest<?> request) {
+        return Mono.fromCallable(() -> jurisdictionLocator.findJurisdictionIds(lat, lng))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(jurisdictionIds -> {
+                    if (jurisdictionIds.isEmpty()) {
+                        return Mono.<MutableHttpResponse<?>>just(HttpResponse.notFound(List.of(NO_JURISDICTION_AT_LOCATION_ERROR)));
+                    }
+                    if (jurisdictionIds.size() > 1) {
+                        return Mono.<MutableHttpResponse<?>>just(HttpResponse.badRequest(List.of(AMBIGUOUS_LOCATION_ERROR)));
+                    }
+                    request.setAttribute(RESOLVED_JURISDICTION_ID, jurisdictionIds.get(0));
+                    return Mono.from(chain.proceed(request));
+                });
     }
 
     private Publisher<MutableHttpResponse<?>> verifyJurisdiction(String jurisdictionId, ServerFilterChain chain, HttpRequest<?> request) {
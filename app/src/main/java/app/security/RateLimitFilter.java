@@ -0,0 +1,199 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import io.micronaut.http.filter.ServerFilterPhase;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.annotation.PostConstruct;
+import org.reactivestreams.Publisher;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects submissions, image uploads and subscriptions that exceed the configured per-client
+ * limits before they reach reCAPTCHA, the Vision API or the database. Limits are kept separately
+ * per client address and per device for each of the endpoints, and a token is only taken from
+ * either bucket once both have one available.
+ * <p>
+ * The client address is the connection's unless {@code app.rate-limit.trusted-proxies} says how
+ * many reverse proxies append to {@code X-Forwarded-For}, in which case it is the entry the
+ * outermost of them added. Entries further left are supplied by the client and are ignored.
+ * <p>
+ * The form body has not been decoded at this point, so the device id is read from the
+ * {@code device_id} query parameter or the {@code X-Device-Id} header. Since the client picks
+ * it, device buckets are kept per client address: rotating the id only ever narrows the limit.
+ */
+@Filter(value = {"/api/requests*", "/api/requests/**", "/api/image*", "/api/image/**",
+    "/api/subscriptions*", "/api/subscriptions/**"}, methods = HttpMethod.POST)
+public class RateLimitFilter implements HttpServerFilter {
+
+    private static final String DEVICE_ID_HEADER = "X-Device-Id";
+    private static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private static final Map<String, String> TOO_MANY_REQUESTS_ERROR = Map.of(
+            "code", "429",
+            "description", "Too many requests, please try again later"
+    );
+
+    @Property(name = "app.rate-limit.enabled")
+    protected boolean enabled;
+
+    @Property(name = "app.rate-limit.ip.capacity")
+    protected int ipCapacity;
+
+    @Property(name = "app.rate-limit.ip.refill-period")
+    protected Duration ipRefillPeriod;
+
+    @Property(name = "app.rate-limit.device.capacity")
+    protected int deviceCapacity;
+
+    @Property(name = "app.rate-limit.device.refill-period")
+    protected Duration deviceRefillPeriod;
+
+    @Property(name = "app.rate-limit.trusted-proxies")
+    protected int trustedProxies;
+
+    private final MeterRegistry meterRegistry;
+
+    private TokenBucketRateLimiter ipLimiter;
+    private TokenBucketRateLimiter deviceLimiter;
+
+    public RateLimitFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void initLimiters() {
+        ipLimiter = new TokenBucketRateLimiter(ipCapacity, ipRefillPeriod);
+        deviceLimiter = new TokenBucketRateLimiter(deviceCapacity, deviceRefillPeriod);
+
+        meterRegistry.gauge("libre311.rate-limit.tracked", Tags.of("key", "ip"), ipLimiter, TokenBucketRateLimiter::size);
+        meterRegistry.gauge("libre311.rate-limit.tracked", Tags.of("key", "device"), deviceLimiter, TokenBucketRateLimiter::size);
+    }
+
+    @Override
+    public int getOrder() {
+        return ServerFilterPhase.FIRST.order();
+    }
+
+    @Override
+    public Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+        if (!enabled) {
+            return chain.proceed(request);
+        }
+
+        String endpoint = endpointOf(request.getPath());
+
+        String ipKey = endpoint + ':' + resolveClientAddress(request);
+        String deviceId = request.getParameters().getFirst("device_id")
+                .orElseGet(() -> request.getHeaders().get(DEVICE_ID_HEADER));
+        String deviceKey = deviceId == null || deviceId.isBlank() ? null : ipKey + ':' + truncate(deviceId);
+
+        long waitNanos = ipLimiter.peek(ipKey);
+        String limitedBy = "ip";
+        if (waitNanos == 0 && deviceKey != null) {
+            waitNanos = deviceLimiter.peek(deviceKey);
+            limitedBy = "device";
+        }
+
+        // both buckets have a token, but a concurrent request may take it first
+        if (waitNanos == 0) {
+            waitNanos = ipLimiter.tryAcquire(ipKey);
+            limitedBy = "ip";
+        }
+        if (waitNanos == 0 && deviceKey != null) {
+            waitNanos = deviceLimiter.tryAcquire(deviceKey);
+            limitedBy = "device";
+            if (waitNanos > 0) {
+                ipLimiter.refund(ipKey);
+            }
+        }
+
+        if (waitNanos > 0) {
+            counter("rejected", endpoint, limitedBy).increment();
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            return Publishers.just(HttpResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .body(List.of(TOO_MANY_REQUESTS_ERROR)));
+        }
+
+        counter("allowed", endpoint, "ip").increment();
+        if (deviceKey != null) {
+            counter("allowed", endpoint, "device").increment();
+        }
+        return chain.proceed(request);
+    }
+
+    @Scheduled(fixedDelay = "1m", initialDelay = "1m")
+    void evictIdleBuckets() {
+        ipLimiter.evictIdle();
+        deviceLimiter.evictIdle();
+    }
+
+    private String resolveClientAddress(HttpRequest<?> request) {
+        if (trustedProxies > 0) {
+            List<String> forwardedFor = new ArrayList<>();
+            for (String header : request.getHeaders().getAll(FORWARDED_FOR_HEADER)) {
+                for (String entry : header.split(",")) {
+                    forwardedFor.add(entry.trim());
+                }
+            }
+            // a request that didn't pass through every proxy falls back to the connection's address
+            if (forwardedFor.size() >= trustedProxies) {
+                return truncate(forwardedFor.get(forwardedFor.size() - trustedProxies));
+            }
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        return remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress()
+                : remoteAddress.getHostString();
+    }
+
+    private static String endpointOf(String path) {
+        if (path.startsWith("/api/image")) {
+            return "image";
+        }
+        return path.startsWith("/api/subscriptions") ? "subscriptions" : "requests";
+    }
+
+    private static String truncate(String key) {
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    private Counter counter(String outcome, String endpoint, String keyType) {
+        return meterRegistry.counter("libre311.rate-limit.requests",
+                "outcome", outcome, "endpoint", endpoint, "key", keyType);
+    }
+}
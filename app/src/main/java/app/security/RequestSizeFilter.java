@@ -0,0 +1,72 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.security;
+
+import io.micronaut.context.annotation.Property;
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import io.micronaut.http.filter.ServerFilterPhase;
+import org.reactivestreams.Publisher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Holds request bodies to {@code app.max-request-size}. The server-wide
+ * {@code micronaut.server.max-request-size} is only raised so that GeoJSON boundary imports fit,
+ * and those are the one route allowed to use it.
+ * <p>
+ * The check is made on the declared Content-Length before the body is read. A chunked body
+ * declares none and is only held to the server-wide limit.
+ */
+@Filter("/api/**")
+public class RequestSizeFilter implements HttpServerFilter {
+
+    private static final Pattern BOUNDARY_IMPORT_PATH = Pattern.compile("/api/tenant-admin/jurisdictions/[^/]+/boundary");
+
+    private static final Map<String, String> PAYLOAD_TOO_LARGE_ERROR = Map.of(
+            "code", "413",
+            "description", "Request body is too large"
+    );
+
+    @Property(name = "app.max-request-size")
+    protected long maxRequestSize;
+
+    @Override
+    public int getOrder() {
+        return ServerFilterPhase.FIRST.before();
+    }
+
+    @Override
+    public Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+        if (request.getContentLength() > maxRequestSize && !isBoundaryImport(request)) {
+            return Publishers.just(HttpResponse.status(HttpStatus.REQUEST_ENTITY_TOO_LARGE)
+                    .body(List.of(PAYLOAD_TOO_LARGE_ERROR)));
+        }
+        return chain.proceed(request);
+    }
+
+    private static boolean isBoundaryImport(HttpRequest<?> request) {
+        return request.getMethod() == HttpMethod.PUT && BOUNDARY_IMPORT_PATH.matcher(request.getPath()).matches();
+    }
+}
@@ -35,6 +35,11 @@ import org.reactivestreams.Publisher;
 @Singleton
 public class RequiresPermissionsAnnotationRule implements SecurityRule {
 
+    /**
+     * Request attribute holding the permissions the caller was verified to have for the route.
+     */
+    public static final String GRANTED_PERMISSIONS = "libre311.granted-permissions";
+
     private final UnityAuthService unityAuthService;
 
     public RequiresPermissionsAnnotationRule(UnityAuthService unityAuthService) {
@@ -76,6 +81,7 @@ public class RequiresPermissionsAnnotationRule implements SecurityRule {
         }
 
         if (result) {
+            request.setAttribute(GRANTED_PERMISSIONS, declaredPermissions);
             return ALLOWED;
         }
 
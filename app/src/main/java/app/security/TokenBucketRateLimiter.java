@@ -0,0 +1,117 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.security;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * A token bucket per key, implemented as the generic cell rate algorithm: the whole state of a
+ * bucket is the theoretical arrival time of the next request, held in an {@link AtomicLong} and
+ * advanced with compare-and-set, so acquiring never takes a lock.
+ */
+public class TokenBucketRateLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * @param capacity     the number of requests that may be made at once with a full bucket
+     * @param refillPeriod the time it takes for one token to be added back to the bucket
+     */
+    public TokenBucketRateLimiter(int capacity, Duration refillPeriod) {
+        this(capacity, refillPeriod, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(int capacity, Duration refillPeriod, LongSupplier nanoClock) {
+        if (capacity < 1 || refillPeriod.isNegative() || refillPeriod.isZero()) {
+            throw new IllegalArgumentException("Rate limit capacity and refill period must be positive");
+        }
+        this.emissionIntervalNanos = refillPeriod.toNanos();
+        this.burstNanos = emissionIntervalNanos * capacity;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Takes a token from the key's bucket if one is available.
+     *
+     * @return 0 if the request is allowed, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        AtomicLong theoreticalArrival = buckets.get(key);
+        if (theoreticalArrival == null) {
+            theoreticalArrival = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + emissionIntervalNanos;
+            long overBurst = next - now - burstNanos;
+            if (overBurst > 0) {
+                return overBurst;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Checks the key's bucket without taking a token or starting to track the key.
+     *
+     * @return 0 if a token is available, otherwise the nanoseconds until one is
+     */
+    public long peek(String key) {
+        AtomicLong theoreticalArrival = buckets.get(key);
+        if (theoreticalArrival == null) {
+            return 0;
+        }
+        long now = nanoClock.getAsLong();
+        return Math.max(0, Math.max(theoreticalArrival.get(), now) + emissionIntervalNanos - now - burstNanos);
+    }
+
+    /**
+     * Puts back a token taken by {@link #tryAcquire} for a request that was rejected afterwards.
+     */
+    public void refund(String key) {
+        AtomicLong theoreticalArrival = buckets.get(key);
+        if (theoreticalArrival != null) {
+            theoreticalArrival.addAndGet(-emissionIntervalNanos);
+        }
+    }
+
+    /**
+     * Forgets the buckets that have refilled completely, as they are indistinguishable from new
+     * ones. A request racing with the removal can be granted at most one extra token.
+     *
+     * @return the number of buckets removed
+     */
+    public int evictIdle() {
+        long now = nanoClock.getAsLong();
+        int before = buckets.size();
+        buckets.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+        return before - buckets.size();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,113 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package app.service.district;
+
+import app.model.district.District;
+import app.model.district.DistrictRepository;
+import app.service.geometry.LibreGeometryFactory;
+import jakarta.inject.Singleton;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.strtree.STRtree;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds the district a location is in, using a per-jurisdiction STRtree over the bounding boxes of
+ * its districts. A jurisdiction's tree is built on first use and replaced as a whole whenever its
+ * districts change, so lookups never wait on a rebuild.
+ */
+@Singleton
+public class DistrictIndex {
+
+    private final DistrictRepository districtRepository;
+    private final LibreGeometryFactory libreGeometryFactory;
+    private final Map<String, Districts> districtsByJurisdiction = new ConcurrentHashMap<>();
+
+    public DistrictIndex(DistrictRepository districtRepository, LibreGeometryFactory libreGeometryFactory) {
+        this.districtRepository = districtRepository;
+        this.libreGeometryFactory = libreGeometryFactory;
+    }
+
+    /**
+     * @return the id of the district covering the location, the smallest one if districts overlap,
+     * or null if there is none
+     */
+    public Long findDistrictId(String jurisdictionId, double lat, double lng) {
+        return getDistricts(jurisdictionId).findDistrictId(lat, lng);
+    }
+
+    /**
+     * @return the jurisdiction's districts as they are now; later changes aren't reflected in them
+     */
+    Districts getDistricts(String jurisdictionId) {
+        return districtsByJurisdiction.computeIfAbsent(jurisdictionId, this::load);
+    }
+
+    /**
+     * Rebuilds the jurisdiction's index from the database.
+     */
+    void reload(String jurisdictionId) {
+        districtsByJurisdiction.put(jurisdictionId, load(jurisdictionId));
+    }
+
+    private Districts load(String jurisdictionId) {
+        return new Districts(districtRepository.findAllByJurisdictionId(jurisdictionId), libreGeometryFactory);
+    }
+
+    static class Districts {
+        private final STRtree tree = new STRtree();
+        private final LibreGeometryFactory libreGeometryFactory;
+
+        Districts(List<District> districts, LibreGeometryFactory libreGeometryFactory) {
+            this.libreGeometryFactory = libreGeometryFactory;
+            districts.forEach(district -> tree.insert(district.getBoundary().getEnvelopeInternal(),
+                new IndexedDistrict(district.getId(), PreparedGeometryFactory.prepare(district.getBoundary()))));
+            // building is lazy and not thread safe, so do it before the index is shared
+            tree.build();
+        }
+
+        Long findDistrictId(double lat, double lng) {
+            Point point = libreGeometryFactory.createPoint(new Coordinate(lng, lat));
+
+            @SuppressWarnings("unchecked")
+            List<IndexedDistrict> candidates = tree.query(point.getEnvelopeInternal());
+
+            IndexedDistrict smallest = null;
+            for (IndexedDistrict candidate : candidates) {
+                if (candidate.boundary.covers(point)
+                    && (smallest == null || candidate.area < smallest.area)) {
+                    smallest = candidate;
+                }
+            }
+            return smallest == null ? null : smallest.id;
+        }
+    }
+
+    private static class IndexedDistrict {
+        final long id;
+        final PreparedGeometry boundary;
+        final double area;
+
+        IndexedDistrict(long id, PreparedGeometry boundary) {
+            this.id = id;
+            this.boundary = boundary;
+            this.area = boundary.getGeometry().getArea();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package app.service.district;
+
+import app.model.district.DistrictStatusCount;
+import app.model.servicerequest.ServiceRequestRepository;
+import app.model.servicerequest.ServiceRequestStatus;
+import app.service.servicerequest.ServiceRequestEvent;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Singleton;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Service request counts per district and status. A jurisdiction's counts are loaded with a single
+ * grouped count query on first use, then kept current from {@link ServiceRequestEvent}s, so reading
+ * them never touches the database.
+ */
+@Singleton
+public class DistrictRequestCounts implements ApplicationEventListener<ServiceRequestEvent> {
+
+    private static final ServiceRequestStatus[] STATUSES = ServiceRequestStatus.values();
+
+    private final ServiceRequestRepository serviceRequestRepository;
+    // jurisdiction id -> district id -> count per status ordinal
+    private final Map<String, Map<Long, AtomicLongArray>> countsByJurisdiction = new ConcurrentHashMap<>();
+
+    public DistrictRequestCounts(ServiceRequestRepository serviceRequestRepository) {
+        this.serviceRequestRepository = serviceRequestRepository;
+    }
+
+    public Map<ServiceRequestStatus, Long> getCounts(String jurisdictionId, Long districtId) {
+        AtomicLongArray counts = countsByJurisdiction.computeIfAbsent(jurisdictionId, this::load).get(districtId);
+
+        Map<ServiceRequestStatus, Long> countsByStatus = new EnumMap<>(ServiceRequestStatus.class);
+        for (ServiceRequestStatus status : STATUSES) {
+            countsByStatus.put(status, counts == null ? 0L : counts.get(status.ordinal()));
+        }
+        return countsByStatus;
+    }
+
+    @Override
+    public void onApplicationEvent(ServiceRequestEvent event) {
+        Map<Long, AtomicLongArray> counts = countsByJurisdiction.get(event.getJurisdictionId());
+        if (counts == null) {
+            // not loaded yet, the request is counted when they are
+            return;
+        }
+
+        int status = event.getStatus().ordinal();
+        if (event.getType() == ServiceRequestEvent.Type.DISTRICT_CHANGED) {
+            addToCount(counts, event.getPreviousDistrictId(), status, -1);
+            addToCount(counts, event.getDistrictId(), status, 1);
+        } else if (event.getType() == ServiceRequestEvent.Type.CREATED) {
+            addToCount(counts, event.getDistrictId(), status, 1);
+        } else if (event.isStatusChanged()) {
+            addToCount(counts, event.getDistrictId(), event.getPreviousStatus().ordinal(), -1);
+            addToCount(counts, event.getDistrictId(), status, 1);
+        }
+    }
+
+    private static void addToCount(Map<Long, AtomicLongArray> counts, Long districtId, int status, int delta) {
+        if (districtId != null) {
+            counts.computeIfAbsent(districtId, id -> new AtomicLongArray(STATUSES.length)).addAndGet(status, delta);
+        }
+    }
+
+    // corrects any drift from requests changed while their jurisdiction's counts were loading or
+    // while its requests were being retagged
+    @Scheduled(fixedDelay = "1h", initialDelay = "1h")
+    void invalidateAll() {
+        countsByJurisdiction.clear();
+    }
+
+    private Map<Long, AtomicLongArray> load(String jurisdictionId) {
+        Map<Long, AtomicLongArray> counts = new ConcurrentHashMap<>();
+        for (DistrictStatusCount count : serviceRequestRepository.countByDistrictAndStatus(jurisdictionId)) {
+            counts.computeIfAbsent(count.getDistrictId(), id -> new AtomicLongArray(STATUSES.length))
+                .set(count.getStatus().ordinal(), count.getRequestCount());
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,257 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package app.service.district;
+
+import app.dto.district.CreateDistrictDTO;
+import app.dto.district.DistrictDTO;
+import app.dto.district.PatchDistrictDTO;
+import app.exception.Libre311BaseException;
+import app.model.district.District;
+import app.model.district.DistrictRepository;
+import app.model.jurisdiction.Jurisdiction;
+import app.model.jurisdiction.JurisdictionRepository;
+import app.model.servicerequest.ServiceRequest;
+import app.model.servicerequest.ServiceRequestRepository;
+import app.service.geometry.LibreGeometryFactory;
+import app.service.map.TileService;
+import app.service.servicerequest.ServiceRequestEvent;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.context.event.ApplicationEventPublisher;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.scheduling.TaskExecutors;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+@Singleton
+public class DistrictService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DistrictService.class);
+
+    static class DistrictNotFoundException extends Libre311BaseException {
+        public DistrictNotFoundException(Long districtId) {
+            super(String.format("No District found with id: %s", districtId), HttpStatus.NOT_FOUND);
+        }
+    }
+
+    static class JurisdictionNotFoundException extends Libre311BaseException {
+        public JurisdictionNotFoundException(String jurisdictionId) {
+            super(String.format("No Jurisdiction found with id: %s", jurisdictionId), HttpStatus.NOT_FOUND);
+        }
+    }
+
+    static class MissingDistrictBoundaryException extends Libre311BaseException {
+        public MissingDistrictBoundaryException() {
+            super("A district needs either bounds or multi_bounds", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @Property(name = "app.districts.retag-parallelism")
+    protected int retagParallelism;
+
+    @Property(name = "app.districts.retag-batch-size")
+    protected int retagBatchSize;
+
+    private final DistrictRepository districtRepository;
+    private final JurisdictionRepository jurisdictionRepository;
+    private final ServiceRequestRepository serviceRequestRepository;
+    private final DistrictIndex districtIndex;
+    private final DistrictRequestCounts districtRequestCounts;
+    private final TileService tileService;
+    private final LibreGeometryFactory libreGeometryFactory;
+    private final ApplicationEventPublisher<ServiceRequestEvent> eventPublisher;
+    private final ExecutorService ioExecutor;
+    // the latest retag of each jurisdiction, so that retags of one jurisdiction run one at a time
+    private final Map<String, CompletableFuture<Void>> retags = new ConcurrentHashMap<>();
+
+    public DistrictService(DistrictRepository districtRepository, JurisdictionRepository jurisdictionRepository,
+                           ServiceRequestRepository serviceRequestRepository, DistrictIndex districtIndex,
+                           DistrictRequestCounts districtRequestCounts, TileService tileService,
+                           LibreGeometryFactory libreGeometryFactory,
+                           ApplicationEventPublisher<ServiceRequestEvent> eventPublisher,
+                           @Named(TaskExecutors.IO) ExecutorService ioExecutor) {
+        this.districtRepository = districtRepository;
+        this.jurisdictionRepository = jurisdictionRepository;
+        this.serviceRequestRepository = serviceRequestRepository;
+        this.districtIndex = districtIndex;
+        this.districtRequestCounts = districtRequestCounts;
+        this.tileService = tileService;
+        this.libreGeometryFactory = libreGeometryFactory;
+        this.eventPublisher = eventPublisher;
+        this.ioExecutor = ioExecutor;
+    }
+
+    public List<DistrictDTO> getListDistricts(String jurisdictionId) {
+        return districtRepository.findAllByJurisdictionId(jurisdictionId).stream()
+            .map(district -> {
+                DistrictDTO districtDTO = new DistrictDTO(district);
+                districtDTO.setRequestCounts(districtRequestCounts.getCounts(jurisdictionId, district.getId())
+                    .entrySet().stream()
+                    .collect(Collectors.toMap(entry -> entry.getKey().toString(), Map.Entry::getValue)));
+                return districtDTO;
+            }).collect(Collectors.toList());
+    }
+
+    public DistrictDTO createDistrict(CreateDistrictDTO requestDTO, String jurisdictionId) {
+        Jurisdiction jurisdiction = jurisdictionRepository.findById(jurisdictionId)
+            .orElseThrow(() -> new JurisdictionNotFoundException(jurisdictionId));
+        MultiPolygon boundary = toBoundary(requestDTO.getBounds(), requestDTO.getMultiBounds());
+        if (boundary == null) {
+            throw new MissingDistrictBoundaryException();
+        }
+
+        District district = districtRepository.save(new District(requestDTO.getName(), boundary, jurisdiction));
+        districtsChanged(jurisdictionId);
+
+        return new DistrictDTO(district);
+    }
+
+    public DistrictDTO updateDistrict(Long districtId, PatchDistrictDTO requestDTO, String jurisdictionId) {
+        District district = districtRepository.findByIdAndJurisdictionId(districtId, jurisdictionId)
+            .orElseThrow(() -> new DistrictNotFoundException(districtId));
+
+        if (requestDTO.getName() != null) {
+            district.setName(requestDTO.getName());
+        }
+        MultiPolygon boundary = toBoundary(requestDTO.getBounds(), requestDTO.getMultiBounds());
+        if (boundary != null) {
+            district.setBoundary(boundary);
+        }
+
+        District updated = districtRepository.update(district);
+        if (boundary != null) {
+            districtsChanged(jurisdictionId);
+        }
+
+        return new DistrictDTO(updated);
+    }
+
+    public void deleteDistrict(Long districtId, String jurisdictionId) {
+        District district = districtRepository.findByIdAndJurisdictionId(districtId, jurisdictionId)
+            .orElseThrow(() -> new DistrictNotFoundException(districtId));
+
+        // its requests are untagged by the database, and retagged in case another district covers them
+        districtRepository.delete(district);
+        districtsChanged(jurisdictionId);
+    }
+
+    /**
+     * Retags all of the jurisdiction's service requests in the background, after any retag already
+     * running for it.
+     */
+    CompletableFuture<Void> retag(String jurisdictionId) {
+        return retags.compute(jurisdictionId, (id, previous) -> previous == null
+            ? CompletableFuture.runAsync(() -> retagAll(id), ioExecutor)
+            : previous.exceptionally(e -> null).thenRunAsync(() -> retagAll(id), ioExecutor));
+    }
+
+    private void districtsChanged(String jurisdictionId) {
+        // new requests are tagged against the new districts from here on
+        districtIndex.reload(jurisdictionId);
+        retag(jurisdictionId);
+    }
+
+    /**
+     * Reads the jurisdiction's requests in keyset pages ordered by id and hands each page to one of
+     * up to retag-parallelism workers, which only write the requests whose district changed.
+     */
+    private void retagAll(String jurisdictionId) {
+        long start = System.currentTimeMillis();
+        DistrictIndex.Districts districts = districtIndex.getDistricts(jurisdictionId);
+        // requests untagged by a deleted district get no event; the ones moved below are
+        // invalidated as they move
+        tileService.invalidateJurisdiction(jurisdictionId);
+        Pageable batch = Pageable.from(0, retagBatchSize, Sort.of(Sort.Order.asc("id")));
+
+        Deque<CompletableFuture<Integer>> inFlight = new ArrayDeque<>();
+        int retagged = 0;
+        int scanned = 0;
+        long lastId = 0;
+        List<ServiceRequest> serviceRequests;
+        do {
+            serviceRequests = serviceRequestRepository.findByJurisdictionIdAndIdGreaterThan(jurisdictionId, lastId, batch);
+            if (serviceRequests.isEmpty()) {
+                break;
+            }
+            lastId = serviceRequests.get(serviceRequests.size() - 1).getId();
+            scanned += serviceRequests.size();
+
+            if (inFlight.size() == Math.max(1, retagParallelism)) {
+                retagged += inFlight.removeFirst().join();
+            }
+            List<ServiceRequest> page = serviceRequests;
+            inFlight.addLast(CompletableFuture.supplyAsync(() -> retagPage(page, districts), ioExecutor));
+        } while (serviceRequests.size() == retagBatchSize);
+
+        for (CompletableFuture<Integer> worker : inFlight) {
+            retagged += worker.join();
+        }
+
+        LOG.info("Retagged {} of {} service requests for jurisdiction {} in {}ms.", retagged,
+            scanned, jurisdictionId, System.currentTimeMillis() - start);
+    }
+
+    private int retagPage(List<ServiceRequest> serviceRequests, DistrictIndex.Districts districts) {
+        // one update per district rather than per request
+        Map<Long, List<ServiceRequest>> requestsByNewDistrict = new HashMap<>();
+        for (ServiceRequest serviceRequest : serviceRequests) {
+            Long districtId = districts.findDistrictId(serviceRequest.getLocation().getY(),
+                serviceRequest.getLocation().getX());
+            if (!Objects.equals(districtId, serviceRequest.getDistrictId())) {
+                requestsByNewDistrict.computeIfAbsent(districtId, id -> new ArrayList<>()).add(serviceRequest);
+            }
+        }
+
+        int retagged = 0;
+        for (Map.Entry<Long, List<ServiceRequest>> entry : requestsByNewDistrict.entrySet()) {
+            List<ServiceRequest> moved = entry.getValue();
+            serviceRequestRepository.updateDistrictId(
+                moved.stream().map(ServiceRequest::getId).collect(Collectors.toList()), entry.getKey());
+            // the bulk update bypasses the entities, so tell the in-memory indices ourselves
+            for (ServiceRequest serviceRequest : moved) {
+                Long previousDistrictId = serviceRequest.getDistrictId();
+                serviceRequest.setDistrictId(entry.getKey());
+                eventPublisher.publishEvent(ServiceRequestEvent.districtChanged(serviceRequest, previousDistrictId));
+            }
+            retagged += moved.size();
+        }
+        return retagged;
+    }
+
+    private MultiPolygon toBoundary(Double[][] bounds, Double[][][][] multiBounds) {
+        if (multiBounds != null) {
+            return libreGeometryFactory.createMultiPolygon(multiBounds);
+        }
+        if (bounds != null) {
+            return libreGeometryFactory.createMultiPolygon(bounds);
+        }
+        return null;
+    }
+}
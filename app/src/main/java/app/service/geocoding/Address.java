@@ -0,0 +1,55 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.geocoding;
+
+/**
+ * A point of a jurisdiction's address dataset.
+ */
+public final class Address {
+
+    private final String addressString;
+    private final String addressId;
+    private final String zipCode;
+    private final double lat;
+    private final double lng;
+
+    public Address(String addressString, String addressId, String zipCode, double lat, double lng) {
+        this.addressString = addressString;
+        this.addressId = addressId;
+        this.zipCode = zipCode;
+        this.lat = lat;
+        this.lng = lng;
+    }
+
+    public String getAddressString() {
+        return addressString;
+    }
+
+    public String getAddressId() {
+        return addressId;
+    }
+
+    public String getZipCode() {
+        return zipCode;
+    }
+
+    public double getLat() {
+        return lat;
+    }
+
+    public double getLng() {
+        return lng;
+    }
+}
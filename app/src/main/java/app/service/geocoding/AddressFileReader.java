@@ -0,0 +1,155 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.geocoding;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+
+/**
+ * Reads an address dataset into {@link AddressPoints}. A dataset is either a CSV file with the
+ * columns address, address_id, zipcode, lat and long, or a GeoJSON FeatureCollection of Points
+ * whose properties are address, address_id and zipcode.
+ * <p>
+ * Both are read a record or feature at a time. Records without an address or a location are
+ * skipped, and zip codes that aren't 5 or 9 digit ZIP codes are dropped.
+ */
+public final class AddressFileReader {
+
+    // the zip codes a service request accepts; any other is dropped rather than copied onto requests
+    private static final Pattern ZIP_CODE = Pattern.compile("^\\d{5}(?:[-\\s]\\d{4})?$");
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final CSVFormat CSV_FORMAT = CSVFormat.Builder.create(CSVFormat.DEFAULT)
+        .setHeader()
+        .setSkipHeaderRecord(true)
+        .setIgnoreHeaderCase(true)
+        .setTrim(true)
+        .build();
+
+    private AddressFileReader() {
+    }
+
+    public static boolean isAddressFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        return name.endsWith(".csv") || name.endsWith(".geojson") || name.endsWith(".json");
+    }
+
+    public static AddressPoints read(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            if (file.getFileName().toString().toLowerCase().endsWith(".csv")) {
+                return readCsv(new InputStreamReader(in, StandardCharsets.UTF_8));
+            }
+            return readGeoJson(in);
+        }
+    }
+
+    public static AddressPoints readCsv(Reader csv) throws IOException {
+        AddressPoints.Builder builder = AddressPoints.builder();
+        try (CSVParser parser = CSV_FORMAT.parse(csv)) {
+            for (CSVRecord record : parser) {
+                Double lat = parseCoordinate(get(record, "lat"));
+                Double lng = parseCoordinate(get(record, "long"));
+                String address = get(record, "address");
+                if (lat != null && lng != null && address != null) {
+                    builder.add(lat, lng, address, get(record, "address_id"), zipCode(get(record, "zipcode")));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    public static AddressPoints readGeoJson(InputStream geoJson) throws IOException {
+        AddressPoints.Builder builder = AddressPoints.builder();
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(geoJson)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("GeoJSON must be an object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("features".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        addFeature(builder, parser.readValueAsTree());
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static void addFeature(AddressPoints.Builder builder, JsonNode feature) {
+        JsonNode geometry = feature.path("geometry");
+        JsonNode coordinates = geometry.path("coordinates");
+        if (!"Point".equals(geometry.path("type").asText()) || coordinates.size() < 2
+            || !coordinates.get(0).isNumber() || !coordinates.get(1).isNumber()) {
+            return;
+        }
+
+        JsonNode properties = feature.path("properties");
+        String address = text(properties, "address");
+        if (address != null) {
+            builder.add(coordinates.get(1).doubleValue(), coordinates.get(0).doubleValue(), address,
+                text(properties, "address_id"), zipCode(text(properties, "zipcode")));
+        }
+    }
+
+    private static String get(CSVRecord record, String column) {
+        if (!record.isMapped(column) || !record.isSet(column)) {
+            return null;
+        }
+        String value = record.get(column);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String text(JsonNode properties, String field) {
+        JsonNode value = properties.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        String text = value.asText().trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    private static String zipCode(String value) {
+        return value != null && ZIP_CODE.matcher(value).matches() ? value : null;
+    }
+
+    private static Double parseCoordinate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            double coordinate = Double.parseDouble(value);
+            return Double.isFinite(coordinate) ? coordinate : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
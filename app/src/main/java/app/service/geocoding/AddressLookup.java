@@ -0,0 +1,240 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.geocoding;
+
+import app.model.servicerequest.ServiceRequest;
+import app.model.servicerequest.ServiceRequestRepository;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
+import io.micronaut.runtime.event.annotation.EventListener;
+import io.micronaut.runtime.server.event.ServerStartupEvent;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Looks up addresses in the jurisdiction's address dataset: the one nearest to a submitted
+ * location, and those starting with what a resident has typed so far.
+ * <p>
+ * Datasets are read from the reverse geocoding directory, one file per jurisdiction named after its
+ * id, e.g. city.gov.csv or city.gov.geojson (see {@link AddressFileReader}). They are loaded in the
+ * background at startup, reloaded when their file changes and unloaded when it is deleted. A
+ * dataset's indexes are built before it replaces the previous one, so lookups never wait on a load.
+ * Once a jurisdiction's dataset is loaded its stored requests without an address are geocoded too.
+ * Until then lookups find nothing, and the requests submitted meanwhile are picked up by that
+ * backfill.
+ */
+@Singleton
+public class AddressLookup {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AddressLookup.class);
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+
+    @Property(name = "app.reverse-geocoding.directory")
+    protected String directory;
+
+    @Property(name = "app.reverse-geocoding.max-distance-meters")
+    protected double maxDistanceMeters;
+
+    @Property(name = "app.reverse-geocoding.max-suggestions")
+    protected int maxSuggestions;
+
+    private final ServiceRequestRepository serviceRequestRepository;
+    private final ExecutorService ioExecutor;
+    private final Map<String, Dataset> datasetsByJurisdiction = new ConcurrentHashMap<>();
+    // the modification time of each file as it was loaded
+    private final Map<Path, FileTime> loadedFiles = new HashMap<>();
+
+    public AddressLookup(ServiceRequestRepository serviceRequestRepository,
+                         @Named(TaskExecutors.IO) ExecutorService ioExecutor) {
+        this.serviceRequestRepository = serviceRequestRepository;
+        this.ioExecutor = ioExecutor;
+    }
+
+    @EventListener
+    void onStartup(ServerStartupEvent event) {
+        if (isConfigured()) {
+            ioExecutor.execute(this::loadChangedFiles);
+        }
+    }
+
+    @Scheduled(fixedDelay = "5m", initialDelay = "5m")
+    void reloadChangedFiles() {
+        if (isConfigured()) {
+            loadChangedFiles();
+        }
+    }
+
+    /**
+     * @return the address nearest to the location within max-distance-meters, or null if there is
+     * none or the jurisdiction has no address dataset
+     */
+    public Address findNearest(String jurisdictionId, double lat, double lng) {
+        Dataset dataset = datasetsByJurisdiction.get(jurisdictionId);
+        return dataset == null ? null : dataset.addresses.findNearest(lat, lng, maxDistanceMeters);
+    }
+
+    /**
+     * @return up to limit addresses, at most max-suggestions, having a word that starts with the
+     * prefix, or none if the jurisdiction has no address dataset
+     */
+    public List<Address> autocomplete(String jurisdictionId, String prefix, int limit) {
+        Dataset dataset = datasetsByJurisdiction.get(jurisdictionId);
+        if (dataset == null) {
+            return List.of();
+        }
+
+        int[] found = dataset.prefixIndex.find(prefix, Math.min(limit, maxSuggestions));
+        List<Address> addresses = new ArrayList<>(found.length);
+        for (int index : found) {
+            addresses.add(dataset.addresses.get(index));
+        }
+        return addresses;
+    }
+
+    /**
+     * Replaces the jurisdiction's address dataset.
+     */
+    public void load(String jurisdictionId, AddressPoints addresses) {
+        datasetsByJurisdiction.put(jurisdictionId, new Dataset(addresses, AddressPrefixIndex.of(addresses)));
+    }
+
+    public void remove(String jurisdictionId) {
+        datasetsByJurisdiction.remove(jurisdictionId);
+    }
+
+    /**
+     * Gives the jurisdiction's stored requests without an address the one nearest to them, leaving
+     * any address id or zip code they were submitted with alone.
+     *
+     * @return how many requests were geocoded
+     */
+    public int backfill(String jurisdictionId) {
+        Dataset dataset = datasetsByJurisdiction.get(jurisdictionId);
+        if (dataset == null) {
+            return 0;
+        }
+
+        int geocoded = 0;
+        long lastId = 0;
+        Pageable page = Pageable.from(0, BACKFILL_BATCH_SIZE, Sort.of(Sort.Order.asc("id")));
+        List<ServiceRequest> serviceRequests;
+        do {
+            serviceRequests = serviceRequestRepository
+                .findByJurisdictionIdAndAddressStringIsNullAndIdGreaterThan(jurisdictionId, lastId, page);
+            for (ServiceRequest serviceRequest : serviceRequests) {
+                lastId = serviceRequest.getId();
+                Address address = dataset.addresses.findNearest(serviceRequest.getLocation().getY(),
+                    serviceRequest.getLocation().getX(), maxDistanceMeters);
+                if (address != null) {
+                    serviceRequestRepository.updateAddress(serviceRequest.getId(),
+                        address.getAddressString(), address.getAddressId(), address.getZipCode());
+                    geocoded++;
+                }
+            }
+        } while (serviceRequests.size() == BACKFILL_BATCH_SIZE);
+        return geocoded;
+    }
+
+    private boolean isConfigured() {
+        return directory != null && !directory.isBlank();
+    }
+
+    private synchronized void loadChangedFiles() {
+        Set<Path> present = new HashSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(directory))) {
+            for (Path file : files) {
+                if (!Files.isRegularFile(file) || !AddressFileReader.isAddressFile(file)) {
+                    continue;
+                }
+                present.add(file);
+                FileTime modified = Files.getLastModifiedTime(file);
+                if (!modified.equals(loadedFiles.get(file))) {
+                    loadFile(file);
+                    loadedFiles.put(file, modified);
+                }
+            }
+        } catch (IOException e) {
+            LOG.error("Could not list the address datasets in {}.", directory, e);
+            return;
+        }
+
+        Set<String> presentJurisdictions = new HashSet<>();
+        present.forEach(file -> presentJurisdictions.add(jurisdictionIdOf(file)));
+        loadedFiles.keySet().removeIf(file -> {
+            if (present.contains(file)) {
+                return false;
+            }
+            String jurisdictionId = jurisdictionIdOf(file);
+            if (!presentJurisdictions.contains(jurisdictionId)) {
+                remove(jurisdictionId);
+                LOG.info("Unloaded the addresses of jurisdiction {} as {} was deleted.", jurisdictionId, file);
+            }
+            return true;
+        });
+    }
+
+    private void loadFile(Path file) {
+        String jurisdictionId = jurisdictionIdOf(file);
+        try {
+            long start = System.currentTimeMillis();
+            AddressPoints addresses = AddressFileReader.read(file);
+            load(jurisdictionId, addresses);
+            LOG.info("Loaded {} addresses for jurisdiction {} in {}ms.", addresses.size(),
+                jurisdictionId, System.currentTimeMillis() - start);
+
+            start = System.currentTimeMillis();
+            int geocoded = backfill(jurisdictionId);
+            LOG.info("Geocoded {} stored service requests for jurisdiction {} in {}ms.", geocoded,
+                jurisdictionId, System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            LOG.error("Could not load the address dataset {}.", file, e);
+        }
+    }
+
+    private static String jurisdictionIdOf(Path file) {
+        String name = file.getFileName().toString();
+        return name.substring(0, name.lastIndexOf('.'));
+    }
+
+    private static class Dataset {
+        final AddressPoints addresses;
+        final AddressPrefixIndex prefixIndex;
+
+        Dataset(AddressPoints addresses, AddressPrefixIndex prefixIndex) {
+            this.addresses = addresses;
+            this.prefixIndex = prefixIndex;
+        }
+    }
+}
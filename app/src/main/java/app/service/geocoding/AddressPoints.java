@@ -0,0 +1,247 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.geocoding;
+
+import app.service.geometry.GeoDistance;
+
+import java.util.Arrays;
+
+/**
+ * An immutable 2-d tree over a jurisdiction's address points, for finding the address nearest
+ * to a submitted location.
+ * <p>
+ * Datasets run to hundreds of thousands of points, so the tree has no node objects: the points
+ * are reordered so that the node of the range [lo, hi) is its middle element, splitting on
+ * longitude at even depths and latitude at odd ones, and every field lives in a parallel array.
+ * Longitudes are scaled by the cosine of the dataset's mean latitude so that both axes are in
+ * roughly the same units over a city-sized area.
+ */
+public final class AddressPoints {
+
+    private final double cosLat;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] lngs;
+    private final String[] addressStrings;
+    private final String[] addressIds;
+    private final String[] zipCodes;
+
+    private AddressPoints(double cosLat, double[] xs, double[] ys, double[] lngs,
+        String[] addressStrings, String[] addressIds, String[] zipCodes) {
+        this.cosLat = cosLat;
+        this.xs = xs;
+        this.ys = ys;
+        this.lngs = lngs;
+        this.addressStrings = addressStrings;
+        this.addressIds = addressIds;
+        this.zipCodes = zipCodes;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return xs.length;
+    }
+
+    /**
+     * @return the address nearest to the given location, or null if there is none within
+     * maxDistanceMeters
+     */
+    public Address findNearest(double lat, double lng, double maxDistanceMeters) {
+        if (xs.length == 0) {
+            return null;
+        }
+        double maxDegrees = GeoDistance.metersToLatitudeDegrees(maxDistanceMeters);
+        Search search = new Search(lng * cosLat, lat, maxDegrees * maxDegrees);
+        search(search, 0, xs.length, 0);
+        if (search.best < 0) {
+            return null;
+        }
+
+        int best = search.best;
+        if (GeoDistance.haversineMeters(lat, lng, ys[best], lngs[best]) > maxDistanceMeters) {
+            return null;
+        }
+        return get(best);
+    }
+
+    Address get(int index) {
+        return new Address(addressStrings[index], addressIds[index], zipCodes[index], ys[index], lngs[index]);
+    }
+
+    String getAddressString(int index) {
+        return addressStrings[index];
+    }
+
+    private void search(Search search, int lo, int hi, int depth) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            double dx = search.x - xs[mid];
+            double dy = search.y - ys[mid];
+            double distance = dx * dx + dy * dy;
+            if (distance < search.bestDistance) {
+                search.bestDistance = distance;
+                search.best = mid;
+            }
+
+            double split = (depth & 1) == 0 ? dx : dy;
+            depth++;
+            // descend into the side holding the query first; the far side only needs searching if
+            // the splitting line is closer than the best point found there
+            if (split < 0) {
+                search(search, lo, mid, depth);
+                if (split * split >= search.bestDistance) {
+                    return;
+                }
+                lo = mid + 1;
+            } else {
+                search(search, mid + 1, hi, depth);
+                if (split * split >= search.bestDistance) {
+                    return;
+                }
+                hi = mid;
+            }
+        }
+    }
+
+    private static class Search {
+        final double x;
+        final double y;
+        double bestDistance;
+        int best = -1;
+
+        Search(double x, double y, double bestDistance) {
+            this.x = x;
+            this.y = y;
+            this.bestDistance = bestDistance;
+        }
+    }
+
+    /**
+     * Collects address points into growable primitive arrays and builds the tree once.
+     */
+    public static class Builder {
+
+        private double[] lats = new double[1024];
+        private double[] lngs = new double[1024];
+        private String[] addressStrings = new String[1024];
+        private String[] addressIds = new String[1024];
+        private String[] zipCodes = new String[1024];
+        private int size;
+
+        public Builder add(double lat, double lng, String addressString, String addressId, String zipCode) {
+            if (size == lats.length) {
+                int capacity = size * 2;
+                lats = Arrays.copyOf(lats, capacity);
+                lngs = Arrays.copyOf(lngs, capacity);
+                addressStrings = Arrays.copyOf(addressStrings, capacity);
+                addressIds = Arrays.copyOf(addressIds, capacity);
+                zipCodes = Arrays.copyOf(zipCodes, capacity);
+            }
+            lats[size] = lat;
+            lngs[size] = lng;
+            addressStrings[size] = addressString;
+            addressIds[size] = addressId;
+            zipCodes[size] = zipCode;
+            size++;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public AddressPoints build() {
+            double sumLat = 0;
+            for (int i = 0; i < size; i++) {
+                sumLat += lats[i];
+            }
+            double cosLat = size == 0 ? 1 : Math.cos(Math.toRadians(sumLat / size));
+
+            double[] xs = new double[size];
+            for (int i = 0; i < size; i++) {
+                xs[i] = lngs[i] * cosLat;
+            }
+            double[] ys = Arrays.copyOf(lats, size);
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            split(order, xs, ys, 0, size, 0);
+
+            AddressPoints points = new AddressPoints(cosLat, new double[size], new double[size],
+                new double[size], new String[size], new String[size], new String[size]);
+            for (int i = 0; i < size; i++) {
+                int from = order[i];
+                points.xs[i] = xs[from];
+                points.ys[i] = ys[from];
+                points.lngs[i] = lngs[from];
+                points.addressStrings[i] = addressStrings[from];
+                points.addressIds[i] = addressIds[from];
+                points.zipCodes[i] = zipCodes[from];
+            }
+            return points;
+        }
+
+        /**
+         * Orders the range so its middle element is its median on the depth's axis, with smaller
+         * elements before it and larger after, then does the same for both halves.
+         */
+        private static void split(int[] order, double[] xs, double[] ys, int lo, int hi, int depth) {
+            while (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                select(order, (depth & 1) == 0 ? xs : ys, lo, hi - 1, mid);
+                split(order, xs, ys, lo, mid, depth + 1);
+                lo = mid + 1;
+                depth++;
+            }
+        }
+
+        /**
+         * Quickselect: moves the element of rank k within [left, right] to position k.
+         */
+        private static void select(int[] order, double[] keys, int left, int right, int k) {
+            while (left < right) {
+                double pivot = keys[order[(left + right) >>> 1]];
+                int i = left;
+                int j = right;
+                while (i <= j) {
+                    while (keys[order[i]] < pivot) {
+                        i++;
+                    }
+                    while (keys[order[j]] > pivot) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        int swap = order[i];
+                        order[i] = order[j];
+                        order[j] = swap;
+                        i++;
+                        j--;
+                    }
+                }
+                if (k <= j) {
+                    right = j;
+                } else if (k >= i) {
+                    left = i;
+                } else {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.geocoding;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * An immutable prefix index over the addresses of an {@link AddressPoints}, matching a typed
+ * prefix against the start of an address or of any word in it, so that "market" finds
+ * "1 Market St".
+ * <p>
+ * Each address is normalized once to lower case letters and digits separated by single spaces,
+ * and every word start is an entry packing the address and the offset of the word into a long.
+ * The entries are sorted by the text from their offset on, so the matches of a prefix are one
+ * contiguous range found by binary search.
+ */
+final class AddressPrefixIndex {
+
+    private final String[] normalized;
+    private final long[] entries;
+
+    private AddressPrefixIndex(String[] normalized, long[] entries) {
+        this.normalized = normalized;
+        this.entries = entries;
+    }
+
+    static AddressPrefixIndex of(AddressPoints addresses) {
+        int size = addresses.size();
+        String[] normalized = new String[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            String text = normalize(addresses.getAddressString(i));
+            normalized[i] = text;
+            for (int offset = 0; offset < text.length(); offset++) {
+                if (isWordStart(text, offset)) {
+                    count++;
+                }
+            }
+        }
+
+        long[] entries = new long[count];
+        int next = 0;
+        for (int i = 0; i < size; i++) {
+            for (int offset = 0; offset < normalized[i].length(); offset++) {
+                if (isWordStart(normalized[i], offset)) {
+                    entries[next++] = entry(i, offset);
+                }
+            }
+        }
+        sort(entries, normalized);
+        return new AddressPrefixIndex(normalized, entries);
+    }
+
+    /**
+     * @return the indexes in the {@link AddressPoints} of up to limit addresses matching the
+     * prefix, in the order of their matching text
+     */
+    int[] find(String prefix, int limit) {
+        String query = normalize(prefix);
+        if (query.isEmpty() || limit <= 0) {
+            return new int[0];
+        }
+
+        int[] found = new int[limit];
+        int count = 0;
+        // an address can match at several of its words
+        Set<Integer> seen = new HashSet<>();
+        for (int i = lowerBound(query); i < entries.length && count < limit; i++) {
+            long entry = entries[i];
+            if (!normalized[address(entry)].startsWith(query, offset(entry))) {
+                break;
+            }
+            if (seen.add(address(entry))) {
+                found[count++] = address(entry);
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * @return the first entry whose text is not less than the query
+     */
+    private int lowerBound(String query) {
+        int lo = 0;
+        int hi = entries.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            long entry = entries[mid];
+            if (compareFrom(normalized[address(entry)], offset(entry), query, 0) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Lower cases the address, keeping letters and digits and replacing every run of anything
+     * else by a single space.
+     */
+    static String normalize(String address) {
+        StringBuilder text = new StringBuilder(address.length());
+        boolean space = false;
+        for (int i = 0; i < address.length(); i++) {
+            char c = address.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (space && text.length() > 0) {
+                    text.append(' ');
+                }
+                text.append(Character.toLowerCase(c));
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return text.toString();
+    }
+
+    private static boolean isWordStart(String text, int offset) {
+        return offset == 0 || text.charAt(offset - 1) == ' ';
+    }
+
+    /**
+     * A bottom-up merge sort of the entries by their text, so they are never boxed.
+     */
+    private static void sort(long[] entries, String[] normalized) {
+        long[] from = entries;
+        long[] to = new long[entries.length];
+        for (int width = 1; width < entries.length; width *= 2) {
+            for (int lo = 0; lo < entries.length; lo += 2 * width) {
+                int mid = Math.min(lo + width, entries.length);
+                int hi = Math.min(lo + 2 * width, entries.length);
+                int left = lo;
+                int right = mid;
+                for (int i = lo; i < hi; i++) {
+                    if (left < mid && (right >= hi || compare(from[left], from[right], normalized) <= 0)) {
+                        to[i] = from[left++];
+                    } else {
+                        to[i] = from[right++];
+                    }
+                }
+            }
+            long[] swap = from;
+            from = to;
+            to = swap;
+        }
+        if (from != entries) {
+            System.arraycopy(from, 0, entries, 0, entries.length);
+        }
+    }
+
+    private static int compare(long a, long b, String[] normalized) {
+        int compared = compareFrom(normalized[address(a)], offset(a), normalized[address(b)], offset(b));
+        if (compared != 0) {
+            return compared;
+        }
+        // the same words in different addresses, e.g. "main st" of 1 and 10 Main St
+        compared = normalized[address(a)].compareTo(normalized[address(b)]);
+        return compared != 0 ? compared : Long.compare(a, b);
+    }
+
+    private static int compareFrom(String a, int offsetA, String b, int offsetB) {
+        int lengthA = a.length() - offsetA;
+        int lengthB = b.length() - offsetB;
+        int length = Math.min(lengthA, lengthB);
+        for (int i = 0; i < length; i++) {
+            char ca = a.charAt(offsetA + i);
+            char cb = b.charAt(offsetB + i);
+            if (ca != cb) {
+                return ca - cb;
+            }
+        }
+        return lengthA - lengthB;
+    }
+
+    private static long entry(int address, int offset) {
+        return (long) address << 32 | offset;
+    }
+
+    private static int address(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+    private static int offset(long entry) {
+        return (int) entry;
+    }
+}
@@ -0,0 +1,52 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.geometry;
+
+public final class GeoDistance {
+
+    public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    private static final double METERS_PER_DEGREE_LATITUDE = 111_320.0;
+
+    private GeoDistance() {
+    }
+
+    /**
+     * @return the great-circle distance in meters between two [lat, lng] points
+     */
+    public static double haversineMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double sinLat = Math.sin(dLat / 2);
+        double sinLng = Math.sin(dLng / 2);
+        double a = sinLat * sinLat
+            + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinLng * sinLng;
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * @return how many degrees of latitude span the given distance
+     */
+    public static double metersToLatitudeDegrees(double meters) {
+        return meters / METERS_PER_DEGREE_LATITUDE;
+    }
+
+    /**
+     * @return how many degrees of longitude span the given distance at the given latitude
+     */
+    public static double metersToLongitudeDegrees(double meters, double latitude) {
+        double cos = Math.cos(Math.toRadians(latitude));
+        return meters / (METERS_PER_DEGREE_LATITUDE * Math.max(cos, 1e-6));
+    }
+}
@@ -0,0 +1,203 @@
+package app.service.geometry;
+
+import app.exception.Libre311BaseException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.micronaut.http.HttpStatus;
+import jakarta.inject.Singleton;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
+
+/**
+ * Reads the Polygon and MultiPolygon geometries of a GeoJSON document into a single MultiPolygon.
+ * The document may be a bare geometry, a Feature, a FeatureCollection or a GeometryCollection.
+ * <p>
+ * The document is read as a token stream and each ring's coordinates go straight into a packed
+ * double array, so large boundaries never exist as a tree of JSON nodes or boxed coordinates.
+ */
+@Singleton
+public class GeoJsonBoundaryReader {
+
+    static class InvalidGeoJsonException extends Libre311BaseException {
+
+        public InvalidGeoJsonException(String message) {
+            super(message, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    // how deeply numbers are nested in the coordinates of each geometry type
+    private static final int POLYGON_DEPTH = 3;
+    private static final int MULTI_POLYGON_DEPTH = 4;
+
+    private final LibreGeometryFactory libreGeometryFactory;
+
+    public GeoJsonBoundaryReader(LibreGeometryFactory libreGeometryFactory) {
+        this.libreGeometryFactory = libreGeometryFactory;
+    }
+
+    public MultiPolygon read(InputStream geoJson) {
+        List<Polygon> polygons = new ArrayList<>();
+        try (JsonParser parser = JSON_FACTORY.createParser(geoJson)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new InvalidGeoJsonException("GeoJSON must be an object");
+            }
+            readObject(parser, polygons);
+        } catch (IOException e) {
+            throw new InvalidGeoJsonException("Malformed GeoJSON: " + e.getOriginalMessage());
+        } catch (IllegalArgumentException e) {
+            // thrown by JTS for unclosed or degenerate rings
+            throw new InvalidGeoJsonException("Invalid boundary: " + e.getMessage());
+        }
+
+        if (polygons.isEmpty()) {
+            throw new InvalidGeoJsonException("GeoJSON contains no Polygon or MultiPolygon geometry");
+        }
+        return libreGeometryFactory.createMultiPolygon(polygons.toArray(Polygon[]::new));
+    }
+
+    /**
+     * Reads the fields of an object whose START_OBJECT has been consumed, descending into
+     * geometries and features and skipping everything else.
+     */
+    private void readObject(JsonParser parser, List<Polygon> polygons) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "coordinates":
+                    readCoordinates(parser, polygons);
+                    break;
+                case "geometry":
+                    if (value == JsonToken.START_OBJECT) {
+                        readObject(parser, polygons);
+                    }
+                    break;
+                case "features":
+                case "geometries":
+                    if (value == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            readObject(parser, polygons);
+                        }
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Reads a Polygon's or MultiPolygon's coordinates, telling them apart by their nesting depth,
+     * which is known once the first number is reached. Coordinates of any other geometry type are
+     * skipped.
+     */
+    private void readCoordinates(JsonParser parser, List<Polygon> polygons) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new InvalidGeoJsonException("coordinates must be an array");
+        }
+
+        List<LinearRing> rings = new ArrayList<>();
+        RingBuffer ring = new RingBuffer();
+        int open = 1;
+        int depth = 0;
+        while (open > 0) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                throw new InvalidGeoJsonException("Unexpected end of GeoJSON");
+            }
+            switch (token) {
+                case START_ARRAY:
+                    open++;
+                    if (open > MULTI_POLYGON_DEPTH) {
+                        throw new InvalidGeoJsonException("coordinates are nested too deeply");
+                    }
+                    break;
+                case VALUE_NUMBER_INT:
+                case VALUE_NUMBER_FLOAT:
+                    if (depth == 0) {
+                        depth = open;
+                    }
+                    if (isPolygonal(depth)) {
+                        ring.addOrdinate(parser.getDoubleValue());
+                    }
+                    break;
+                case END_ARRAY:
+                    if (isPolygonal(depth)) {
+                        if (open == depth) {
+                            ring.endPosition();
+                        } else if (open == depth - 1) {
+                            rings.add(libreGeometryFactory.createLinearRing(ring.toSequence()));
+                            ring.reset();
+                        } else if (open == depth - 2) {
+                            polygons.add(toPolygon(rings));
+                            rings.clear();
+                        }
+                    }
+                    open--;
+                    break;
+                default:
+                    throw new InvalidGeoJsonException("Unexpected " + token + " in coordinates");
+            }
+        }
+    }
+
+    private static boolean isPolygonal(int depth) {
+        return depth == POLYGON_DEPTH || depth == MULTI_POLYGON_DEPTH;
+    }
+
+    private Polygon toPolygon(List<LinearRing> rings) {
+        if (rings.isEmpty()) {
+            throw new InvalidGeoJsonException("A polygon needs a shell");
+        }
+        LinearRing[] holes = rings.subList(1, rings.size()).toArray(LinearRing[]::new);
+        return libreGeometryFactory.createPolygon(rings.get(0), holes);
+    }
+
+    /**
+     * The positions of the ring being read, packed as x, y pairs.
+     */
+    private static class RingBuffer {
+        private double[] ordinates = new double[256];
+        private int size;
+        private int pendingOrdinates;
+        private final double[] position = new double[2];
+
+        void addOrdinate(double value) {
+            // altitude and any further ordinates are ignored
+            if (pendingOrdinates < 2) {
+                position[pendingOrdinates] = value;
+            }
+            pendingOrdinates++;
+        }
+
+        void endPosition() {
+            if (pendingOrdinates < 2) {
+                throw new InvalidGeoJsonException("A position needs a longitude and a latitude");
+            }
+            if (size + 2 > ordinates.length) {
+                ordinates = Arrays.copyOf(ordinates, ordinates.length * 2);
+            }
+            ordinates[size++] = position[0];
+            ordinates[size++] = position[1];
+            pendingOrdinates = 0;
+        }
+
+        PackedCoordinateSequence.Double toSequence() {
+            return new PackedCoordinateSequence.Double(Arrays.copyOf(ordinates, size), 2, 0);
+        }
+
+        void reset() {
+            size = 0;
+            pendingOrdinates = 0;
+        }
+    }
+}
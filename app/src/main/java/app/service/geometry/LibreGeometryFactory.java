@@ -6,6 +6,8 @@ import jakarta.inject.Singleton;
 import java.util.Arrays;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.MultiPolygon;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.Polygon;
 import org.locationtech.jts.geom.PrecisionModel;
@@ -37,6 +39,83 @@ public class LibreGeometryFactory extends GeometryFactory {
         return this.createPolygon(this.createLinearRing(exteriorCoords), null);
     }
 
+    /**
+     *
+     * @param coordinates where each coordinate is [lat, lng]
+     * @return a MultiPolygon made of a single Polygon with no holes
+     */
+    public MultiPolygon createMultiPolygon(Double[][] coordinates) {
+        return this.createMultiPolygon(new Polygon[]{createPolygon(coordinates)});
+    }
+
+    /**
+     *
+     * @param polygons where each polygon is a list of rings, the first being the shell and the rest
+     *                 holes, and each coordinate is [lat, lng]
+     * @return a MultiPolygon
+     */
+    public MultiPolygon createMultiPolygon(Double[][][][] polygons) {
+        if (polygons.length == 0) {
+            throw new InvalidCoordinateException("A multipolygon needs at least one polygon");
+        }
+        Polygon[] jtsPolygons = new Polygon[polygons.length];
+        for (int i = 0; i < polygons.length; i++) {
+            Double[][][] rings = polygons[i];
+            if (rings.length == 0) {
+                throw new InvalidCoordinateException("A polygon needs a shell");
+            }
+            LinearRing[] holes = new LinearRing[rings.length - 1];
+            for (int j = 1; j < rings.length; j++) {
+                holes[j - 1] = createLinearRing(rings[j]);
+            }
+            jtsPolygons[i] = this.createPolygon(createLinearRing(rings[0]), holes);
+        }
+
+        return this.createMultiPolygon(jtsPolygons);
+    }
+
+    /**
+     *
+     * @param encodedShell a single polygon with no holes, as a polyline6 encoded string
+     * @return a MultiPolygon made of a single Polygon with no holes
+     */
+    public MultiPolygon createMultiPolygon(String encodedShell) {
+        return this.createMultiPolygon(new Polygon[]{
+            this.createPolygon(this.createLinearRing(PolylineCodec.decodeSequence(encodedShell)), null)});
+    }
+
+    /**
+     *
+     * @param encodedPolygons where each polygon is a list of polyline6 encoded rings, the first
+     *                        being the shell and the rest holes
+     * @return a MultiPolygon
+     */
+    public MultiPolygon createMultiPolygon(String[][] encodedPolygons) {
+        if (encodedPolygons.length == 0) {
+            throw new InvalidCoordinateException("A multipolygon needs at least one polygon");
+        }
+        Polygon[] jtsPolygons = new Polygon[encodedPolygons.length];
+        for (int i = 0; i < encodedPolygons.length; i++) {
+            String[] rings = encodedPolygons[i];
+            if (rings.length == 0) {
+                throw new InvalidCoordinateException("A polygon needs a shell");
+            }
+            LinearRing[] holes = new LinearRing[rings.length - 1];
+            for (int j = 1; j < rings.length; j++) {
+                holes[j - 1] = this.createLinearRing(PolylineCodec.decodeSequence(rings[j]));
+            }
+            jtsPolygons[i] = this.createPolygon(this.createLinearRing(PolylineCodec.decodeSequence(rings[0])), holes);
+        }
+
+        return this.createMultiPolygon(jtsPolygons);
+    }
+
+    private LinearRing createLinearRing(Double[][] coordinates) {
+        return this.createLinearRing(Arrays.stream(coordinates)
+            .map(LibreGeometryFactory::mapToCoordinate)
+            .toArray(Coordinate[]::new));
+    }
+
     public Point createPoint(String lat, String lng){
         return this.createPoint(new Coordinate(Double.parseDouble(lng), Double.parseDouble(lat)));
     }
@@ -47,11 +126,80 @@ public class LibreGeometryFactory extends GeometryFactory {
      * @return the coordinates of the outer polygon shell. Each coordinate is represented as [lat, lng]
      */
     public static Double[][] getCoordinatesFrom(Polygon polygon){
-        return Arrays.stream(polygon.getCoordinates())
+        return Arrays.stream(polygon.getExteriorRing().getCoordinates())
             .map(LibreGeometryFactory::mapToTuple)
             .toArray(Double[][]::new);
     }
 
+    /**
+     *
+     * @param multiPolygon a multipolygon
+     * @return the coordinates of the shell of its largest polygon. Each coordinate is represented as [lat, lng]
+     */
+    public static Double[][] getCoordinatesFrom(MultiPolygon multiPolygon){
+        return getCoordinatesFrom(largestPolygonOf(multiPolygon));
+    }
+
+    /**
+     *
+     * @param multiPolygon a multipolygon
+     * @return the shell of its largest polygon as a polyline6 encoded string
+     */
+    public static String getEncodedCoordinatesFrom(MultiPolygon multiPolygon){
+        return PolylineCodec.encode(largestPolygonOf(multiPolygon).getExteriorRing().getCoordinateSequence());
+    }
+
+    /**
+     *
+     * @param multiPolygon a multipolygon
+     * @return for each polygon its shell followed by its holes, each as a polyline6 encoded string
+     */
+    public static String[][] getEncodedMultiCoordinatesFrom(MultiPolygon multiPolygon){
+        String[][] polygons = new String[multiPolygon.getNumGeometries()][];
+        for (int i = 0; i < polygons.length; i++) {
+            Polygon polygon = (Polygon) multiPolygon.getGeometryN(i);
+            String[] rings = new String[polygon.getNumInteriorRing() + 1];
+            rings[0] = PolylineCodec.encode(polygon.getExteriorRing().getCoordinateSequence());
+            for (int j = 0; j < polygon.getNumInteriorRing(); j++) {
+                rings[j + 1] = PolylineCodec.encode(polygon.getInteriorRingN(j).getCoordinateSequence());
+            }
+            polygons[i] = rings;
+        }
+        return polygons;
+    }
+
+    private static Polygon largestPolygonOf(MultiPolygon multiPolygon) {
+        Polygon largest = (Polygon) multiPolygon.getGeometryN(0);
+        for (int i = 1; i < multiPolygon.getNumGeometries(); i++) {
+            Polygon polygon = (Polygon) multiPolygon.getGeometryN(i);
+            if (polygon.getArea() > largest.getArea()) {
+                largest = polygon;
+            }
+        }
+        return largest;
+    }
+
+    /**
+     *
+     * @param multiPolygon a multipolygon
+     * @return for each polygon its shell followed by its holes. Each coordinate is represented as [lat, lng]
+     */
+    public static Double[][][][] getMultiCoordinatesFrom(MultiPolygon multiPolygon){
+        Double[][][][] polygons = new Double[multiPolygon.getNumGeometries()][][][];
+        for (int i = 0; i < polygons.length; i++) {
+            Polygon polygon = (Polygon) multiPolygon.getGeometryN(i);
+            Double[][][] rings = new Double[polygon.getNumInteriorRing() + 1][][];
+            rings[0] = getCoordinatesFrom(polygon);
+            for (int j = 0; j < polygon.getNumInteriorRing(); j++) {
+                rings[j + 1] = Arrays.stream(polygon.getInteriorRingN(j).getCoordinates())
+                    .map(LibreGeometryFactory::mapToTuple)
+                    .toArray(Double[][]::new);
+            }
+            polygons[i] = rings;
+        }
+        return polygons;
+    }
+
 
     /**
      *
@@ -0,0 +1,131 @@
+package app.service.geometry;
+
+import app.service.geometry.LibreGeometryFactory.InvalidCoordinateException;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
+
+/**
+ * Encodes coordinates in the encoded polyline format at six decimal places (polyline6): each
+ * latitude and longitude is stored as the zigzag encoded difference from the previous one, in
+ * base64-like chunks of five bits. A boundary typically takes a fifth of the space of its
+ * [lat, lng] JSON arrays.
+ * <p>
+ * Coordinates are read from and written to primitive arrays, so no object is created per vertex.
+ */
+public final class PolylineCodec {
+
+    private static final double FACTOR = 1e6;
+    private static final int CHUNK_BITS = 5;
+    private static final int CHUNK_MASK = 0x1f;
+    private static final int CONTINUATION = 0x20;
+    private static final int OFFSET = 63;
+
+    private PolylineCodec() {
+    }
+
+    /**
+     * @param latLng coordinates as lat, lng pairs
+     */
+    public static String encode(double[] latLng) {
+        if (latLng.length % 2 != 0) {
+            throw new InvalidCoordinateException("Coordinates must be lat, lng pairs");
+        }
+        StringBuilder encoded = new StringBuilder(latLng.length * 4);
+        long previousLat = 0;
+        long previousLng = 0;
+        for (int i = 0; i < latLng.length; i += 2) {
+            long lat = Math.round(latLng[i] * FACTOR);
+            long lng = Math.round(latLng[i + 1] * FACTOR);
+            encodeValue(lat - previousLat, encoded);
+            encodeValue(lng - previousLng, encoded);
+            previousLat = lat;
+            previousLng = lng;
+        }
+        return encoded.toString();
+    }
+
+    public static String encode(CoordinateSequence sequence) {
+        StringBuilder encoded = new StringBuilder(sequence.size() * 8);
+        long previousLat = 0;
+        long previousLng = 0;
+        for (int i = 0; i < sequence.size(); i++) {
+            long lat = Math.round(sequence.getY(i) * FACTOR);
+            long lng = Math.round(sequence.getX(i) * FACTOR);
+            encodeValue(lat - previousLat, encoded);
+            encodeValue(lng - previousLng, encoded);
+            previousLat = lat;
+            previousLng = lng;
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * @return the coordinates as lat, lng pairs
+     */
+    public static double[] decode(String encoded) {
+        return decode(encoded, false);
+    }
+
+    /**
+     * @return the coordinates as a sequence of x (lng), y (lat) pairs
+     */
+    public static PackedCoordinateSequence.Double decodeSequence(String encoded) {
+        return new PackedCoordinateSequence.Double(decode(encoded, true), 2, 0);
+    }
+
+    private static void encodeValue(long value, StringBuilder encoded) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while (zigzag >= CONTINUATION) {
+            encoded.append((char) ((CONTINUATION | (zigzag & CHUNK_MASK)) + OFFSET));
+            zigzag >>>= CHUNK_BITS;
+        }
+        encoded.append((char) (zigzag + OFFSET));
+    }
+
+    private static double[] decode(String encoded, boolean lngFirst) {
+        // count the values first so the result is allocated once at its exact size
+        int values = 0;
+        for (int i = 0; i < encoded.length(); i++) {
+            int chunk = encoded.charAt(i) - OFFSET;
+            if (chunk < 0 || chunk > 0x3f) {
+                throw new InvalidCoordinateException("Invalid character in encoded polyline");
+            }
+            if (chunk < CONTINUATION) {
+                values++;
+            }
+        }
+        if (values % 2 != 0 || (!encoded.isEmpty() && encoded.charAt(encoded.length() - 1) - OFFSET >= CONTINUATION)) {
+            throw new InvalidCoordinateException("Truncated encoded polyline");
+        }
+
+        double[] ordinates = new double[values];
+        int position = 0;
+        long lat = 0;
+        long lng = 0;
+        for (int i = 0; i < values; i += 2) {
+            for (int ordinate = 0; ordinate < 2; ordinate++) {
+                long result = 0;
+                int shift = 0;
+                int chunk;
+                do {
+                    if (shift > 60) {
+                        throw new InvalidCoordinateException("Invalid value in encoded polyline");
+                    }
+                    chunk = encoded.charAt(position++) - OFFSET;
+                    result |= (long) (chunk & CHUNK_MASK) << shift;
+                    shift += CHUNK_BITS;
+                } while (chunk >= CONTINUATION);
+
+                long delta = (result >>> 1) ^ -(result & 1);
+                if (ordinate == 0) {
+                    lat += delta;
+                } else {
+                    lng += delta;
+                }
+            }
+            ordinates[i] = (lngFirst ? lng : lat) / FACTOR;
+            ordinates[i + 1] = (lngFirst ? lat : lng) / FACTOR;
+        }
+        return ordinates;
+    }
+}
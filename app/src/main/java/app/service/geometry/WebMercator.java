@@ -0,0 +1,54 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.geometry;
+
+/**
+ * The web mercator projection used by map tiles, with coordinates as fractions of the world's
+ * width and height from its top left corner.
+ */
+public final class WebMercator {
+
+    // the latitude at which the projected world is square
+    public static final double MAX_LATITUDE = 85.05112878;
+
+    private WebMercator() {
+    }
+
+    public static double x(double lng) {
+        return (lng + 180) / 360;
+    }
+
+    public static double y(double lat) {
+        double sin = Math.sin(Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, lat))));
+        return 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+    }
+
+    public static double longitude(double x) {
+        return Math.max(-180, Math.min(180, x * 360 - 180));
+    }
+
+    public static double latitude(double y) {
+        double lat = Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * y))));
+        return Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, lat));
+    }
+
+    /**
+     * @return the index of the tile, or of the grid cell when there are several per tile side, a
+     * projected coordinate falls in at the given number of cells per world side
+     */
+    public static int cell(double projected, int cellsPerSide) {
+        return (int) Math.max(0, Math.min(cellsPerSide - 1, Math.floor(projected * cellsPerSide)));
+    }
+}
@@ -0,0 +1,242 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.heatmap;
+
+import app.dto.heatmap.HeatmapDTO;
+import app.exception.Libre311BaseException;
+import app.model.heatmap.HeatmapCell;
+import app.model.heatmap.HeatmapCellRepository;
+import app.model.jurisdiction.Jurisdiction;
+import app.model.jurisdiction.JurisdictionRepository;
+import app.model.servicerequest.ServiceRequest;
+import app.model.servicerequest.ServiceRequestRepository;
+import app.model.servicerequest.ServiceRequestStatus;
+import app.service.geometry.WebMercator;
+import app.service.servicerequest.ServiceRequestEvent;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.runtime.event.annotation.EventListener;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Maintains per jurisdiction, service, status and week counts of service requests in a grid of
+ * web mercator cells, so a heatmap costs as much as the cells it covers rather than the requests
+ * in them.
+ * <p>
+ * Counts are upserted as requests are created or change status. Jurisdictions without any cells,
+ * such as those with requests from before the grid existed, are backfilled at startup.
+ */
+@Singleton
+public class HeatmapService implements ApplicationEventListener<ServiceRequestEvent> {
+
+    static class InvalidZoomException extends Libre311BaseException {
+        public InvalidZoomException() {
+            super(String.format("zoom must be between 0 and %d", CELL_ZOOM), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // cells are the tiles of this zoom level, about 300m wide at the equator
+    public static final int CELL_ZOOM = 17;
+
+    private static final Logger LOG = LoggerFactory.getLogger(HeatmapService.class);
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+    private static final LocalDate FIRST_WEEK = LocalDate.of(1970, 1, 1);
+    private static final LocalDate LAST_WEEK = LocalDate.of(9999, 12, 31);
+
+    private final HeatmapCellRepository heatmapCellRepository;
+    private final JurisdictionRepository jurisdictionRepository;
+    private final ServiceRequestRepository serviceRequestRepository;
+
+    public HeatmapService(HeatmapCellRepository heatmapCellRepository, JurisdictionRepository jurisdictionRepository,
+                          ServiceRequestRepository serviceRequestRepository) {
+        this.heatmapCellRepository = heatmapCellRepository;
+        this.jurisdictionRepository = jurisdictionRepository;
+        this.serviceRequestRepository = serviceRequestRepository;
+    }
+
+    /**
+     * @param startDate only requests created in or after the week of this date are counted
+     * @param endDate   only requests created in or before the week of this date are counted
+     * @param zoom      the zoom level whose tiles are the heatmap's cells
+     */
+    public HeatmapDTO getHeatmap(String jurisdictionId, @Nullable List<Long> serviceCodes,
+                                 @Nullable List<ServiceRequestStatus> statuses,
+                                 @Nullable Instant startDate, @Nullable Instant endDate, int zoom) {
+        if (zoom < 0 || zoom > CELL_ZOOM) {
+            throw new InvalidZoomException();
+        }
+
+        LocalDate from = startDate == null ? FIRST_WEEK : weekOf(startDate);
+        LocalDate to = endDate == null ? LAST_WEEK : weekOf(endDate);
+        int shift = CELL_ZOOM - zoom;
+
+        // ordered by cell key so the response is stable
+        Map<Long, Integer> counts = new TreeMap<>();
+        for (HeatmapCell cell : heatmapCellRepository.findByJurisdictionIdAndWeekStartBetween(jurisdictionId, from, to)) {
+            if ((serviceCodes != null && !serviceCodes.contains(cell.getServiceId()))
+                || (statuses != null && !statuses.contains(cell.getStatus()))) {
+                continue;
+            }
+            counts.merge(cellKey(cell.getCellX() >> shift, cell.getCellY() >> shift), cell.getRequestCount(), Integer::sum);
+        }
+
+        int[] cells = new int[counts.size() * 3];
+        int i = 0;
+        for (Map.Entry<Long, Integer> entry : counts.entrySet()) {
+            if (entry.getValue() <= 0) {
+                continue;
+            }
+            cells[i++] = (int) (entry.getKey() & 0xffffffffL);
+            cells[i++] = (int) (entry.getKey() >>> 32);
+            cells[i++] = entry.getValue();
+        }
+        return new HeatmapDTO(zoom, i == cells.length ? cells : Arrays.copyOf(cells, i));
+    }
+
+    @Override
+    public void onApplicationEvent(ServiceRequestEvent event) {
+        if (event.getType() == ServiceRequestEvent.Type.CREATED) {
+            addToCount(event, event.getStatus(), 1);
+        } else if (event.isStatusChanged()) {
+            addToCount(event, event.getPreviousStatus(), -1);
+            addToCount(event, event.getStatus(), 1);
+        }
+    }
+
+    // before the server starts, so no request is created while a jurisdiction is backfilled
+    @EventListener
+    public void onStartup(StartupEvent event) {
+        for (Jurisdiction jurisdiction : jurisdictionRepository.findAll()) {
+            if (!heatmapCellRepository.existsByJurisdictionId(jurisdiction.getId())) {
+                backfill(jurisdiction.getId());
+            }
+        }
+    }
+
+    /**
+     * Counts the jurisdiction's requests from scratch, reading them in pages ordered by id.
+     */
+    void backfill(String jurisdictionId) {
+        Map<Bucket, Integer> counts = new HashMap<>();
+        Pageable batch = Pageable.from(0, BACKFILL_BATCH_SIZE, Sort.of(Sort.Order.asc("id")));
+        long lastId = 0;
+        List<ServiceRequest> serviceRequests;
+        do {
+            serviceRequests = serviceRequestRepository.findByJurisdictionIdAndIdGreaterThan(jurisdictionId, lastId, batch);
+            for (ServiceRequest serviceRequest : serviceRequests) {
+                counts.merge(new Bucket(serviceRequest.getService().getId(), serviceRequest.getStatus(),
+                    weekOf(serviceRequest.getDateCreated()),
+                    cellX(serviceRequest.getLocation().getX()), cellY(serviceRequest.getLocation().getY())),
+                    1, Integer::sum);
+                lastId = serviceRequest.getId();
+            }
+        } while (serviceRequests.size() == BACKFILL_BATCH_SIZE);
+
+        if (counts.isEmpty()) {
+            return;
+        }
+        List<HeatmapCell> cells = new ArrayList<>(counts.size());
+        counts.forEach((bucket, count) -> cells.add(bucket.toCell(jurisdictionId, count)));
+        heatmapCellRepository.saveAll(cells);
+        LOG.info("Backfilled {} heatmap cells for jurisdiction {}.", cells.size(), jurisdictionId);
+    }
+
+    private void addToCount(ServiceRequestEvent event, ServiceRequestStatus status, int delta) {
+        heatmapCellRepository.addToCount(event.getJurisdictionId(), event.getServiceId(), status.name(),
+            weekOf(event.getDateCreated()), cellX(event.getLongitude()), cellY(event.getLatitude()), delta);
+    }
+
+    static LocalDate weekOf(@Nullable Instant instant) {
+        LocalDate date = LocalDate.ofInstant(instant == null ? Instant.now() : instant, ZoneOffset.UTC);
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static int cellX(double lng) {
+        return WebMercator.cell(WebMercator.x(lng), 1 << CELL_ZOOM);
+    }
+
+    private static int cellY(double lat) {
+        return WebMercator.cell(WebMercator.y(lat), 1 << CELL_ZOOM);
+    }
+
+    private static long cellKey(int x, int y) {
+        return ((long) y << 32) | (x & 0xffffffffL);
+    }
+
+    private static final class Bucket {
+        final long serviceId;
+        final ServiceRequestStatus status;
+        final LocalDate weekStart;
+        final int cellX;
+        final int cellY;
+
+        Bucket(long serviceId, ServiceRequestStatus status, LocalDate weekStart, int cellX, int cellY) {
+            this.serviceId = serviceId;
+            this.status = status;
+            this.weekStart = weekStart;
+            this.cellX = cellX;
+            this.cellY = cellY;
+        }
+
+        HeatmapCell toCell(String jurisdictionId, int count) {
+            HeatmapCell cell = new HeatmapCell();
+            cell.setJurisdictionId(jurisdictionId);
+            cell.setServiceId(serviceId);
+            cell.setStatus(status);
+            cell.setWeekStart(weekStart);
+            cell.setCellX(cellX);
+            cell.setCellY(cellY);
+            cell.setRequestCount(count);
+            return cell;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Bucket)) {
+                return false;
+            }
+            Bucket that = (Bucket) o;
+            return serviceId == that.serviceId && cellX == that.cellX && cellY == that.cellY
+                && status == that.status && weekStart.equals(that.weekStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(serviceId, status, weekStart, cellX, cellY);
+        }
+    }
+}
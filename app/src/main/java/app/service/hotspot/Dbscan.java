@@ -0,0 +1,186 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.hotspot;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * DBSCAN over [lat, lng] points. The points are projected to meters around their mean latitude
+ * and bucketed into a grid of eps sized cells, so a point's neighbours are found among the points
+ * of its own and the eight surrounding cells rather than all of them.
+ */
+class Dbscan {
+
+    static final int NOISE = -1;
+    private static final int UNVISITED = -2;
+    private static final double METERS_PER_DEGREE = Math.toRadians(1) * 6_371_008.8;
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double eps;
+    private final double epsSquared;
+    private final int minPoints;
+
+    // the points of each cell are members[cellStart[cell]] up to members[cellStart[cell + 1]]
+    private final int[] cellOf;
+    private final int[] cellStart;
+    private final int[] members;
+    // the cells around each cell, itself included, nine per cell and -1 for those without points
+    private final int[] adjacentCells;
+
+    /**
+     * @param eps       how close, in meters, two points must be to be neighbours
+     * @param minPoints how many points, itself included, must be within eps of a point for it to
+     *                  be a cluster's core
+     */
+    Dbscan(double[] lats, double[] lngs, double eps, int minPoints) {
+        int n = lats.length;
+        this.eps = eps;
+        this.epsSquared = eps * eps;
+        this.minPoints = minPoints;
+        this.xs = new double[n];
+        this.ys = new double[n];
+
+        double meanLat = 0;
+        for (double lat : lats) {
+            meanLat += lat / n;
+        }
+        double cosLat = Math.cos(Math.toRadians(meanLat));
+        for (int i = 0; i < n; i++) {
+            xs[i] = lngs[i] * cosLat * METERS_PER_DEGREE;
+            ys[i] = lats[i] * METERS_PER_DEGREE;
+        }
+
+        // counting sort of the points by cell
+        Map<Long, Integer> cellIds = new HashMap<>();
+        this.cellOf = new int[n];
+        int[] counts = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            int cell = cellIds.computeIfAbsent(key(column(xs[i]), column(ys[i])), k -> cellIds.size());
+            cellOf[i] = cell;
+            counts[cell + 1]++;
+        }
+        this.cellStart = Arrays.copyOf(counts, cellIds.size() + 1);
+        for (int c = 0; c < cellIds.size(); c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        this.members = new int[n];
+        int[] next = Arrays.copyOf(cellStart, cellIds.size());
+        for (int i = 0; i < n; i++) {
+            members[next[cellOf[i]]++] = i;
+        }
+
+        this.adjacentCells = new int[cellIds.size() * 9];
+        for (Map.Entry<Long, Integer> cell : cellIds.entrySet()) {
+            long column = cell.getKey() >> 32;
+            long row = (int) (long) cell.getKey();
+            int k = cell.getValue() * 9;
+            for (long dx = -1; dx <= 1; dx++) {
+                for (long dy = -1; dy <= 1; dy++) {
+                    adjacentCells[k++] = cellIds.getOrDefault(key(column + dx, row + dy), -1);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the cluster of each point, numbered from 0, or {@link #NOISE}
+     */
+    int[] cluster() {
+        int n = xs.length;
+        int[] labels = new int[n];
+        Arrays.fill(labels, UNVISITED);
+        int[] neighbours = new int[n];
+        int[] stack = new int[n];
+        int clusters = 0;
+
+        for (int i = 0; i < n; i++) {
+            if (labels[i] != UNVISITED) {
+                continue;
+            }
+            int count = neighbours(i, neighbours);
+            if (count < minPoints) {
+                labels[i] = NOISE;
+                continue;
+            }
+
+            int cluster = clusters++;
+            labels[i] = cluster;
+            int top = 0;
+            for (int k = 0; k < count; k++) {
+                int j = neighbours[k];
+                if (labels[j] == UNVISITED) {
+                    // pushed once, as it is labelled before it is expanded
+                    labels[j] = cluster;
+                    stack[top++] = j;
+                } else if (labels[j] == NOISE) {
+                    labels[j] = cluster;
+                }
+            }
+            while (top > 0) {
+                int p = stack[--top];
+                int pCount = neighbours(p, neighbours);
+                if (pCount < minPoints) {
+                    // a border point, it doesn't extend the cluster
+                    continue;
+                }
+                for (int k = 0; k < pCount; k++) {
+                    int j = neighbours[k];
+                    if (labels[j] == UNVISITED) {
+                        labels[j] = cluster;
+                        stack[top++] = j;
+                    } else if (labels[j] == NOISE) {
+                        labels[j] = cluster;
+                    }
+                }
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * Writes the points within eps of point i, itself included, to out.
+     *
+     * @return how many were written
+     */
+    private int neighbours(int i, int[] out) {
+        int count = 0;
+        for (int k = cellOf[i] * 9, end = k + 9; k < end; k++) {
+            int cell = adjacentCells[k];
+            if (cell < 0) {
+                continue;
+            }
+            for (int m = cellStart[cell]; m < cellStart[cell + 1]; m++) {
+                int j = members[m];
+                double dx = xs[j] - xs[i];
+                double dy = ys[j] - ys[i];
+                if (dx * dx + dy * dy <= epsSquared) {
+                    out[count++] = j;
+                }
+            }
+        }
+        return count;
+    }
+
+    private long column(double meters) {
+        return (long) Math.floor(meters / eps);
+    }
+
+    private static long key(long column, long row) {
+        return (column << 32) ^ (row & 0xffffffffL);
+    }
+}
@@ -0,0 +1,175 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.hotspot;
+
+import app.model.hotspot.Hotspot;
+import app.model.jurisdiction.Jurisdiction;
+import app.model.jurisdiction.JurisdictionRepository;
+import app.model.servicerequest.ServiceRequest;
+import app.model.servicerequest.ServiceRequestRepository;
+import app.service.geometry.GeoDistance;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Finds hotspots, dense clusters of a service's requests created within the last window, of each
+ * jurisdiction on a schedule. Each service's requests are clustered on its own fork-join task and
+ * the jurisdiction's hotspots replaced with what they found.
+ */
+@Singleton
+public class HotspotDetector {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HotspotDetector.class);
+    private static final int BATCH_SIZE = 1000;
+
+    @Property(name = "app.hotspots.window")
+    protected Duration window;
+
+    @Property(name = "app.hotspots.eps-meters")
+    protected double epsMeters;
+
+    @Property(name = "app.hotspots.min-requests")
+    protected int minRequests;
+
+    private final JurisdictionRepository jurisdictionRepository;
+    private final ServiceRequestRepository serviceRequestRepository;
+    private final HotspotService hotspotService;
+
+    public HotspotDetector(JurisdictionRepository jurisdictionRepository,
+                           ServiceRequestRepository serviceRequestRepository,
+                           HotspotService hotspotService) {
+        this.jurisdictionRepository = jurisdictionRepository;
+        this.serviceRequestRepository = serviceRequestRepository;
+        this.hotspotService = hotspotService;
+    }
+
+    @Scheduled(cron = "${app.hotspots.cron}")
+    void detectAll() {
+        for (Jurisdiction jurisdiction : jurisdictionRepository.findAll()) {
+            try {
+                detect(jurisdiction.getId());
+            } catch (RuntimeException e) {
+                LOG.error("Could not detect the hotspots of jurisdiction {}.", jurisdiction.getId(), e);
+            }
+        }
+    }
+
+    /**
+     * Replaces the jurisdiction's hotspots with those of its requests created within the window
+     * ending now.
+     */
+    public void detect(String jurisdictionId) {
+        Instant windowEnd = Instant.now();
+        Instant windowStart = windowEnd.minus(window);
+
+        Map<Long, Locations> locationsByService = new HashMap<>();
+        Pageable page = Pageable.from(0, BATCH_SIZE, Sort.of(Sort.Order.asc("id")));
+        long lastId = 0;
+        List<ServiceRequest> batch;
+        do {
+            batch = serviceRequestRepository.findByJurisdictionIdAndDateCreatedGreaterThanEqualsAndIdGreaterThan(
+                jurisdictionId, windowStart, lastId, page);
+            for (ServiceRequest serviceRequest : batch) {
+                locationsByService.computeIfAbsent(serviceRequest.getService().getId(), id -> new Locations())
+                    .add(serviceRequest.getLocation().getY(), serviceRequest.getLocation().getX());
+                lastId = serviceRequest.getId();
+            }
+        } while (batch.size() == BATCH_SIZE);
+
+        List<Hotspot> hotspots = locationsByService.entrySet().parallelStream()
+            .filter(entry -> entry.getValue().size >= minRequests)
+            .flatMap(entry -> findHotspots(entry.getKey(), entry.getValue()).stream())
+            .collect(Collectors.toList());
+        for (Hotspot hotspot : hotspots) {
+            hotspot.setJurisdictionId(jurisdictionId);
+            hotspot.setWindowStart(windowStart);
+            hotspot.setWindowEnd(windowEnd);
+        }
+
+        hotspotService.replaceHotspots(jurisdictionId, hotspots);
+        LOG.info("Found {} hotspots for jurisdiction {}.", hotspots.size(), jurisdictionId);
+    }
+
+    private List<Hotspot> findHotspots(Long serviceId, Locations locations) {
+        double[] lats = Arrays.copyOf(locations.lats, locations.size);
+        double[] lngs = Arrays.copyOf(locations.lngs, locations.size);
+        int[] labels = new Dbscan(lats, lngs, epsMeters, minRequests).cluster();
+
+        int clusters = 0;
+        for (int label : labels) {
+            clusters = Math.max(clusters, label + 1);
+        }
+        double[] latSums = new double[clusters];
+        double[] lngSums = new double[clusters];
+        int[] counts = new int[clusters];
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i] != Dbscan.NOISE) {
+                latSums[labels[i]] += lats[i];
+                lngSums[labels[i]] += lngs[i];
+                counts[labels[i]]++;
+            }
+        }
+        double[] radii = new double[clusters];
+        for (int i = 0; i < labels.length; i++) {
+            int c = labels[i];
+            if (c != Dbscan.NOISE) {
+                radii[c] = Math.max(radii[c], GeoDistance.haversineMeters(
+                    latSums[c] / counts[c], lngSums[c] / counts[c], lats[i], lngs[i]));
+            }
+        }
+
+        List<Hotspot> hotspots = new ArrayList<>(clusters);
+        for (int c = 0; c < clusters; c++) {
+            Hotspot hotspot = new Hotspot();
+            hotspot.setServiceId(serviceId);
+            hotspot.setLatitude(latSums[c] / counts[c]);
+            hotspot.setLongitude(lngSums[c] / counts[c]);
+            hotspot.setRadiusMeters(radii[c]);
+            hotspot.setRequestCount(counts[c]);
+            hotspots.add(hotspot);
+        }
+        return hotspots;
+    }
+
+    private static class Locations {
+        private double[] lats = new double[16];
+        private double[] lngs = new double[16];
+        private int size;
+
+        void add(double lat, double lng) {
+            if (size == lats.length) {
+                lats = Arrays.copyOf(lats, size * 2);
+                lngs = Arrays.copyOf(lngs, size * 2);
+            }
+            lats[size] = lat;
+            lngs[size] = lng;
+            size++;
+        }
+    }
+}
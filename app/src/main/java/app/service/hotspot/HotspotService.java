@@ -0,0 +1,52 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.hotspot;
+
+import app.dto.hotspot.HotspotDTO;
+import app.model.hotspot.Hotspot;
+import app.model.hotspot.HotspotRepository;
+import jakarta.inject.Singleton;
+
+import javax.transaction.Transactional;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Singleton
+public class HotspotService {
+
+    private final HotspotRepository hotspotRepository;
+
+    public HotspotService(HotspotRepository hotspotRepository) {
+        this.hotspotRepository = hotspotRepository;
+    }
+
+    /**
+     * @return the jurisdiction's hotspots found by the last detection, the largest first, only
+     * those of the given services unless none are given
+     */
+    public List<HotspotDTO> getHotspots(String jurisdictionId, List<Long> serviceCodes) {
+        List<Hotspot> hotspots = serviceCodes == null || serviceCodes.isEmpty()
+            ? hotspotRepository.findByJurisdictionIdOrderByRequestCountDesc(jurisdictionId)
+            : hotspotRepository.findByJurisdictionIdAndServiceIdInOrderByRequestCountDesc(jurisdictionId, serviceCodes);
+        return hotspots.stream().map(HotspotDTO::new).collect(Collectors.toList());
+    }
+
+    // in one transaction, so readers see either the previous or the new hotspots
+    @Transactional
+    public void replaceHotspots(String jurisdictionId, List<Hotspot> hotspots) {
+        hotspotRepository.deleteByJurisdictionId(jurisdictionId);
+        hotspotRepository.saveAll(hotspots);
+    }
+}
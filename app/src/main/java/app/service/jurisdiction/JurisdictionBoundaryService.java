@@ -1,46 +1,138 @@
 package app.service.jurisdiction;
 
+import app.model.jurisdiction.BoundaryDetail;
 import app.model.jurisdiction.Jurisdiction;
 import app.model.jurisdiction.JurisdictionBoundary;
 import app.model.jurisdiction.JurisdictionBoundaryEntity;
 import app.model.jurisdiction.JurisdictionBoundaryRepository;
+import app.service.AfterCommit;
 import app.service.geometry.LibreGeometryFactory;
+import io.micronaut.runtime.event.annotation.EventListener;
+import io.micronaut.runtime.server.event.ServerStartupEvent;
 import jakarta.inject.Singleton;
 import javax.transaction.Transactional;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.MultiPolygon;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 @Singleton
 public class JurisdictionBoundaryService {
 
+    private static final Logger LOG = LoggerFactory.getLogger(JurisdictionBoundaryService.class);
+
     LibreGeometryFactory libreGeometryFactory;
     JurisdictionBoundaryRepository jurisdictionBoundaryRepository;
+    JurisdictionLocator jurisdictionLocator;
 
     public JurisdictionBoundaryService(LibreGeometryFactory libreGeometryFactory,
-        JurisdictionBoundaryRepository jurisdictionBoundaryRepository) {
+        JurisdictionBoundaryRepository jurisdictionBoundaryRepository,
+        JurisdictionLocator jurisdictionLocator) {
         this.libreGeometryFactory = libreGeometryFactory;
         this.jurisdictionBoundaryRepository = jurisdictionBoundaryRepository;
+        this.jurisdictionLocator = jurisdictionLocator;
     }
 
     public boolean existsInJurisdiction(String jurisdictionId, double lat, double lng){
-        JurisdictionBoundaryEntity jb = jurisdictionBoundaryRepository.findByJurisdictionId(jurisdictionId);
+        PreparedGeometry boundary = jurisdictionLocator.findBoundary(jurisdictionId);
+        if (boundary == null) {
+            return false;
+        }
         Point point = libreGeometryFactory.createPoint(new Coordinate(lng, lat));
 
-        return jb.getBoundary().covers(point);
+        return boundary.covers(point);
     }
 
     public JurisdictionBoundary saveBoundary(Jurisdiction jurisdiction,
         Double[][] bounds) {
-        Polygon polygon = libreGeometryFactory.createPolygon(bounds);
-        return jurisdictionBoundaryRepository.save(
-            JurisdictionBoundaryEntity.from(jurisdiction.getId(), polygon));
+        return saveBoundary(jurisdiction, libreGeometryFactory.createMultiPolygon(bounds));
+    }
+
+    public JurisdictionBoundary saveBoundary(Jurisdiction jurisdiction, MultiPolygon boundary) {
+        JurisdictionBoundaryEntity jurisdictionBoundary = JurisdictionBoundaryEntity.from(jurisdiction.getId(), boundary);
+        simplifyBoundary(jurisdictionBoundary);
+        JurisdictionBoundary saved = jurisdictionBoundaryRepository.save(jurisdictionBoundary);
+        cacheBoundary(jurisdiction.getId(), boundary);
+        return saved;
     }
 
     @Transactional
     public JurisdictionBoundary updateBoundary(Jurisdiction jurisdiction, Double[][] bounds) {
+        return updateBoundary(jurisdiction, libreGeometryFactory.createMultiPolygon(bounds));
+    }
+
+    /**
+     * Replaces the jurisdiction's boundary, creating it if the jurisdiction has none yet.
+     */
+    @Transactional
+    public JurisdictionBoundary updateBoundary(Jurisdiction jurisdiction, MultiPolygon boundary) {
         var jurisdictionBoundary = jurisdictionBoundaryRepository.findByJurisdictionId(jurisdiction.getId());
-        jurisdictionBoundary.setBoundary(libreGeometryFactory.createPolygon(bounds));
-        return jurisdictionBoundaryRepository.update(jurisdictionBoundary);
+        if (jurisdictionBoundary == null) {
+            return saveBoundary(jurisdiction, boundary);
+        }
+        jurisdictionBoundary.setBoundary(boundary);
+        simplifyBoundary(jurisdictionBoundary);
+        JurisdictionBoundary updated = jurisdictionBoundaryRepository.update(jurisdictionBoundary);
+        cacheBoundary(jurisdiction.getId(), boundary);
+        return updated;
+    }
+
+    /**
+     * Finds a jurisdiction's boundary at the given detail. Boundaries saved before the simplified
+     * variants existed are only simplified at startup, so until then they are returned in full.
+     *
+     * @return the boundary, or null if the jurisdiction has none
+     */
+    public MultiPolygon findBoundary(String jurisdictionId, BoundaryDetail detail) {
+        JurisdictionBoundaryEntity jurisdictionBoundary = jurisdictionBoundaryRepository.findByJurisdictionId(jurisdictionId);
+        if (jurisdictionBoundary == null) {
+            return null;
+        }
+        MultiPolygon boundary = jurisdictionBoundary.getBoundary(detail);
+        return boundary != null ? boundary : jurisdictionBoundary.getBoundary();
+    }
+
+    @EventListener
+    public void onStartup(ServerStartupEvent event) {
+        backfillSimplifiedBoundaries();
+    }
+
+    /**
+     * Simplifies the boundaries saved before the simplified variants existed.
+     */
+    void backfillSimplifiedBoundaries() {
+        for (JurisdictionBoundaryEntity jurisdictionBoundary : jurisdictionBoundaryRepository.findAllByBoundaryLowIsNull()) {
+            simplifyBoundary(jurisdictionBoundary);
+            jurisdictionBoundaryRepository.update(jurisdictionBoundary);
+            LOG.info("Simplified the boundary of jurisdiction {}.", jurisdictionBoundary.getJurisdictionId());
+        }
+    }
+
+    private static void simplifyBoundary(JurisdictionBoundaryEntity jurisdictionBoundary) {
+        MultiPolygon boundary = jurisdictionBoundary.getBoundary();
+        for (BoundaryDetail detail : BoundaryDetail.values()) {
+            if (detail != BoundaryDetail.FULL) {
+                jurisdictionBoundary.setBoundary(detail, simplify(boundary, detail.getTolerance()));
+            }
+        }
+    }
+
+    private static MultiPolygon simplify(MultiPolygon boundary, double tolerance) {
+        Geometry simplified = TopologyPreservingSimplifier.simplify(boundary, tolerance);
+        if (simplified instanceof MultiPolygon) {
+            return (MultiPolygon) simplified;
+        }
+        // a single polygon comes back unwrapped
+        return boundary.getFactory().createMultiPolygon(new Polygon[]{(Polygon) simplified});
+    }
+
+    private void cacheBoundary(String jurisdictionId, MultiPolygon boundary) {
+        // only once committed, so a rolled back change is never served
+        AfterCommit.run(() -> jurisdictionLocator.updateBoundary(jurisdictionId, boundary));
     }
-}
\ No newline at end of file
+}
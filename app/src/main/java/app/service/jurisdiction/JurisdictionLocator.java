@@ -0,0 +1,113 @@
+package app.service.jurisdiction;
+
+import app.model.jurisdiction.JurisdictionBoundaryEntity;
+import app.model.jurisdiction.JurisdictionBoundaryRepository;
+import app.service.geometry.LibreGeometryFactory;
+import jakarta.inject.Singleton;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.strtree.STRtree;
+
+/**
+ * Finds the jurisdictions whose boundary covers a location, using an STRtree over the bounding
+ * boxes of all boundaries. The tree is immutable, so when a boundary changes a new tree is built
+ * from the boundaries already in memory and swapped in; lookups never wait on a rebuild. Each
+ * boundary is prepared once here and also serves the containment checks of a single jurisdiction.
+ */
+@Singleton
+public class JurisdictionLocator {
+
+    private final JurisdictionBoundaryRepository jurisdictionBoundaryRepository;
+    private final LibreGeometryFactory libreGeometryFactory;
+    private volatile Snapshot snapshot;
+
+    public JurisdictionLocator(JurisdictionBoundaryRepository jurisdictionBoundaryRepository,
+        LibreGeometryFactory libreGeometryFactory) {
+        this.jurisdictionBoundaryRepository = jurisdictionBoundaryRepository;
+        this.libreGeometryFactory = libreGeometryFactory;
+    }
+
+    /**
+     * @return the ids of the jurisdictions covering the location, smallest boundary first
+     */
+    public List<String> findJurisdictionIds(double lat, double lng) {
+        Point point = libreGeometryFactory.createPoint(new Coordinate(lng, lat));
+
+        @SuppressWarnings("unchecked")
+        List<Map.Entry<String, PreparedGeometry>> candidates = getSnapshot().tree.query(point.getEnvelopeInternal());
+
+        return candidates.stream()
+            .filter(candidate -> candidate.getValue().covers(point))
+            .sorted(Comparator.comparingDouble(candidate -> candidate.getValue().getGeometry().getArea()))
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the jurisdiction's boundary, indexed for containment checks, or null if it has none
+     */
+    public PreparedGeometry findBoundary(String jurisdictionId) {
+        return getSnapshot().boundaries.get(jurisdictionId);
+    }
+
+    /**
+     * Adds or replaces the boundary of a jurisdiction.
+     */
+    public synchronized void updateBoundary(String jurisdictionId, Geometry boundary) {
+        if (snapshot == null) {
+            // picked up when the boundaries are first loaded
+            return;
+        }
+        Map<String, PreparedGeometry> boundaries = new HashMap<>(snapshot.boundaries);
+        boundaries.put(jurisdictionId, prepare(boundary));
+        snapshot = new Snapshot(boundaries);
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                Map<String, PreparedGeometry> boundaries = new HashMap<>();
+                for (JurisdictionBoundaryEntity entity : jurisdictionBoundaryRepository.findAll()) {
+                    boundaries.put(entity.getJurisdictionId(), prepare(entity.getBoundary()));
+                }
+                snapshot = new Snapshot(boundaries);
+            }
+            return snapshot;
+        }
+    }
+
+    private static PreparedGeometry prepare(Geometry boundary) {
+        PreparedGeometry prepared = PreparedGeometryFactory.prepare(boundary);
+        // build the point-in-polygon index now rather than on the first lookup
+        prepared.covers(boundary.getCentroid());
+        return prepared;
+    }
+
+    private static class Snapshot {
+        private final Map<String, PreparedGeometry> boundaries;
+        private final STRtree tree = new STRtree();
+
+        Snapshot(Map<String, PreparedGeometry> boundaries) {
+            this.boundaries = boundaries;
+            boundaries.entrySet().forEach(entry -> {
+                Envelope envelope = entry.getValue().getGeometry().getEnvelopeInternal();
+                tree.insert(envelope, Map.entry(entry.getKey(), entry.getValue()));
+            });
+            // building is lazy and not thread safe, so do it before the snapshot is published
+            tree.build();
+        }
+    }
+}
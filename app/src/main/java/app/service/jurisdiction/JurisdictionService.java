@@ -18,17 +18,21 @@ import app.dto.jurisdiction.CreateJurisdictionDTO;
 import app.dto.jurisdiction.JurisdictionDTO;
 import app.dto.jurisdiction.PatchJurisdictionDTO;
 import app.exception.Libre311BaseException;
+import app.model.jurisdiction.BoundaryDetail;
 import app.model.jurisdiction.Jurisdiction;
 import app.model.jurisdiction.JurisdictionBoundary;
-import app.model.jurisdiction.JurisdictionBoundaryEntity;
 import app.model.jurisdiction.JurisdictionBoundaryRepository;
 import app.model.jurisdiction.JurisdictionRepository;
+import app.service.geometry.GeoJsonBoundaryReader;
+import app.service.geometry.LibreGeometryFactory;
 import io.micronaut.context.annotation.Property;
 import io.micronaut.http.HttpStatus;
 import jakarta.inject.Singleton;
+import org.locationtech.jts.geom.MultiPolygon;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.InputStream;
 import java.util.*;
 
 @Singleton
@@ -51,6 +55,13 @@ public class JurisdictionService {
 
     }
 
+    static class MissingBoundaryException extends Libre311BaseException {
+
+        public MissingBoundaryException() {
+            super("A jurisdiction needs one of bounds, multi_bounds, encoded_bounds or encoded_multi_bounds", HttpStatus.BAD_REQUEST);
+        }
+    }
+
     static class JurisdictionAlreadyExists extends Libre311BaseException {
 
         public JurisdictionAlreadyExists(String id) {
@@ -68,23 +79,41 @@ public class JurisdictionService {
     private final JurisdictionRepository jurisdictionRepository;
     JurisdictionBoundaryRepository jurisdictionBoundaryRepository;
     JurisdictionBoundaryService jurisdictionBoundaryService;
+    LibreGeometryFactory libreGeometryFactory;
+    GeoJsonBoundaryReader geoJsonBoundaryReader;
 
     public JurisdictionService(JurisdictionRepository jurisdictionRepository,
         JurisdictionBoundaryRepository jurisdictionBoundaryRepository,
-        JurisdictionBoundaryService jurisdictionBoundaryService) {
+        JurisdictionBoundaryService jurisdictionBoundaryService,
+        LibreGeometryFactory libreGeometryFactory,
+        GeoJsonBoundaryReader geoJsonBoundaryReader) {
         this.jurisdictionRepository = jurisdictionRepository;
         this.jurisdictionBoundaryRepository = jurisdictionBoundaryRepository;
         this.jurisdictionBoundaryService = jurisdictionBoundaryService;
+        this.libreGeometryFactory = libreGeometryFactory;
+        this.geoJsonBoundaryReader = geoJsonBoundaryReader;
     }
 
     public JurisdictionDTO findJurisdictionByHostName(String hostName) {
+        return findJurisdictionByHostName(hostName, BoundaryDetail.FULL, false);
+    }
+
+    /**
+     * @param detail  the resolution of the boundary to return; the full boundary is only needed by
+     *                clients that check containment themselves
+     * @param encoded whether to return the boundary as polyline6 encoded strings rather than
+     *                [lat, lng] arrays
+     */
+    public JurisdictionDTO findJurisdictionByHostName(String hostName, BoundaryDetail detail, boolean encoded) {
         return jurisdictionRepository.findByRemoteHostsNameEquals(hostName)
             .map(jurisdiction -> {
                 JurisdictionDTO jurisdictionDTO = new JurisdictionDTO(jurisdiction, authUrl);
-
-                JurisdictionBoundaryEntity jurisdictionBoundary = jurisdictionBoundaryRepository.findByJurisdictionId(
-                    jurisdiction.getId());
-                jurisdictionDTO.setBounds(jurisdictionBoundary.getBoundary());
+                MultiPolygon boundary = jurisdictionBoundaryService.findBoundary(jurisdiction.getId(), detail);
+                if (encoded) {
+                    jurisdictionDTO.setEncodedBounds(boundary);
+                } else {
+                    jurisdictionDTO.setBounds(boundary);
+                }
 
                 return jurisdictionDTO;
             }).orElseThrow(() -> JurisdictionNotFoundException.noJurisdictionForHostname(hostName));
@@ -95,6 +124,12 @@ public class JurisdictionService {
             throw new JurisdictionAlreadyExists(requestDTO.getJurisdictionId());
         }
 
+        MultiPolygon boundary = toBoundary(requestDTO.getBounds(), requestDTO.getMultiBounds(),
+            requestDTO.getEncodedBounds(), requestDTO.getEncodedMultiBounds());
+        if (boundary == null) {
+            throw new MissingBoundaryException();
+        }
+
         Jurisdiction jurisdiction = new Jurisdiction(requestDTO.getJurisdictionId(), tenantId);
         jurisdiction.setName(requestDTO.getName());
         jurisdiction.setPrimaryColor(requestDTO.getPrimaryColor());
@@ -103,7 +138,7 @@ public class JurisdictionService {
 
         Jurisdiction savedJurisdiction = jurisdictionRepository.save(jurisdiction);
         JurisdictionBoundary savedBoundary = jurisdictionBoundaryService.saveBoundary(
-            savedJurisdiction, requestDTO.getBounds());
+            savedJurisdiction, boundary);
 
         return new JurisdictionDTO(savedJurisdiction, savedBoundary);
     }
@@ -119,15 +154,49 @@ public class JurisdictionService {
         applyPatch(requestDTO, jurisdiction);
         JurisdictionDTO jurisdictionDTO = new JurisdictionDTO(jurisdictionRepository.update(jurisdiction));
 
-        Double[][] dtoBounds = requestDTO.getBounds();
-        if (dtoBounds != null) {
+        MultiPolygon boundary = toBoundary(requestDTO.getBounds(), requestDTO.getMultiBounds(),
+            requestDTO.getEncodedBounds(), requestDTO.getEncodedMultiBounds());
+        if (boundary != null) {
             JurisdictionBoundary savedBoundary = jurisdictionBoundaryService.updateBoundary(
-                jurisdiction, dtoBounds);
+                jurisdiction, boundary);
             jurisdictionDTO.setBounds(savedBoundary.getBoundary());
         }
         return jurisdictionDTO;
     }
 
+    /**
+     * Replaces a jurisdiction's boundary with the Polygon and MultiPolygon geometries of a GeoJSON
+     * document. The boundary is not echoed back as it may have hundreds of thousands of vertices.
+     */
+    public JurisdictionDTO importBoundary(String jurisdictionId, InputStream geoJson) {
+        Jurisdiction jurisdiction = jurisdictionRepository.findById(jurisdictionId)
+            .orElseThrow(() -> JurisdictionNotFoundException.noJurisdictionForId(jurisdictionId));
+
+        MultiPolygon boundary = geoJsonBoundaryReader.read(geoJson);
+        jurisdictionBoundaryService.updateBoundary(jurisdiction, boundary);
+        LOG.info("Imported a boundary of {} polygons and {} vertices for jurisdiction {}.",
+            boundary.getNumGeometries(), boundary.getNumPoints(), jurisdictionId);
+
+        return new JurisdictionDTO(jurisdiction);
+    }
+
+    private MultiPolygon toBoundary(Double[][] bounds, Double[][][][] multiBounds,
+        String encodedBounds, String[][] encodedMultiBounds) {
+        if (multiBounds != null) {
+            return libreGeometryFactory.createMultiPolygon(multiBounds);
+        }
+        if (encodedMultiBounds != null) {
+            return libreGeometryFactory.createMultiPolygon(encodedMultiBounds);
+        }
+        if (bounds != null) {
+            return libreGeometryFactory.createMultiPolygon(bounds);
+        }
+        if (encodedBounds != null) {
+            return libreGeometryFactory.createMultiPolygon(encodedBounds);
+        }
+        return null;
+    }
+
 
 
     private void applyPatch(PatchJurisdictionDTO jurisdictionDTO, Jurisdiction jurisdiction) {
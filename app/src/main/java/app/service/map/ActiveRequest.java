@@ -0,0 +1,70 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.map;
+
+import app.model.servicerequest.ServiceRequestPriority;
+import app.model.servicerequest.ServiceRequestStatus;
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * The fields of an OPEN or IN_PROGRESS service request that the map needs to place and style it.
+ */
+public final class ActiveRequest {
+
+    private final long id;
+    private final long serviceId;
+    private final ServiceRequestStatus status;
+    private final ServiceRequestPriority priority;
+    private final double lat;
+    private final double lng;
+
+    public ActiveRequest(long id, long serviceId, ServiceRequestStatus status,
+                         ServiceRequestPriority priority, double lat, double lng) {
+        this.id = id;
+        this.serviceId = serviceId;
+        this.status = status;
+        this.priority = priority;
+        this.lat = lat;
+        this.lng = lng;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getServiceId() {
+        return serviceId;
+    }
+
+    public ServiceRequestStatus getStatus() {
+        return status;
+    }
+
+    public ServiceRequestPriority getPriority() {
+        return priority;
+    }
+
+    public double getLat() {
+        return lat;
+    }
+
+    public double getLng() {
+        return lng;
+    }
+
+    Envelope getEnvelope() {
+        return new Envelope(lng, lng, lat, lat);
+    }
+}
@@ -0,0 +1,272 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.map;
+
+import app.model.jurisdiction.Jurisdiction;
+import app.model.jurisdiction.JurisdictionRepository;
+import app.model.servicerequest.ServiceRequest;
+import app.model.servicerequest.ServiceRequestRepository;
+import app.model.servicerequest.ServiceRequestStatus;
+import app.service.servicerequest.ServiceRequestEvent;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
+import io.micronaut.runtime.event.annotation.EventListener;
+import io.micronaut.runtime.server.event.ServerStartupEvent;
+import jakarta.inject.Singleton;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.quadtree.Quadtree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps the OPEN and IN_PROGRESS service requests of each jurisdiction in an in-memory quadtree,
+ * so the map can find the requests in its viewport without querying the database.
+ * <p>
+ * The index is built from a keyset scan of the active requests at startup and then kept current
+ * from {@link ServiceRequestEvent}s. A quadtree is used rather than an STRtree as requests are
+ * added and removed one at a time. Each jurisdiction's {@link RequestClusters} are updated along
+ * with its quadtree.
+ * <p>
+ * A rebuild loads a new index aside while the current one keeps serving and following events. The
+ * events received meanwhile are replayed onto the new index before it is swapped in, so they win
+ * over the possibly older rows the rebuild read.
+ */
+@Singleton
+public class ActiveRequestIndex implements ApplicationEventListener<ServiceRequestEvent> {
+
+    public static final List<ServiceRequestStatus> ACTIVE_STATUSES =
+        List.of(ServiceRequestStatus.OPEN, ServiceRequestStatus.IN_PROGRESS);
+
+    private static final Logger LOG = LoggerFactory.getLogger(ActiveRequestIndex.class);
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final JurisdictionRepository jurisdictionRepository;
+    private final ServiceRequestRepository serviceRequestRepository;
+    private volatile Map<String, JurisdictionRequests> requestsByJurisdiction = new ConcurrentHashMap<>();
+    // event handlers share the read lock, swapping in a new index takes the write lock
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    // the events received while a rebuild is loading, null when none is
+    private Queue<ServiceRequestEvent> eventsDuringRebuild;
+
+    public ActiveRequestIndex(JurisdictionRepository jurisdictionRepository,
+                              ServiceRequestRepository serviceRequestRepository) {
+        this.jurisdictionRepository = jurisdictionRepository;
+        this.serviceRequestRepository = serviceRequestRepository;
+    }
+
+    @EventListener
+    public void onStartup(ServerStartupEvent event) {
+        rebuild();
+    }
+
+    /**
+     * @param serviceIds only requests of these services are returned, or all when null
+     * @param limit      the most requests to return
+     * @return the active requests of the jurisdiction within the bounding box
+     */
+    public List<ActiveRequest> findWithin(String jurisdictionId, Envelope boundingBox,
+                                          @Nullable Collection<Long> serviceIds, int limit) {
+        JurisdictionRequests requests = requestsByJurisdiction.get(jurisdictionId);
+        if (requests == null) {
+            return List.of();
+        }
+        return requests.findWithin(boundingBox, serviceIds, limit);
+    }
+
+    /**
+     * @param zoom the map's zoom level, which decides the size of the clusters
+     * @return clusters of the jurisdiction's active requests within the bounding box
+     */
+    public List<RequestCluster> findClustersWithin(String jurisdictionId, Envelope boundingBox, int zoom) {
+        JurisdictionRequests requests = requestsByJurisdiction.get(jurisdictionId);
+        if (requests == null) {
+            return List.of();
+        }
+        return requests.findClustersWithin(boundingBox, zoom);
+    }
+
+    /**
+     * Replaces the index with the active requests currently in the database.
+     */
+    public synchronized void rebuild() {
+        swap(() -> eventsDuringRebuild = new ConcurrentLinkedQueue<>());
+
+        Map<String, JurisdictionRequests> rebuilt = new ConcurrentHashMap<>();
+        try {
+            for (Jurisdiction jurisdiction : jurisdictionRepository.findAll()) {
+                JurisdictionRequests requests = new JurisdictionRequests();
+                int count = load(jurisdiction.getId(), requests);
+                rebuilt.put(jurisdiction.getId(), requests);
+                LOG.info("Loaded {} active service requests for jurisdiction {} into the map index.",
+                    count, jurisdiction.getId());
+            }
+        } catch (RuntimeException e) {
+            swap(() -> eventsDuringRebuild = null);
+            throw e;
+        }
+
+        swap(() -> {
+            eventsDuringRebuild.forEach(event -> apply(rebuilt, event));
+            eventsDuringRebuild = null;
+            requestsByJurisdiction = rebuilt;
+        });
+    }
+
+    /**
+     * Empties the index, for when service requests have been deleted in bulk.
+     */
+    public void clear() {
+        swap(() -> requestsByJurisdiction = new ConcurrentHashMap<>());
+    }
+
+    @Override
+    public void onApplicationEvent(ServiceRequestEvent event) {
+        if (event.getType() == ServiceRequestEvent.Type.DISTRICT_CHANGED) {
+            return;
+        }
+        swapLock.readLock().lock();
+        try {
+            apply(requestsByJurisdiction, event);
+            if (eventsDuringRebuild != null) {
+                eventsDuringRebuild.add(event);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private void swap(Runnable change) {
+        swapLock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(Map<String, JurisdictionRequests> requestsByJurisdiction, ServiceRequestEvent event) {
+        JurisdictionRequests requests = requestsByJurisdiction.computeIfAbsent(event.getJurisdictionId(),
+            id -> new JurisdictionRequests());
+        if (ACTIVE_STATUSES.contains(event.getStatus())) {
+            requests.put(new ActiveRequest(event.getServiceRequestId(), event.getServiceId(), event.getStatus(),
+                event.getPriority(), event.getLatitude(), event.getLongitude()));
+        } else {
+            requests.remove(event.getServiceRequestId());
+        }
+    }
+
+    /**
+     * Reads the jurisdiction's active requests in pages ordered by id, each in its own session, so
+     * only one page of entities is held at a time.
+     */
+    private int load(String jurisdictionId, JurisdictionRequests requests) {
+        Pageable batch = Pageable.from(0, REBUILD_BATCH_SIZE, Sort.of(Sort.Order.asc("id")));
+        long lastId = 0;
+        int count = 0;
+        List<ServiceRequest> serviceRequests;
+        do {
+            serviceRequests = serviceRequestRepository.findByJurisdictionIdAndStatusInAndIdGreaterThan(
+                jurisdictionId, ACTIVE_STATUSES, lastId, batch);
+            for (ServiceRequest serviceRequest : serviceRequests) {
+                requests.put(new ActiveRequest(serviceRequest.getId(), serviceRequest.getService().getId(),
+                    serviceRequest.getStatus(), serviceRequest.getPriority(),
+                    serviceRequest.getLocation().getY(), serviceRequest.getLocation().getX()));
+                lastId = serviceRequest.getId();
+            }
+            count += serviceRequests.size();
+        } while (serviceRequests.size() == REBUILD_BATCH_SIZE);
+        return count;
+    }
+
+    /**
+     * A jurisdiction's active requests. Neither the quadtree nor the clusters are thread safe, so
+     * they are guarded by a read-write lock; viewport queries share the read lock.
+     */
+    static class JurisdictionRequests {
+        private final Quadtree tree = new Quadtree();
+        private final RequestClusters clusters = new RequestClusters();
+        private final Map<Long, ActiveRequest> requestsById = new HashMap<>();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        void put(ActiveRequest request) {
+            lock.writeLock().lock();
+            try {
+                ActiveRequest previous = requestsById.put(request.getId(), request);
+                if (previous != null) {
+                    tree.remove(previous.getEnvelope(), previous);
+                    clusters.remove(previous);
+                }
+                tree.insert(request.getEnvelope(), request);
+                clusters.add(request);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long requestId) {
+            lock.writeLock().lock();
+            try {
+                ActiveRequest previous = requestsById.remove(requestId);
+                if (previous != null) {
+                    tree.remove(previous.getEnvelope(), previous);
+                    clusters.remove(previous);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<ActiveRequest> findWithin(Envelope boundingBox, @Nullable Collection<Long> serviceIds, int limit) {
+            List<ActiveRequest> found = new ArrayList<>();
+            lock.readLock().lock();
+            try {
+                // the quadtree returns every request in the nodes overlapping the box, so each is checked
+                tree.query(boundingBox, item -> {
+                    ActiveRequest request = (ActiveRequest) item;
+                    if (found.size() < limit
+                        && boundingBox.contains(request.getLng(), request.getLat())
+                        && (serviceIds == null || serviceIds.contains(request.getServiceId()))) {
+                        found.add(request);
+                    }
+                });
+            } finally {
+                lock.readLock().unlock();
+            }
+            return found;
+        }
+
+        List<RequestCluster> findClustersWithin(Envelope boundingBox, int zoom) {
+            lock.readLock().lock();
+            try {
+                return clusters.findWithin(boundingBox, zoom);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.map;
+
+import app.dto.map.MapClusterDTO;
+import app.dto.map.MapRequestDTO;
+import app.exception.Libre311BaseException;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpStatus;
+import jakarta.inject.Singleton;
+import org.locationtech.jts.geom.Envelope;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Singleton
+public class MapService {
+
+    static class InvalidBoundingBoxException extends Libre311BaseException {
+        public InvalidBoundingBoxException() {
+            super("bbox must be four numbers: west,south,east,north", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    static class InvalidZoomException extends Libre311BaseException {
+        public InvalidZoomException() {
+            super(String.format("zoom must be between 0 and %d", MAX_ZOOM), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private static final int MAX_ZOOM = 24;
+
+    @Property(name = "app.map.max-requests")
+    protected int maxRequests;
+
+    private final ActiveRequestIndex activeRequestIndex;
+
+    public MapService(ActiveRequestIndex activeRequestIndex) {
+        this.activeRequestIndex = activeRequestIndex;
+    }
+
+    /**
+     * @param bbox  the viewport as west,south,east,north in degrees
+     * @param limit the most requests to return, capped at app.map.max-requests
+     * @return the jurisdiction's OPEN and IN_PROGRESS requests within the viewport
+     */
+    public List<MapRequestDTO> findRequests(String jurisdictionId, String bbox,
+                                            @Nullable List<Long> serviceCodes, @Nullable Integer limit) {
+        int cappedLimit = limit == null || limit <= 0 ? maxRequests : Math.min(limit, maxRequests);
+
+        return activeRequestIndex.findWithin(jurisdictionId, parseBoundingBox(bbox), serviceCodes, cappedLimit)
+            .stream()
+            .map(MapRequestDTO::new)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * @param bbox the viewport as west,south,east,north in degrees
+     * @param zoom the map's zoom level; each cluster covers a 64 pixel square at it
+     * @return clusters of the jurisdiction's OPEN and IN_PROGRESS requests within the viewport
+     */
+    public List<MapClusterDTO> findClusters(String jurisdictionId, String bbox, int zoom) {
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            throw new InvalidZoomException();
+        }
+
+        return activeRequestIndex.findClustersWithin(jurisdictionId, parseBoundingBox(bbox), zoom)
+            .stream()
+            .map(MapClusterDTO::new)
+            .collect(Collectors.toList());
+    }
+
+    static Envelope parseBoundingBox(String bbox) {
+        String[] parts = bbox.split(",");
+        if (parts.length != 4) {
+            throw new InvalidBoundingBoxException();
+        }
+
+        double[] values = new double[4];
+        for (int i = 0; i < 4; i++) {
+            try {
+                values[i] = Double.parseDouble(parts[i].trim());
+            } catch (NumberFormatException e) {
+                throw new InvalidBoundingBoxException();
+            }
+            if (!Double.isFinite(values[i])) {
+                throw new InvalidBoundingBoxException();
+            }
+        }
+
+        double west = values[0];
+        double south = values[1];
+        double east = values[2];
+        double north = values[3];
+        if (south > north || west > east) {
+            throw new InvalidBoundingBoxException();
+        }
+        return new Envelope(west, east, south, north);
+    }
+}
@@ -0,0 +1,50 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.map;
+
+/**
+ * Active service requests grouped on the map: how many there are, where their centroid is and
+ * which service most of them are for.
+ */
+public final class RequestCluster {
+
+    private final int count;
+    private final double lat;
+    private final double lng;
+    private final long dominantServiceId;
+
+    public RequestCluster(int count, double lat, double lng, long dominantServiceId) {
+        this.count = count;
+        this.lat = lat;
+        this.lng = lng;
+        this.dominantServiceId = dominantServiceId;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getLat() {
+        return lat;
+    }
+
+    public double getLng() {
+        return lng;
+    }
+
+    public long getDominantServiceId() {
+        return dominantServiceId;
+    }
+}
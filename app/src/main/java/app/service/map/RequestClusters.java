@@ -0,0 +1,162 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.map;
+
+import app.service.geometry.WebMercator;
+import org.locationtech.jts.geom.Envelope;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Grid clusters of a jurisdiction's active requests at every zoom level up to {@link #MAX_ZOOM}.
+ * Cells are 64 pixels square in web mercator, so a zoom level's grid is four times as fine as its
+ * tiles and a cell at one zoom level covers exactly four cells of the next.
+ * <p>
+ * A request is added to or removed from one cell per zoom level, so the clusters are updated in
+ * place rather than recomputed, and a viewport query only reads the cells it covers. Not thread
+ * safe; callers synchronize.
+ */
+class RequestClusters {
+
+    static final int MAX_ZOOM = 16;
+    private static final int CELLS_PER_TILE_SIDE = 4;
+    private static final int MAX_ZOOM_CELLS = CELLS_PER_TILE_SIDE << MAX_ZOOM;
+
+    // cell key -> cell, per zoom level
+    private final List<Map<Long, Cell>> cellsByZoom = new ArrayList<>(MAX_ZOOM + 1);
+
+    RequestClusters() {
+        for (int zoom = 0; zoom <= MAX_ZOOM; zoom++) {
+            cellsByZoom.add(new HashMap<>());
+        }
+    }
+
+    void add(ActiveRequest request) {
+        int cellX = cellX(request.getLng());
+        int cellY = cellY(request.getLat());
+        for (int zoom = 0; zoom <= MAX_ZOOM; zoom++) {
+            int shift = MAX_ZOOM - zoom;
+            cellsByZoom.get(zoom).computeIfAbsent(cellKey(cellX >> shift, cellY >> shift), key -> new Cell())
+                .add(request);
+        }
+    }
+
+    void remove(ActiveRequest request) {
+        int cellX = cellX(request.getLng());
+        int cellY = cellY(request.getLat());
+        for (int zoom = 0; zoom <= MAX_ZOOM; zoom++) {
+            int shift = MAX_ZOOM - zoom;
+            Map<Long, Cell> cells = cellsByZoom.get(zoom);
+            long key = cellKey(cellX >> shift, cellY >> shift);
+            Cell cell = cells.get(key);
+            if (cell != null && cell.remove(request)) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    /**
+     * @param zoom the map's zoom level; levels above {@link #MAX_ZOOM} get its clusters
+     * @return the clusters whose cell overlaps the bounding box
+     */
+    List<RequestCluster> findWithin(Envelope boundingBox, int zoom) {
+        int clusterZoom = Math.min(Math.max(zoom, 0), MAX_ZOOM);
+        int shift = MAX_ZOOM - clusterZoom;
+        Map<Long, Cell> cells = cellsByZoom.get(clusterZoom);
+
+        int minX = cellX(boundingBox.getMinX()) >> shift;
+        int maxX = cellX(boundingBox.getMaxX()) >> shift;
+        // mercator y grows southwards
+        int minY = cellY(boundingBox.getMaxY()) >> shift;
+        int maxY = cellY(boundingBox.getMinY()) >> shift;
+
+        List<RequestCluster> clusters = new ArrayList<>();
+        long coveredCells = (long) (maxX - minX + 1) * (maxY - minY + 1);
+        if (coveredCells <= cells.size()) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int x = minX; x <= maxX; x++) {
+                    Cell cell = cells.get(cellKey(x, y));
+                    if (cell != null) {
+                        clusters.add(cell.toCluster());
+                    }
+                }
+            }
+        } else {
+            // zoomed out past the jurisdiction, so there are fewer occupied cells than covered ones
+            cells.forEach((key, cell) -> {
+                int x = (int) (key & 0xffffffffL);
+                int y = (int) (key >>> 32);
+                if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                    clusters.add(cell.toCluster());
+                }
+            });
+        }
+        return clusters;
+    }
+
+    static int cellX(double lng) {
+        return WebMercator.cell(WebMercator.x(lng), MAX_ZOOM_CELLS);
+    }
+
+    static int cellY(double lat) {
+        return WebMercator.cell(WebMercator.y(lat), MAX_ZOOM_CELLS);
+    }
+
+    private static long cellKey(int x, int y) {
+        return ((long) y << 32) | (x & 0xffffffffL);
+    }
+
+    static class Cell {
+        private int count;
+        private double sumLat;
+        private double sumLng;
+        private final Map<Long, Integer> countsByService = new HashMap<>(4);
+
+        void add(ActiveRequest request) {
+            count++;
+            sumLat += request.getLat();
+            sumLng += request.getLng();
+            countsByService.merge(request.getServiceId(), 1, Integer::sum);
+        }
+
+        /**
+         * @return true if the cell is now empty
+         */
+        boolean remove(ActiveRequest request) {
+            count--;
+            sumLat -= request.getLat();
+            sumLng -= request.getLng();
+            countsByService.computeIfPresent(request.getServiceId(), (id, serviceCount) ->
+                serviceCount == 1 ? null : serviceCount - 1);
+            return count <= 0;
+        }
+
+        RequestCluster toCluster() {
+            long dominantServiceId = 0;
+            int dominantCount = 0;
+            for (Map.Entry<Long, Integer> entry : countsByService.entrySet()) {
+                if (entry.getValue() > dominantCount
+                    || (entry.getValue() == dominantCount && entry.getKey() < dominantServiceId)) {
+                    dominantServiceId = entry.getKey();
+                    dominantCount = entry.getValue();
+                }
+            }
+            return new RequestCluster(count, sumLat / count, sumLng / count, dominantServiceId);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.map;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A least recently used cache of encoded tiles, bounded by their total size. Tiles are keyed on
+ * their address and filters, and can be invalidated by address, which drops the tile for every
+ * filter.
+ * <p>
+ * A tile rendered while one of its addresses was invalidated may already be stale, so tiles are
+ * only stored if their jurisdiction saw no invalidation since their rendering started. Writes in
+ * one jurisdiction neither evict nor hold back the tiles of another.
+ */
+class TileCache {
+
+    private final long maxBytes;
+    private final LinkedHashMap<TileKey, byte[]> tiles = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<TileAddress, Set<TileKey>> keysByAddress = new HashMap<>();
+    // the version of the latest invalidation, per jurisdiction
+    private final Map<String, Long> invalidatedAtByJurisdiction = new HashMap<>();
+    private long bytes;
+    private long version;
+    private long clearedAt;
+
+    TileCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    synchronized byte[] get(TileKey key) {
+        return tiles.get(key);
+    }
+
+    /**
+     * @return the version to pass to {@link #put} for a tile about to be rendered
+     */
+    synchronized long getVersion() {
+        return version;
+    }
+
+    synchronized void put(TileKey key, byte[] tile, long renderedAtVersion) {
+        if (renderedAtVersion < clearedAt
+            || renderedAtVersion < invalidatedAtByJurisdiction.getOrDefault(key.address.jurisdictionId, 0L)
+            || tile.length > maxBytes) {
+            return;
+        }
+
+        byte[] previous = tiles.put(key, tile);
+        if (previous != null) {
+            bytes -= previous.length;
+        }
+        bytes += tile.length;
+        keysByAddress.computeIfAbsent(key.address, address -> new HashSet<>()).add(key);
+
+        Iterator<Map.Entry<TileKey, byte[]>> eldest = tiles.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<TileKey, byte[]> entry = eldest.next();
+            eldest.remove();
+            bytes -= entry.getValue().length;
+            removeFromAddress(entry.getKey());
+        }
+    }
+
+    synchronized void invalidate(TileAddress address) {
+        invalidatedAtByJurisdiction.put(address.jurisdictionId, ++version);
+        Set<TileKey> keys = keysByAddress.remove(address);
+        if (keys != null) {
+            for (TileKey key : keys) {
+                bytes -= tiles.remove(key).length;
+            }
+        }
+    }
+
+    /**
+     * Drops every tile of the jurisdiction, for changes that can't be traced to addresses.
+     */
+    synchronized void invalidate(String jurisdictionId) {
+        invalidatedAtByJurisdiction.put(jurisdictionId, ++version);
+        Iterator<Map.Entry<TileAddress, Set<TileKey>>> addresses = keysByAddress.entrySet().iterator();
+        while (addresses.hasNext()) {
+            Map.Entry<TileAddress, Set<TileKey>> entry = addresses.next();
+            if (entry.getKey().jurisdictionId.equals(jurisdictionId)) {
+                for (TileKey key : entry.getValue()) {
+                    bytes -= tiles.remove(key).length;
+                }
+                addresses.remove();
+            }
+        }
+    }
+
+    synchronized void clear() {
+        clearedAt = ++version;
+        invalidatedAtByJurisdiction.clear();
+        tiles.clear();
+        keysByAddress.clear();
+        bytes = 0;
+    }
+
+    private void removeFromAddress(TileKey key) {
+        Set<TileKey> keys = keysByAddress.get(key.address);
+        if (keys != null) {
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                keysByAddress.remove(key.address);
+            }
+        }
+    }
+
+    static final class TileAddress {
+        final String jurisdictionId;
+        final int z;
+        final int x;
+        final int y;
+
+        TileAddress(String jurisdictionId, int z, int x, int y) {
+            this.jurisdictionId = jurisdictionId;
+            this.z = z;
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TileAddress)) {
+                return false;
+            }
+            TileAddress that = (TileAddress) o;
+            return z == that.z && x == that.x && y == that.y && jurisdictionId.equals(that.jurisdictionId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(jurisdictionId, z, x, y);
+        }
+    }
+
+    static final class TileKey {
+        final TileAddress address;
+        final String filters;
+
+        TileKey(TileAddress address, String filters) {
+            this.address = address;
+            this.filters = filters;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TileKey)) {
+                return false;
+            }
+            TileKey that = (TileKey) o;
+            return address.equals(that.address) && filters.equals(that.filters);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(address, filters);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.map;
+
+import app.dto.servicerequest.GetServiceRequestsDTO;
+import app.exception.Libre311BaseException;
+import app.model.servicerequest.ServiceRequest;
+import app.service.geometry.LibreGeometryFactory;
+import app.service.geometry.WebMercator;
+import app.service.map.TileCache.TileAddress;
+import app.service.map.TileCache.TileKey;
+import app.service.servicerequest.ServiceRequestEvent;
+import app.service.servicerequest.ServiceRequestService;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.http.HttpStatus;
+import jakarta.inject.Singleton;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Renders service requests as Mapbox Vector Tiles in the web mercator tiling scheme. Tiles are
+ * cached per filter; creating, updating or retagging a request only invalidates the tiles its
+ * location is drawn on. Editing a jurisdiction's districts drops all of its tiles, as requests
+ * untagged by a deleted district are not reported one by one.
+ */
+@Singleton
+public class TileService implements ApplicationEventListener<ServiceRequestEvent> {
+
+    static class InvalidTileException extends Libre311BaseException {
+        public InvalidTileException(int z, int x, int y) {
+            super(String.format("No tile %d/%d/%d; zoom must be between 0 and %d", z, x, y, MAX_ZOOM),
+                HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    public static final String LAYER_NAME = "requests";
+    public static final int MAX_ZOOM = 22;
+    // points are also drawn on neighbouring tiles within this many tile units, so markers on a
+    // tile's edge aren't cut off
+    private static final int BUFFER = 64;
+
+    @Property(name = "app.tiles.max-features")
+    protected int maxFeatures;
+
+    private final ServiceRequestService serviceRequestService;
+    private final LibreGeometryFactory libreGeometryFactory;
+    private final TileCache tileCache;
+
+    public TileService(ServiceRequestService serviceRequestService, LibreGeometryFactory libreGeometryFactory,
+                       @Property(name = "app.tiles.cache-max-bytes") long cacheMaxBytes) {
+        this.serviceRequestService = serviceRequestService;
+        this.libreGeometryFactory = libreGeometryFactory;
+        this.tileCache = new TileCache(cacheMaxBytes);
+    }
+
+    /**
+     * @return the encoded tile, which is empty if there are no matching requests on it
+     */
+    public byte[] getTile(String jurisdictionId, int z, int x, int y, GetServiceRequestsDTO filters) {
+        if (z < 0 || z > MAX_ZOOM || x < 0 || y < 0 || x >= (1 << z) || y >= (1 << z)) {
+            throw new InvalidTileException(z, x, y);
+        }
+
+        TileKey key = new TileKey(new TileAddress(jurisdictionId, z, x, y), toCacheKey(filters));
+        byte[] tile = tileCache.get(key);
+        if (tile == null) {
+            long version = tileCache.getVersion();
+            tile = render(jurisdictionId, z, x, y, filters);
+            tileCache.put(key, tile, version);
+        }
+        return tile;
+    }
+
+    public void clearCache() {
+        tileCache.clear();
+    }
+
+    /**
+     * Drops the jurisdiction's tiles, as tiles filtered by district may no longer match its districts.
+     */
+    public void invalidateJurisdiction(String jurisdictionId) {
+        tileCache.invalidate(jurisdictionId);
+    }
+
+    @Override
+    public void onApplicationEvent(ServiceRequestEvent event) {
+        // district filters are part of the cache key, so a retagged request invalidates its tiles too
+        double worldX = WebMercator.x(event.getLongitude());
+        double worldY = WebMercator.y(event.getLatitude());
+        double buffer = (double) BUFFER / VectorTileEncoder.EXTENT;
+        for (int z = 0; z <= MAX_ZOOM; z++) {
+            int tiles = 1 << z;
+            int minX = clamp((int) Math.floor(worldX * tiles - buffer), tiles);
+            int maxX = clamp((int) Math.floor(worldX * tiles + buffer), tiles);
+            int minY = clamp((int) Math.floor(worldY * tiles - buffer), tiles);
+            int maxY = clamp((int) Math.floor(worldY * tiles + buffer), tiles);
+            for (int tileY = minY; tileY <= maxY; tileY++) {
+                for (int tileX = minX; tileX <= maxX; tileX++) {
+                    tileCache.invalidate(new TileAddress(event.getJurisdictionId(), z, tileX, tileY));
+                }
+            }
+        }
+    }
+
+    private byte[] render(String jurisdictionId, int z, int x, int y, GetServiceRequestsDTO filters) {
+        int tiles = 1 << z;
+        double buffer = (double) BUFFER / VectorTileEncoder.EXTENT;
+        Envelope bounds = new Envelope(
+            WebMercator.longitude((x - buffer) / tiles), WebMercator.longitude((x + 1 + buffer) / tiles),
+            WebMercator.latitude((y + 1 + buffer) / tiles), WebMercator.latitude((y - buffer) / tiles));
+        Polygon area = (Polygon) libreGeometryFactory.toGeometry(bounds);
+
+        List<ServiceRequest> serviceRequests = serviceRequestService.findAllMatching(filters, jurisdictionId, area, maxFeatures);
+
+        VectorTileEncoder encoder = new VectorTileEncoder(LAYER_NAME);
+        for (ServiceRequest serviceRequest : serviceRequests) {
+            Point location = serviceRequest.getLocation();
+            int tileX = (int) Math.round((WebMercator.x(location.getX()) * tiles - x) * VectorTileEncoder.EXTENT);
+            int tileY = (int) Math.round((WebMercator.y(location.getY()) * tiles - y) * VectorTileEncoder.EXTENT);
+
+            Map<String, Object> attributes = new LinkedHashMap<>();
+            attributes.put("status", serviceRequest.getStatus());
+            attributes.put("service_code", serviceRequest.getService().getId());
+            attributes.put("priority", serviceRequest.getPriority());
+            encoder.addPoint(serviceRequest.getId(), tileX, tileY, attributes);
+        }
+        return encoder.encode();
+    }
+
+    private static String toCacheKey(GetServiceRequestsDTO filters) {
+        return String.join(";",
+            String.valueOf(filters.getId()),
+            sorted(filters.getServiceCodes()),
+            sorted(filters.getStatuses()),
+            sorted(filters.getPriorities()),
+            String.valueOf(filters.getStartDate()),
+            String.valueOf(filters.getEndDate()),
+            sorted(filters.getDistrictIds()));
+    }
+
+    private static String sorted(List<?> values) {
+        return values == null ? "null" : values.stream()
+            .map(String::valueOf)
+            .sorted()
+            .collect(Collectors.joining(","));
+    }
+
+    private static int clamp(int tile, int tiles) {
+        return Math.max(0, Math.min(tiles - 1, tile));
+    }
+}
@@ -0,0 +1,227 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.map;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes a single layer of point features as a Mapbox Vector Tile (version 2.1). The tile is a
+ * small protobuf message, so it is written directly rather than through a protobuf runtime:
+ * keys and values are deduplicated into the layer's tables and each feature is written as it is
+ * added.
+ */
+public final class VectorTileEncoder {
+
+    public static final int EXTENT = 4096;
+
+    private static final int WIRE_VARINT = 0;
+    private static final int WIRE_FIXED64 = 1;
+    private static final int WIRE_LENGTH_DELIMITED = 2;
+
+    private static final int TILE_LAYERS = 3;
+    private static final int LAYER_NAME = 1;
+    private static final int LAYER_FEATURES = 2;
+    private static final int LAYER_KEYS = 3;
+    private static final int LAYER_VALUES = 4;
+    private static final int LAYER_EXTENT = 5;
+    private static final int LAYER_VERSION = 15;
+    private static final int FEATURE_ID = 1;
+    private static final int FEATURE_TAGS = 2;
+    private static final int FEATURE_TYPE = 3;
+    private static final int FEATURE_GEOMETRY = 4;
+    private static final int VALUE_STRING = 1;
+    private static final int VALUE_DOUBLE = 3;
+    private static final int VALUE_SINT = 6;
+    private static final int VALUE_BOOL = 7;
+
+    private static final int GEOMETRY_TYPE_POINT = 1;
+    // a MoveTo command with a count of one
+    private static final int MOVE_TO_ONE = (1 << 3) | 1;
+
+    private final String layerName;
+    private final Map<String, Integer> keyIndexes = new HashMap<>();
+    private final List<String> keys = new ArrayList<>();
+    private final Map<Object, Integer> valueIndexes = new HashMap<>();
+    private final List<Object> values = new ArrayList<>();
+    private final ProtobufWriter features = new ProtobufWriter();
+    private final ProtobufWriter feature = new ProtobufWriter();
+    private final ProtobufWriter packed = new ProtobufWriter();
+    private int featureCount;
+
+    public VectorTileEncoder(String layerName) {
+        this.layerName = layerName;
+    }
+
+    /**
+     * @param x          in tile coordinates, from 0 to {@link #EXTENT}; points in the tile's buffer
+     *                   may lie outside that range
+     * @param attributes String, Long, Integer, Double or Boolean values; nulls are left out
+     */
+    public void addPoint(long id, int x, int y, Map<String, ?> attributes) {
+        feature.reset();
+        feature.writeVarintField(FEATURE_ID, id);
+
+        packed.reset();
+        for (Map.Entry<String, ?> attribute : attributes.entrySet()) {
+            if (attribute.getValue() != null) {
+                packed.writeVarint(keyIndexes.computeIfAbsent(attribute.getKey(), this::addKey));
+                packed.writeVarint(valueIndexes.computeIfAbsent(attribute.getValue(), this::addValue));
+            }
+        }
+        feature.writeBytesField(FEATURE_TAGS, packed);
+
+        feature.writeVarintField(FEATURE_TYPE, GEOMETRY_TYPE_POINT);
+        packed.reset();
+        packed.writeVarint(MOVE_TO_ONE);
+        packed.writeVarint(zigzag(x));
+        packed.writeVarint(zigzag(y));
+        feature.writeBytesField(FEATURE_GEOMETRY, packed);
+
+        features.writeBytesField(LAYER_FEATURES, feature);
+        featureCount++;
+    }
+
+    public int getFeatureCount() {
+        return featureCount;
+    }
+
+    /**
+     * @return the encoded tile; an empty tile when no feature was added
+     */
+    public byte[] encode() {
+        if (featureCount == 0) {
+            return new byte[0];
+        }
+
+        ProtobufWriter layer = new ProtobufWriter();
+        layer.writeVarintField(LAYER_VERSION, 2);
+        layer.writeStringField(LAYER_NAME, layerName);
+        layer.writeRaw(features);
+        for (String key : keys) {
+            layer.writeStringField(LAYER_KEYS, key);
+        }
+        ProtobufWriter value = new ProtobufWriter();
+        for (Object v : values) {
+            value.reset();
+            writeValue(value, v);
+            layer.writeBytesField(LAYER_VALUES, value);
+        }
+        layer.writeVarintField(LAYER_EXTENT, EXTENT);
+
+        ProtobufWriter tile = new ProtobufWriter();
+        tile.writeBytesField(TILE_LAYERS, layer);
+        return tile.toByteArray();
+    }
+
+    private int addKey(String key) {
+        keys.add(key);
+        return keys.size() - 1;
+    }
+
+    private int addValue(Object value) {
+        values.add(value);
+        return values.size() - 1;
+    }
+
+    private static void writeValue(ProtobufWriter writer, Object value) {
+        if (value instanceof Long || value instanceof Integer) {
+            writer.writeVarintField(VALUE_SINT, zigzag(((Number) value).longValue()));
+        } else if (value instanceof Double) {
+            writer.writeTag(VALUE_DOUBLE, WIRE_FIXED64);
+            writer.writeFixed64(Double.doubleToLongBits((Double) value));
+        } else if (value instanceof Boolean) {
+            writer.writeVarintField(VALUE_BOOL, (Boolean) value ? 1 : 0);
+        } else {
+            writer.writeStringField(VALUE_STRING, value.toString());
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * A growable buffer of protobuf fields.
+     */
+    private static class ProtobufWriter {
+        private byte[] bytes = new byte[64];
+        private int size;
+
+        void writeTag(int field, int wireType) {
+            writeVarint(((long) field << 3) | wireType);
+        }
+
+        void writeVarintField(int field, long value) {
+            writeTag(field, WIRE_VARINT);
+            writeVarint(value);
+        }
+
+        void writeStringField(int field, String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeTag(field, WIRE_LENGTH_DELIMITED);
+            writeVarint(utf8.length);
+            ensureCapacity(utf8.length);
+            System.arraycopy(utf8, 0, bytes, size, utf8.length);
+            size += utf8.length;
+        }
+
+        void writeBytesField(int field, ProtobufWriter message) {
+            writeTag(field, WIRE_LENGTH_DELIMITED);
+            writeVarint(message.size);
+            writeRaw(message);
+        }
+
+        void writeRaw(ProtobufWriter other) {
+            ensureCapacity(other.size);
+            System.arraycopy(other.bytes, 0, bytes, size, other.size);
+            size += other.size;
+        }
+
+        void writeVarint(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7fL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void writeFixed64(long value) {
+            ensureCapacity(8);
+            for (int i = 0; i < 8; i++) {
+                bytes[size++] = (byte) (value >>> (8 * i));
+            }
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        private void ensureCapacity(int additional) {
+            if (size + additional > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + additional));
+            }
+        }
+    }
+}
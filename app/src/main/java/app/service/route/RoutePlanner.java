@@ -0,0 +1,304 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.route;
+
+import app.service.geometry.GeoDistance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Orders the stops of a round trip from a depot to keep the distance driven short. Distances are
+ * great-circle distances, computed once into a matrix.
+ * <p>
+ * Each worker builds a tour by nearest neighbour, the first greedily and the others choosing at
+ * random among the few nearest stops, and improves it with 2-opt and Or-opt moves until neither
+ * helps. It then keeps perturbing its best tour with a double-bridge move and improving that
+ * again, until the deadline or until that stops paying off, so workers explore different tours and
+ * the shortest of them wins.
+ */
+final class RoutePlanner {
+
+    // how many of the nearest unvisited stops the randomized starts choose from
+    private static final int START_CHOICES = 3;
+    // the longest run of stops an Or-opt move relocates
+    private static final int MAX_SEGMENT = 3;
+    // how many perturbations in a row may fail to shorten a worker's tour before it settles on it
+    private static final int MAX_FAILED_PERTURBATIONS = 200;
+    private static final double EPSILON = 1e-7;
+
+    private final int size;
+    private final double[] distances;
+
+    /**
+     * @param lats the latitudes of the depot, first, then the stops
+     * @param lngs the longitudes in the same order
+     */
+    RoutePlanner(double[] lats, double[] lngs) {
+        this.size = lats.length;
+        this.distances = new double[size * size];
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                double distance = GeoDistance.haversineMeters(lats[i], lngs[i], lats[j], lngs[j]);
+                distances[i * size + j] = distance;
+                distances[j * size + i] = distance;
+            }
+        }
+    }
+
+    /**
+     * @return the tour as point indexes, starting with the depot at 0; the route returns to it
+     */
+    int[] plan(Executor executor, int workers, long deadlineNanos) {
+        if (size <= 3) {
+            return nearestNeighbour(new Random(0), 1);
+        }
+
+        List<CompletableFuture<int[]>> tours = new ArrayList<>();
+        for (int worker = 0; worker < workers; worker++) {
+            long seed = worker;
+            tours.add(CompletableFuture.supplyAsync(() -> improve(seed, deadlineNanos), executor));
+        }
+
+        int[] best = null;
+        for (CompletableFuture<int[]> tour : tours) {
+            int[] candidate = tour.join();
+            if (best == null || length(candidate) < length(best) - EPSILON) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    double length(int[] tour) {
+        double length = 0;
+        for (int i = 0; i < tour.length; i++) {
+            length += distance(tour[i], tour[(i + 1) % tour.length]);
+        }
+        return length;
+    }
+
+    double distance(int from, int to) {
+        return distances[from * size + to];
+    }
+
+    private int[] improve(long seed, long deadlineNanos) {
+        Random random = new Random(seed);
+        int[] best = nearestNeighbour(random, seed == 0 ? 1 : START_CHOICES);
+        localSearch(best, deadlineNanos);
+        double bestLength = length(best);
+
+        // double bridges need four edges to cut
+        int failed = 0;
+        while (size >= 8 && failed < MAX_FAILED_PERTURBATIONS && System.nanoTime() < deadlineNanos) {
+            int[] candidate = doubleBridge(best, random);
+            localSearch(candidate, deadlineNanos);
+            double candidateLength = length(candidate);
+            if (candidateLength < bestLength - EPSILON) {
+                best = candidate;
+                bestLength = candidateLength;
+                failed = 0;
+            } else {
+                failed++;
+            }
+        }
+        return best;
+    }
+
+    private int[] nearestNeighbour(Random random, int choices) {
+        int[] tour = new int[size];
+        boolean[] visited = new boolean[size];
+        visited[0] = true;
+        int[] nearest = new int[choices];
+        for (int position = 1; position < size; position++) {
+            int from = tour[position - 1];
+            // the `choices` nearest unvisited stops, nearest first
+            int found = 0;
+            for (int stop = 1; stop < size; stop++) {
+                if (visited[stop]) {
+                    continue;
+                }
+                int slot = Math.min(found, choices - 1);
+                if (found < choices || distance(from, stop) < distance(from, nearest[slot])) {
+                    while (slot > 0 && distance(from, stop) < distance(from, nearest[slot - 1])) {
+                        nearest[slot] = nearest[slot - 1];
+                        slot--;
+                    }
+                    nearest[slot] = stop;
+                    found = Math.min(found + 1, choices);
+                }
+            }
+            int next = nearest[random.nextInt(found)];
+            tour[position] = next;
+            visited[next] = true;
+        }
+        return tour;
+    }
+
+    private void localSearch(int[] tour, long deadlineNanos) {
+        boolean improved = true;
+        while (improved && System.nanoTime() < deadlineNanos) {
+            improved = twoOpt(tour, deadlineNanos);
+            improved |= orOpt(tour, deadlineNanos);
+        }
+    }
+
+    /**
+     * Replaces pairs of edges (a, b) and (c, d) with (a, c) and (b, d) by reversing the path from
+     * b to c, for as long as that shortens the tour. The depot stays at position 0.
+     */
+    private boolean twoOpt(int[] tour, long deadlineNanos) {
+        boolean improved = false;
+        boolean improvedPass = true;
+        while (improvedPass && System.nanoTime() < deadlineNanos) {
+            improvedPass = false;
+            for (int i = 0; i < size - 2; i++) {
+                int a = tour[i];
+                int b = tour[i + 1];
+                double ab = distance(a, b);
+                // the edge leaving the last stop is adjacent to the first when i is 0
+                int lastJ = i == 0 ? size - 2 : size - 1;
+                for (int j = i + 2; j <= lastJ; j++) {
+                    int c = tour[j];
+                    int d = tour[(j + 1) % size];
+                    double delta = distance(a, c) + distance(b, d) - ab - distance(c, d);
+                    if (delta < -EPSILON) {
+                        reverse(tour, i + 1, j);
+                        b = tour[i + 1];
+                        ab = distance(a, b);
+                        improvedPass = true;
+                        improved = true;
+                    }
+                }
+            }
+        }
+        return improved;
+    }
+
+    /**
+     * Moves runs of up to MAX_SEGMENT consecutive stops, in either direction, between two other
+     * adjacent stops wherever that shortens the tour.
+     */
+    private boolean orOpt(int[] tour, long deadlineNanos) {
+        boolean improved = false;
+        for (int length = 1; length <= MAX_SEGMENT && length < size - 2; length++) {
+            for (int i = 1; i + length <= size && System.nanoTime() < deadlineNanos; i++) {
+                int end = i + length - 1;
+                int previous = tour[i - 1];
+                int first = tour[i];
+                int last = tour[end];
+                int next = tour[(end + 1) % size];
+                double removed = distance(previous, first) + distance(last, next) - distance(previous, next);
+
+                int bestPosition = -1;
+                boolean bestReversed = false;
+                double bestGain = EPSILON;
+                for (int j = 0; j < size; j++) {
+                    // edges touching the segment
+                    if (j >= i - 1 && j <= end) {
+                        continue;
+                    }
+                    int p = tour[j];
+                    int q = tour[(j + 1) % size];
+                    double pq = distance(p, q);
+                    double forward = removed - (distance(p, first) + distance(last, q) - pq);
+                    double reversed = removed - (distance(p, last) + distance(first, q) - pq);
+                    if (forward > bestGain) {
+                        bestGain = forward;
+                        bestPosition = j;
+                        bestReversed = false;
+                    }
+                    if (reversed > bestGain) {
+                        bestGain = reversed;
+                        bestPosition = j;
+                        bestReversed = true;
+                    }
+                }
+
+                if (bestPosition >= 0) {
+                    moveSegment(tour, i, length, bestPosition, bestReversed);
+                    improved = true;
+                }
+            }
+        }
+        return improved;
+    }
+
+    /**
+     * Moves the segment starting at position start to after the stop at position after.
+     */
+    private static void moveSegment(int[] tour, int start, int length, int after, boolean reversed) {
+        int[] segment = new int[length];
+        for (int k = 0; k < length; k++) {
+            segment[k] = tour[reversed ? start + length - 1 - k : start + k];
+        }
+        int anchor = tour[after];
+
+        int[] rest = new int[tour.length - length];
+        int size = 0;
+        for (int k = 0; k < tour.length; k++) {
+            if (k < start || k >= start + length) {
+                rest[size++] = tour[k];
+            }
+        }
+
+        int position = 0;
+        for (int k = 0; k < rest.length; k++) {
+            tour[position++] = rest[k];
+            if (rest[k] == anchor) {
+                System.arraycopy(segment, 0, tour, position, length);
+                position += length;
+            }
+        }
+    }
+
+    /**
+     * Cuts the tour after the depot into four paths A B C D and reconnects them as A C B D.
+     */
+    private int[] doubleBridge(int[] tour, Random random) {
+        int first = 1 + random.nextInt(size - 3);
+        int second = first + 1 + random.nextInt(size - first - 2);
+        int third = second + 1 + random.nextInt(size - second - 1);
+
+        int[] bridged = new int[size];
+        int position = 0;
+        for (int k = 0; k < first; k++) {
+            bridged[position++] = tour[k];
+        }
+        for (int k = second; k < third; k++) {
+            bridged[position++] = tour[k];
+        }
+        for (int k = first; k < second; k++) {
+            bridged[position++] = tour[k];
+        }
+        for (int k = third; k < size; k++) {
+            bridged[position++] = tour[k];
+        }
+        return bridged;
+    }
+
+    private static void reverse(int[] tour, int from, int to) {
+        while (from < to) {
+            int swap = tour[from];
+            tour[from] = tour[to];
+            tour[to] = swap;
+            from++;
+            to--;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.route;
+
+import app.dto.route.RouteDTO;
+import app.dto.route.RouteStopDTO;
+import app.dto.servicerequest.GetServiceRequestsDTO;
+import app.exception.Libre311BaseException;
+import app.model.servicerequest.ServiceRequest;
+import app.model.servicerequest.ServiceRequestStatus;
+import app.service.servicerequest.ServiceRequestService;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpStatus;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+@Singleton
+public class RouteService {
+
+    // the fixed pool configured under micronaut.executors
+    static final String PLANNING_EXECUTOR = "route-planning";
+
+    static class InvalidDepotException extends Libre311BaseException {
+        public InvalidDepotException() {
+            super("The depot's lat must be within [-90, 90] and its long within [-180, 180]", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    static class TooManyStopsException extends Libre311BaseException {
+        public TooManyStopsException(int maxStops) {
+            super(String.format("A route can visit at most %d service requests", maxStops), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @Property(name = "app.routes.max-stops")
+    protected int maxStops;
+
+    @Property(name = "app.routes.time-budget")
+    protected Duration timeBudget;
+
+    @Property(name = "app.routes.workers")
+    protected int workers;
+
+    private final ServiceRequestService serviceRequestService;
+    private final ExecutorService planningExecutor;
+
+    /**
+     * @param planningExecutor a fixed pool, so concurrent plans queue rather than each taking
+     *                         a thread per worker
+     */
+    public RouteService(ServiceRequestService serviceRequestService,
+                        @Named(PLANNING_EXECUTOR) ExecutorService planningExecutor) {
+        this.serviceRequestService = serviceRequestService;
+        this.planningExecutor = planningExecutor;
+    }
+
+    /**
+     * Plans a round trip from the depot through the jurisdiction's requests matching the filters
+     * of the list endpoints, only open requests unless a status is given.
+     */
+    public RouteDTO planRoute(GetServiceRequestsDTO requestDTO, String jurisdictionId, double depotLat, double depotLng) {
+        if (Math.abs(depotLat) > 90 || Math.abs(depotLng) > 180) {
+            throw new InvalidDepotException();
+        }
+        if (requestDTO.getStatuses() == null || requestDTO.getStatuses().isEmpty()) {
+            requestDTO.setStatuses(List.of(ServiceRequestStatus.OPEN));
+        }
+
+        List<ServiceRequest> serviceRequests = serviceRequestService.findAllMatching(requestDTO, jurisdictionId,
+            null, maxStops + 1);
+        if (serviceRequests.size() > maxStops) {
+            throw new TooManyStopsException(maxStops);
+        }
+
+        // the depot is point 0 and each request the point after its index
+        double[] lats = new double[serviceRequests.size() + 1];
+        double[] lngs = new double[serviceRequests.size() + 1];
+        lats[0] = depotLat;
+        lngs[0] = depotLng;
+        for (int i = 0; i < serviceRequests.size(); i++) {
+            lats[i + 1] = serviceRequests.get(i).getLocation().getY();
+            lngs[i + 1] = serviceRequests.get(i).getLocation().getX();
+        }
+
+        RoutePlanner planner = new RoutePlanner(lats, lngs);
+        int[] tour = planner.plan(planningExecutor, workers, System.nanoTime() + timeBudget.toNanos());
+
+        List<RouteStopDTO> stops = new ArrayList<>(serviceRequests.size());
+        for (int i = 1; i < tour.length; i++) {
+            stops.add(new RouteStopDTO(serviceRequests.get(tour[i] - 1), planner.distance(tour[i - 1], tour[i])));
+        }
+        return new RouteDTO(planner.length(tour), stops);
+    }
+}
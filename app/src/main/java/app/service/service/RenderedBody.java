@@ -0,0 +1,58 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.service;
+
+import io.micronaut.core.annotation.Nullable;
+
+/**
+ * A catalog response body rendered once per {@link ServiceCatalog.Snapshot}, with strong entity
+ * tags derived from the snapshot's version.
+ */
+public class RenderedBody {
+
+    public enum Format {
+        JSON, XML
+    }
+
+    private final byte[] bytes;
+    private final byte[] gzipped;
+    private final String entityTag;
+
+    RenderedBody(byte[] bytes, @Nullable byte[] gzipped, String entityTag) {
+        this.bytes = bytes;
+        this.gzipped = gzipped;
+        this.entityTag = entityTag;
+    }
+
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return the body gzip compressed, or null if it is too small to be worth compressing
+     */
+    @Nullable
+    public byte[] getGzipped() {
+        return gzipped;
+    }
+
+    /**
+     * @return the quoted entity tag of the body, or of its gzip compressed form, which as a
+     * different representation has a different tag
+     */
+    public String getEntityTag(boolean gzip) {
+        return gzip ? "\"" + entityTag + "-gzip\"" : "\"" + entityTag + "\"";
+    }
+}
@@ -0,0 +1,124 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.service;
+
+import app.model.service.OrderRank;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plans the reordering of a list of ranked items with as few rank writes as possible. The most
+ * items that are already in order relative to each other, the longest increasing subsequence of
+ * ranks in the new order, keep their ranks; only the others are given new ones between their new
+ * neighbours, so moving one item rewrites one rank.
+ */
+final class Reordering {
+
+    private Reordering() {
+    }
+
+    /**
+     * Moves the items given positions among the places they take up now, leaving any others where
+     * they are.
+     *
+     * @param ids the ids of the items in their current order
+     * @param positions the requested positions of some of the items by id; a null position leaves
+     *                  its item where it is
+     * @return the ids in their new order
+     */
+    static List<Long> order(List<Long> ids, Map<Long, Integer> positions) {
+        List<Long> moved = new ArrayList<>();
+        for (Long id : ids) {
+            if (positions.get(id) != null) {
+                moved.add(id);
+            }
+        }
+        // stable, so items given the same position keep their current order
+        moved.sort(Comparator.comparing(positions::get));
+
+        List<Long> ordered = new ArrayList<>(ids.size());
+        int next = 0;
+        for (Long id : ids) {
+            ordered.add(positions.get(id) != null ? moved.get(next++) : id);
+        }
+        return ordered;
+    }
+
+    /**
+     * @param ranks the ranks of the items in their new order, null for any without one
+     * @return the new rank of each item that has to move, by index, null for those that keep theirs
+     */
+    static String[] newRanks(List<String> ranks) {
+        int size = ranks.size();
+        boolean[] kept = longestIncreasingSubsequence(ranks);
+
+        // the rank of the next kept item after each index, which a moved item must stay below
+        String[] nextKept = new String[size + 1];
+        for (int i = size - 1; i >= 0; i--) {
+            nextKept[i] = kept[i] ? ranks.get(i) : nextKept[i + 1];
+        }
+
+        String[] newRanks = new String[size];
+        String previous = null;
+        for (int i = 0; i < size; i++) {
+            if (kept[i]) {
+                previous = ranks.get(i);
+            } else {
+                newRanks[i] = OrderRank.between(previous, nextKept[i + 1]);
+                previous = newRanks[i];
+            }
+        }
+        return newRanks;
+    }
+
+    // patience sorting, in O(n log n)
+    private static boolean[] longestIncreasingSubsequence(List<String> ranks) {
+        int size = ranks.size();
+        int[] tails = new int[size];
+        int[] predecessors = new int[size];
+        int length = 0;
+        for (int i = 0; i < size; i++) {
+            String rank = ranks.get(i);
+            if (rank == null) {
+                continue;
+            }
+            // the first subsequence length whose smallest last rank is not below this one
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (ranks.get(tails[middle]).compareTo(rank) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            predecessors[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == length) {
+                length++;
+            }
+        }
+
+        boolean[] kept = new boolean[size];
+        for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = predecessors[i]) {
+            kept[i] = true;
+        }
+        return kept;
+    }
+}
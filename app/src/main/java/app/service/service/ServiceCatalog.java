@@ -0,0 +1,117 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.service;
+
+import app.dto.group.GroupDTO;
+import app.dto.service.ServiceDTO;
+import app.dto.servicedefinition.ServiceDefinitionDTO;
+import jakarta.inject.Singleton;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * The service catalog of each jurisdiction, its services, groups and service definitions, held in
+ * memory as an immutable snapshot so that reading it never touches the database. A jurisdiction's
+ * snapshot is loaded on first use and replaced with a freshly loaded one by {@link #refresh} after
+ * any change to its catalog.
+ */
+@Singleton
+public class ServiceCatalog {
+
+    // tells apart the versions of snapshots loaded before a restart from those loaded after it
+    private static final String EPOCH = Long.toString(System.currentTimeMillis(), 36);
+
+    private final ServiceCatalogLoader loader;
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    public ServiceCatalog(ServiceCatalogLoader loader) {
+        this.loader = loader;
+    }
+
+    public Snapshot get(String jurisdictionId) {
+        return snapshots.computeIfAbsent(jurisdictionId, id -> loader.load(id, nextVersion()));
+    }
+
+    /**
+     * Reloads the jurisdiction's snapshot if it has one. Must be called once a change to the
+     * jurisdiction's catalog is saved; calls for the same jurisdiction, and its first load, are
+     * serialized so the last snapshot stored has every saved change.
+     */
+    public void refresh(String jurisdictionId) {
+        snapshots.computeIfPresent(jurisdictionId, (id, previous) -> loader.load(id, nextVersion()));
+    }
+
+    public void clear() {
+        snapshots.clear();
+    }
+
+    private String nextVersion() {
+        return EPOCH + "." + versions.incrementAndGet();
+    }
+
+    /**
+     * A jurisdiction's catalog as it was when loaded. It is shared by every reader, so neither it
+     * nor its DTOs may be modified.
+     */
+    public static class Snapshot {
+
+        private final String version;
+        private final List<ServiceDTO> services;
+        private final List<GroupDTO> groups;
+        private final Map<Long, ServiceDefinitionDTO> definitions;
+        // response bodies rendered from the snapshot, by format and what they render
+        private final Map<String, RenderedBody> renderedBodies = new ConcurrentHashMap<>();
+
+        Snapshot(String version, List<ServiceDTO> services, List<GroupDTO> groups,
+                 Map<Long, ServiceDefinitionDTO> definitions) {
+            this.version = version;
+            this.services = List.copyOf(services);
+            this.groups = List.copyOf(groups);
+            this.definitions = Map.copyOf(definitions);
+        }
+
+        /**
+         * @return a version unique to the snapshot, also across restarts
+         */
+        public String getVersion() {
+            return version;
+        }
+
+        /**
+         * @return the services in the order of their ranks
+         */
+        public List<ServiceDTO> getServices() {
+            return services;
+        }
+
+        public List<GroupDTO> getGroups() {
+            return groups;
+        }
+
+        public Optional<ServiceDefinitionDTO> getDefinition(Long serviceId) {
+            return Optional.ofNullable(definitions.get(serviceId));
+        }
+
+        RenderedBody rendered(String key, Function<String, RenderedBody> render) {
+            return renderedBodies.computeIfAbsent(key, render);
+        }
+    }
+}
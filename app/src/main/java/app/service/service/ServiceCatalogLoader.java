@@ -0,0 +1,86 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.service;
+
+import app.dto.group.GroupDTO;
+import app.dto.service.ServiceDTO;
+import app.dto.servicedefinition.ServiceDefinitionDTO;
+import app.model.service.Service;
+import app.model.service.ServiceRepository;
+import app.model.service.group.ServiceGroupRepository;
+import app.model.servicedefinition.ServiceDefinitionAttribute;
+import app.model.servicedefinition.ServiceDefinitionAttributeRepository;
+import jakarta.inject.Singleton;
+
+import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Loads a {@link ServiceCatalog.Snapshot} with a query each for the groups, services and
+ * attributes with their values. They are loaded in one transaction so that the services and
+ * attributes find the groups and services they refer to among those already loaded.
+ */
+@Singleton
+public class ServiceCatalogLoader {
+
+    private final ServiceGroupRepository serviceGroupRepository;
+    private final ServiceRepository serviceRepository;
+    private final ServiceDefinitionAttributeRepository serviceDefinitionAttributeRepository;
+
+    public ServiceCatalogLoader(ServiceGroupRepository serviceGroupRepository, ServiceRepository serviceRepository,
+                                ServiceDefinitionAttributeRepository serviceDefinitionAttributeRepository) {
+        this.serviceGroupRepository = serviceGroupRepository;
+        this.serviceRepository = serviceRepository;
+        this.serviceDefinitionAttributeRepository = serviceDefinitionAttributeRepository;
+    }
+
+    @Transactional
+    public ServiceCatalog.Snapshot load(String jurisdictionId, String version) {
+        List<GroupDTO> groups = serviceGroupRepository.findAllByJurisdictionId(jurisdictionId).stream()
+            .map(GroupDTO::new).collect(Collectors.toList());
+        List<Service> services = serviceRepository.findAllByJurisdictionId(jurisdictionId, ServiceRepository.RANK_ORDER);
+
+        // the fetched values repeat an attribute once per value
+        Map<Long, ServiceDefinitionAttribute> attributes = new LinkedHashMap<>();
+        for (ServiceDefinitionAttribute attribute :
+            serviceDefinitionAttributeRepository.findAllByServiceJurisdictionId(
+                jurisdictionId, ServiceDefinitionAttributeRepository.RANK_ORDER)) {
+            attributes.putIfAbsent(attribute.getId(), attribute);
+        }
+        Map<Long, List<ServiceDefinitionAttribute>> attributesByService = new HashMap<>();
+        for (ServiceDefinitionAttribute attribute : attributes.values()) {
+            attributesByService.computeIfAbsent(attribute.getService().getId(), id -> new ArrayList<>()).add(attribute);
+        }
+
+        List<ServiceDTO> serviceDTOs = new ArrayList<>(services.size());
+        Map<Long, ServiceDefinitionDTO> definitions = new HashMap<>();
+        // a service's position is its index among its group's in rank order
+        Map<Long, Integer> groupSizes = new HashMap<>();
+        for (Service service : services) {
+            List<ServiceDefinitionAttribute> serviceAttributes = attributesByService.getOrDefault(service.getId(), List.of());
+            ServiceDTO serviceDTO = new ServiceDTO(service, !serviceAttributes.isEmpty());
+            Long groupId = service.getServiceGroup() == null ? null : service.getServiceGroup().getId();
+            serviceDTO.setOrderPosition(groupSizes.merge(groupId, 1, Integer::sum) - 1);
+            serviceDTOs.add(serviceDTO);
+            definitions.put(service.getId(), new ServiceDefinitionDTO(service.getId(), serviceAttributes));
+        }
+        return new ServiceCatalog.Snapshot(version, serviceDTOs, groups, definitions);
+    }
+}
@@ -0,0 +1,103 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.service;
+
+import app.dto.service.ServiceDTO;
+import app.dto.service.ServiceList;
+import app.dto.servicedefinition.ServiceDefinitionDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.google.common.xml.XmlEscapers;
+import io.micronaut.context.annotation.Property;
+import jakarta.inject.Singleton;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Renders the catalog's response bodies, each once per snapshot as they are first requested.
+ */
+@Singleton
+public class ServiceCatalogRenderer {
+
+    // smaller bodies gain little from compression
+    private static final int GZIP_MIN_BYTES = 512;
+
+    private static final XmlMapper SERVICES_XML_MAPPER = XmlMapper.xmlBuilder().defaultUseWrapper(false).build();
+    private static final XmlMapper DEFINITION_XML_MAPPER = XmlMapper.xmlBuilder().build();
+
+    @Property(name = "app.service-catalog.gzip")
+    protected boolean gzip;
+
+    private final ObjectMapper objectMapper;
+
+    public ServiceCatalogRenderer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    RenderedBody renderServices(ServiceCatalog.Snapshot snapshot, RenderedBody.Format format) {
+        return snapshot.rendered("services." + format, key -> {
+            if (format == RenderedBody.Format.JSON) {
+                return toRenderedBody(snapshot, key, objectMapper, snapshot.getServices());
+            }
+            // copies, as the snapshot's services are shared
+            List<ServiceDTO> serviceDTOList = snapshot.getServices().stream()
+                .map(serviceDTO -> {
+                    ServiceDTO xmlServiceDTO = new ServiceDTO(serviceDTO);
+                    if (xmlServiceDTO.getDescription() != null) {
+                        xmlServiceDTO.setDescription(XmlEscapers.xmlContentEscaper().escape(xmlServiceDTO.getDescription()));
+                    }
+                    return xmlServiceDTO;
+                }).collect(Collectors.toList());
+            return toRenderedBody(snapshot, key, SERVICES_XML_MAPPER, new ServiceList(serviceDTOList));
+        });
+    }
+
+    /**
+     * @param definition the service's definition in the snapshot
+     */
+    RenderedBody renderDefinition(ServiceCatalog.Snapshot snapshot, ServiceDefinitionDTO definition,
+                                  RenderedBody.Format format) {
+        return snapshot.rendered(definition.getServiceCode() + "." + format, key ->
+            toRenderedBody(snapshot, key, format == RenderedBody.Format.JSON ? objectMapper : DEFINITION_XML_MAPPER,
+                definition));
+    }
+
+    private RenderedBody toRenderedBody(ServiceCatalog.Snapshot snapshot, String key, ObjectMapper mapper, Object body) {
+        byte[] bytes;
+        try {
+            bytes = mapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new RenderedBody(bytes, gzip && bytes.length >= GZIP_MIN_BYTES ? gzip(bytes) : null,
+            snapshot.getVersion() + "-" + key);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,70 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.service;
+
+import app.model.service.ServiceRepository;
+import app.model.servicedefinition.ServiceDefinitionAttributeRepository;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Ranks grow a little longer each time an item is moved between two others that are next to each
+ * other, so the groups and service definitions whose ranks have grown past max-length are given
+ * the short ranks of their positions again.
+ */
+@Singleton
+public class ServiceOrderRebalancer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ServiceOrderRebalancer.class);
+
+    @Property(name = "app.order-ranks.max-length")
+    protected int maxLength;
+
+    private final ServiceService serviceService;
+    private final ServiceRepository serviceRepository;
+    private final ServiceDefinitionAttributeRepository serviceDefinitionAttributeRepository;
+    private final ServiceCatalog serviceCatalog;
+
+    public ServiceOrderRebalancer(ServiceService serviceService, ServiceRepository serviceRepository,
+                                  ServiceDefinitionAttributeRepository serviceDefinitionAttributeRepository,
+                                  ServiceCatalog serviceCatalog) {
+        this.serviceService = serviceService;
+        this.serviceRepository = serviceRepository;
+        this.serviceDefinitionAttributeRepository = serviceDefinitionAttributeRepository;
+        this.serviceCatalog = serviceCatalog;
+    }
+
+    @Scheduled(fixedDelay = "1h", initialDelay = "1h")
+    void rebalance() {
+        for (Long groupId : serviceRepository.findGroupIdsWithOrderRanksLongerThan(maxLength)) {
+            String jurisdictionId = serviceService.rebalanceServicesOrder(groupId);
+            if (jurisdictionId != null) {
+                serviceCatalog.refresh(jurisdictionId);
+            }
+            LOG.info("Rebalanced the order ranks of the services of group {}.", groupId);
+        }
+
+        for (Long serviceId : serviceDefinitionAttributeRepository.findServiceIdsWithAttributeRanksLongerThan(maxLength)) {
+            String jurisdictionId = serviceService.rebalanceAttributesOrder(serviceId);
+            if (jurisdictionId != null) {
+                serviceCatalog.refresh(jurisdictionId);
+            }
+            LOG.info("Rebalanced the order ranks of the attributes of service {}.", serviceId);
+        }
+    }
+}
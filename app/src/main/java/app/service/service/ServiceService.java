@@ -25,11 +25,15 @@ import app.dto.servicedefinition.*;
 import app.model.jurisdiction.Jurisdiction;
 import app.model.jurisdiction.JurisdictionRepository;
 import app.model.service.AttributeDataType;
+import app.model.service.OrderRank;
 import app.model.service.Service;
 import app.model.service.ServiceRepository;
 import app.model.service.group.ServiceGroup;
 import app.model.service.group.ServiceGroupRepository;
 import app.model.servicedefinition.*;
+import app.service.AfterCommit;
+import app.service.servicerequest.ServiceDefinitionValidatorCache;
+import app.service.servicerequest.ServiceDefinitionVersions;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import io.micronaut.http.HttpStatus;
@@ -39,9 +43,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 @Singleton
@@ -52,13 +59,21 @@ public class ServiceService {
     private final ServiceGroupRepository serviceGroupRepository;
     private final ServiceDefinitionAttributeRepository serviceDefinitionAttributeRepository;
     private final AttributeValueRepository attributeValueRepository;
+    private final ServiceDefinitionValidatorCache serviceDefinitionValidatorCache;
+    private final ServiceDefinitionVersions serviceDefinitionVersions;
+    private final ServiceCatalog serviceCatalog;
+    private final ServiceCatalogRenderer serviceCatalogRenderer;
 
-    public ServiceService(ServiceRepository serviceRepository, JurisdictionRepository jurisdictionRepository, ServiceGroupRepository serviceGroupRepository, ServiceDefinitionAttributeRepository serviceDefinitionAttributeRepository, AttributeValueRepository attributeValueRepository) {
+    public ServiceService(ServiceRepository serviceRepository, JurisdictionRepository jurisdictionRepository, ServiceGroupRepository serviceGroupRepository, ServiceDefinitionAttributeRepository serviceDefinitionAttributeRepository, AttributeValueRepository attributeValueRepository, ServiceDefinitionValidatorCache serviceDefinitionValidatorCache, ServiceDefinitionVersions serviceDefinitionVersions, ServiceCatalog serviceCatalog, ServiceCatalogRenderer serviceCatalogRenderer) {
         this.serviceRepository = serviceRepository;
         this.jurisdictionRepository = jurisdictionRepository;
         this.serviceGroupRepository = serviceGroupRepository;
         this.serviceDefinitionAttributeRepository = serviceDefinitionAttributeRepository;
         this.attributeValueRepository = attributeValueRepository;
+        this.serviceDefinitionValidatorCache = serviceDefinitionValidatorCache;
+        this.serviceDefinitionVersions = serviceDefinitionVersions;
+        this.serviceCatalog = serviceCatalog;
+        this.serviceCatalogRenderer = serviceCatalogRenderer;
     }
 
     static class ServiceNotFoundException extends Libre311BaseException {
@@ -93,21 +108,22 @@ public class ServiceService {
         }
     }
 
-    public List<ServiceDTO> findAll(String jurisdictionId) {
-        List<Service> servicePage = serviceRepository.findAllByJurisdictionIdOrderByOrderPosition(jurisdictionId);
-
-        return servicePage.stream().map(this::toServiceDTO).collect(Collectors.toList());
+    /**
+     * @return the jurisdiction's services, rendered once per version of its {@link ServiceCatalog}
+     */
+    public RenderedBody renderServices(String jurisdictionId, RenderedBody.Format format) {
+        return serviceCatalogRenderer.renderServices(serviceCatalog.get(jurisdictionId), format);
     }
 
-    public ServiceDefinitionDTO getServiceDefinition(Long serviceCode, String jurisdictionId) {
-        Optional<Service> serviceOptional = serviceRepository.findById(serviceCode);
-
-        if (serviceOptional.isEmpty()) {
-            throw new ServiceNotFoundException(serviceCode, jurisdictionId);
-        }
-        Service service = serviceOptional.get();
-
-        return convertToServiceDefinitionDTO(service);
+    /**
+     * @return the service's definition, rendered once per version of its jurisdiction's
+     * {@link ServiceCatalog}
+     */
+    public RenderedBody renderServiceDefinition(Long serviceCode, String jurisdictionId, RenderedBody.Format format) {
+        ServiceCatalog.Snapshot snapshot = serviceCatalog.get(jurisdictionId);
+        ServiceDefinitionDTO definition = snapshot.getDefinition(serviceCode)
+            .orElseThrow(() -> new ServiceNotFoundException(serviceCode, jurisdictionId));
+        return serviceCatalogRenderer.renderDefinition(snapshot, definition, format);
     }
 
     public ServiceDTO createService(CreateServiceDTO serviceDTO, String jurisdictionId) {
@@ -123,7 +139,9 @@ public class ServiceService {
             service.setOrderPosition(serviceDTO.getOrderPosition());
         }
 
-        return toServiceDTO(serviceRepository.save(service));
+        ServiceDTO savedServiceDTO = toServiceDTO(serviceRepository.save(service));
+        refreshCatalog(jurisdictionId);
+        return savedServiceDTO;
     }
 
     public ServiceDTO updateService(Long serviceCode, UpdateServiceDTO serviceDTO, String jurisdictionId) {
@@ -151,30 +169,73 @@ public class ServiceService {
             service.setOrderPosition(serviceDTO.getOrderPosition());
         }
 
-        return toServiceDTO(serviceRepository.update(service));
+        ServiceDTO updatedServiceDTO = toServiceDTO(serviceRepository.update(service));
+        refreshCatalog(service.getJurisdiction().getId());
+        return updatedServiceDTO;
     }
 
     public List<ServiceDTO> updateServiceOrderPositions(Long groupId, List<PatchServiceOrderPositionDTO> requestDTO) {
 
-        updateServicesOrderPosition(groupId, requestDTO);
+        List<Service> services = updateServicesOrderPosition(groupId, requestDTO);
+        if (!services.isEmpty()) {
+            refreshCatalog(services.get(0).getJurisdiction().getId());
+        }
+
+        List<ServiceDTO> serviceDTOs = new ArrayList<>(services.size());
+        for (int i = 0; i < services.size(); i++) {
+            serviceDTOs.add(toServiceDTO(services.get(i), i));
+        }
+        return serviceDTOs;
+    }
 
-        // get refreshed list of services
-        List<Service> services = serviceRepository.findAllByServiceGroupIdOrderByOrderPositionAsc(groupId);
-        return services.stream().map(this::toServiceDTO).collect(Collectors.toList());
+    /**
+     * Moves the services to the requested positions among the places they take up in their group,
+     * rewriting the ranks of only those that end up out of order.
+     *
+     * @return the group's services in their new order
+     */
+    @Transactional
+    public List<Service> updateServicesOrderPosition(Long groupId, List<PatchServiceOrderPositionDTO> requestDTO) {
+        Map<Long, Service> servicesById = new LinkedHashMap<>();
+        serviceRepository.findAllByServiceGroupId(groupId, ServiceRepository.RANK_ORDER)
+            .forEach(service -> servicesById.put(service.getId(), service));
+        Map<Long, Integer> positions = new HashMap<>();
+        requestDTO.forEach(patchServiceOrderPositionDTO -> positions.put(
+            patchServiceOrderPositionDTO.getServiceId(), patchServiceOrderPositionDTO.getOrderPosition()));
+
+        List<Service> services = Reordering.order(new ArrayList<>(servicesById.keySet()), positions).stream()
+            .map(servicesById::get).collect(Collectors.toList());
+        String[] newRanks = Reordering.newRanks(
+            services.stream().map(Service::getOrderRank).collect(Collectors.toList()));
+        for (int i = 0; i < newRanks.length; i++) {
+            if (newRanks[i] != null) {
+                serviceRepository.updateOrder(services.get(i).getId(), groupId, newRanks[i]);
+            }
+        }
+        return services;
     }
 
+    /**
+     * Gives the group's services the short ranks of their positions again, keeping their order.
+     *
+     * @return the id of the group's jurisdiction, or null if the group has no services
+     */
     @Transactional
-    public void updateServicesOrderPosition(Long groupId, List<PatchServiceOrderPositionDTO> requestDTO) {
-        requestDTO.forEach(patchServiceOrderPositionDTO -> serviceRepository.updateOrderPositionByIdAndServiceGroupId(
-                patchServiceOrderPositionDTO.getServiceId(), groupId,
-                patchServiceOrderPositionDTO.getOrderPosition()
-        ));
+    public String rebalanceServicesOrder(Long groupId) {
+        List<Service> services = serviceRepository.findAllByServiceGroupId(groupId, ServiceRepository.RANK_ORDER);
+        for (int i = 0; i < services.size(); i++) {
+            serviceRepository.updateOrder(services.get(i).getId(), groupId, OrderRank.ofPosition(i));
+        }
+        return services.isEmpty() ? null : services.get(0).getJurisdiction().getId();
     }
 
     public void deleteService(Long serviceCode, String jurisdictionId) {
-        serviceRepository.findById(serviceCode)
+        Service service = serviceRepository.findById(serviceCode)
             .orElseThrow(() -> new ServiceNotFoundException(serviceCode, jurisdictionId));
         serviceRepository.deleteById(serviceCode);
+        // no version to store, the service's versions are deleted along with it
+        AfterCommit.run(() -> serviceDefinitionValidatorCache.invalidate(serviceCode));
+        refreshCatalog(service.getJurisdiction().getId());
     }
 
     private ServiceGroup validateGroupExistenceAndReturn(Long groupId, String jurisdictionId) {
@@ -183,8 +244,7 @@ public class ServiceService {
     }
 
     public List<GroupDTO> getListGroups(String jurisdictionId) {
-        return serviceGroupRepository.findAllByJurisdictionId(jurisdictionId).stream()
-                .map(GroupDTO::new).collect(Collectors.toList());
+        return serviceCatalog.get(jurisdictionId).getGroups();
     }
 
     public GroupDTO createGroup(CreateUpdateGroupDTO requestDTO, String jurisdictionId) {
@@ -197,7 +257,9 @@ public class ServiceService {
         group.setJurisdiction(jurisdiction);
         group.setName(requestDTO.getName());
 
-        return new GroupDTO(serviceGroupRepository.save(group));
+        GroupDTO savedGroupDTO = new GroupDTO(serviceGroupRepository.save(group));
+        refreshCatalog(jurisdictionId);
+        return savedGroupDTO;
     }
 
     public GroupDTO updateGroup(Long groupId, CreateUpdateGroupDTO requestDTO) {
@@ -215,7 +277,9 @@ public class ServiceService {
             group.setName(requestDTO.getName());
         }
 
-        return new GroupDTO(serviceGroupRepository.update(group));
+        GroupDTO updatedGroupDTO = new GroupDTO(serviceGroupRepository.update(group));
+        refreshCatalog(group.getJurisdiction().getId());
+        return updatedGroupDTO;
 
     }
 
@@ -234,6 +298,7 @@ public class ServiceService {
             ServiceGroup serviceGroup = groupOptional.get();
             if (serviceRepository.countByServiceGroup(serviceGroup) == 0) {
                 serviceGroupRepository.delete(serviceGroup);
+                refreshCatalog(serviceGroup.getJurisdiction().getId());
             }
         } else {
             throw new HttpStatusException(HttpStatus.BAD_REQUEST, "Cannot delete Group with existing Service associations.");
@@ -248,38 +313,16 @@ public class ServiceService {
         }
         Service service = serviceOptional.get();
 
-        return convertToServiceDefinitionDTO(addAttributeToServiceDefinition(serviceDefinitionAttributeDTO, service));
+        Service updatedService = addAttributeToServiceDefinition(serviceDefinitionAttributeDTO, service);
+        definitionChanged(serviceId);
+        refreshCatalog(service.getJurisdiction().getId());
+
+        return convertToServiceDefinitionDTO(updatedService);
     }
 
     private ServiceDefinitionDTO convertToServiceDefinitionDTO(Service service) {
-        ServiceDefinitionDTO serviceDefinitionDTO = new ServiceDefinitionDTO(service.getId());
-
-        List<ServiceDefinitionAttribute> serviceDefinitionAttributes = serviceDefinitionAttributeRepository.findAllByServiceIdOrderByAttributeOrderAsc(service.getId());
-        if (serviceDefinitionAttributes != null) {
-            serviceDefinitionDTO.setAttributes(serviceDefinitionAttributes.stream().map(serviceDefinitionAttributeEntity -> {
-                ServiceDefinitionAttributeDTO serviceDefinitionAttributeDTO = new ServiceDefinitionAttributeDTO(
-                        serviceDefinitionAttributeEntity.getId(),
-                        serviceDefinitionAttributeEntity.isVariable(),
-                        serviceDefinitionAttributeEntity.getDatatype(),
-                        serviceDefinitionAttributeEntity.isRequired(),
-                        serviceDefinitionAttributeEntity.getDescription(),
-                        serviceDefinitionAttributeEntity.getAttributeOrder(),
-                        serviceDefinitionAttributeEntity.getDatatypeDescription());
-
-                Set<AttributeValue> attributeValues = serviceDefinitionAttributeEntity.getAttributeValues();
-                if (attributeValues != null) {
-                    serviceDefinitionAttributeDTO.setValues(attributeValues.stream()
-                            .map(attributeValueEntity -> new AttributeValueDTO(
-                                    attributeValueEntity.getId().toString(),
-                                    attributeValueEntity.getValueName()))
-                            .collect(Collectors.toList()));
-                }
-
-                return serviceDefinitionAttributeDTO;
-            }).collect(Collectors.toList()));
-        }
-
-        return serviceDefinitionDTO;
+        return new ServiceDefinitionDTO(service.getId(), serviceDefinitionAttributeRepository.findAllByServiceId(
+            service.getId(), ServiceDefinitionAttributeRepository.RANK_ORDER));
     }
 
     public ServiceDefinitionDTO updateServiceDefinitionAttribute(Long attributeCode, UpdateServiceDefinitionAttributeDTO serviceDefinitionAttributeDTO) {
@@ -290,6 +333,8 @@ public class ServiceService {
         ServiceDefinitionAttribute serviceDefinitionAttribute = serviceDefinitionAttributeEntityOptional.get();
 
         ServiceDefinitionAttribute patch = patchServiceDefinitionAttribute(serviceDefinitionAttribute, serviceDefinitionAttributeDTO);
+        definitionChanged(patch.getService().getId());
+        refreshCatalog(patch.getService().getJurisdiction().getId());
 
         return convertToServiceDefinitionDTO(patch.getService());
     }
@@ -339,6 +384,8 @@ public class ServiceService {
         }
         ServiceDefinitionAttribute serviceDefinitionAttributeEntity = serviceDefinitionAttribute.get();
         serviceDefinitionAttributeRepository.delete(serviceDefinitionAttributeEntity);
+        definitionChanged(serviceDefinitionAttributeEntity.getService().getId());
+        refreshCatalog(serviceDefinitionAttributeEntity.getService().getJurisdiction().getId());
     }
 
     @Transactional
@@ -372,22 +419,80 @@ public class ServiceService {
 
     public ServiceDefinitionDTO updateAttributesOrder(Long serviceCode, List<PatchAttributeOrderDTO> requestDTO) {
 
-        updateAttributeOrderPositions(serviceCode, requestDTO);
+        List<ServiceDefinitionAttribute> attributes = updateAttributeOrderPositions(serviceCode, requestDTO);
+        definitionChanged(serviceCode);
 
-        // get refreshed list of attributes
         Optional<Service> serviceOptional = serviceRepository.findById(serviceCode);
-        return convertToServiceDefinitionDTO(serviceOptional.get());
+        refreshCatalog(serviceOptional.get().getJurisdiction().getId());
+
+        return new ServiceDefinitionDTO(serviceCode, attributes);
     }
 
+    /**
+     * Moves the attributes to the requested positions among the places they take up in their
+     * service's definition, rewriting the ranks of only those that end up out of order.
+     *
+     * @return the service's attributes in their new order
+     */
     @Transactional
-    public void updateAttributeOrderPositions(Long serviceId, List<PatchAttributeOrderDTO> requestDTO) {
-        requestDTO.forEach(patchAttributeOrderDTO -> serviceDefinitionAttributeRepository.updateAttributeOrderByIdAndServiceId(
-                patchAttributeOrderDTO.getCode(), serviceId,
-                patchAttributeOrderDTO.getOrder()
-        ));
+    public List<ServiceDefinitionAttribute> updateAttributeOrderPositions(Long serviceId, List<PatchAttributeOrderDTO> requestDTO) {
+        Map<Long, ServiceDefinitionAttribute> attributesById = new LinkedHashMap<>();
+        serviceDefinitionAttributeRepository.findAllByServiceId(serviceId, ServiceDefinitionAttributeRepository.RANK_ORDER)
+            .forEach(attribute -> attributesById.put(attribute.getId(), attribute));
+        Map<Long, Integer> positions = new HashMap<>();
+        requestDTO.forEach(patchAttributeOrderDTO -> positions.put(
+            patchAttributeOrderDTO.getCode(), patchAttributeOrderDTO.getOrder()));
+
+        List<ServiceDefinitionAttribute> attributes = Reordering.order(new ArrayList<>(attributesById.keySet()), positions)
+            .stream().map(attributesById::get).collect(Collectors.toList());
+        String[] newRanks = Reordering.newRanks(
+            attributes.stream().map(ServiceDefinitionAttribute::getAttributeRank).collect(Collectors.toList()));
+        for (int i = 0; i < newRanks.length; i++) {
+            if (newRanks[i] != null) {
+                serviceDefinitionAttributeRepository.updateOrder(attributes.get(i).getId(), serviceId, newRanks[i]);
+            }
+        }
+        return attributes;
+    }
+
+    /**
+     * Gives the service's attributes the short ranks of their positions again, keeping their order.
+     *
+     * @return the id of the service's jurisdiction, or null if the service has no attributes
+     */
+    @Transactional
+    public String rebalanceAttributesOrder(Long serviceId) {
+        List<ServiceDefinitionAttribute> attributes = serviceDefinitionAttributeRepository.findAllByServiceId(
+            serviceId, ServiceDefinitionAttributeRepository.RANK_ORDER);
+        for (int i = 0; i < attributes.size(); i++) {
+            serviceDefinitionAttributeRepository.updateOrder(attributes.get(i).getId(), serviceId, OrderRank.ofPosition(i));
+        }
+        definitionChanged(serviceId);
+        return attributes.isEmpty() ? null : attributes.get(0).getService().getJurisdiction().getId();
+    }
+
+    // stores the definition's new version along with the change, and drops the compiled definition
+    // once the change is committed, so that a concurrent submission can't cache the one it replaced
+    private void definitionChanged(Long serviceId) {
+        serviceDefinitionVersions.record(serviceId);
+        AfterCommit.run(() -> serviceDefinitionValidatorCache.invalidate(serviceId));
+    }
+
+    // once the change is committed, so that the catalog never holds a change that is rolled back
+    private void refreshCatalog(String jurisdictionId) {
+        AfterCommit.run(() -> serviceCatalog.refresh(jurisdictionId));
     }
 
     private ServiceDTO toServiceDTO(Service service){
-        return new ServiceDTO(service, serviceDefinitionAttributeRepository.existsByServiceId(service.getId()));
+        ServiceGroup group = service.getServiceGroup();
+        return toServiceDTO(service, group == null ? 0
+            : (int) serviceRepository.countPreceding(group.getId(), service.getOrderRank(), service.getId()));
+    }
+
+    // the position is the service's index among its group's in rank order
+    private ServiceDTO toServiceDTO(Service service, int orderPosition) {
+        ServiceDTO serviceDTO = new ServiceDTO(service, serviceDefinitionAttributeRepository.existsByServiceId(service.getId()));
+        serviceDTO.setOrderPosition(orderPosition);
+        return serviceDTO;
     }
 }
@@ -0,0 +1,232 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.servicerequest;
+
+import app.dto.servicedefinition.AttributeValueDTO;
+import app.dto.servicedefinition.ServiceDefinitionAttributeDTO;
+import app.model.service.AttributeDataType;
+import io.micronaut.core.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * A version of a service definition compiled for validating submissions and rendering their
+ * answers: attributes and their values are indexed by id, required attributes are kept as a bitset
+ * and each attribute carries the parser for its datatype. Instances are immutable and safe to share
+ * between requests.
+ */
+class CompiledServiceDefinition {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CompiledServiceDefinition.class);
+    private static final String ATTRIBUTE_KEY_PREFIX = "attribute[";
+
+    private final Long versionId;
+    private final Map<Long, CompiledAttribute> attributesById;
+    private final BitSet requiredAttributes = new BitSet();
+
+    /**
+     * @param versionId the id of the stored version, or null for a definition without attributes
+     */
+    CompiledServiceDefinition(@Nullable Long versionId, List<ServiceDefinitionAttributeDTO> serviceDefinitionAttributes) {
+        this.versionId = versionId;
+        attributesById = new HashMap<>(serviceDefinitionAttributes.size() * 2);
+        for (int index = 0; index < serviceDefinitionAttributes.size(); index++) {
+            ServiceDefinitionAttributeDTO attribute = serviceDefinitionAttributes.get(index);
+            attributesById.put(attribute.getId(), new CompiledAttribute(index, attribute));
+            if (Boolean.TRUE.equals(attribute.isRequired())) {
+                requiredAttributes.set(index);
+            }
+        }
+    }
+
+    @Nullable
+    Long getVersionId() {
+        return versionId;
+    }
+
+    boolean isEmpty() {
+        return attributesById.isEmpty();
+    }
+
+    /**
+     * Validates the user's responses in a single pass over the decoded form.
+     *
+     * @param form the decoded form body
+     * @return the submitted value of each answered attribute by its code, or null if a required
+     * attribute is missing
+     */
+    Map<String, String> bind(Map<String, String> form) {
+        Map<String, String> answers = new LinkedHashMap<>();
+        BitSet answered = new BitSet(attributesById.size());
+
+        for (Map.Entry<String, String> entry : form.entrySet()) {
+            String key = entry.getKey();
+            String value = entry.getValue();
+            if (!key.startsWith(ATTRIBUTE_KEY_PREFIX) || (value != null && value.trim().isEmpty())) {
+                continue;
+            }
+
+            Long attributeCode = parseAttributeCode(key);
+
+            // if attribute in request does not exist in db, then ignore
+            CompiledAttribute attribute = attributesById.get(attributeCode);
+            if (attribute == null) {
+                continue;
+            }
+
+            attribute.validate(value);
+            answers.put(attributeCode.toString(), value);
+            answered.set(attribute.index);
+        }
+
+        BitSet missing = (BitSet) requiredAttributes.clone();
+        missing.andNot(answered);
+
+        return missing.isEmpty() ? answers : null;
+    }
+
+    /**
+     * @param answers answers bound against this version of the definition
+     * @return the answered attributes with the names of their selected values
+     */
+    List<ServiceDefinitionAttributeDTO> render(Map<String, String> answers) {
+        List<ServiceDefinitionAttributeDTO> attributes = new ArrayList<>(answers.size());
+        for (Map.Entry<String, String> answer : answers.entrySet()) {
+            CompiledAttribute attribute = attributesById.get(Long.valueOf(answer.getKey()));
+            if (attribute != null) {
+                attributes.add(attribute.render(answer.getValue()));
+            }
+        }
+        return attributes;
+    }
+
+    private static Long parseAttributeCode(String key) {
+        String attributeCodeStr = key.substring(ATTRIBUTE_KEY_PREFIX.length(), key.indexOf(']'));
+        try {
+            return Long.parseLong(attributeCodeStr);
+        } catch (NumberFormatException nfe) {
+            throw new ServiceRequestService.InvalidServiceRequestException("Code should be an Integer.");
+        }
+    }
+
+    private static Predicate<String> parserFor(AttributeDataType datatype) {
+        if (datatype == AttributeDataType.NUMBER) {
+            return value -> {
+                try {
+                    Integer.parseInt(value);
+                    return true;
+                } catch (NumberFormatException nfe) {
+                    return false;
+                }
+            };
+        }
+        if (datatype == AttributeDataType.DATETIME) {
+            return value -> {
+                try {
+                    Instant.parse(value);
+                    return true;
+                } catch (DateTimeParseException dtpe) {
+                    return false;
+                }
+            };
+        }
+        return value -> true;
+    }
+
+    private static class CompiledAttribute {
+        private final int index;
+        private final Long id;
+        private final Integer attributeOrder;
+        private final Boolean required;
+        private final Boolean variable;
+        private final AttributeDataType datatype;
+        private final String description;
+        private final Predicate<String> parser;
+        private final Map<String, String> valueNamesByKey;
+
+        CompiledAttribute(int index, ServiceDefinitionAttributeDTO attribute) {
+            this.index = index;
+            this.id = attribute.getId();
+            this.attributeOrder = attribute.getAttributeOrder();
+            this.required = attribute.isRequired();
+            this.variable = attribute.isVariable();
+            this.datatype = attribute.getDatatype();
+            this.description = attribute.getDescription();
+            this.parser = parserFor(datatype);
+
+            if (isValueList() && attribute.getValues() != null) {
+                valueNamesByKey = new HashMap<>(attribute.getValues().size() * 2);
+                for (AttributeValueDTO attributeValue : attribute.getValues()) {
+                    valueNamesByKey.put(attributeValue.getKey(), attributeValue.getName());
+                }
+            } else {
+                valueNamesByKey = null;
+            }
+        }
+
+        void validate(String value) {
+            // validate the value if necessary (number and dates)
+            if (value != null && !parser.test(value)) {
+                String errorMsg = String.format("Provided value for attribute with code %s is invalid", id);
+                LOG.error(errorMsg);
+                throw new RuntimeException(errorMsg);
+            }
+        }
+
+        ServiceDefinitionAttributeDTO render(String value) {
+            ServiceDefinitionAttributeDTO sda = new ServiceDefinitionAttributeDTO();
+            sda.setId(id);
+            sda.setAttributeOrder(attributeOrder);
+            sda.setRequired(required);
+            sda.setVariable(variable);
+            sda.setDatatype(datatype);
+            sda.setDescription(description);
+
+            List<AttributeValueDTO> values = new ArrayList<>();
+            if (isValueList()) {
+                if (valueNamesByKey != null && value != null) {
+                    if (value.contains(",") && datatype == AttributeDataType.MULTIVALUELIST) {
+                        for (String valueKey : value.split(",")) {
+                            values.add(new AttributeValueDTO(valueKey, valueNamesByKey.get(valueKey)));
+                        }
+                    } else {
+                        values.add(new AttributeValueDTO(value, valueNamesByKey.get(value)));
+                    }
+                }
+            } else {
+                // we need a way to capture the user's response. We will do so by adding an attribute value where
+                // the key is the code and the value is the user's response.
+                values.add(new AttributeValueDTO(String.valueOf(id), value));
+            }
+
+            sda.setValues(values);
+            return sda;
+        }
+
+        private boolean isValueList() {
+            return datatype == AttributeDataType.SINGLEVALUELIST || datatype == AttributeDataType.MULTIVALUELIST;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.servicerequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+
+/**
+ * Runs independent validation steps concurrently. The steps are awaited in the order they
+ * complete, so the first one to fail cancels the rest right away, interrupting any still running,
+ * and its exception is rethrown as-is.
+ */
+final class ConcurrentValidation {
+
+    private final CompletionService<Object> completionService;
+    private final List<Future<Object>> steps = new ArrayList<>();
+
+    ConcurrentValidation(Executor executor) {
+        this.completionService = new ExecutorCompletionService<>(executor);
+    }
+
+    Future<?> submit(Runnable step) {
+        Future<Object> future = completionService.submit(step, null);
+        steps.add(future);
+        return future;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> Future<T> submit(Callable<T> step) {
+        Future<Object> future = completionService.submit(step::call);
+        steps.add(future);
+        return (Future<T>) future;
+    }
+
+    /**
+     * Waits until every step has passed or one has failed.
+     */
+    void awaitAll() {
+        try {
+            for (int i = 0; i < steps.size(); i++) {
+                try {
+                    completionService.take().get();
+                } catch (ExecutionException e) {
+                    cancelAll();
+                    throw unwrap(e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            cancelAll();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while validating", e);
+        }
+    }
+
+    /**
+     * @return the result of a step that {@link #awaitAll} has already seen pass
+     */
+    static <T> T resultOf(Future<T> step) {
+        try {
+            return step.get();
+        } catch (ExecutionException | InterruptedException e) {
+            throw new IllegalStateException("Step was not awaited", e);
+        }
+    }
+
+    private void cancelAll() {
+        // no-op for the steps that already completed
+        steps.forEach(step -> step.cancel(true));
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+}
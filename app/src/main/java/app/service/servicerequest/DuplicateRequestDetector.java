@@ -0,0 +1,260 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.servicerequest;
+
+import app.model.servicerequest.ServiceRequest;
+import app.model.servicerequest.ServiceRequestRepository;
+import app.model.servicerequest.ServiceRequestStatus;
+import app.service.geometry.GeoDistance;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.data.model.Sort;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a per-jurisdiction grid of recent OPEN service requests so that a new submission can be
+ * matched against nearby reports of the same service without querying the database.
+ * <p>
+ * Each grid cell is as tall as the configured radius, so a lookup only has to inspect the
+ * surrounding cells. Grids are loaded lazily on the first lookup for a jurisdiction and then kept
+ * current from {@link ServiceRequestEvent}s. Requests that are themselves duplicates are left out,
+ * so a new submission is always linked to the original report.
+ */
+@Singleton
+public class DuplicateRequestDetector implements ApplicationEventListener<ServiceRequestEvent> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DuplicateRequestDetector.class);
+
+    @Property(name = "app.duplicate-detection.enabled")
+    protected boolean enabled;
+
+    @Property(name = "app.duplicate-detection.merge")
+    protected boolean merge;
+
+    @Property(name = "app.duplicate-detection.radius-meters")
+    protected double radiusMeters;
+
+    @Property(name = "app.duplicate-detection.window")
+    protected Duration window;
+
+    private final ServiceRequestRepository serviceRequestRepository;
+    private final Map<String, RecentRequestGrid> grids = new ConcurrentHashMap<>();
+
+    public DuplicateRequestDetector(ServiceRequestRepository serviceRequestRepository) {
+        this.serviceRequestRepository = serviceRequestRepository;
+    }
+
+    @PostConstruct
+    void validateRadius() {
+        if (enabled && !(radiusMeters > 0)) {
+            throw new IllegalArgumentException("Duplicate detection radius-meters must be positive");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return true when duplicates should be merged into the existing request rather than linked to it
+     */
+    public boolean isMergeEnabled() {
+        return merge;
+    }
+
+    /**
+     * @return the id of the closest recent OPEN request of the same service within the configured
+     * radius and time window, or null if there is none
+     */
+    public Long findDuplicate(String jurisdictionId, Long serviceId, double lat, double lng) {
+        if (!enabled) {
+            return null;
+        }
+
+        RecentRequestGrid grid = getGrid(jurisdictionId);
+        grid.ensureLoaded(() -> loadRecentOpenRequests(jurisdictionId, grid));
+
+        long notBefore = Instant.now().minus(window).toEpochMilli();
+        RecentRequest nearest = grid.findNearest(serviceId, lat, lng, radiusMeters, notBefore);
+
+        return nearest == null ? null : nearest.id;
+    }
+
+    @Override
+    public void onApplicationEvent(ServiceRequestEvent event) {
+        if (!enabled || event.getType() == ServiceRequestEvent.Type.DISTRICT_CHANGED) {
+            return;
+        }
+
+        RecentRequestGrid grid = getGrid(event.getJurisdictionId());
+        if (event.getStatus() == ServiceRequestStatus.OPEN) {
+            if (event.getType() == ServiceRequestEvent.Type.CREATED && event.getDuplicateOfId() == null) {
+                grid.add(new RecentRequest(event.getServiceRequestId(), event.getServiceId(),
+                    event.getLatitude(), event.getLongitude(), toEpochMilli(event.getDateCreated())));
+            }
+        } else {
+            grid.remove(event.getServiceRequestId());
+        }
+    }
+
+    @Scheduled(fixedDelay = "5m", initialDelay = "5m")
+    void evictExpired() {
+        if (!enabled) {
+            return;
+        }
+
+        long notBefore = Instant.now().minus(window).toEpochMilli();
+        grids.values().forEach(grid -> grid.evictOlderThan(notBefore));
+    }
+
+    private RecentRequestGrid getGrid(String jurisdictionId) {
+        return grids.computeIfAbsent(jurisdictionId,
+            id -> new RecentRequestGrid(GeoDistance.metersToLatitudeDegrees(radiusMeters)));
+    }
+
+    private void loadRecentOpenRequests(String jurisdictionId, RecentRequestGrid grid) {
+        List<ServiceRequest> recentOpenRequests = serviceRequestRepository.findByJurisdictionIdAndStatusInAndDateCreatedAfter(
+            jurisdictionId, List.of(ServiceRequestStatus.OPEN), Instant.now().minus(window), Sort.unsorted());
+
+        recentOpenRequests.stream()
+            .filter(serviceRequest -> serviceRequest.getDuplicateOfId() == null)
+            .forEach(serviceRequest -> grid.add(new RecentRequest(serviceRequest.getId(),
+                serviceRequest.getService().getId(), serviceRequest.getLocation().getY(),
+                serviceRequest.getLocation().getX(), toEpochMilli(serviceRequest.getDateCreated()))));
+
+        LOG.info("Loaded {} recent open service requests for jurisdiction {} into the duplicate detection grid.",
+            recentOpenRequests.size(), jurisdictionId);
+    }
+
+    private static long toEpochMilli(Instant instant) {
+        return instant == null ? System.currentTimeMillis() : instant.toEpochMilli();
+    }
+
+    static class RecentRequest {
+        final long id;
+        final long serviceId;
+        final double lat;
+        final double lng;
+        final long createdAtMillis;
+
+        RecentRequest(long id, long serviceId, double lat, double lng, long createdAtMillis) {
+            this.id = id;
+            this.serviceId = serviceId;
+            this.lat = lat;
+            this.lng = lng;
+            this.createdAtMillis = createdAtMillis;
+        }
+    }
+
+    static class RecentRequestGrid {
+        private final double cellSizeDegrees;
+        private final Map<Long, Map<Long, RecentRequest>> cells = new ConcurrentHashMap<>();
+        private final Map<Long, Long> cellByRequestId = new ConcurrentHashMap<>();
+        private volatile boolean loaded;
+
+        RecentRequestGrid(double cellSizeDegrees) {
+            if (!(cellSizeDegrees > 0)) {
+                throw new IllegalArgumentException("Grid cell size must be positive");
+            }
+            this.cellSizeDegrees = cellSizeDegrees;
+        }
+
+        void ensureLoaded(Runnable loader) {
+            if (loaded) {
+                return;
+            }
+            synchronized (this) {
+                if (!loaded) {
+                    loader.run();
+                    loaded = true;
+                }
+            }
+        }
+
+        void add(RecentRequest request) {
+            long cell = cellKey(cellIndex(request.lng), cellIndex(request.lat));
+            cells.compute(cell, (key, requests) -> {
+                Map<Long, RecentRequest> cellRequests = requests == null ? new ConcurrentHashMap<>() : requests;
+                cellRequests.put(request.id, request);
+                return cellRequests;
+            });
+            cellByRequestId.put(request.id, cell);
+        }
+
+        void remove(long requestId) {
+            Long cell = cellByRequestId.remove(requestId);
+            if (cell != null) {
+                cells.computeIfPresent(cell, (key, requests) -> {
+                    requests.remove(requestId);
+                    return requests.isEmpty() ? null : requests;
+                });
+            }
+        }
+
+        RecentRequest findNearest(long serviceId, double lat, double lng, double radiusMeters, long notBeforeMillis) {
+            int cellX = cellIndex(lng);
+            int cellY = cellIndex(lat);
+            int spanX = (int) Math.ceil(GeoDistance.metersToLongitudeDegrees(radiusMeters, lat) / cellSizeDegrees);
+
+            RecentRequest nearest = null;
+            double nearestDistance = radiusMeters;
+            for (int y = cellY - 1; y <= cellY + 1; y++) {
+                for (int x = cellX - spanX; x <= cellX + spanX; x++) {
+                    Map<Long, RecentRequest> requests = cells.get(cellKey(x, y));
+                    if (requests == null) {
+                        continue;
+                    }
+                    for (RecentRequest candidate : requests.values()) {
+                        if (candidate.serviceId != serviceId || candidate.createdAtMillis < notBeforeMillis) {
+                            continue;
+                        }
+                        double distance = GeoDistance.haversineMeters(lat, lng, candidate.lat, candidate.lng);
+                        if (distance <= nearestDistance) {
+                            nearest = candidate;
+                            nearestDistance = distance;
+                        }
+                    }
+                }
+            }
+
+            return nearest;
+        }
+
+        void evictOlderThan(long notBeforeMillis) {
+            cells.values().forEach(requests -> requests.values().stream()
+                .filter(request -> request.createdAtMillis < notBeforeMillis)
+                .map(request -> request.id)
+                .forEach(this::remove));
+        }
+
+        private int cellIndex(double degrees) {
+            return (int) Math.floor(degrees / cellSizeDegrees);
+        }
+
+        private static long cellKey(int x, int y) {
+            return ((long) y << 32) | (x & 0xffffffffL);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.servicerequest;
+
+import io.micronaut.core.annotation.Nullable;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Holds a {@link CompiledServiceDefinition} per service, of its current definition, and per
+ * version of a definition that requests were submitted against. Anything that changes a service's
+ * definition attributes or their values must call {@link #invalidate(Long)} once the change is
+ * committed. A definition compiled while an invalidation of its service raced it is not kept, as
+ * it may have been read before the change.
+ * <p>
+ * Only reads: the versions are stored by {@link ServiceDefinitionVersions} as definitions are
+ * written, and those already stored never change.
+ */
+@Singleton
+public class ServiceDefinitionValidatorCache {
+
+    private final Function<Long, CompiledServiceDefinition> compiler;
+    private final Function<Long, CompiledServiceDefinition> versionLoader;
+    private final Map<Long, CompiledServiceDefinition> compiledDefinitions = new ConcurrentHashMap<>();
+    // the number of invalidations of each service, which a compile must not have raced to be kept
+    private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+    // versions are immutable, so are never invalidated
+    private final Map<Long, CompiledServiceDefinition> compiledVersions = new ConcurrentHashMap<>();
+
+    @Inject
+    public ServiceDefinitionValidatorCache(ServiceDefinitionVersions versions) {
+        this(versions::compileCurrent, versions::compileVersion);
+    }
+
+    ServiceDefinitionValidatorCache(Function<Long, CompiledServiceDefinition> compiler,
+                                    Function<Long, CompiledServiceDefinition> versionLoader) {
+        this.compiler = compiler;
+        this.versionLoader = versionLoader;
+    }
+
+    CompiledServiceDefinition get(Long serviceId) {
+        CompiledServiceDefinition cached = compiledDefinitions.get(serviceId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = generations.getOrDefault(serviceId, 0L);
+        CompiledServiceDefinition compiled = compiler.apply(serviceId);
+        generations.compute(serviceId, (id, current) -> {
+            if (Objects.requireNonNullElse(current, 0L) == generation) {
+                compiledDefinitions.putIfAbsent(id, compiled);
+            }
+            return current;
+        });
+        return compiled;
+    }
+
+    /**
+     * @return the version, or null if it was deleted along with its service
+     */
+    @Nullable
+    CompiledServiceDefinition getVersion(Long versionId) {
+        return compiledVersions.computeIfAbsent(versionId, versionLoader);
+    }
+
+    public void invalidate(Long serviceId) {
+        generations.compute(serviceId, (id, current) -> {
+            compiledDefinitions.remove(id);
+            return Objects.requireNonNullElse(current, 0L) + 1;
+        });
+    }
+}
@@ -0,0 +1,166 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.servicerequest;
+
+import app.dto.servicedefinition.ServiceDefinitionAttributeDTO;
+import app.dto.servicedefinition.ServiceDefinitionDTO;
+import app.model.servicedefinition.ServiceDefinitionAttribute;
+import app.model.servicedefinition.ServiceDefinitionAttributeRepository;
+import app.model.servicedefinition.ServiceDefinitionVersion;
+import app.model.servicedefinition.ServiceDefinitionVersionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.runtime.event.annotation.EventListener;
+import io.micronaut.runtime.server.event.ServerStartupEvent;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Stores a version of a service's definition whenever the definition is written, and compiles the
+ * current and stored versions for {@link ServiceDefinitionValidatorCache}, which only reads them.
+ * Versions are keyed by a SHA-256 of the definition's canonical JSON, so an unchanged definition
+ * keeps its version. Definitions written before versions existed, or by other means, are given one
+ * at startup.
+ */
+@Singleton
+public class ServiceDefinitionVersions {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ServiceDefinitionVersions.class);
+    private static final ObjectMapper DEFINITION_MAPPER = new ObjectMapper();
+
+    private final ServiceDefinitionAttributeRepository attributeRepository;
+    private final ServiceDefinitionVersionRepository versionRepository;
+
+    public ServiceDefinitionVersions(ServiceDefinitionAttributeRepository attributeRepository,
+                                     ServiceDefinitionVersionRepository versionRepository) {
+        this.attributeRepository = attributeRepository;
+        this.versionRepository = versionRepository;
+    }
+
+    @EventListener
+    void onStartup(ServerStartupEvent event) {
+        int recorded = 0;
+        for (Long serviceId : attributeRepository.findServiceIds()) {
+            if (record(serviceId)) {
+                recorded++;
+            }
+        }
+        if (recorded > 0) {
+            LOG.info("Stored the current definition version of {} services.", recorded);
+        }
+    }
+
+    /**
+     * Stores the service's current definition as a new version, unless it is unchanged or has no
+     * attributes. Called along with every write of a definition.
+     *
+     * @return true if a version was stored
+     */
+    public boolean record(Long serviceId) {
+        CanonicalDefinition definition = canonicalDefinition(serviceId);
+        if (definition == null || findVersion(serviceId, definition.digest).isPresent()) {
+            return false;
+        }
+        // concurrent writes on different instances may both store the version, which is harmless
+        versionRepository.save(new ServiceDefinitionVersion(serviceId, definition.digest, definition.json));
+        return true;
+    }
+
+    /**
+     * @return the service's current definition, with the id of its stored version, which is null
+     * for a definition without attributes or one not stored yet
+     */
+    CompiledServiceDefinition compileCurrent(Long serviceId) {
+        CanonicalDefinition definition = canonicalDefinition(serviceId);
+        if (definition == null) {
+            return new CompiledServiceDefinition(null, List.of());
+        }
+        Long versionId = findVersion(serviceId, definition.digest).map(ServiceDefinitionVersion::getId).orElse(null);
+        return new CompiledServiceDefinition(versionId, definition.attributes);
+    }
+
+    /**
+     * @return the stored version, or null if it was deleted along with its service
+     */
+    @Nullable
+    CompiledServiceDefinition compileVersion(Long versionId) {
+        return versionRepository.findById(versionId)
+            .map(version -> new CompiledServiceDefinition(versionId, readDefinition(version.getDefinitionJson()).getAttributes()))
+            .orElse(null);
+    }
+
+    private Optional<ServiceDefinitionVersion> findVersion(Long serviceId, String digest) {
+        return versionRepository.findByServiceIdAndDigestOrderByIdAsc(serviceId, digest).stream().findFirst();
+    }
+
+    @Nullable
+    private CanonicalDefinition canonicalDefinition(Long serviceId) {
+        List<ServiceDefinitionAttribute> attributes = attributeRepository.findAllByServiceId(
+            serviceId, ServiceDefinitionAttributeRepository.RANK_ORDER);
+        if (attributes.isEmpty()) {
+            return null;
+        }
+
+        // in a canonical order, so that an unchanged definition always has the same digest
+        ServiceDefinitionDTO definition = new ServiceDefinitionDTO(serviceId, attributes);
+        definition.getAttributes().sort(Comparator.comparing(ServiceDefinitionAttributeDTO::getId));
+        for (ServiceDefinitionAttributeDTO attribute : definition.getAttributes()) {
+            if (attribute.getValues() != null) {
+                attribute.getValues().sort(Comparator.comparing(value -> Long.valueOf(value.getKey())));
+            }
+        }
+
+        String json = writeDefinition(definition);
+        String digest = Hashing.sha256().hashString(json, StandardCharsets.UTF_8).toString();
+        return new CanonicalDefinition(definition.getAttributes(), json, digest);
+    }
+
+    private static String writeDefinition(ServiceDefinitionDTO definition) {
+        try {
+            return DEFINITION_MAPPER.writeValueAsString(definition);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ServiceDefinitionDTO readDefinition(String definitionJson) {
+        try {
+            return DEFINITION_MAPPER.readValue(definitionJson, ServiceDefinitionDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static class CanonicalDefinition {
+        final List<ServiceDefinitionAttributeDTO> attributes;
+        final String json;
+        final String digest;
+
+        CanonicalDefinition(List<ServiceDefinitionAttributeDTO> attributes, String json, String digest) {
+            this.attributes = attributes;
+            this.json = json;
+            this.digest = digest;
+        }
+    }
+}
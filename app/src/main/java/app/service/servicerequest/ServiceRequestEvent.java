@@ -0,0 +1,156 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.servicerequest;
+
+import app.model.servicerequest.ServiceRequest;
+import app.model.servicerequest.ServiceRequestPriority;
+import app.model.servicerequest.ServiceRequestStatus;
+
+import java.time.Instant;
+
+/**
+ * A detached snapshot of a service request, published after it has been created or updated.
+ * Listeners must not rely on the entity itself as it may no longer be attached to a session.
+ */
+public class ServiceRequestEvent {
+
+    public enum Type {
+        CREATED, UPDATED,
+        /**
+         * Only the request's district changed, after its jurisdiction's districts were edited. The
+         * rest of the snapshot may be slightly out of date, so listeners that don't track districts
+         * should ignore it.
+         */
+        DISTRICT_CHANGED
+    }
+
+    private final Type type;
+    private final Long serviceRequestId;
+    private final String jurisdictionId;
+    private final Long serviceId;
+    private final ServiceRequestStatus status;
+    private final ServiceRequestStatus previousStatus;
+    private final ServiceRequestPriority priority;
+    private final double latitude;
+    private final double longitude;
+    private final Long districtId;
+    private final Long previousDistrictId;
+    private final Long duplicateOfId;
+    private final Instant dateCreated;
+    private final Instant dateUpdated;
+
+    private ServiceRequestEvent(Type type, ServiceRequest serviceRequest, ServiceRequestStatus previousStatus,
+                                Long previousDistrictId) {
+        this.type = type;
+        this.serviceRequestId = serviceRequest.getId();
+        this.jurisdictionId = serviceRequest.getJurisdiction().getId();
+        this.serviceId = serviceRequest.getService().getId();
+        this.status = serviceRequest.getStatus();
+        this.previousStatus = previousStatus;
+        this.priority = serviceRequest.getPriority();
+        this.latitude = serviceRequest.getLocation().getY();
+        this.longitude = serviceRequest.getLocation().getX();
+        this.districtId = serviceRequest.getDistrictId();
+        this.previousDistrictId = previousDistrictId;
+        this.duplicateOfId = serviceRequest.getDuplicateOfId();
+        this.dateCreated = serviceRequest.getDateCreated();
+        this.dateUpdated = serviceRequest.getDateUpdated();
+    }
+
+    public static ServiceRequestEvent created(ServiceRequest serviceRequest) {
+        return new ServiceRequestEvent(Type.CREATED, serviceRequest, null, null);
+    }
+
+    public static ServiceRequestEvent updated(ServiceRequest serviceRequest, ServiceRequestStatus previousStatus) {
+        return new ServiceRequestEvent(Type.UPDATED, serviceRequest, previousStatus, serviceRequest.getDistrictId());
+    }
+
+    public static ServiceRequestEvent districtChanged(ServiceRequest serviceRequest, Long previousDistrictId) {
+        return new ServiceRequestEvent(Type.DISTRICT_CHANGED, serviceRequest, serviceRequest.getStatus(), previousDistrictId);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getServiceRequestId() {
+        return serviceRequestId;
+    }
+
+    public String getJurisdictionId() {
+        return jurisdictionId;
+    }
+
+    public Long getServiceId() {
+        return serviceId;
+    }
+
+    public ServiceRequestStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the status before the update, or null for created requests
+     */
+    public ServiceRequestStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public boolean isStatusChanged() {
+        return type == Type.UPDATED && previousStatus != status;
+    }
+
+    public ServiceRequestPriority getPriority() {
+        return priority;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * @return the district the request is located in, or null if it isn't in any
+     */
+    public Long getDistrictId() {
+        return districtId;
+    }
+
+    /**
+     * @return the district the request was located in before a {@link Type#DISTRICT_CHANGED}, or
+     * null if it wasn't in any
+     */
+    public Long getPreviousDistrictId() {
+        return previousDistrictId;
+    }
+
+    /**
+     * @return the request this one duplicates, or null if it is an original report
+     */
+    public Long getDuplicateOfId() {
+        return duplicateOfId;
+    }
+
+    public Instant getDateCreated() {
+        return dateCreated;
+    }
+
+    public Instant getDateUpdated() {
+        return dateUpdated;
+    }
+}
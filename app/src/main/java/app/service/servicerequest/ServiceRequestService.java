@@ -19,13 +19,9 @@ import app.dto.download.DownloadServiceRequestDTO;
 import app.dto.servicedefinition.AttributeValueDTO;
 import app.dto.servicedefinition.ServiceDefinitionAttributeDTO;
 import app.dto.servicerequest.*;
-import app.model.service.AttributeDataType;
 import app.exception.Libre311BaseException;
 import app.model.service.Service;
 import app.model.service.ServiceRepository;
-import app.model.servicedefinition.AttributeValue;
-import app.model.servicedefinition.ServiceDefinitionAttribute;
-import app.model.servicedefinition.ServiceDefinitionAttributeRepository;
 import app.model.servicerequest.ServiceRequest;
 import app.model.servicerequest.ServiceRequestPriority;
 import app.model.servicerequest.ServiceRequestRepository;
@@ -33,19 +29,28 @@ import app.model.servicerequest.ServiceRequestStatus;
 import app.recaptcha.ReCaptchaService;
 import app.security.Permission;
 import app.security.UnityAuthService;
+import app.service.district.DistrictIndex;
+import app.service.geocoding.Address;
+import app.service.geocoding.AddressLookup;
 import app.service.geometry.LibreGeometryFactory;
 import app.service.jurisdiction.JurisdictionBoundaryService;
+import app.service.jurisdiction.JurisdictionLocator;
 import app.service.storage.StorageUrlUtil;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micronaut.context.event.ApplicationEventPublisher;
 import io.micronaut.core.type.Argument;
 import io.micronaut.core.util.StringUtils;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import io.micronaut.data.model.Sort;
+import io.micronaut.data.jpa.repository.criteria.Specification;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpStatus;
 import io.micronaut.http.server.types.files.StreamedFile;
+import io.micronaut.scheduling.TaskExecutors;
+import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 
 import java.util.function.Function;
@@ -53,6 +58,8 @@ import javax.annotation.Nullable;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
+import javax.persistence.criteria.Predicate;
+import org.locationtech.jts.geom.Polygon;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -62,8 +69,9 @@ import java.io.IOException;
 import java.io.Writer;
 import java.net.MalformedURLException;
 import java.time.Instant;
-import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -84,228 +92,276 @@ public class ServiceRequestService {
     }
 
     private static final Logger LOG = LoggerFactory.getLogger(ServiceRequestService.class);
+    private static final ObjectMapper ATTRIBUTES_MAPPER = new ObjectMapper();
+    private static final int MAX_MERGE_ATTEMPTS = 3;
     private final ServiceRequestRepository serviceRequestRepository;
     private final ServiceRepository serviceRepository;
-    private final ServiceDefinitionAttributeRepository attributeRepository;
+    private final ServiceDefinitionValidatorCache serviceDefinitionValidatorCache;
     private final ReCaptchaService reCaptchaService;
     private final StorageUrlUtil storageUrlUtil;
     private final UnityAuthService unityAuthService;
     JurisdictionBoundaryService jurisdictionBoundaryService;
+    JurisdictionLocator jurisdictionLocator;
     LibreGeometryFactory libreGeometryFactory;
+    private final DuplicateRequestDetector duplicateRequestDetector;
+    private final DistrictIndex districtIndex;
+    private final AddressLookup addressLookup;
+    private final ApplicationEventPublisher<ServiceRequestEvent> eventPublisher;
+    private final ExecutorService ioExecutor;
 
     public ServiceRequestService(ServiceRequestRepository serviceRequestRepository,
         ServiceRepository serviceRepository,
-        ServiceDefinitionAttributeRepository attributeRepository,
+        ServiceDefinitionValidatorCache serviceDefinitionValidatorCache,
         ReCaptchaService reCaptchaService, StorageUrlUtil storageUrlUtil,
         UnityAuthService unityAuthService,
         JurisdictionBoundaryService jurisdictionBoundaryService,
-        LibreGeometryFactory libreGeometryFactory) {
+        JurisdictionLocator jurisdictionLocator,
+        LibreGeometryFactory libreGeometryFactory,
+        DuplicateRequestDetector duplicateRequestDetector,
+        DistrictIndex districtIndex,
+        AddressLookup addressLookup,
+        ApplicationEventPublisher<ServiceRequestEvent> eventPublisher,
+        @Named(TaskExecutors.IO) ExecutorService ioExecutor) {
         this.serviceRequestRepository = serviceRequestRepository;
         this.serviceRepository = serviceRepository;
-        this.attributeRepository = attributeRepository;
+        this.serviceDefinitionValidatorCache = serviceDefinitionValidatorCache;
         this.reCaptchaService = reCaptchaService;
         this.storageUrlUtil = storageUrlUtil;
         this.unityAuthService = unityAuthService;
         this.jurisdictionBoundaryService = jurisdictionBoundaryService;
+        this.jurisdictionLocator = jurisdictionLocator;
         this.libreGeometryFactory = libreGeometryFactory;
+        this.duplicateRequestDetector = duplicateRequestDetector;
+        this.districtIndex = districtIndex;
+        this.addressLookup = addressLookup;
+        this.eventPublisher = eventPublisher;
+        this.ioExecutor = ioExecutor;
     }
 
 
-    private static ServiceRequestDTO convertToDTO(ServiceRequest serviceRequest) {
+    private ServiceRequestDTO convertToDTO(ServiceRequest serviceRequest) {
         ServiceRequestDTO serviceRequestDTO = new ServiceRequestDTO(serviceRequest);
 
-        ObjectMapper objectMapper = new ObjectMapper();
-        String attributesJson = serviceRequest.getAttributesJson();
-        if (attributesJson != null) {
-            try {
-                ServiceDefinitionAttributeDTO[] serviceDefinitionAttributeDTOS = objectMapper.readValue(attributesJson, ServiceDefinitionAttributeDTO[].class);
-                serviceRequestDTO.setSelectedValues(List.of(serviceDefinitionAttributeDTOS));
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException(e);
-            }
+        List<ServiceDefinitionAttributeDTO> selectedValues = getSelectedValues(serviceRequest);
+        if (selectedValues != null) {
+            serviceRequestDTO.setSelectedValues(selectedValues);
         }
 
         return serviceRequestDTO;
     }
 
-    public PostResponseServiceRequestDTO createServiceRequest(HttpRequest<?> request, PostRequestServiceRequestDTO serviceRequestDTO, String jurisdictionId) {
-        reCaptchaService.verifyReCaptcha(serviceRequestDTO.getgRecaptchaResponse());
+    /**
+     * @return the request's answered attributes, rendered against the definition version it was
+     * submitted with, or null if it has none
+     */
+    @Nullable
+    private List<ServiceDefinitionAttributeDTO> getSelectedValues(ServiceRequest serviceRequest) {
+        try {
+            Long versionId = serviceRequest.getServiceDefinitionVersionId();
+            if (versionId != null && serviceRequest.getAttributeAnswers() != null) {
+                CompiledServiceDefinition serviceDefinition = serviceDefinitionValidatorCache.getVersion(versionId);
+                if (serviceDefinition == null) {
+                    return null;
+                }
+                Map<String, String> answers = ATTRIBUTES_MAPPER.readValue(serviceRequest.getAttributeAnswers(),
+                    new TypeReference<LinkedHashMap<String, String>>() {});
+                return serviceDefinition.render(answers);
+            }
+
+            String attributesJson = serviceRequest.getAttributesJson();
+            if (attributesJson != null) {
+                return List.of(ATTRIBUTES_MAPPER.readValue(attributesJson, ServiceDefinitionAttributeDTO[].class));
+            }
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+        return null;
+    }
 
+    /**
+     * @param requestedJurisdictionId the jurisdiction to submit to, or null to resolve it from the location
+     */
+    public PostResponseServiceRequestDTO createServiceRequest(HttpRequest<?> request, PostRequestServiceRequestDTO serviceRequestDTO, @Nullable String requestedJurisdictionId) {
         double lat = Double.parseDouble(serviceRequestDTO.getLatitude());
         double lng = Double.parseDouble(serviceRequestDTO.getLongitude());
-        if (!jurisdictionBoundaryService.existsInJurisdiction(jurisdictionId, lat, lng)){
-            throw new ServiceRequestOutOfBoundsException();
-        }
 
         if (!validMediaUrl(serviceRequestDTO.getMediaUrl())) {
             throw new InvalidServiceRequestException("Media URL is invalid.");
         }
 
-        Optional<Service> serviceByServiceCodeOptional = serviceRepository.findById(serviceRequestDTO.getServiceCode());
+        // resolved from the in-memory boundary index, the database is only asked when boundaries overlap
+        Long serviceCode = serviceRequestDTO.getServiceCode();
+        String jurisdictionId = requestedJurisdictionId != null
+            ? requestedJurisdictionId
+            : resolveJurisdiction(serviceCode, lat, lng);
 
-        if (serviceByServiceCodeOptional.isEmpty()) {
-            throw new InvalidServiceRequestException("Corresponding service is not found.");
-        }
-
-        if (!jurisdictionId.equals(serviceByServiceCodeOptional.get().getJurisdiction().getId())) {
-            throw new InvalidServiceRequestException(
-                "Mismatch between jurisdiction_id provided and Service's associated jurisdiction.");
-        }
+        // the checks only read and are independent of each other, so the remote reCAPTCHA
+        // verification, by far the slowest, runs alongside the database ones
+        ConcurrentValidation validation = new ConcurrentValidation(ioExecutor);
+        validation.submit(() -> reCaptchaService.verifyReCaptcha(serviceRequestDTO.getgRecaptchaResponse()));
+        validation.submit(() -> {
+            if (!jurisdictionBoundaryService.existsInJurisdiction(jurisdictionId, lat, lng)) {
+                throw new ServiceRequestOutOfBoundsException();
+            }
+        });
+        Future<Service> serviceLookup = validation.submit(() -> findServiceForSubmission(serviceCode, jurisdictionId));
+        validation.awaitAll();
 
         // validate if additional attributes are required
-        Service service = serviceByServiceCodeOptional.get();
+        Service service = ConcurrentValidation.resultOf(serviceLookup);
         ServiceRequest serviceRequest = transformDtoToServiceRequest(serviceRequestDTO, service);
-        List<ServiceDefinitionAttribute> serviceDefinitionAttributes = attributeRepository.findAllByServiceId(service.getId());
-        if (!serviceDefinitionAttributes.isEmpty()) {
-            List<ServiceDefinitionAttributeDTO> requestAttributes = buildUserResponseAttributesFromRequest(request, serviceDefinitionAttributes);
-            if (!requestAttributesHasAllRequiredServiceDefinitionAttributes(serviceDefinitionAttributes, requestAttributes)) {
+        CompiledServiceDefinition serviceDefinition = serviceDefinitionValidatorCache.get(serviceCode);
+        if (!serviceDefinition.isEmpty()) {
+            Map<String, String> answers = buildUserResponseAttributesFromRequest(request, serviceDefinition);
+            if (answers == null) {
                 throw new InvalidServiceRequestException("Submitted Service Request does not contain required attribute values.");
             }
 
-            ObjectMapper objectMapper = new ObjectMapper();
             try {
-                serviceRequest.setAttributesJson(objectMapper.writeValueAsString(requestAttributes));
+                if (serviceDefinition.getVersionId() != null) {
+                    // only the answers are stored, as the definition version they refer to never changes
+                    serviceRequest.setServiceDefinitionVersionId(serviceDefinition.getVersionId());
+                    serviceRequest.setAttributeAnswers(ATTRIBUTES_MAPPER.writeValueAsString(answers));
+                } else {
+                    // a definition changed outside of ServiceService has no version until the next startup
+                    serviceRequest.setAttributesJson(ATTRIBUTES_MAPPER.writeValueAsString(serviceDefinition.render(answers)));
+                }
             } catch (JsonProcessingException e) {
                 throw new RuntimeException(e);
             }
         }
 
-        return new PostResponseServiceRequestDTO(serviceRequestRepository.save(serviceRequest));
-    }
-
-    private boolean validMediaUrl(String mediaUrl) {
-        if (mediaUrl == null) return true;
-        return mediaUrl.startsWith(storageUrlUtil.getBucketUrlString());
-    }
+        Long duplicateOfId = duplicateRequestDetector.findDuplicate(jurisdictionId, service.getId(), lat, lng);
+        if (duplicateOfId != null) {
+            if (duplicateRequestDetector.isMergeEnabled() && onlyDescribes(serviceRequest)
+                && mergeSubmission(duplicateOfId, serviceRequest)) {
+                LOG.info("Merged submission for service {} into existing service request {}.", service.getId(), duplicateOfId);
+                PostResponseServiceRequestDTO mergedResponse = new PostResponseServiceRequestDTO();
+                mergedResponse.setId(duplicateOfId);
+                return mergedResponse;
+            }
+            serviceRequest.setDuplicateOfId(duplicateOfId);
+        }
 
-    private boolean requestAttributesHasAllRequiredServiceDefinitionAttributes(List<ServiceDefinitionAttribute> serviceDefinitionAttributes, List<ServiceDefinitionAttributeDTO> requestAttributes) {
-        // collect all required attributes
-        List<Long> requiredCodes = serviceDefinitionAttributes.stream()
-                .filter(ServiceDefinitionAttribute::isRequired)
-                .map(ServiceDefinitionAttribute::getId)
-                .collect(Collectors.toList());
+        serviceRequest.setDistrictId(districtIndex.findDistrictId(jurisdictionId, lat, lng));
+        if (serviceRequest.getAddressString() == null || serviceRequest.getAddressString().isBlank()) {
+            applyNearestAddress(serviceRequest, jurisdictionId, lat, lng);
+        }
 
-        // for each attr, check if it exists in requestAttributes
-        List<Long> requestCodes = requestAttributes.stream()
-                .map(ServiceDefinitionAttributeDTO::getId)
-                .collect(Collectors.toList());
+        ServiceRequest savedServiceRequest = serviceRequestRepository.save(serviceRequest);
+        eventPublisher.publishEvent(ServiceRequestEvent.created(savedServiceRequest));
 
-        return requestCodes.containsAll(requiredCodes);
+        return new PostResponseServiceRequestDTO(savedServiceRequest);
     }
 
-    private List<ServiceDefinitionAttributeDTO> buildUserResponseAttributesFromRequest(HttpRequest<?> request, List<ServiceDefinitionAttribute> serviceDefinitionAttributes) {
-
-        Argument<Map<String, String>> type = Argument.mapOf(String.class, String.class);
-        Optional<Map<String, String>> body = request.getBody(type);
-
-        List<ServiceDefinitionAttributeDTO> attributes = new ArrayList<>();
-        if (body.isPresent()) {
-            body.get().forEach((k, v) -> {
-                if (v != null && v.trim().isEmpty()) {
-                    return;
-                }
-                if (k.startsWith("attribute[")) {
-                    String attributeCodeStr = k.substring(k.indexOf("[") + 1, k.indexOf("]"));
-                    Long attributeCode;
-                    try {
-                        attributeCode = Long.parseLong(attributeCodeStr);
-                    } catch (NumberFormatException nfe) {
-                        throw new InvalidServiceRequestException("Code should be an Integer.");
-                    }
-
-                    // search for attribute by code in serviceDefinitionAttributes
-                    Optional<ServiceDefinitionAttribute> serviceDefinitionAttributeOptional = serviceDefinitionAttributes.stream()
-                            .filter(serviceDefinitionAttribute -> serviceDefinitionAttribute.getId().equals(attributeCode))
-                            .findFirst();
+    /**
+     * @return true if the submission carries nothing a merge would drop: no contact details, device
+     * or account id and no attribute answers
+     */
+    private static boolean onlyDescribes(ServiceRequest submission) {
+        return isBlank(submission.getEmail()) && isBlank(submission.getPhone())
+            && isBlank(submission.getFirstName()) && isBlank(submission.getLastName())
+            && isBlank(submission.getDeviceId()) && isBlank(submission.getAccountId())
+            && submission.getAttributeAnswers() == null && submission.getAttributesJson() == null;
+    }
 
-                    // if attribute in request does not exist in db, then ignore
-                    if (serviceDefinitionAttributeOptional.isEmpty()) {
-                        return;
-                    }
-                    ServiceDefinitionAttribute serviceDefinitionAttribute = serviceDefinitionAttributeOptional.get();
+    private static boolean isBlank(@Nullable String value) {
+        return value == null || value.isBlank();
+    }
 
-                    // validate the value if necessary (number and dates)
-                    if (v != null && !validValueType(v, serviceDefinitionAttribute.getDatatype())) {
-                        String errorMsg = String.format("Provided value for attribute with code %s is invalid", attributeCode);
-                        LOG.error(errorMsg);
-                        throw new RuntimeException(errorMsg);
-                    }
+    /**
+     * Attaches a duplicate submission's description and media to the existing request.
+     *
+     * @return false if they could not all be attached, so the submission is to be stored as a
+     * duplicate instead
+     */
+    private boolean mergeSubmission(Long existingId, ServiceRequest submission) {
+        // retried if the request is changed, e.g. by another merge, between reading and updating it
+        for (int attempt = 0; attempt < MAX_MERGE_ATTEMPTS; attempt++) {
+            Optional<ServiceRequest> existing = serviceRequestRepository.findById(existingId);
+            if (existing.isEmpty()) {
+                return false;
+            }
+            String previousDescription = existing.get().getDescription();
+            String previousMediaUrl = existing.get().getMediaUrl();
+            SubmissionMerge merge = SubmissionMerge.of(previousDescription, previousMediaUrl,
+                submission.getDescription(), submission.getMediaUrl());
+            if (merge == null) {
+                return false;
+            }
+            if (Objects.equals(merge.getDescription(), previousDescription)
+                && Objects.equals(merge.getMediaUrl(), previousMediaUrl)) {
+                return true;
+            }
+            if (serviceRequestRepository.updateMergedSubmission(existingId, merge.getDescription(), merge.getMediaUrl(),
+                Objects.requireNonNullElse(previousDescription, ""),
+                Objects.requireNonNullElse(previousMediaUrl, "")) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-                    ServiceDefinitionAttributeDTO sda = new ServiceDefinitionAttributeDTO();
-                    sda.setId(attributeCode);
-                    sda.setAttributeOrder(serviceDefinitionAttribute.getAttributeOrder());
-                    sda.setRequired(serviceDefinitionAttribute.isRequired());
-                    sda.setVariable(serviceDefinitionAttribute.isVariable());
-                    sda.setDatatype(serviceDefinitionAttribute.getDatatype());
-                    sda.setDescription(serviceDefinitionAttribute.getDescription());
-
-                    List<AttributeValueDTO> values = new ArrayList<>();
-
-                    if (serviceDefinitionAttribute.getDatatype() == AttributeDataType.SINGLEVALUELIST ||
-                            serviceDefinitionAttribute.getDatatype() == AttributeDataType.MULTIVALUELIST) {
-
-                        Set<AttributeValue> attributeValues = serviceDefinitionAttribute.getAttributeValues();
-                        if (attributeValues != null) {
-                            if (v.contains(",") && serviceDefinitionAttribute.getDatatype() == AttributeDataType.MULTIVALUELIST){
-                                String[] attrResKeys = v.split(",");
-                                for (String attrResKey : attrResKeys) {
-                                    values.add(new AttributeValueDTO(attrResKey, getAttributeValueName(attrResKey, attributeValues)));
-                                }
-                            }
-                            else {
-                                values.add(new AttributeValueDTO(v, getAttributeValueName(v, attributeValues)));
-                            }
-                        }
-                    } else {
-                        // we need a way to capture the user's response. We will do so by adding an attribute value where
-                        // the key is the code and the value is the user's response.
-                        values.add(new AttributeValueDTO(String.valueOf(attributeCode), v));
-                    }
+    /**
+     * Fills in the address of a request submitted with only a location, keeping any address id or
+     * zip code it was submitted with.
+     */
+    private void applyNearestAddress(ServiceRequest serviceRequest, String jurisdictionId, double lat, double lng) {
+        Address address = addressLookup.findNearest(jurisdictionId, lat, lng);
+        if (address == null) {
+            return;
+        }
+        serviceRequest.setAddressString(address.getAddressString());
+        if (serviceRequest.getAddressId() == null) {
+            serviceRequest.setAddressId(address.getAddressId());
+        }
+        if (serviceRequest.getZipCode() == null) {
+            serviceRequest.setZipCode(address.getZipCode());
+        }
+    }
 
-                    sda.setValues(values);
-                    attributes.add(sda);
-                }
-            });
+    private String resolveJurisdiction(Long serviceCode, double lat, double lng) {
+        List<String> jurisdictionIds = jurisdictionLocator.findJurisdictionIds(lat, lng);
+        if (jurisdictionIds.isEmpty()) {
+            throw new ServiceRequestOutOfBoundsException();
+        }
+        if (jurisdictionIds.size() == 1) {
+            return jurisdictionIds.get(0);
         }
 
-        return attributes;
+        // overlapping jurisdictions, so go with the one offering the service
+        return serviceRepository.findById(serviceCode)
+            .map(service -> service.getJurisdiction().getId())
+            .filter(jurisdictionIds::contains)
+            .orElseThrow(() -> new InvalidServiceRequestException(
+                "Several jurisdictions cover the location, jurisdiction_id is required."));
     }
 
-    private boolean validValueType(Object v, AttributeDataType datatype) {
+    private Service findServiceForSubmission(Long serviceCode, String jurisdictionId) {
+        Optional<Service> serviceByServiceCodeOptional = serviceRepository.findById(serviceCode);
 
-        if (datatype == AttributeDataType.NUMBER || datatype == AttributeDataType.DATETIME){
-            String value = (String) v;
-
-            if (datatype == AttributeDataType.NUMBER) {
-                try {
-                    Integer.parseInt(value);
-                } catch (NumberFormatException nfe) {
-                    return false;
-                }
-            } else {
-                try {
-                    Instant.parse(value);
-                } catch (DateTimeParseException dtpe) {
-                    return false;
-                }
-            }
+        if (serviceByServiceCodeOptional.isEmpty()) {
+            throw new InvalidServiceRequestException("Corresponding service is not found.");
+        }
 
-            return true;
+        if (!jurisdictionId.equals(serviceByServiceCodeOptional.get().getJurisdiction().getId())) {
+            throw new InvalidServiceRequestException(
+                "Mismatch between jurisdiction_id provided and Service's associated jurisdiction.");
         }
 
-        return true;
+        return serviceByServiceCodeOptional.get();
     }
 
-    private String getAttributeValueName(String valueKey, Set<AttributeValue> attributeValues) {
-        String valueName = null;
-        Optional<AttributeValue> attributeValueOptional = attributeValues.stream()
-                .filter(attributeValue -> attributeValue.getId().toString().equals(valueKey)).findFirst();
+    private boolean validMediaUrl(String mediaUrl) {
+        if (mediaUrl == null) return true;
+        return mediaUrl.startsWith(storageUrlUtil.getBucketUrlString());
+    }
 
-        if (attributeValueOptional.isPresent()) {
-            valueName = attributeValueOptional.get().getValueName();
-        }
+    private Map<String, String> buildUserResponseAttributesFromRequest(HttpRequest<?> request, CompiledServiceDefinition serviceDefinition) {
+        Argument<Map<String, String>> type = Argument.mapOf(String.class, String.class);
+        Optional<Map<String, String>> body = request.getBody(type);
 
-        return valueName;
+        return serviceDefinition.bind(body.orElse(Map.of()));
     }
 
     private ServiceRequest transformDtoToServiceRequest(PostRequestServiceRequestDTO serviceRequestDTO, Service service) {
@@ -336,9 +392,13 @@ public class ServiceRequestService {
         }
 
         ServiceRequest serviceRequest = serviceRequestOptional.get();
+        ServiceRequestStatus previousStatus = serviceRequest.getStatus();
         applyPatch(serviceRequestDTO, serviceRequest);
 
-        return convertToSensitiveDTO(serviceRequestRepository.update(serviceRequest));
+        ServiceRequest updatedServiceRequest = serviceRequestRepository.update(serviceRequest);
+        eventPublisher.publishEvent(ServiceRequestEvent.updated(updatedServiceRequest, previousStatus));
+
+        return convertToSensitiveDTO(updatedServiceRequest);
     }
 
     private static void applyPatch(PatchServiceRequestDTO serviceRequestDTO, ServiceRequest serviceRequest) {
@@ -371,18 +431,12 @@ public class ServiceRequestService {
         }
     }
 
-    private static SensitiveServiceRequestDTO convertToSensitiveDTO(ServiceRequest serviceRequest) {
+    private SensitiveServiceRequestDTO convertToSensitiveDTO(ServiceRequest serviceRequest) {
         SensitiveServiceRequestDTO serviceRequestDTO = new SensitiveServiceRequestDTO(serviceRequest);
 
-        ObjectMapper objectMapper = new ObjectMapper();
-        String attributesJson = serviceRequest.getAttributesJson();
-        if (attributesJson != null) {
-            try {
-                ServiceDefinitionAttributeDTO[] serviceDefinitionAttributeDTOS = objectMapper.readValue(attributesJson, ServiceDefinitionAttributeDTO[].class);
-                serviceRequestDTO.setSelectedValues(List.of(serviceDefinitionAttributeDTOS));
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException(e);
-            }
+        List<ServiceDefinitionAttributeDTO> selectedValues = getSelectedValues(serviceRequest);
+        if (selectedValues != null) {
+            serviceRequestDTO.setSelectedValues(selectedValues);
         }
 
         return serviceRequestDTO;
@@ -399,8 +453,8 @@ public class ServiceRequestService {
         }
 
         Function<ServiceRequest, ServiceRequestDTO> mapper = canViewSensitive
-                ? ServiceRequestService::convertToSensitiveDTO
-                : ServiceRequestService::convertToDTO;
+                ? this::convertToSensitiveDTO
+                : this::convertToDTO;
 
 
         return getServiceRequestPage(requestDTO, jurisdictionId).map(mapper);
@@ -424,9 +478,75 @@ public class ServiceRequestService {
             return serviceRequestRepository.findByIdInAndJurisdictionId(requestIds, jurisdictionId, pageable);
         }
 
+        if (requestDTO.getDistrictIds() != null) {
+            return serviceRequestRepository.findAll(matching(jurisdictionId, requestDTO.getDistrictIds(),
+                serviceCodes, statuses, priorities, startDate, endDate), pageable);
+        }
+
         return getJurisdictionServiceRequests(jurisdictionId, pageable, serviceCodes, statuses, priorities, startDate, endDate);
     }
 
+    /**
+     * @param area the area the requests' locations must be within, if any
+     * @param limit the most requests to return, the most recent first
+     * @return the jurisdiction's requests within the area that match the filters of the list
+     * endpoints; paging is ignored
+     */
+    public List<ServiceRequest> findAllMatching(GetServiceRequestsDTO requestDTO, String jurisdictionId,
+            @Nullable Polygon area, int limit) {
+        Specification<ServiceRequest> specification = matching(jurisdictionId, requestDTO.getDistrictIds(),
+            requestDTO.getServiceCodes(), requestDTO.getStatuses(), requestDTO.getPriorities(),
+            requestDTO.getStartDate(), requestDTO.getEndDate());
+
+        String serviceRequestIds = requestDTO.getId();
+        if (StringUtils.hasText(serviceRequestIds)) {
+            List<Long> requestIds = Arrays.stream(serviceRequestIds.split(",")).map(String::trim).map(Long::valueOf).collect(Collectors.toList());
+            specification = specification.and((root, query, criteriaBuilder) -> root.get("id").in(requestIds));
+        }
+
+        if (area != null) {
+            // hibernate spatial's within(), which binds the area the same way locations are stored
+            specification = specification.and((root, query, criteriaBuilder) -> criteriaBuilder.isTrue(
+                criteriaBuilder.function("within", Boolean.class, root.get("location"), criteriaBuilder.literal(area))));
+        }
+
+        return serviceRequestRepository.findAll(specification,
+            Pageable.from(0, limit, Sort.of(Sort.Order.desc("dateCreated")))).getContent();
+    }
+
+    /**
+     * The filters of the list endpoints as a criteria query, for filtering by district or area
+     * without doubling the number of derived finders. Dates are matched as the derived finders do.
+     */
+    private static Specification<ServiceRequest> matching(String jurisdictionId, @Nullable List<Long> districtIds,
+            List<Long> serviceCodes, List<ServiceRequestStatus> status, List<ServiceRequestPriority> priority,
+            Instant startDate, Instant endDate) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(criteriaBuilder.equal(root.get("jurisdiction").get("id"), jurisdictionId));
+            if (districtIds != null) {
+                predicates.add(root.get("districtId").in(districtIds));
+            }
+            if (serviceCodes != null) {
+                predicates.add(root.get("service").get("id").in(serviceCodes));
+            }
+            if (status != null) {
+                predicates.add(root.get("status").in(status));
+            }
+            if (priority != null) {
+                predicates.add(root.get("priority").in(priority));
+            }
+            if (startDate != null && endDate != null) {
+                predicates.add(criteriaBuilder.between(root.<Instant>get("dateCreated"), startDate, endDate));
+            } else if (startDate != null) {
+                predicates.add(criteriaBuilder.greaterThan(root.<Instant>get("dateCreated"), startDate));
+            } else if (endDate != null) {
+                predicates.add(criteriaBuilder.lessThan(root.<Instant>get("dateCreated"), endDate));
+            }
+            return criteriaBuilder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
     private Page<ServiceRequest> getJurisdictionServiceRequests(String jurisdictionId, Pageable pageable, List<Long> serviceCodes, List<ServiceRequestStatus> status, List<ServiceRequestPriority> priority, Instant startDate, Instant endDate) {
 
         if (serviceCodes != null && status != null && priority != null) {
@@ -532,13 +652,13 @@ public class ServiceRequestService {
 
     public ServiceRequestDTO getServiceRequest(Long serviceRequestId, String jurisdictionId) {
         return findServiceRequest(serviceRequestId, jurisdictionId)
-                .map(ServiceRequestService::convertToDTO)
+                .map(this::convertToDTO)
                 .orElse(null);
     }
 
     public SensitiveServiceRequestDTO getSensitiveServiceRequest(Long serviceRequestId, String jurisdictionId) {
         return findServiceRequest(serviceRequestId, jurisdictionId)
-                .map(ServiceRequestService::convertToSensitiveDTO)
+                .map(this::convertToSensitiveDTO)
                 .orElse(null);
     }
 
@@ -552,24 +672,18 @@ public class ServiceRequestService {
                 .map(serviceRequest -> {
                     DownloadServiceRequestDTO dto = new DownloadServiceRequestDTO(serviceRequest);
 
-                    if (serviceRequest.getAttributesJson() != null) {
-                        ObjectMapper objectMapper = new ObjectMapper();
-                        try {
-                            ServiceDefinitionAttributeDTO[] serviceDefinitionAttributeDTOS =
-                                    objectMapper.readValue(serviceRequest.getAttributesJson(), ServiceDefinitionAttributeDTO[].class);
-                            List<String> values = Arrays.stream(serviceDefinitionAttributeDTOS)
-                                    .flatMap(serviceDefinitionAttribute -> {
-                                        if (serviceDefinitionAttribute.getValues() != null) {
-                                            return serviceDefinitionAttribute.getValues().stream();
-                                        }
-                                        return Stream.of();
-                                    })
-                                    .map(AttributeValueDTO::getKey).collect(Collectors.toList());
-
-                            dto.setServiceSubtype(String.join(",", values));
-                        } catch (JsonProcessingException e) {
-                            throw new RuntimeException(e);
-                        }
+                    List<ServiceDefinitionAttributeDTO> selectedValues = getSelectedValues(serviceRequest);
+                    if (selectedValues != null) {
+                        List<String> values = selectedValues.stream()
+                                .flatMap(serviceDefinitionAttribute -> {
+                                    if (serviceDefinitionAttribute.getValues() != null) {
+                                        return serviceDefinitionAttribute.getValues().stream();
+                                    }
+                                    return Stream.of();
+                                })
+                                .map(AttributeValueDTO::getKey).collect(Collectors.toList());
+
+                        dto.setServiceSubtype(String.join(",", values));
                     }
 
                     return dto;
@@ -650,6 +764,11 @@ public class ServiceRequestService {
             return serviceRequestRepository.findByIdInAndJurisdictionId(requestIds, jurisdictionId, sort);
         }
 
+        if (requestDTO.getDistrictIds() != null) {
+            return serviceRequestRepository.findAll(matching(jurisdictionId, requestDTO.getDistrictIds(),
+                serviceCodes, statuses, priorities, startDate, endDate), sort);
+        }
+
         return getJurisdictionServiceRequests(jurisdictionId, serviceCodes, statuses, priorities, startDate, endDate, sort);
     }
 
@@ -0,0 +1,80 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.servicerequest;
+
+import io.micronaut.core.annotation.Nullable;
+
+/**
+ * The description and media of an existing request once a duplicate submission is merged into it.
+ * The submission's description is appended to the existing one and its media is kept if the
+ * request has none. Only submissions that carry nothing else are merged: one with contact details,
+ * a device or account id or attribute answers is stored as a linked duplicate instead, so nothing
+ * the submitter sent is lost.
+ */
+final class SubmissionMerge {
+
+    // the size limit of a service request's description
+    static final int MAX_DESCRIPTION_LENGTH = 4000;
+    static final String DESCRIPTION_SEPARATOR = "\n\n";
+
+    private final String description;
+    private final String mediaUrl;
+
+    private SubmissionMerge(@Nullable String description, @Nullable String mediaUrl) {
+        this.description = description;
+        this.mediaUrl = mediaUrl;
+    }
+
+    /**
+     * @return the merged description and media, or null if the submission's can't all be kept,
+     * as both have media or the descriptions together are too long
+     */
+    @Nullable
+    static SubmissionMerge of(@Nullable String existingDescription, @Nullable String existingMediaUrl,
+                              @Nullable String description, @Nullable String mediaUrl) {
+        String mergedMediaUrl = existingMediaUrl;
+        if (!isBlank(mediaUrl) && !mediaUrl.equals(existingMediaUrl)) {
+            if (!isBlank(existingMediaUrl)) {
+                return null;
+            }
+            mergedMediaUrl = mediaUrl;
+        }
+
+        String mergedDescription = existingDescription;
+        if (!isBlank(description)) {
+            mergedDescription = isBlank(existingDescription)
+                ? description.strip()
+                : existingDescription + DESCRIPTION_SEPARATOR + description.strip();
+            if (mergedDescription.length() > MAX_DESCRIPTION_LENGTH) {
+                return null;
+            }
+        }
+        return new SubmissionMerge(mergedDescription, mergedMediaUrl);
+    }
+
+    @Nullable
+    String getDescription() {
+        return description;
+    }
+
+    @Nullable
+    String getMediaUrl() {
+        return mediaUrl;
+    }
+
+    private static boolean isBlank(@Nullable String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,95 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.spike;
+
+import java.time.Instant;
+
+/**
+ * An abnormal number of a service's requests created within one grid cell in one time bucket,
+ * compared with the cell's usual number. Published as an application event when it is detected.
+ */
+public class SpikeAlert {
+
+    private final String jurisdictionId;
+    private final Long serviceId;
+    private final double latitude;
+    private final double longitude;
+    private final double cellMeters;
+    private final int count;
+    private final double expected;
+    private final Instant windowStart;
+    private final Instant windowEnd;
+
+    public SpikeAlert(String jurisdictionId, Long serviceId, double latitude, double longitude, double cellMeters,
+                      int count, double expected, Instant windowStart, Instant windowEnd) {
+        this.jurisdictionId = jurisdictionId;
+        this.serviceId = serviceId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.cellMeters = cellMeters;
+        this.count = count;
+        this.expected = expected;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+    }
+
+    public String getJurisdictionId() {
+        return jurisdictionId;
+    }
+
+    public Long getServiceId() {
+        return serviceId;
+    }
+
+    /**
+     * @return the latitude of the cell's center
+     */
+    public double getLatitude() {
+        return latitude;
+    }
+
+    /**
+     * @return the longitude of the cell's center
+     */
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public double getCellMeters() {
+        return cellMeters;
+    }
+
+    /**
+     * @return the number of requests in the bucket when the spike was detected
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return the cell's usual number of requests per bucket
+     */
+    public double getExpected() {
+        return expected;
+    }
+
+    public Instant getWindowStart() {
+        return windowStart;
+    }
+
+    public Instant getWindowEnd() {
+        return windowEnd;
+    }
+}
@@ -0,0 +1,225 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.spike;
+
+/**
+ * Request counts per (service, grid cell) in fixed length time buckets, each with an exponentially
+ * weighted mean and variance of its past buckets' counts as its baseline. The keys are held in an
+ * open addressing table of parallel primitive arrays that grows up to a fixed number of keys; once
+ * full, keys that have gone quiet are evicted and, failing that, requests for new keys are not
+ * counted.
+ * <p>
+ * Counting starts with every baseline at zero, so no spikes are reported for a warm-up period
+ * after the first bucket while the baselines build up. Not thread safe.
+ */
+class SpikeCounters {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final double QUIET_MEAN = 0.01;
+
+    private final int maxKeys;
+    private final double alpha;
+    private final double threshold;
+    private final int minCount;
+    private final int warmUpBuckets;
+
+    private boolean[] used;
+    private long[] services;
+    private long[] cells;
+    private long[] buckets;
+    private int[] counts;
+    private double[] means;
+    private double[] variances;
+    // whether the key's current bucket has already been reported as a spike
+    private boolean[] spiking;
+    private int size;
+    // the first bucket anything was counted in
+    private long firstBucket = Long.MIN_VALUE;
+    // the bucket quiet keys were last evicted in, which is done at most once per bucket
+    private long evictedBucket = Long.MIN_VALUE;
+
+    /**
+     * @param baselineBuckets how many past buckets the baseline mostly reflects
+     * @param threshold       how many standard deviations above its baseline a bucket's count must
+     *                        be to be a spike
+     * @param minCount        the fewest requests a spike has
+     * @param warmUpBuckets   how many buckets from the first one no spikes are reported in
+     */
+    SpikeCounters(int maxKeys, int baselineBuckets, double threshold, int minCount, int warmUpBuckets) {
+        this.maxKeys = maxKeys;
+        this.alpha = 2.0 / (baselineBuckets + 1);
+        this.threshold = threshold;
+        this.minCount = minCount;
+        this.warmUpBuckets = warmUpBuckets;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Counts a request in the bucket, or in the key's current bucket if it is a later one.
+     *
+     * @return the key's slot if the request made its bucket a spike, which is reported once per
+     * bucket, or -1
+     */
+    int add(long service, long cell, long bucket) {
+        if (firstBucket == Long.MIN_VALUE) {
+            firstBucket = bucket;
+        }
+        int slot = find(service, cell);
+        if (!used[slot]) {
+            if (size >= maxKeys && (bucket <= evictedBucket || evictQuiet(bucket) >= maxKeys)) {
+                return -1;
+            }
+            if (size + 1 > used.length / 2) {
+                allocate(used.length * 2);
+                rehashFrom(used, services, cells, buckets, counts, means, variances, spiking);
+            }
+            slot = find(service, cell);
+            used[slot] = true;
+            services[slot] = service;
+            cells[slot] = cell;
+            buckets[slot] = bucket;
+            size++;
+        }
+
+        advance(slot, bucket);
+        counts[slot]++;
+        if (!spiking[slot] && bucket - firstBucket >= warmUpBuckets && counts[slot] >= minCount
+            && counts[slot] > means[slot] + threshold * Math.sqrt(Math.max(variances[slot], means[slot]))) {
+            spiking[slot] = true;
+            return slot;
+        }
+        return -1;
+    }
+
+    int count(int slot) {
+        return counts[slot];
+    }
+
+    double expected(int slot) {
+        return means[slot];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Drops the keys whose baseline has decayed to nothing and that have seen no requests in the
+     * bucket.
+     *
+     * @return the number of keys left
+     */
+    int evictQuiet(long bucket) {
+        evictedBucket = Math.max(evictedBucket, bucket);
+        boolean[] oldUsed = used;
+        long[] oldServices = services;
+        long[] oldCells = cells;
+        long[] oldBuckets = buckets;
+        int[] oldCounts = counts;
+        double[] oldMeans = means;
+        double[] oldVariances = variances;
+        boolean[] oldSpiking = spiking;
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i] && oldBuckets[i] < bucket) {
+                advance(i, bucket);
+                oldUsed[i] = means[i] >= QUIET_MEAN;
+            }
+        }
+        allocate(oldUsed.length);
+        rehashFrom(oldUsed, oldServices, oldCells, oldBuckets, oldCounts, oldMeans, oldVariances, oldSpiking);
+        return size;
+    }
+
+    // folds the counts of the buckets since the key's current one into its baseline
+    private void advance(int slot, long bucket) {
+        long elapsed = bucket - buckets[slot];
+        if (elapsed <= 0) {
+            return;
+        }
+        fold(slot, counts[slot]);
+        foldEmpty(slot, elapsed - 1);
+        buckets[slot] = bucket;
+        counts[slot] = 0;
+        spiking[slot] = false;
+    }
+
+    private void fold(int slot, int count) {
+        double diff = count - means[slot];
+        double increment = alpha * diff;
+        means[slot] += increment;
+        variances[slot] = (1 - alpha) * (variances[slot] + diff * increment);
+    }
+
+    /**
+     * Folds in k empty buckets at once. Each takes the mean m to (1 - a) m and the variance v to
+     * (1 - a) (v + a m^2), so with d = (1 - a)^k they come to d m and d (v + m^2 (1 - d)).
+     */
+    private void foldEmpty(int slot, long emptyBuckets) {
+        if (emptyBuckets <= 0) {
+            return;
+        }
+        double decay = Math.pow(1 - alpha, emptyBuckets);
+        double mean = means[slot];
+        means[slot] = mean * decay;
+        variances[slot] = decay * (variances[slot] + mean * mean * (1 - decay));
+    }
+
+    private int find(long service, long cell) {
+        int mask = used.length - 1;
+        int slot = hash(service, cell) & mask;
+        while (used[slot] && (services[slot] != service || cells[slot] != cell)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void allocate(int capacity) {
+        used = new boolean[capacity];
+        services = new long[capacity];
+        cells = new long[capacity];
+        buckets = new long[capacity];
+        counts = new int[capacity];
+        means = new double[capacity];
+        variances = new double[capacity];
+        spiking = new boolean[capacity];
+        size = 0;
+    }
+
+    private void rehashFrom(boolean[] oldUsed, long[] oldServices, long[] oldCells, long[] oldBuckets,
+                            int[] oldCounts, double[] oldMeans, double[] oldVariances, boolean[] oldSpiking) {
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                int slot = find(oldServices[i], oldCells[i]);
+                used[slot] = true;
+                services[slot] = oldServices[i];
+                cells[slot] = oldCells[i];
+                buckets[slot] = oldBuckets[i];
+                counts[slot] = oldCounts[i];
+                means[slot] = oldMeans[i];
+                variances[slot] = oldVariances[i];
+                spiking[slot] = oldSpiking[i];
+                size++;
+            }
+        }
+    }
+
+    private static int hash(long service, long cell) {
+        long h = (service * 0x9E3779B97F4A7C15L) ^ cell;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
@@ -0,0 +1,146 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.spike;
+
+import app.dto.spike.SpikeAlertDTO;
+import app.service.geometry.GeoDistance;
+import app.service.servicerequest.ServiceRequestEvent;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.context.event.ApplicationEventPublisher;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Watches the requests being created for spikes, many more of a service's requests within a grid
+ * cell in one time bucket than the cell usually gets. Each jurisdiction's counts are kept in a
+ * {@link SpikeCounters} of bounded size, and its most recent alerts in memory.
+ */
+@Singleton
+public class SpikeDetector implements ApplicationEventListener<ServiceRequestEvent> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SpikeDetector.class);
+
+    @Property(name = "app.spikes.bucket")
+    protected Duration bucket;
+
+    @Property(name = "app.spikes.baseline-buckets")
+    protected int baselineBuckets;
+
+    @Property(name = "app.spikes.threshold")
+    protected double threshold;
+
+    @Property(name = "app.spikes.min-count")
+    protected int minCount;
+
+    @Property(name = "app.spikes.warm-up-buckets")
+    protected int warmUpBuckets;
+
+    @Property(name = "app.spikes.cell-meters")
+    protected double cellMeters;
+
+    @Property(name = "app.spikes.max-cells")
+    protected int maxCells;
+
+    @Property(name = "app.spikes.max-alerts")
+    protected int maxAlerts;
+
+    private final ApplicationEventPublisher<SpikeAlert> alertPublisher;
+    private final Map<String, Jurisdiction> jurisdictions = new ConcurrentHashMap<>();
+    private double cellDegrees;
+
+    public SpikeDetector(ApplicationEventPublisher<SpikeAlert> alertPublisher) {
+        this.alertPublisher = alertPublisher;
+    }
+
+    @PostConstruct
+    void init() {
+        cellDegrees = GeoDistance.metersToLatitudeDegrees(cellMeters);
+    }
+
+    /**
+     * @return the jurisdiction's most recent alerts, the latest first
+     */
+    public List<SpikeAlertDTO> getAlerts(String jurisdictionId) {
+        Jurisdiction jurisdiction = jurisdictions.get(jurisdictionId);
+        if (jurisdiction == null) {
+            return List.of();
+        }
+        synchronized (jurisdiction) {
+            return jurisdiction.alerts.stream().map(SpikeAlertDTO::new).collect(Collectors.toList());
+        }
+    }
+
+    public void clear() {
+        jurisdictions.clear();
+    }
+
+    @Override
+    public void onApplicationEvent(ServiceRequestEvent event) {
+        if (event.getType() != ServiceRequestEvent.Type.CREATED) {
+            return;
+        }
+
+        Instant created = event.getDateCreated() == null ? Instant.now() : event.getDateCreated();
+        long bucketIndex = created.toEpochMilli() / bucket.toMillis();
+        long row = (long) Math.floor(event.getLatitude() / cellDegrees);
+        double rowCos = Math.cos(Math.toRadians((row + 0.5) * cellDegrees));
+        long column = (long) Math.floor(event.getLongitude() * rowCos / cellDegrees);
+
+        Jurisdiction jurisdiction = jurisdictions.computeIfAbsent(event.getJurisdictionId(),
+            id -> new Jurisdiction(new SpikeCounters(maxCells, baselineBuckets, threshold, minCount, warmUpBuckets)));
+        SpikeAlert alert;
+        synchronized (jurisdiction) {
+            int slot = jurisdiction.counters.add(event.getServiceId(), (row << 32) | (column & 0xffffffffL), bucketIndex);
+            if (slot < 0) {
+                return;
+            }
+            Instant windowStart = Instant.ofEpochMilli(bucketIndex * bucket.toMillis());
+            alert = new SpikeAlert(event.getJurisdictionId(), event.getServiceId(),
+                (row + 0.5) * cellDegrees, (column + 0.5) * cellDegrees / rowCos, cellMeters,
+                jurisdiction.counters.count(slot), jurisdiction.counters.expected(slot),
+                windowStart, windowStart.plus(bucket));
+            jurisdiction.alerts.addFirst(alert);
+            if (jurisdiction.alerts.size() > maxAlerts) {
+                jurisdiction.alerts.removeLast();
+            }
+        }
+
+        LOG.warn("Spike of {} requests for service {} in jurisdiction {} near {}, {} where {} are expected.",
+            alert.getCount(), alert.getServiceId(), alert.getJurisdictionId(), alert.getLatitude(),
+            alert.getLongitude(), String.format("%.1f", alert.getExpected()));
+        alertPublisher.publishEvent(alert);
+    }
+
+    private static class Jurisdiction {
+        private final SpikeCounters counters;
+        private final Deque<SpikeAlert> alerts = new ArrayDeque<>();
+
+        Jurisdiction(SpikeCounters counters) {
+            this.counters = counters;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.subscription;
+
+import io.micronaut.context.annotation.Secondary;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs notifications instead of delivering them, for deployments without a sender.
+ */
+@Singleton
+@Secondary
+public class LoggingNotificationSender implements NotificationSender {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoggingNotificationSender.class);
+
+    @Override
+    public void send(Notification notification) {
+        LOG.info("Notifying subscription {} of service request {} in jurisdiction {}.",
+            notification.getSubscriptionId(), notification.getServiceRequestId(), notification.getJurisdictionId());
+    }
+
+    @Override
+    public void sendConfirmation(SubscriptionConfirmation confirmation) {
+        LOG.info("Asking for confirmation of subscription {} in jurisdiction {}.",
+            confirmation.getSubscriptionId(), confirmation.getJurisdictionId());
+    }
+}
@@ -0,0 +1,78 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.subscription;
+
+/**
+ * A new service request in the area of a subscription.
+ */
+public class Notification {
+
+    private final Long subscriptionId;
+    private final String email;
+    private final String unsubscribeToken;
+    private final String jurisdictionId;
+    private final Long serviceRequestId;
+    private final Long serviceId;
+    private final double latitude;
+    private final double longitude;
+
+    public Notification(Long subscriptionId, String email, String unsubscribeToken, String jurisdictionId,
+                        Long serviceRequestId, Long serviceId, double latitude, double longitude) {
+        this.subscriptionId = subscriptionId;
+        this.email = email;
+        this.unsubscribeToken = unsubscribeToken;
+        this.jurisdictionId = jurisdictionId;
+        this.serviceRequestId = serviceRequestId;
+        this.serviceId = serviceId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public Long getSubscriptionId() {
+        return subscriptionId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * @return the token that cancels the subscription, or null for subscriptions made before tokens
+     * were issued
+     */
+    public String getUnsubscribeToken() {
+        return unsubscribeToken;
+    }
+
+    public String getJurisdictionId() {
+        return jurisdictionId;
+    }
+
+    public Long getServiceRequestId() {
+        return serviceRequestId;
+    }
+
+    public Long getServiceId() {
+        return serviceId;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+}
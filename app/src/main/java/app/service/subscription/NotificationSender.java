@@ -0,0 +1,29 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.subscription;
+
+/**
+ * Delivers notifications to subscribers. A deployment provides its own bean, e.g. one sending
+ * email, which takes the place of {@link LoggingNotificationSender}.
+ */
+public interface NotificationSender {
+
+    void send(Notification notification);
+
+    /**
+     * Asks a resident to confirm their new subscription, e.g. with a link carrying its token.
+     */
+    void sendConfirmation(SubscriptionConfirmation confirmation);
+}
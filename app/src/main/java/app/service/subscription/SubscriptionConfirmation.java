@@ -0,0 +1,52 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.subscription;
+
+/**
+ * A resident's new subscription, waiting for them to confirm it through its token.
+ */
+public class SubscriptionConfirmation {
+
+    private final Long subscriptionId;
+    private final String email;
+    private final String jurisdictionId;
+    private final String token;
+
+    public SubscriptionConfirmation(Long subscriptionId, String email, String jurisdictionId, String token) {
+        this.subscriptionId = subscriptionId;
+        this.email = email;
+        this.jurisdictionId = jurisdictionId;
+        this.token = token;
+    }
+
+    public Long getSubscriptionId() {
+        return subscriptionId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getJurisdictionId() {
+        return jurisdictionId;
+    }
+
+    /**
+     * @return the secret that confirms the subscription, and later cancels it
+     */
+    public String getToken() {
+        return token;
+    }
+}
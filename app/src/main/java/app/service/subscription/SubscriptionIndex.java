@@ -0,0 +1,217 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.subscription;
+
+import app.model.subscription.Subscription;
+import app.model.subscription.SubscriptionRepository;
+import app.service.geometry.GeoDistance;
+import app.service.geometry.LibreGeometryFactory;
+import app.service.servicerequest.ServiceRequestEvent;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.scheduling.TaskExecutors;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Notifies the subscribers whose area a new service request is in. Each jurisdiction's
+ * subscriptions are kept in an STRtree over their bounding boxes, built on first use and replaced
+ * as a whole whenever they change, so matching a request takes logarithmic time in the number of
+ * subscriptions. Matching and sending run on the IO executor after the request has been created,
+ * so neither slows down its submission.
+ * <p>
+ * Loads of a jurisdiction's index are serialized, so an index read from the database earlier never
+ * replaces one read later, and run outside of the map's locks.
+ */
+@Singleton
+public class SubscriptionIndex implements ApplicationEventListener<ServiceRequestEvent> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SubscriptionIndex.class);
+    private final SubscriptionRepository subscriptionRepository;
+    private final NotificationSender notificationSender;
+    private final LibreGeometryFactory libreGeometryFactory;
+    private final ExecutorService ioExecutor;
+    private final Map<String, Subscriptions> subscriptionsByJurisdiction = new ConcurrentHashMap<>();
+    private final Map<String, Object> loadLocks = new ConcurrentHashMap<>();
+
+    public SubscriptionIndex(SubscriptionRepository subscriptionRepository, NotificationSender notificationSender,
+                             LibreGeometryFactory libreGeometryFactory,
+                             @Named(TaskExecutors.IO) ExecutorService ioExecutor) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.notificationSender = notificationSender;
+        this.libreGeometryFactory = libreGeometryFactory;
+        this.ioExecutor = ioExecutor;
+    }
+
+    @Override
+    public void onApplicationEvent(ServiceRequestEvent event) {
+        if (event.getType() == ServiceRequestEvent.Type.CREATED) {
+            ioExecutor.execute(() -> notifySubscribers(event));
+        }
+    }
+
+    /**
+     * @return the notifications due for a new service request of the service at the location
+     */
+    public List<Notification> findNotifications(String jurisdictionId, Long serviceRequestId, Long serviceId,
+                                                double lat, double lng) {
+        Subscriptions subscriptions = getSubscriptions(jurisdictionId);
+
+        List<Notification> notifications = new ArrayList<>();
+        for (IndexedSubscription subscription : subscriptions.findCovering(serviceId, lat, lng)) {
+            notifications.add(new Notification(subscription.id, subscription.email, subscription.token,
+                jurisdictionId, serviceRequestId, serviceId, lat, lng));
+        }
+        return notifications;
+    }
+
+    /**
+     * Rebuilds the jurisdiction's index from the database.
+     */
+    void reload(String jurisdictionId) {
+        synchronized (loadLock(jurisdictionId)) {
+            subscriptionsByJurisdiction.put(jurisdictionId, load(jurisdictionId));
+        }
+    }
+
+    public void clear() {
+        subscriptionsByJurisdiction.clear();
+    }
+
+    private void notifySubscribers(ServiceRequestEvent event) {
+        try {
+            findNotifications(event.getJurisdictionId(), event.getServiceRequestId(), event.getServiceId(),
+                event.getLatitude(), event.getLongitude())
+                .forEach(notificationSender::send);
+        } catch (RuntimeException e) {
+            LOG.error("Could not notify the subscribers of service request {}.", event.getServiceRequestId(), e);
+        }
+    }
+
+    private Subscriptions getSubscriptions(String jurisdictionId) {
+        Subscriptions subscriptions = subscriptionsByJurisdiction.get(jurisdictionId);
+        if (subscriptions != null) {
+            return subscriptions;
+        }
+        synchronized (loadLock(jurisdictionId)) {
+            subscriptions = subscriptionsByJurisdiction.get(jurisdictionId);
+            if (subscriptions == null) {
+                subscriptions = load(jurisdictionId);
+                subscriptionsByJurisdiction.put(jurisdictionId, subscriptions);
+            }
+            return subscriptions;
+        }
+    }
+
+    private Object loadLock(String jurisdictionId) {
+        return loadLocks.computeIfAbsent(jurisdictionId, id -> new Object());
+    }
+
+    private Subscriptions load(String jurisdictionId) {
+        // residents' subscriptions only take effect once confirmed
+        return new Subscriptions(subscriptionRepository.findAllByJurisdictionIdAndConfirmed(jurisdictionId, true),
+            libreGeometryFactory);
+    }
+
+    private static class Subscriptions {
+        private final STRtree tree = new STRtree();
+        private final LibreGeometryFactory libreGeometryFactory;
+
+        Subscriptions(List<Subscription> subscriptions, LibreGeometryFactory libreGeometryFactory) {
+            this.libreGeometryFactory = libreGeometryFactory;
+            for (Subscription subscription : subscriptions) {
+                IndexedSubscription indexed = new IndexedSubscription(subscription);
+                tree.insert(indexed.envelope, indexed);
+            }
+            // building is lazy and not thread safe, so do it before the index is shared
+            tree.build();
+        }
+
+        List<IndexedSubscription> findCovering(Long serviceId, double lat, double lng) {
+            Point point = libreGeometryFactory.createPoint(new Coordinate(lng, lat));
+
+            @SuppressWarnings("unchecked")
+            List<IndexedSubscription> candidates = tree.query(point.getEnvelopeInternal());
+
+            List<IndexedSubscription> covering = new ArrayList<>();
+            for (IndexedSubscription candidate : candidates) {
+                if (candidate.includesService(serviceId) && candidate.covers(point)) {
+                    covering.add(candidate);
+                }
+            }
+            return covering;
+        }
+    }
+
+    private static class IndexedSubscription {
+        final long id;
+        final String email;
+        final String token;
+        final Set<Long> serviceIds;
+        final Envelope envelope;
+        // either a boundary, or a circle of radiusMeters around the center
+        final PreparedGeometry boundary;
+        final double centerLat;
+        final double centerLng;
+        final double radiusMeters;
+
+        IndexedSubscription(Subscription subscription) {
+            this.id = subscription.getId();
+            this.email = subscription.getEmail();
+            this.token = subscription.getToken();
+            this.serviceIds = Set.copyOf(subscription.getServiceIds());
+            if (subscription.getBoundary() != null) {
+                this.boundary = PreparedGeometryFactory.prepare(subscription.getBoundary());
+                this.envelope = subscription.getBoundary().getEnvelopeInternal();
+                this.centerLat = 0;
+                this.centerLng = 0;
+                this.radiusMeters = 0;
+            } else {
+                this.boundary = null;
+                this.centerLat = subscription.getCenter().getY();
+                this.centerLng = subscription.getCenter().getX();
+                this.radiusMeters = subscription.getRadiusMeters();
+                double dLat = GeoDistance.metersToLatitudeDegrees(radiusMeters);
+                double dLng = GeoDistance.metersToLongitudeDegrees(radiusMeters, centerLat);
+                this.envelope = new Envelope(centerLng - dLng, centerLng + dLng, centerLat - dLat, centerLat + dLat);
+            }
+        }
+
+        boolean includesService(Long serviceId) {
+            return serviceIds.isEmpty() || serviceIds.contains(serviceId);
+        }
+
+        boolean covers(Point point) {
+            if (boundary != null) {
+                return boundary.covers(point);
+            }
+            return GeoDistance.haversineMeters(centerLat, centerLng, point.getY(), point.getX()) <= radiusMeters;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.subscription;
+
+import app.dto.subscription.CreateSubscriptionDTO;
+import app.dto.subscription.SubscriptionDTO;
+import app.exception.Libre311BaseException;
+import app.model.jurisdiction.Jurisdiction;
+import app.model.jurisdiction.JurisdictionRepository;
+import app.model.service.ServiceRepository;
+import app.model.subscription.Subscription;
+import app.model.subscription.SubscriptionRepository;
+import app.recaptcha.ReCaptchaService;
+import app.service.geometry.LibreGeometryFactory;
+import io.micronaut.http.HttpStatus;
+import jakarta.inject.Singleton;
+import org.locationtech.jts.geom.Coordinate;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Manages subscriptions. Admins subscribe any email directly; residents subscribe themselves, and
+ * their subscription only takes effect once they confirm it with the token sent to their email, so
+ * nobody can subscribe an address they don't own. The same token cancels the subscription.
+ */
+@Singleton
+public class SubscriptionService {
+
+    private static final SecureRandom TOKENS = new SecureRandom();
+    private static final int TOKEN_BYTES = 32;
+
+    static class JurisdictionNotFoundException extends Libre311BaseException {
+        public JurisdictionNotFoundException(String jurisdictionId) {
+            super(String.format("No Jurisdiction found with id: %s", jurisdictionId), HttpStatus.NOT_FOUND);
+        }
+    }
+
+    static class SubscriptionNotFoundException extends Libre311BaseException {
+        public SubscriptionNotFoundException(Long subscriptionId) {
+            super(String.format("No Subscription found with id: %s", subscriptionId), HttpStatus.NOT_FOUND);
+        }
+    }
+
+    static class UnknownTokenException extends Libre311BaseException {
+        public UnknownTokenException() {
+            super("No Subscription found for the token", HttpStatus.NOT_FOUND);
+        }
+    }
+
+    static class MissingSubscriptionAreaException extends Libre311BaseException {
+        public MissingSubscriptionAreaException() {
+            super("A subscription needs either bounds, multi_bounds, or lat, long and radius_meters",
+                HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    static class UnknownServiceException extends Libre311BaseException {
+        public UnknownServiceException() {
+            super("Every service_code must be a service of the jurisdiction", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final JurisdictionRepository jurisdictionRepository;
+    private final ServiceRepository serviceRepository;
+    private final SubscriptionIndex subscriptionIndex;
+    private final NotificationSender notificationSender;
+    private final ReCaptchaService reCaptchaService;
+    private final LibreGeometryFactory libreGeometryFactory;
+
+    public SubscriptionService(SubscriptionRepository subscriptionRepository,
+                               JurisdictionRepository jurisdictionRepository, ServiceRepository serviceRepository,
+                               SubscriptionIndex subscriptionIndex, NotificationSender notificationSender,
+                               ReCaptchaService reCaptchaService, LibreGeometryFactory libreGeometryFactory) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.jurisdictionRepository = jurisdictionRepository;
+        this.serviceRepository = serviceRepository;
+        this.subscriptionIndex = subscriptionIndex;
+        this.notificationSender = notificationSender;
+        this.reCaptchaService = reCaptchaService;
+        this.libreGeometryFactory = libreGeometryFactory;
+    }
+
+    public List<SubscriptionDTO> getListSubscriptions(String jurisdictionId) {
+        return subscriptionRepository.findAllByJurisdictionId(jurisdictionId).stream()
+            .map(SubscriptionDTO::new)
+            .collect(Collectors.toList());
+    }
+
+    public SubscriptionDTO createSubscription(CreateSubscriptionDTO requestDTO, String jurisdictionId) {
+        Subscription saved = subscriptionRepository.save(newSubscription(requestDTO, jurisdictionId));
+        subscriptionIndex.reload(jurisdictionId);
+
+        return new SubscriptionDTO(saved);
+    }
+
+    public void deleteSubscription(Long subscriptionId, String jurisdictionId) {
+        Subscription subscription = subscriptionRepository.findByIdAndJurisdictionId(subscriptionId, jurisdictionId)
+            .orElseThrow(() -> new SubscriptionNotFoundException(subscriptionId));
+
+        subscriptionRepository.delete(subscription);
+        subscriptionIndex.reload(jurisdictionId);
+    }
+
+    /**
+     * Subscribes a resident, who is sent the token to confirm the subscription with.
+     */
+    public SubscriptionDTO subscribe(CreateSubscriptionDTO requestDTO, String jurisdictionId) {
+        reCaptchaService.verifyReCaptcha(requestDTO.getgRecaptchaResponse());
+
+        Subscription subscription = newSubscription(requestDTO, jurisdictionId);
+        subscription.setConfirmed(false);
+        Subscription saved = subscriptionRepository.save(subscription);
+        // not in the index until confirmed, so there is nothing to reload
+        notificationSender.sendConfirmation(new SubscriptionConfirmation(saved.getId(), saved.getEmail(),
+            jurisdictionId, saved.getToken()));
+
+        return new SubscriptionDTO(saved);
+    }
+
+    public SubscriptionDTO confirmSubscription(String token) {
+        Subscription subscription = findByToken(token);
+        if (!subscription.isConfirmed()) {
+            subscription.setConfirmed(true);
+            subscription = subscriptionRepository.update(subscription);
+            subscriptionIndex.reload(subscription.getJurisdiction().getId());
+        }
+        return new SubscriptionDTO(subscription);
+    }
+
+    public void unsubscribe(String token) {
+        Subscription subscription = findByToken(token);
+        subscriptionRepository.delete(subscription);
+        subscriptionIndex.reload(subscription.getJurisdiction().getId());
+    }
+
+    private Subscription findByToken(String token) {
+        if (token == null || token.isBlank()) {
+            throw new UnknownTokenException();
+        }
+        return subscriptionRepository.findByToken(token).orElseThrow(UnknownTokenException::new);
+    }
+
+    private Subscription newSubscription(CreateSubscriptionDTO requestDTO, String jurisdictionId) {
+        Jurisdiction jurisdiction = jurisdictionRepository.findById(jurisdictionId)
+            .orElseThrow(() -> new JurisdictionNotFoundException(jurisdictionId));
+
+        Subscription subscription = new Subscription();
+        subscription.setEmail(requestDTO.getEmail());
+        subscription.setJurisdiction(jurisdiction);
+        if (requestDTO.getMultiBounds() != null) {
+            subscription.setBoundary(libreGeometryFactory.createMultiPolygon(requestDTO.getMultiBounds()));
+        } else if (requestDTO.getBounds() != null) {
+            subscription.setBoundary(libreGeometryFactory.createMultiPolygon(requestDTO.getBounds()));
+        } else if (requestDTO.getLatitude() != null && requestDTO.getLongitude() != null
+            && requestDTO.getRadiusMeters() != null) {
+            subscription.setCenter(libreGeometryFactory.createPoint(
+                new Coordinate(requestDTO.getLongitude(), requestDTO.getLatitude())));
+            subscription.setRadiusMeters(requestDTO.getRadiusMeters());
+        } else {
+            throw new MissingSubscriptionAreaException();
+        }
+
+        if (requestDTO.getServiceCodes() != null && !requestDTO.getServiceCodes().isEmpty()) {
+            Set<Long> serviceIds = new HashSet<>(requestDTO.getServiceCodes());
+            if (serviceRepository.countByIdInAndJurisdictionId(serviceIds, jurisdictionId) != serviceIds.size()) {
+                throw new UnknownServiceException();
+            }
+            subscription.setServiceIds(serviceIds);
+        }
+
+        subscription.setToken(newToken());
+        return subscription;
+    }
+
+    private static String newToken() {
+        byte[] token = new byte[TOKEN_BYTES];
+        TOKENS.nextBytes(token);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+}
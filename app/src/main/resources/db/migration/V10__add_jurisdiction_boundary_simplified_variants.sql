@@ -0,0 +1,5 @@
+-- filled in by the application at startup for boundaries saved before these columns existed
+ALTER TABLE jurisdiction_boundary
+    ADD COLUMN boundary_high MULTIPOLYGON SRID 4326,
+    ADD COLUMN boundary_medium MULTIPOLYGON SRID 4326,
+    ADD COLUMN boundary_low MULTIPOLYGON SRID 4326;
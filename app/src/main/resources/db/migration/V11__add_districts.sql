@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS districts (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL,
+    boundary MULTIPOLYGON NOT NULL SRID 4326,
+    jurisdiction_id VARCHAR(255) NOT NULL,
+    FOREIGN KEY (jurisdiction_id) REFERENCES jurisdictions(id) ON DELETE CASCADE
+);
+
+ALTER TABLE service_requests
+    ADD COLUMN district_id BIGINT,
+    ADD FOREIGN KEY (district_id) REFERENCES districts(id) ON DELETE SET NULL,
+    ADD INDEX service_requests_district_status (district_id, status);
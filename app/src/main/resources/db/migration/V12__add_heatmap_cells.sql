@@ -0,0 +1,13 @@
+CREATE TABLE IF NOT EXISTS heatmap_cells (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    jurisdiction_id VARCHAR(255) NOT NULL,
+    service_id BIGINT NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    week_start DATE NOT NULL,
+    cell_x INT NOT NULL,
+    cell_y INT NOT NULL,
+    request_count INT NOT NULL,
+    FOREIGN KEY (jurisdiction_id) REFERENCES jurisdictions(id) ON DELETE CASCADE,
+    FOREIGN KEY (service_id) REFERENCES services(id) ON DELETE CASCADE,
+    UNIQUE INDEX heatmap_cells_bucket (jurisdiction_id, week_start, service_id, status, cell_x, cell_y)
+);
@@ -0,0 +1,19 @@
+-- an area is either a polygon boundary or a circle of radius_meters around center
+CREATE TABLE IF NOT EXISTS subscriptions (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    email VARCHAR(255) NOT NULL,
+    boundary MULTIPOLYGON SRID 4326,
+    center POINT SRID 4326,
+    radius_meters DOUBLE,
+    jurisdiction_id VARCHAR(255) NOT NULL,
+    FOREIGN KEY (jurisdiction_id) REFERENCES jurisdictions(id) ON DELETE CASCADE
+);
+
+-- the services a subscription is limited to; none means all of them
+CREATE TABLE IF NOT EXISTS subscription_services (
+    subscription_id BIGINT NOT NULL,
+    service_id BIGINT NOT NULL,
+    PRIMARY KEY (subscription_id, service_id),
+    FOREIGN KEY (subscription_id) REFERENCES subscriptions(id) ON DELETE CASCADE,
+    FOREIGN KEY (service_id) REFERENCES services(id) ON DELETE CASCADE
+);
@@ -0,0 +1,14 @@
+CREATE TABLE IF NOT EXISTS hotspots (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    jurisdiction_id VARCHAR(255) NOT NULL,
+    service_id BIGINT NOT NULL,
+    window_start TIMESTAMP NOT NULL,
+    window_end TIMESTAMP NOT NULL,
+    latitude DOUBLE NOT NULL,
+    longitude DOUBLE NOT NULL,
+    radius_meters DOUBLE NOT NULL,
+    request_count INT NOT NULL,
+    FOREIGN KEY (jurisdiction_id) REFERENCES jurisdictions(id) ON DELETE CASCADE,
+    FOREIGN KEY (service_id) REFERENCES services(id) ON DELETE CASCADE,
+    INDEX hotspots_jurisdiction_service (jurisdiction_id, service_id)
+);
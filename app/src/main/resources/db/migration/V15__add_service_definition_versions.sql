@@ -0,0 +1,14 @@
+CREATE TABLE IF NOT EXISTS service_definition_versions (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    service_id BIGINT NOT NULL,
+    digest CHAR(64) NOT NULL,
+    definition_json MEDIUMTEXT NOT NULL,
+    date_created TIMESTAMP NOT NULL,
+    FOREIGN KEY (service_id) REFERENCES services(id) ON DELETE CASCADE,
+    INDEX service_definition_versions_service_digest (service_id, digest)
+);
+
+ALTER TABLE service_requests
+    ADD COLUMN service_definition_version_id BIGINT,
+    ADD COLUMN attribute_answers TEXT,
+    ADD FOREIGN KEY (service_definition_version_id) REFERENCES service_definition_versions(id) ON DELETE SET NULL;
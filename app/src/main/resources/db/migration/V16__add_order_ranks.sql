@@ -0,0 +1,21 @@
+-- fractional rank keys that services and definition attributes are ordered by; an int position p
+-- becomes the base-36 key of p - MIN_INT, 7 digits wide, followed by I
+ALTER TABLE services
+    ADD COLUMN order_rank VARCHAR(255) CHARACTER SET ascii COLLATE ascii_bin;
+
+UPDATE services
+SET order_rank = CONCAT(LPAD(CONV(COALESCE(order_position, -1) + 2147483648, 10, 36), 7, '0'), 'I');
+
+ALTER TABLE services
+    MODIFY COLUMN order_rank VARCHAR(255) CHARACTER SET ascii COLLATE ascii_bin NOT NULL,
+    ADD INDEX services_group_order_rank (service_group_id, order_rank);
+
+ALTER TABLE service_definition_attributes
+    ADD COLUMN attribute_rank VARCHAR(255) CHARACTER SET ascii COLLATE ascii_bin;
+
+UPDATE service_definition_attributes
+SET attribute_rank = CONCAT(LPAD(CONV(attribute_order + 2147483648, 10, 36), 7, '0'), 'I');
+
+ALTER TABLE service_definition_attributes
+    MODIFY COLUMN attribute_rank VARCHAR(255) CHARACTER SET ascii COLLATE ascii_bin NOT NULL,
+    ADD INDEX service_definition_attributes_service_rank (service_id, attribute_rank);
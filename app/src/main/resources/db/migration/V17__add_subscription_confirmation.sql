@@ -0,0 +1,6 @@
+-- subscriptions made by residents take effect once their email is confirmed; the token confirms
+-- and cancels a subscription without an account
+ALTER TABLE subscriptions
+    ADD COLUMN confirmed BOOLEAN NOT NULL DEFAULT TRUE,
+    ADD COLUMN token VARCHAR(64) CHARACTER SET ascii COLLATE ascii_bin,
+    ADD UNIQUE INDEX subscriptions_token (token);
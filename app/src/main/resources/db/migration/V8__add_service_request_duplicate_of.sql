@@ -0,0 +1,3 @@
+ALTER TABLE service_requests
+    ADD COLUMN duplicate_of_id BIGINT,
+    ADD FOREIGN KEY (duplicate_of_id) REFERENCES service_requests(id) ON DELETE SET NULL;
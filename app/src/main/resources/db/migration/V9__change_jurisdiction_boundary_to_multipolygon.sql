@@ -0,0 +1,8 @@
+ALTER TABLE jurisdiction_boundary ADD COLUMN multi_boundary MULTIPOLYGON SRID 4326;
+
+UPDATE jurisdiction_boundary
+    SET multi_boundary = ST_GeomFromText(CONCAT('MULTIPOLYGON(', SUBSTRING(ST_AsText(boundary), 8), ')'), 4326);
+
+ALTER TABLE jurisdiction_boundary DROP COLUMN boundary;
+
+ALTER TABLE jurisdiction_boundary CHANGE multi_boundary boundary MULTIPOLYGON NOT NULL SRID 4326;
@@ -6,14 +6,14 @@ VALUES (1, 'stl_subtenant_admin@example.com');
 INSERT IGNORE INTO jurisdictions (id, name, tenant_id)
 VALUES ('stlma', 'St. Louis Metro Area', 1);
 
--- Add jurisdiction boundary (POLYGON fn
+-- Add jurisdiction boundary (MULTIPOLYGON fn
 INSERT INTO jurisdiction_boundary (boundary, jurisdiction_id)
-VALUES (ST_GeomFromText('POLYGON((
+VALUES (ST_GeomFromText('MULTIPOLYGON(((
         38.88908245157475 -90.82207996696539,
         38.28511105115126 -90.32668241294714,
         38.73098601356233 -89.86006757704696,
         39.04413540068816 -90.36058752072049,
-        38.88908245157475 -90.82207996696539))', 4326),
+        38.88908245157475 -90.82207996696539)))', 4326),
         'stlma');
 
 
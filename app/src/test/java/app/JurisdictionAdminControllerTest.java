@@ -26,11 +26,21 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import app.dto.district.CreateDistrictDTO;
+import app.dto.district.DistrictDTO;
+import app.dto.district.PatchDistrictDTO;
+import app.dto.route.RouteDTO;
+import app.dto.spike.SpikeAlertDTO;
+import app.dto.subscription.CreateSubscriptionDTO;
+import app.dto.subscription.SubscriptionDTO;
 import app.dto.group.CreateUpdateGroupDTO;
 import app.dto.group.GroupDTO;
+import app.dto.heatmap.HeatmapDTO;
+import app.dto.hotspot.HotspotDTO;
 import app.dto.service.CreateServiceDTO;
 import app.dto.service.PatchServiceOrderPositionDTO;
 import app.dto.service.ServiceDTO;
@@ -40,6 +50,7 @@ import app.dto.servicerequest.PatchServiceRequestDTO;
 import app.dto.servicerequest.PostRequestServiceRequestDTO;
 import app.dto.servicerequest.PostResponseServiceRequestDTO;
 import app.dto.servicerequest.SensitiveServiceRequestDTO;
+import app.dto.servicerequest.ServiceRequestDTO;
 import app.model.jurisdiction.Jurisdiction;
 import app.model.jurisdiction.JurisdictionRepository;
 import app.model.jurisdictionuser.JurisdictionUser;
@@ -59,9 +70,13 @@ import app.model.servicerequest.ServiceRequestStatus;
 import app.model.user.User;
 import app.model.user.UserRepository;
 import app.security.HasPermissionResponse;
+import app.service.hotspot.HotspotDetector;
 import app.service.jurisdiction.JurisdictionBoundaryService;
+import app.service.subscription.Notification;
+import app.service.subscription.SubscriptionConfirmation;
 import app.util.DbCleanup;
 import app.util.MockAuthenticationFetcher;
+import app.util.MockNotificationSender;
 import app.util.MockUnityAuthClient;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -89,6 +104,7 @@ import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.AfterEach;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @MicronautTest(transactional = false)
 public class JurisdictionAdminControllerTest  {
@@ -130,6 +146,12 @@ public class JurisdictionAdminControllerTest  {
     @Inject
     JurisdictionBoundaryService jurisdictionBoundaryService;
 
+    @Inject
+    MockNotificationSender mockNotificationSender;
+
+    @Inject
+    HotspotDetector hotspotDetector;
+
     private Service sidewalkService;
     private ServiceDefinitionAttribute savedSDA;
     private HashMap<String, Long> sidewalkAttrIdMap = new HashMap<>();
@@ -304,9 +326,9 @@ public class JurisdictionAdminControllerTest  {
         assertEquals(HttpStatus.OK, response.getStatus());
         Optional<ServiceDTO> optional = response.getBody(ServiceDTO.class);
         assertTrue(optional.isPresent());
-        assertEquals(-1, optional.get().getOrderPosition());
+        assertEquals(0, optional.get().getOrderPosition());
 
-        // success, all provided
+        // success, all provided; placed after the first, which is the group's only other service
         response = createService("Bike Lane Obstruction", "fakecity.gov", bikeln007Group.getId(), 2);
         assertEquals(HttpStatus.OK, response.getStatus());
         optional = response.getBody(ServiceDTO.class);
@@ -314,7 +336,7 @@ public class JurisdictionAdminControllerTest  {
         ServiceDTO serviceDTO = optional.get();
         assertNotNull(serviceDTO.getJurisdictionId());
         assertEquals("fakecity.gov", serviceDTO.getJurisdictionId());
-        assertEquals(2, optional.get().getOrderPosition());
+        assertEquals(1, optional.get().getOrderPosition());
 
         // fail, jurisdiction not provided
         exception = assertThrowsExactly(HttpClientResponseException.class, () -> {
@@ -439,7 +461,8 @@ public class JurisdictionAdminControllerTest  {
         assertEquals("Inner City Bust Stops", serviceDTO1.getServiceName());
         assertEquals("Issues pertaining to inner city bus stops.", serviceDTO1.getDescription());
         assertEquals(secondGroupDTO.getId(), serviceDTO1.getGroupId());
-        assertEquals(3, serviceDTO1.getOrderPosition());
+        // the only service of its new group
+        assertEquals(0, serviceDTO1.getOrderPosition());
 
         // Remove ISSUE_NEAR attribute
         Optional<ServiceDefinitionAttributeDTO> issueNearOptional = savedServiceDefinitionDTO.getAttributes()
@@ -503,10 +526,70 @@ public class JurisdictionAdminControllerTest  {
                 serviceDefinitionAttribute.getDescription().equals("Bus Stop Issues") &&
                     serviceDefinitionAttribute.getValues() != null &&
                     !serviceDefinitionAttribute.getValues().isEmpty() &&
-                    serviceDefinitionAttribute.getAttributeOrder() == 1)
+                    serviceDefinitionAttribute.getAttributeOrder() == 0)
         );
     }
 
+    @Test
+    public void servicesListedReflectChangesMadeAfterTheyWereFirstListed() {
+        ServiceDTO[] services = client.toBlocking().retrieve(
+            HttpRequest.GET("/services?jurisdiction_id=fakecity.gov"), ServiceDTO[].class);
+        assertEquals(1, services.length);
+        assertTrue(services[0].isMetadata());
+
+        authLogin();
+
+        HttpResponse<?> response = createGroup("Group - Bus Stop 3", "fakecity.gov");
+        Optional<GroupDTO> groupOptional = response.getBody(GroupDTO.class);
+        assertTrue(groupOptional.isPresent());
+        response = createService("Bus Stop Issues", "fakecity.gov", groupOptional.get().getId());
+        Optional<ServiceDTO> serviceOptional = response.getBody(ServiceDTO.class);
+        assertTrue(serviceOptional.isPresent());
+        Long serviceCode = serviceOptional.get().getId();
+
+        services = client.toBlocking().retrieve(
+            HttpRequest.GET("/services?jurisdiction_id=fakecity.gov"), ServiceDTO[].class);
+        assertEquals(2, services.length);
+        assertFalse(Arrays.stream(services).filter(service -> service.getId().equals(serviceCode))
+            .findFirst().orElseThrow().isMetadata());
+        ServiceDefinitionDTO definition = client.toBlocking().retrieve(
+            HttpRequest.GET("/services/" + serviceCode + "?jurisdiction_id=fakecity.gov"), ServiceDefinitionDTO.class);
+        assertTrue(definition.getAttributes().isEmpty());
+
+        response = addServiceDefinitionAttribute(serviceCode, "fakecity.gov",
+            new CreateServiceDefinitionAttributeDTO(
+                true,
+                AttributeDataType.STRING,
+                false,
+                "Bus Stop Near",
+                1,
+                "(Optional) If the issue is near anything, please describe here."
+            ));
+        assertEquals(OK, response.getStatus());
+
+        services = client.toBlocking().retrieve(
+            HttpRequest.GET("/services?jurisdiction_id=fakecity.gov"), ServiceDTO[].class);
+        assertTrue(Arrays.stream(services).filter(service -> service.getId().equals(serviceCode))
+            .findFirst().orElseThrow().isMetadata());
+        definition = client.toBlocking().retrieve(
+            HttpRequest.GET("/services/" + serviceCode + "?jurisdiction_id=fakecity.gov"), ServiceDefinitionDTO.class);
+        assertEquals(1, definition.getAttributes().size());
+        assertEquals("Bus Stop Near", definition.getAttributes().get(0).getDescription());
+
+        response = client.toBlocking().exchange(HttpRequest.DELETE(
+                "/jurisdiction-admin/services/" + serviceCode + "?jurisdiction_id=fakecity.gov")
+            .header("Authorization", "Bearer token.text.here"));
+        assertEquals(OK, response.getStatus());
+
+        services = client.toBlocking().retrieve(
+            HttpRequest.GET("/services?jurisdiction_id=fakecity.gov"), ServiceDTO[].class);
+        assertEquals(1, services.length);
+        HttpClientResponseException exception = assertThrowsExactly(HttpClientResponseException.class, () ->
+            client.toBlocking().retrieve(
+                HttpRequest.GET("/services/" + serviceCode + "?jurisdiction_id=fakecity.gov"), ServiceDefinitionDTO.class));
+        assertEquals(NOT_FOUND, exception.getStatus());
+    }
+
     @Test
     void canUpdateServicesOrder() {
         HttpResponse<?> response;
@@ -526,14 +609,14 @@ public class JurisdictionAdminControllerTest  {
         Optional<ServiceDTO> optional = response.getBody(ServiceDTO.class);
         assertTrue(optional.isPresent());
         ServiceDTO bikeLaneService = optional.get();
-        assertEquals(-1, bikeLaneService.getOrderPosition());
+        assertEquals(0, bikeLaneService.getOrderPosition());
 
         response = createService("Bike Lane Obstruction", "fakecity.gov", myInfraGroup.getId(), 2);
         assertEquals(HttpStatus.OK, response.getStatus());
         optional = response.getBody(ServiceDTO.class);
         assertTrue(optional.isPresent());
         ServiceDTO busStopService = optional.get();
-        assertEquals(2, busStopService.getOrderPosition());
+        assertEquals(1, busStopService.getOrderPosition());
 
         // update order
         List<PatchServiceOrderPositionDTO> payload = List.of(
@@ -553,6 +636,57 @@ public class JurisdictionAdminControllerTest  {
         assertTrue(Arrays.stream(serviceDTOS)
                 .allMatch(serviceDTO -> (Objects.equals(serviceDTO.getId(), bikeLaneService.getId()) && serviceDTO.getOrderPosition() == 0) ||
                         (Objects.equals(serviceDTO.getId(), busStopService.getId()) && serviceDTO.getOrderPosition() == 1)));
+
+        // listed positions follow the new order too
+        ServiceDTO[] services = client.toBlocking().retrieve(
+            HttpRequest.GET("/services?jurisdiction_id=fakecity.gov"), ServiceDTO[].class);
+        assertTrue(Arrays.stream(services)
+                .filter(serviceDTO -> Objects.equals(serviceDTO.getGroupId(), myInfraGroup.getId()))
+                .allMatch(serviceDTO -> (Objects.equals(serviceDTO.getId(), bikeLaneService.getId()) && serviceDTO.getOrderPosition() == 0) ||
+                        (Objects.equals(serviceDTO.getId(), busStopService.getId()) && serviceDTO.getOrderPosition() == 1)));
+    }
+
+    @Test
+    void movingAServiceWritesOnlyItsRow() {
+        Jurisdiction jurisdiction = jurisdictionRepository.findById("fakecity.gov").get();
+        ServiceGroup group = serviceGroupRepository.save(new ServiceGroup("Moves", jurisdiction));
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Service service = new Service("Service " + i);
+            service.setJurisdiction(jurisdiction);
+            service.setServiceGroup(group);
+            service.setOrderPosition(i);
+            ids.add(serviceRepository.save(service).getId());
+        }
+        Map<Long, String> rowsBefore = orderRows(group.getId());
+
+        authLogin();
+
+        // the last service moved to the front
+        List<PatchServiceOrderPositionDTO> payload = new ArrayList<>();
+        payload.add(new PatchServiceOrderPositionDTO(ids.get(4), 0));
+        for (int i = 0; i < 4; i++) {
+            payload.add(new PatchServiceOrderPositionDTO(ids.get(i), i + 1));
+        }
+        ServiceDTO[] reordered = client.toBlocking().retrieve(HttpRequest.PATCH(
+                "/jurisdiction-admin/groups/" + group.getId() + "/services-order?jurisdiction_id=fakecity.gov",
+                payload).header("Authorization", "Bearer token.text.here"), ServiceDTO[].class);
+        assertEquals(List.of(ids.get(4), ids.get(0), ids.get(1), ids.get(2), ids.get(3)),
+            Arrays.stream(reordered).map(ServiceDTO::getId).collect(Collectors.toList()));
+        for (int i = 0; i < reordered.length; i++) {
+            assertEquals(i, reordered[i].getOrderPosition());
+        }
+
+        // one update, of the moved service's rank alone
+        Map<Long, String> rowsAfter = orderRows(group.getId());
+        assertEquals(Set.of(ids.get(4)), rowsBefore.keySet().stream()
+            .filter(id -> !rowsBefore.get(id).equals(rowsAfter.get(id))).collect(Collectors.toSet()));
+
+        ServiceDTO[] services = client.toBlocking().retrieve(
+            HttpRequest.GET("/services?jurisdiction_id=fakecity.gov"), ServiceDTO[].class);
+        assertEquals(List.of(0, 1, 2, 3, 4), Arrays.stream(services)
+            .filter(serviceDTO -> Objects.equals(serviceDTO.getGroupId(), group.getId()))
+            .map(ServiceDTO::getOrderPosition).collect(Collectors.toList()));
     }
 
     @Test
@@ -693,6 +827,409 @@ public class JurisdictionAdminControllerTest  {
         assertNotNull(updatedServiceRequestDTO.getExpectedDate());
     }
 
+    @Test
+    public void serviceRequestsKeepTheServiceDefinitionTheyWereSubmittedWith() {
+        HttpResponse<?> response = createSidewalkServiceRequest("12345 Fairway",
+            Map.of("attribute["+savedSDA.getId()+"]", sidewalkAttrIdMap.get("Cracked")), "fakecity.gov");
+        assertEquals(HttpStatus.OK, response.getStatus());
+        Long serviceRequestId = response.getBody(PostResponseServiceRequestDTO[].class).get()[0].getId();
+
+        authLogin();
+
+        // replaces the attribute's values, so the answered one no longer exists
+        UpdateServiceDefinitionAttributeDTO patchSDA = new UpdateServiceDefinitionAttributeDTO();
+        patchSDA.setDescription("What is wrong with the sidewalk?");
+        patchSDA.setValues(List.of(new AttributeValueDTO(null, "Broken")));
+        HttpRequest<?> request = HttpRequest.PATCH(
+                "/jurisdiction-admin/services/" + sidewalkService.getId() + "/attributes/"
+                    + savedSDA.getId() + "?jurisdiction_id=fakecity.gov", patchSDA)
+            .header("Authorization", "Bearer token.text.here");
+        response = client.toBlocking().exchange(request, ServiceDefinitionDTO.class);
+        assertEquals(OK, response.getStatus());
+        String brokenValueId = response.getBody(ServiceDefinitionDTO.class).get()
+            .getAttributes().get(0).getValues().get(0).getKey();
+
+        response = client.toBlocking().exchange("/requests/" + serviceRequestId + "?jurisdiction_id=fakecity.gov",
+            ServiceRequestDTO[].class);
+        assertEquals(OK, response.getStatus());
+        ServiceRequestDTO serviceRequestDTO = response.getBody(ServiceRequestDTO[].class).get()[0];
+        assertEquals(1, serviceRequestDTO.getSelectedValues().size());
+        ServiceDefinitionAttributeDTO answeredAttribute = serviceRequestDTO.getSelectedValues().get(0);
+        assertEquals(savedSDA.getId(), answeredAttribute.getId());
+        assertEquals(savedSDA.getDescription(), answeredAttribute.getDescription());
+        assertEquals(1, answeredAttribute.getValues().size());
+        assertEquals(sidewalkAttrIdMap.get("Cracked").toString(), answeredAttribute.getValues().get(0).getKey());
+        assertEquals("Cracked", answeredAttribute.getValues().get(0).getName());
+
+        // while new requests are submitted against the edited definition
+        response = createSidewalkServiceRequest("12345 Fairway",
+            Map.of("attribute["+savedSDA.getId()+"]", brokenValueId), "fakecity.gov");
+        assertEquals(HttpStatus.OK, response.getStatus());
+        serviceRequestId = response.getBody(PostResponseServiceRequestDTO[].class).get()[0].getId();
+
+        response = client.toBlocking().exchange("/requests/" + serviceRequestId + "?jurisdiction_id=fakecity.gov",
+            ServiceRequestDTO[].class);
+        answeredAttribute = response.getBody(ServiceRequestDTO[].class).get()[0].getSelectedValues().get(0);
+        assertEquals("What is wrong with the sidewalk?", answeredAttribute.getDescription());
+        assertEquals("Broken", answeredAttribute.getValues().get(0).getName());
+    }
+
+    @Test
+    public void canTagAndFilterServiceRequestsByDistrict() {
+        authLogin();
+
+        CreateDistrictDTO districtDTO = new CreateDistrictDTO();
+        districtDTO.setName("Ward 1");
+        districtDTO.setBounds(DEFAULT_BOUNDS);
+        HttpResponse<DistrictDTO> districtResponse = client.toBlocking().exchange(
+            HttpRequest.POST("/jurisdiction-admin/districts?jurisdiction_id=fakecity.gov", districtDTO)
+                .header("Authorization", "Bearer token.text.here"), DistrictDTO.class);
+        assertEquals(OK, districtResponse.getStatus());
+        assertTrue(districtResponse.getBody().isPresent());
+        Long districtId = districtResponse.getBody().get().getId();
+
+        try {
+            HttpResponse<?> response = createSidewalkServiceRequest("12345 Fairway",
+                Map.of("attribute[" + savedSDA.getId() + "]", sidewalkAttrIdMap.get("Cracked")), "fakecity.gov");
+            assertEquals(OK, response.getStatus());
+
+            HttpResponse<List> inDistrict = client.toBlocking().exchange(
+                HttpRequest.GET("/requests?jurisdiction_id=fakecity.gov&district_id=" + districtId), List.class);
+            assertTrue(inDistrict.getBody().isPresent());
+            assertEquals(1, inDistrict.getBody().get().size());
+
+            HttpResponse<List> inOtherDistrict = client.toBlocking().exchange(
+                HttpRequest.GET("/requests?jurisdiction_id=fakecity.gov&district_id=" + (districtId + 1)), List.class);
+            assertTrue(inOtherDistrict.getBody().isPresent());
+            assertEquals(0, inOtherDistrict.getBody().get().size());
+
+            HttpResponse<DistrictDTO[]> districts = client.toBlocking().exchange(
+                HttpRequest.GET("/jurisdiction-admin/districts?jurisdiction_id=fakecity.gov")
+                    .header("Authorization", "Bearer token.text.here"), DistrictDTO[].class);
+            assertTrue(districts.getBody().isPresent());
+            assertEquals(1L, districts.getBody().get()[0].getRequestCounts().get("open"));
+        } finally {
+            // the district index outlives the database cleanup, so remove the district through the api
+            client.toBlocking().exchange(HttpRequest.DELETE(
+                    "/jurisdiction-admin/districts/" + districtId + "?jurisdiction_id=fakecity.gov")
+                .header("Authorization", "Bearer token.text.here"));
+        }
+    }
+
+    @Test
+    public void retagsExistingServiceRequestsWhenADistrictIsCreated() throws InterruptedException {
+        authLogin();
+        HttpResponse<?> response = createSidewalkServiceRequest("12345 Fairway",
+            Map.of("attribute[" + savedSDA.getId() + "]", sidewalkAttrIdMap.get("Cracked")), "fakecity.gov");
+        assertEquals(OK, response.getStatus());
+
+        CreateDistrictDTO districtDTO = new CreateDistrictDTO();
+        districtDTO.setName("Ward 2");
+        districtDTO.setBounds(DEFAULT_BOUNDS);
+        Long districtId = client.toBlocking().exchange(
+            HttpRequest.POST("/jurisdiction-admin/districts?jurisdiction_id=fakecity.gov", districtDTO)
+                .header("Authorization", "Bearer token.text.here"), DistrictDTO.class).getBody().get().getId();
+
+        try {
+            // the retag runs in the background
+            int tagged = 0;
+            for (int attempt = 0; attempt < 50 && tagged == 0; attempt++) {
+                Thread.sleep(100);
+                tagged = client.toBlocking().exchange(
+                    HttpRequest.GET("/requests?jurisdiction_id=fakecity.gov&district_id=" + districtId), List.class)
+                    .getBody().get().size();
+            }
+            assertEquals(1, tagged);
+
+            HttpResponse<DistrictDTO[]> districts = client.toBlocking().exchange(
+                HttpRequest.GET("/jurisdiction-admin/districts?jurisdiction_id=fakecity.gov")
+                    .header("Authorization", "Bearer token.text.here"), DistrictDTO[].class);
+            assertEquals(1L, districts.getBody().get()[0].getRequestCounts().get("open"));
+        } finally {
+            client.toBlocking().exchange(HttpRequest.DELETE(
+                    "/jurisdiction-admin/districts/" + districtId + "?jurisdiction_id=fakecity.gov")
+                .header("Authorization", "Bearer token.text.here"));
+        }
+    }
+
+    @Test
+    public void tilesFilteredByDistrictFollowARetag() throws InterruptedException {
+        authLogin();
+        HttpResponse<?> response = createSidewalkServiceRequest("12345 Fairway",
+            Map.of("attribute[" + savedSDA.getId() + "]", sidewalkAttrIdMap.get("Cracked")), "fakecity.gov");
+        assertEquals(OK, response.getStatus());
+
+        // south of the request
+        CreateDistrictDTO districtDTO = new CreateDistrictDTO();
+        districtDTO.setName("Ward 3");
+        districtDTO.setBounds(new Double[][]{
+            new Double[]{38.40, -90.45},
+            new Double[]{38.35, -90.40},
+            new Double[]{38.40, -90.35},
+            new Double[]{38.45, -90.40},
+            new Double[]{38.40, -90.45},
+        });
+        Long districtId = client.toBlocking().exchange(
+            HttpRequest.POST("/jurisdiction-admin/districts?jurisdiction_id=fakecity.gov", districtDTO)
+                .header("Authorization", "Bearer token.text.here"), DistrictDTO.class).getBody().get().getId();
+        // the zoom 12 tile IN_BOUNDS_COORDINATE is on
+        String tile = "/tiles/12/1020/1569.mvt?jurisdiction_id=fakecity.gov&district_id=" + districtId;
+        assertEquals(0, getTileLength(tile));
+
+        // reshaped to cover the request, which the retag then moves into it
+        PatchDistrictDTO patchDistrictDTO = new PatchDistrictDTO();
+        patchDistrictDTO.setBounds(DEFAULT_BOUNDS);
+        client.toBlocking().exchange(
+            HttpRequest.PATCH("/jurisdiction-admin/districts/" + districtId + "?jurisdiction_id=fakecity.gov",
+                patchDistrictDTO).header("Authorization", "Bearer token.text.here"), DistrictDTO.class);
+        int length = 0;
+        for (int attempt = 0; attempt < 50 && length == 0; attempt++) {
+            Thread.sleep(100);
+            length = getTileLength(tile);
+        }
+        assertTrue(length > 0);
+
+        // deleting the district untags the request
+        client.toBlocking().exchange(HttpRequest.DELETE(
+                "/jurisdiction-admin/districts/" + districtId + "?jurisdiction_id=fakecity.gov")
+            .header("Authorization", "Bearer token.text.here"));
+        for (int attempt = 0; attempt < 50 && length > 0; attempt++) {
+            Thread.sleep(100);
+            length = getTileLength(tile);
+        }
+        assertEquals(0, length);
+    }
+
+    @Test
+    public void canNotifySubscribersOfNewServiceRequestsInTheirArea() throws InterruptedException {
+        authLogin();
+        mockNotificationSender.clear();
+
+        CreateSubscriptionDTO nearby = new CreateSubscriptionDTO();
+        nearby.setEmail("neighbor@test.io");
+        nearby.setLatitude(IN_BOUNDS_COORDINATE.getY() + 0.001);
+        nearby.setLongitude(IN_BOUNDS_COORDINATE.getX());
+        nearby.setRadiusMeters(500.0);
+        HttpResponse<SubscriptionDTO> subscriptionResponse = client.toBlocking().exchange(
+            HttpRequest.POST("/jurisdiction-admin/subscriptions?jurisdiction_id=fakecity.gov", nearby)
+                .header("Authorization", "Bearer token.text.here"), SubscriptionDTO.class);
+        assertEquals(OK, subscriptionResponse.getStatus());
+        Long nearbyId = subscriptionResponse.getBody().get().getId();
+
+        // about 1km away
+        CreateSubscriptionDTO faraway = new CreateSubscriptionDTO();
+        faraway.setEmail("faraway@test.io");
+        faraway.setLatitude(IN_BOUNDS_COORDINATE.getY() + 0.01);
+        faraway.setLongitude(IN_BOUNDS_COORDINATE.getX());
+        faraway.setRadiusMeters(500.0);
+        client.toBlocking().exchange(
+            HttpRequest.POST("/jurisdiction-admin/subscriptions?jurisdiction_id=fakecity.gov", faraway)
+                .header("Authorization", "Bearer token.text.here"), SubscriptionDTO.class);
+
+        CreateSubscriptionDTO sidewalks = new CreateSubscriptionDTO();
+        sidewalks.setEmail("council@test.io");
+        sidewalks.setBounds(DEFAULT_BOUNDS);
+        sidewalks.setServiceCodes(List.of(sidewalkService.getId()));
+        subscriptionResponse = client.toBlocking().exchange(
+            HttpRequest.POST("/jurisdiction-admin/subscriptions?jurisdiction_id=fakecity.gov", sidewalks)
+                .header("Authorization", "Bearer token.text.here"), SubscriptionDTO.class);
+        assertEquals(List.of(sidewalkService.getId()), subscriptionResponse.getBody().get().getServiceCodes());
+        Long sidewalksId = subscriptionResponse.getBody().get().getId();
+
+        HttpResponse<?> response = createSidewalkServiceRequest("12345 Fairway",
+            Map.of("attribute[" + savedSDA.getId() + "]", sidewalkAttrIdMap.get("Cracked")), "fakecity.gov");
+        assertEquals(OK, response.getStatus());
+
+        Set<Long> notified = new HashSet<>();
+        notified.add(mockNotificationSender.next().getSubscriptionId());
+        notified.add(mockNotificationSender.next().getSubscriptionId());
+        assertEquals(Set.of(nearbyId, sidewalksId), notified);
+        assertNull(mockNotificationSender.next());
+
+        HttpResponse<SubscriptionDTO[]> subscriptions = client.toBlocking().exchange(
+            HttpRequest.GET("/jurisdiction-admin/subscriptions?jurisdiction_id=fakecity.gov")
+                .header("Authorization", "Bearer token.text.here"), SubscriptionDTO[].class);
+        assertEquals(3, subscriptions.getBody().get().length);
+
+        // a subscription needs an area
+        CreateSubscriptionDTO arealess = new CreateSubscriptionDTO();
+        arealess.setEmail("nowhere@test.io");
+        HttpClientResponseException exception = assertThrowsExactly(HttpClientResponseException.class, () ->
+            client.toBlocking().exchange(
+                HttpRequest.POST("/jurisdiction-admin/subscriptions?jurisdiction_id=fakecity.gov", arealess)
+                    .header("Authorization", "Bearer token.text.here"), SubscriptionDTO.class));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+    @Test
+    public void residentSubscriptionsTakeEffectOnceConfirmed() throws InterruptedException {
+        mockNotificationSender.clear();
+
+        CreateSubscriptionDTO nearby = new CreateSubscriptionDTO();
+        nearby.setEmail("resident@test.io");
+        nearby.setLatitude(IN_BOUNDS_COORDINATE.getY());
+        nearby.setLongitude(IN_BOUNDS_COORDINATE.getX());
+        nearby.setRadiusMeters(500.0);
+        nearby.setgRecaptchaResponse("abc");
+        HttpResponse<SubscriptionDTO> subscriptionResponse = client.toBlocking().exchange(
+            HttpRequest.POST("/subscriptions?jurisdiction_id=fakecity.gov", nearby), SubscriptionDTO.class);
+        assertEquals(OK, subscriptionResponse.getStatus());
+        Long subscriptionId = subscriptionResponse.getBody().get().getId();
+        assertFalse(subscriptionResponse.getBody().get().isConfirmed());
+
+        SubscriptionConfirmation confirmation = mockNotificationSender.nextConfirmation();
+        assertNotNull(confirmation);
+        assertEquals(subscriptionId, confirmation.getSubscriptionId());
+
+        // nothing is sent before the email is confirmed
+        HttpResponse<?> response = createSidewalkServiceRequest("12345 Fairway",
+            Map.of("attribute[" + savedSDA.getId() + "]", sidewalkAttrIdMap.get("Cracked")), "fakecity.gov");
+        assertEquals(OK, response.getStatus());
+        assertNull(mockNotificationSender.next());
+
+        subscriptionResponse = client.toBlocking().exchange(
+            HttpRequest.POST("/subscriptions/confirm?token=" + confirmation.getToken(), Map.of()),
+            SubscriptionDTO.class);
+        assertTrue(subscriptionResponse.getBody().get().isConfirmed());
+
+        response = createSidewalkServiceRequest("12345 Fairway",
+            Map.of("attribute[" + savedSDA.getId() + "]", sidewalkAttrIdMap.get("Too narrow")), "fakecity.gov");
+        assertEquals(OK, response.getStatus());
+        Notification notification = mockNotificationSender.next();
+        assertEquals(subscriptionId, notification.getSubscriptionId());
+        assertEquals(confirmation.getToken(), notification.getUnsubscribeToken());
+
+        // the same token cancels the subscription
+        HttpResponse<?> deleted = client.toBlocking().exchange(
+            HttpRequest.DELETE("/subscriptions?token=" + confirmation.getToken()));
+        assertEquals(OK, deleted.getStatus());
+        response = createSidewalkServiceRequest("12345 Fairway",
+            Map.of("attribute[" + savedSDA.getId() + "]", sidewalkAttrIdMap.get("Cracked")), "fakecity.gov");
+        assertEquals(OK, response.getStatus());
+        assertNull(mockNotificationSender.next());
+
+        HttpClientResponseException exception = assertThrowsExactly(HttpClientResponseException.class, () ->
+            client.toBlocking().exchange(HttpRequest.DELETE("/subscriptions?token=" + confirmation.getToken())));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+    }
+
+    @Test
+    public void canPlanACrewRouteThroughOpenServiceRequests() {
+        HttpResponse<?> response = createSidewalkServiceRequest("12345 Nearway",
+            Map.of("attribute["+savedSDA.getId()+"]", sidewalkAttrIdMap.get("Cracked")), "fakecity.gov");
+        assertEquals(OK, response.getStatus());
+        response = createSidewalkServiceRequest("6789 Faraway",
+            Map.of("attribute["+savedSDA.getId()+"]", sidewalkAttrIdMap.get("Too narrow")), "fakecity.gov");
+        assertEquals(OK, response.getStatus());
+
+        authLogin();
+
+        // the depot is about 1km north of the requests
+        HttpResponse<RouteDTO> routeResponse = client.toBlocking().exchange(HttpRequest.GET(
+                "/jurisdiction-admin/requests/route?jurisdiction_id=fakecity.gov&service_code=" + sidewalkService.getId()
+                    + "&lat=" + (IN_BOUNDS_COORDINATE.getY() + 0.009) + "&long=" + IN_BOUNDS_COORDINATE.getX())
+            .header("Authorization", "Bearer token.text.here"), RouteDTO.class);
+        assertEquals(OK, routeResponse.getStatus());
+        assertTrue(routeResponse.getBody().isPresent());
+        RouteDTO route = routeResponse.getBody().get();
+        assertEquals(2, route.getStops().size());
+        assertEquals(1000, route.getStops().get(0).getDistanceMeters(), 10);
+        assertEquals(2000, route.getDistanceMeters(), 20);
+
+        routeResponse = client.toBlocking().exchange(HttpRequest.GET(
+                "/jurisdiction-admin/requests/route?jurisdiction_id=fakecity.gov&status=closed&lat=38.6&long=-90.3")
+            .header("Authorization", "Bearer token.text.here"), RouteDTO.class);
+        assertTrue(routeResponse.getBody().isPresent());
+        assertTrue(routeResponse.getBody().get().getStops().isEmpty());
+    }
+
+    @Test
+    public void canViewHotspotsOfServiceRequests() {
+        // as many requests at the same location as a hotspot needs
+        for (int i = 0; i < 5; i++) {
+            HttpResponse<?> response = createSidewalkServiceRequest("12345 Nearway",
+                Map.of("attribute["+savedSDA.getId()+"]", sidewalkAttrIdMap.get("Cracked")), "fakecity.gov");
+            assertEquals(OK, response.getStatus());
+        }
+        hotspotDetector.detect("fakecity.gov");
+
+        authLogin();
+
+        HttpResponse<HotspotDTO[]> hotspotsResponse = client.toBlocking().exchange(HttpRequest.GET(
+                "/jurisdiction-admin/requests/hotspots?jurisdiction_id=fakecity.gov&service_code=" + sidewalkService.getId())
+            .header("Authorization", "Bearer token.text.here"), HotspotDTO[].class);
+        assertEquals(OK, hotspotsResponse.getStatus());
+        assertTrue(hotspotsResponse.getBody().isPresent());
+        HotspotDTO[] hotspots = hotspotsResponse.getBody().get();
+        assertEquals(1, hotspots.length);
+        assertEquals(sidewalkService.getId(), hotspots[0].getServiceCode());
+        assertEquals(5, hotspots[0].getRequestCount());
+        assertEquals(IN_BOUNDS_COORDINATE.getY(), hotspots[0].getLatitude(), 1e-6);
+        assertEquals(IN_BOUNDS_COORDINATE.getX(), hotspots[0].getLongitude(), 1e-6);
+        assertEquals(0, hotspots[0].getRadiusMeters(), 1);
+
+        hotspotsResponse = client.toBlocking().exchange(HttpRequest.GET(
+                "/jurisdiction-admin/requests/hotspots?jurisdiction_id=fakecity.gov&service_code=" + (sidewalkService.getId() + 1))
+            .header("Authorization", "Bearer token.text.here"), HotspotDTO[].class);
+        assertTrue(hotspotsResponse.getBody().isPresent());
+        assertEquals(0, hotspotsResponse.getBody().get().length);
+    }
+
+    @Test
+    public void canViewSpikesInTheNumberOfNewServiceRequests() {
+        // a cell without any earlier requests spikes with as many as a spike needs
+        for (int i = 0; i < 5; i++) {
+            HttpResponse<?> response = createSidewalkServiceRequest("12345 Nearway",
+                Map.of("attribute["+savedSDA.getId()+"]", sidewalkAttrIdMap.get("Cracked")), "fakecity.gov");
+            assertEquals(OK, response.getStatus());
+        }
+
+        authLogin();
+
+        HttpResponse<SpikeAlertDTO[]> spikesResponse = client.toBlocking().exchange(HttpRequest.GET(
+                "/jurisdiction-admin/requests/spikes?jurisdiction_id=fakecity.gov")
+            .header("Authorization", "Bearer token.text.here"), SpikeAlertDTO[].class);
+        assertEquals(OK, spikesResponse.getStatus());
+        assertTrue(spikesResponse.getBody().isPresent());
+        SpikeAlertDTO[] spikes = spikesResponse.getBody().get();
+        assertEquals(1, spikes.length);
+        assertEquals(sidewalkService.getId(), spikes[0].getServiceCode());
+        assertEquals(5, spikes[0].getRequestCount());
+        assertEquals(0, spikes[0].getExpectedCount(), 1e-9);
+        assertEquals(IN_BOUNDS_COORDINATE.getY(), spikes[0].getLatitude(), 0.003);
+        assertEquals(IN_BOUNDS_COORDINATE.getX(), spikes[0].getLongitude(), 0.003);
+        assertTrue(spikes[0].getWindowStart().isBefore(spikes[0].getWindowEnd()));
+    }
+
+    @Test
+    public void canViewHeatmapOfServiceRequests() {
+        HttpResponse<?> response = createSidewalkServiceRequest("12345 Nearway",
+            Map.of("attribute["+savedSDA.getId()+"]", sidewalkAttrIdMap.get("Cracked")), "fakecity.gov");
+        assertEquals(OK, response.getStatus());
+        response = createSidewalkServiceRequest("12345 Nearway",
+            Map.of("attribute["+savedSDA.getId()+"]", sidewalkAttrIdMap.get("Too narrow")), "fakecity.gov");
+        assertEquals(OK, response.getStatus());
+
+        authLogin();
+
+        HttpResponse<HeatmapDTO> heatmapResponse = client.toBlocking().exchange(HttpRequest.GET(
+                "/jurisdiction-admin/requests/heatmap?jurisdiction_id=fakecity.gov&zoom=10&service_code=" + sidewalkService.getId())
+            .header("Authorization", "Bearer token.text.here"), HeatmapDTO.class);
+        assertEquals(OK, heatmapResponse.getStatus());
+        assertTrue(heatmapResponse.getBody().isPresent());
+        HeatmapDTO heatmap = heatmapResponse.getBody().get();
+        assertEquals(10, heatmap.getZoom());
+        // both requests are at the same location, so they share a cell
+        assertEquals(3, heatmap.getCells().length);
+        assertEquals(2, heatmap.getCells()[2]);
+
+        heatmapResponse = client.toBlocking().exchange(HttpRequest.GET(
+                "/jurisdiction-admin/requests/heatmap?jurisdiction_id=fakecity.gov&status=closed")
+            .header("Authorization", "Bearer token.text.here"), HeatmapDTO.class);
+        assertTrue(heatmapResponse.getBody().isPresent());
+        assertEquals(0, heatmapResponse.getBody().get().getCells().length);
+    }
+
     @Test
     public void canDownloadCSVFile() throws IOException {
         HttpResponse<?> response;
@@ -847,6 +1384,12 @@ public class JurisdictionAdminControllerTest  {
         return client.toBlocking().exchange(request, GroupDTO[].class);
     }
 
+    // the stored order of each of the group's services, as written to its row
+    private Map<Long, String> orderRows(Long groupId) {
+        return serviceRepository.findAllByServiceGroupId(groupId, ServiceRepository.RANK_ORDER).stream()
+            .collect(Collectors.toMap(Service::getId, service -> service.getOrderRank() + "/" + service.getOrderPosition()));
+    }
+
     private HttpResponse<?> createService(String name, String jurisdictionId, Long groupId) {
         return createService(name, jurisdictionId, groupId, null);
     }
@@ -871,6 +1414,12 @@ public class JurisdictionAdminControllerTest  {
         return client.toBlocking().exchange(request, ServiceDefinitionDTO.class);
     }
 
+    private int getTileLength(String uri) {
+        HttpResponse<byte[]> response = client.toBlocking().exchange(HttpRequest.GET(uri), byte[].class);
+        assertEquals(OK, response.getStatus());
+        return response.getBody().map(body -> body.length).orElse(0);
+    }
+
     private HttpResponse<?> createSidewalkServiceRequest(String address, Map attributes,
                                                          String jurisdictionId) {
 
@@ -0,0 +1,229 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app;
+
+import app.dto.map.MapClusterDTO;
+import app.dto.map.MapRequestDTO;
+import app.dto.servicerequest.PostRequestServiceRequestDTO;
+import app.model.jurisdiction.Jurisdiction;
+import app.model.jurisdiction.JurisdictionRepository;
+import app.model.service.Service;
+import app.model.service.ServiceRepository;
+import app.model.service.ServiceType;
+import app.model.service.group.ServiceGroup;
+import app.model.service.group.ServiceGroupRepository;
+import app.model.servicerequest.ServiceRequest;
+import app.model.servicerequest.ServiceRequestRepository;
+import app.model.servicerequest.ServiceRequestStatus;
+import app.service.geometry.LibreGeometryFactory;
+import app.service.jurisdiction.JurisdictionBoundaryService;
+import app.service.map.ActiveRequestIndex;
+import app.service.map.TileService;
+import app.util.DbCleanup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static app.util.JurisdictionBoundaryUtil.DEFAULT_BOUNDS;
+import static app.util.JurisdictionBoundaryUtil.IN_BOUNDS_COORDINATE;
+import static io.micronaut.http.HttpStatus.BAD_REQUEST;
+import static io.micronaut.http.HttpStatus.OK;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@MicronautTest(transactional = false)
+public class MapControllerTest {
+
+    // a viewport around IN_BOUNDS_COORDINATE, as west,south,east,north
+    private static final String VIEWPORT = "-90.3,38.68,-90.29,38.69";
+    private static final String OTHER_VIEWPORT = "-90.5,38.5,-90.4,38.6";
+    // the zoom 12 tile IN_BOUNDS_COORDINATE is on
+    private static final String TILE = "/tiles/12/1020/1569.mvt?jurisdiction_id=city.gov";
+
+    @Inject
+    @Client("/api")
+    HttpClient client;
+
+    @Inject
+    JurisdictionRepository jurisdictionRepository;
+
+    @Inject
+    JurisdictionBoundaryService jurisdictionBoundaryService;
+
+    @Inject
+    ServiceGroupRepository serviceGroupRepository;
+
+    @Inject
+    ServiceRepository serviceRepository;
+
+    @Inject
+    ServiceRequestRepository serviceRequestRepository;
+
+    @Inject
+    ActiveRequestIndex activeRequestIndex;
+
+    @Inject
+    LibreGeometryFactory libreGeometryFactory;
+
+    @Inject
+    DbCleanup dbCleanup;
+
+    private Jurisdiction city;
+    private Service potholeService;
+
+    @BeforeEach
+    void setup() {
+        city = jurisdictionRepository.save(new Jurisdiction("city.gov", 1L));
+        jurisdictionBoundaryService.saveBoundary(city, DEFAULT_BOUNDS);
+
+        ServiceGroup roads = serviceGroupRepository.save(new ServiceGroup("Roads", city));
+        Service service = new Service("Pothole");
+        service.setType(ServiceType.REALTIME);
+        service.setJurisdiction(city);
+        service.setServiceGroup(roads);
+        potholeService = serviceRepository.save(service);
+    }
+
+    @AfterEach
+    void teardown() {
+        dbCleanup.cleanupAll();
+    }
+
+    @Test
+    public void returnsSubmittedRequestsWithinTheViewport() {
+        createServiceRequest();
+
+        MapRequestDTO[] requests = getMapRequests(VIEWPORT, "");
+        assertEquals(1, requests.length);
+        assertEquals(potholeService.getId(), requests[0].getServiceCode());
+        assertEquals(ServiceRequestStatus.OPEN, requests[0].getStatus());
+        assertEquals(IN_BOUNDS_COORDINATE.getY(), requests[0].getLatitude(), 1e-9);
+        assertEquals(IN_BOUNDS_COORDINATE.getX(), requests[0].getLongitude(), 1e-9);
+
+        assertEquals(0, getMapRequests(OTHER_VIEWPORT, "").length);
+        assertEquals(0, getMapRequests(VIEWPORT, "&service_code=" + (potholeService.getId() + 1)).length);
+    }
+
+    @Test
+    public void rebuildsFromTheActiveRequestsInTheDatabase() {
+        saveServiceRequest(ServiceRequestStatus.IN_PROGRESS);
+        saveServiceRequest(ServiceRequestStatus.CLOSED);
+
+        assertEquals(0, getMapRequests(VIEWPORT, "").length);
+
+        activeRequestIndex.rebuild();
+        MapRequestDTO[] requests = getMapRequests(VIEWPORT, "");
+        assertEquals(1, requests.length);
+        assertEquals(ServiceRequestStatus.IN_PROGRESS, requests[0].getStatus());
+    }
+
+    @Test
+    public void clustersRequestsByZoom() {
+        createServiceRequest();
+        createServiceRequest();
+
+        HttpResponse<MapClusterDTO[]> response = client.toBlocking().exchange(
+            HttpRequest.GET("/map/clusters?jurisdiction_id=city.gov&zoom=10&bbox=" + VIEWPORT),
+            MapClusterDTO[].class);
+        assertEquals(OK, response.getStatus());
+        assertTrue(response.getBody().isPresent());
+        MapClusterDTO[] clusters = response.getBody().get();
+        assertEquals(1, clusters.length);
+        assertEquals(2, clusters[0].getCount());
+        assertEquals(potholeService.getId(), clusters[0].getServiceCode());
+        assertEquals(IN_BOUNDS_COORDINATE.getY(), clusters[0].getLatitude(), 1e-9);
+
+        HttpClientResponseException exception = assertThrows(HttpClientResponseException.class,
+            () -> client.toBlocking().exchange(
+                HttpRequest.GET("/map/clusters?jurisdiction_id=city.gov&zoom=40&bbox=" + VIEWPORT)));
+        assertEquals(BAD_REQUEST, exception.getStatus());
+    }
+
+    @Test
+    public void tilesAreInvalidatedWhenARequestIsCreatedOnThem() {
+        assertEquals(0, getTile(TILE).length);
+
+        createServiceRequest();
+        byte[] tile = getTile(TILE);
+        assertTrue(tile.length > 0);
+        assertTrue(new String(tile, StandardCharsets.UTF_8).contains(TileService.LAYER_NAME));
+
+        assertEquals(0, getTile(TILE + "&status=closed").length);
+        assertEquals(0, getTile("/tiles/12/1021/1569.mvt?jurisdiction_id=city.gov").length);
+
+        HttpClientResponseException exception = assertThrows(HttpClientResponseException.class,
+            () -> getTile("/tiles/2/4/0.mvt?jurisdiction_id=city.gov"));
+        assertEquals(BAD_REQUEST, exception.getStatus());
+    }
+
+    @Test
+    public void rejectsAnInvalidBoundingBox() {
+        HttpClientResponseException exception = assertThrows(HttpClientResponseException.class,
+            () -> getMapRequests("-90.29,38.68,-90.3", ""));
+        assertEquals(BAD_REQUEST, exception.getStatus());
+
+        exception = assertThrows(HttpClientResponseException.class,
+            () -> getMapRequests("-90.29,38.69,-90.3,38.68", ""));
+        assertEquals(BAD_REQUEST, exception.getStatus());
+    }
+
+    private MapRequestDTO[] getMapRequests(String bbox, String parameters) {
+        HttpResponse<MapRequestDTO[]> response = client.toBlocking().exchange(
+            HttpRequest.GET("/map/requests?jurisdiction_id=city.gov&bbox=" + bbox + parameters),
+            MapRequestDTO[].class);
+        assertEquals(OK, response.getStatus());
+        assertTrue(response.getBody().isPresent());
+        return response.getBody().get();
+    }
+
+    private byte[] getTile(String uri) {
+        HttpResponse<byte[]> response = client.toBlocking().exchange(HttpRequest.GET(uri), byte[].class);
+        assertEquals(OK, response.getStatus());
+        return response.getBody().orElse(new byte[0]);
+    }
+
+    private void createServiceRequest() {
+        PostRequestServiceRequestDTO serviceRequestDTO = new PostRequestServiceRequestDTO(potholeService.getId());
+        serviceRequestDTO.setgRecaptchaResponse("abc");
+        serviceRequestDTO.setLongitude(String.valueOf(IN_BOUNDS_COORDINATE.getX()));
+        serviceRequestDTO.setLatitude(String.valueOf(IN_BOUNDS_COORDINATE.getY()));
+        Map payload = new ObjectMapper().convertValue(serviceRequestDTO, Map.class);
+        HttpResponse<?> response = client.toBlocking().exchange(
+            HttpRequest.POST("/requests?jurisdiction_id=city.gov", payload)
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED), Map.class);
+        assertEquals(OK, response.getStatus());
+    }
+
+    private void saveServiceRequest(ServiceRequestStatus status) {
+        ServiceRequest serviceRequest = new ServiceRequest();
+        serviceRequest.setJurisdiction(city);
+        serviceRequest.setService(potholeService);
+        serviceRequest.setStatus(status);
+        serviceRequest.setLocation(libreGeometryFactory.createPoint(IN_BOUNDS_COORDINATE));
+        serviceRequestRepository.save(serviceRequest);
+    }
+}
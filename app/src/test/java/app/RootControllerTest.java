@@ -42,6 +42,8 @@ import app.model.servicerequest.ServiceRequestRepository;
 import app.model.servicerequest.ServiceRequestStatus;
 import app.security.HasPermissionResponse;
 import app.security.Permission;
+import app.service.geocoding.AddressPoints;
+import app.service.geocoding.AddressLookup;
 import app.service.geometry.LibreGeometryFactory;
 import app.service.jurisdiction.JurisdictionBoundaryService;
 import app.util.DbCleanup;
@@ -115,6 +117,9 @@ public class RootControllerTest {
     @Inject
     LibreGeometryFactory libreGeometryFactory;
 
+    @Inject
+    AddressLookup addressLookup;
+
     private Service sidewalkService;
     private Service bikeLaneService;
     private Service townOtherService;
@@ -438,6 +443,70 @@ public class RootControllerTest {
     }
 
     // list + read
+    @Test
+    public void canFillInTheNearestAddressOfServiceRequests() {
+        HttpResponse<?> response = createServiceRequest(townOtherService.getId(), null, Map.of(), "town.gov");
+        assertEquals(HttpStatus.OK, response.getStatus());
+        Long storedId = response.getBody(PostResponseServiceRequestDTO[].class).get()[0].getId();
+        assertNull(serviceRequestRepository.findById(storedId).get().getAddressString());
+
+        // one address about 10m from the submitted location, another about 1km away
+        addressLookup.load("town.gov", AddressPoints.builder()
+            .add(IN_BOUNDS_COORDINATE.getY() + 0.0001, IN_BOUNDS_COORDINATE.getX(), "1 Main St", "A-1", "63101")
+            .add(IN_BOUNDS_COORDINATE.getY() + 0.009, IN_BOUNDS_COORDINATE.getX(), "900 Main St", "A-900", "63101")
+            .build());
+        try {
+            assertEquals(1, addressLookup.backfill("town.gov"));
+            ServiceRequest stored = serviceRequestRepository.findById(storedId).get();
+            assertEquals("1 Main St", stored.getAddressString());
+            assertEquals("A-1", stored.getAddressId());
+            assertEquals("63101", stored.getZipCode());
+
+            response = createServiceRequest(townOtherService.getId(), null, Map.of(), "town.gov");
+            assertEquals(HttpStatus.OK, response.getStatus());
+            Long submittedId = response.getBody(PostResponseServiceRequestDTO[].class).get()[0].getId();
+            assertEquals("1 Main St", serviceRequestRepository.findById(submittedId).get().getAddressString());
+
+            // a submitted address is kept
+            response = createServiceRequest(townOtherService.getId(), "12345 Fairway", Map.of(), "town.gov");
+            assertEquals(HttpStatus.OK, response.getStatus());
+            Long addressedId = response.getBody(PostResponseServiceRequestDTO[].class).get()[0].getId();
+            assertEquals("12345 Fairway", serviceRequestRepository.findById(addressedId).get().getAddressString());
+        } finally {
+            addressLookup.remove("town.gov");
+        }
+    }
+
+    @Test
+    public void canAutocompleteAddresses() {
+        addressLookup.load("town.gov", AddressPoints.builder()
+            .add(IN_BOUNDS_COORDINATE.getY(), IN_BOUNDS_COORDINATE.getX(), "1 Main St", "A-1", "63101")
+            .add(IN_BOUNDS_COORDINATE.getY(), IN_BOUNDS_COORDINATE.getX(), "10 Main St", "A-10", "63101")
+            .add(IN_BOUNDS_COORDINATE.getY(), IN_BOUNDS_COORDINATE.getX(), "1 Oak Ave", "A-2", null)
+            .build());
+        try {
+            HttpResponse<List<Map>> response = client.toBlocking().exchange(
+                "/addresses/autocomplete?jurisdiction_id=town.gov&q=main", Argument.listOf(Map.class));
+            assertEquals(HttpStatus.OK, response.getStatus());
+            List<Map> addresses = response.body();
+            assertEquals(2, addresses.size());
+            assertEquals("1 Main St", addresses.get(0).get("address"));
+            assertEquals("A-1", addresses.get(0).get("address_id"));
+            assertEquals(IN_BOUNDS_COORDINATE.getY(), ((Number) addresses.get(0).get("lat")).doubleValue());
+
+            response = client.toBlocking().exchange(
+                "/addresses/autocomplete?jurisdiction_id=town.gov&q=1&limit=1", Argument.listOf(Map.class));
+            assertEquals(1, response.body().size());
+
+            // a jurisdiction without an address dataset has no suggestions
+            response = client.toBlocking().exchange(
+                "/addresses/autocomplete?jurisdiction_id=city.gov&q=main", Argument.listOf(Map.class));
+            assertTrue(response.body().isEmpty());
+        } finally {
+            addressLookup.remove("town.gov");
+        }
+    }
+
     @Test
     public void canListServicesByJurisdictionId() {
         HttpResponse<?> response;
@@ -469,6 +538,31 @@ public class RootControllerTest {
         assertTrue(StringUtils.hasText(serviceDefinition));
     }
 
+    @Test
+    public void servicesAreNotResentToClientsThatAlreadyHaveThem() {
+        HttpResponse<?> response = client.toBlocking().exchange("/services?jurisdiction_id=city.gov", ServiceDTO[].class);
+        assertEquals(HttpStatus.OK, response.status());
+        String entityTag = response.getHeaders().get("ETag");
+        assertNotNull(entityTag);
+
+        response = client.toBlocking().exchange(HttpRequest.GET("/services?jurisdiction_id=city.gov")
+            .header("If-None-Match", entityTag), String.class);
+        assertEquals(HttpStatus.NOT_MODIFIED, response.status());
+        assertEquals(entityTag, response.getHeaders().get("ETag"));
+        assertTrue(response.getBody(String.class).isEmpty());
+
+        // the XML list is a different representation
+        response = client.toBlocking().exchange(HttpRequest.GET("/services.xml?jurisdiction_id=city.gov")
+            .header("If-None-Match", entityTag), String.class);
+        assertEquals(HttpStatus.OK, response.status());
+        assertNotEquals(entityTag, response.getHeaders().get("ETag"));
+
+        response = client.toBlocking().exchange(HttpRequest.GET("/services/" + sidewalkService.getId() + "?jurisdiction_id=city.gov")
+            .header("If-None-Match", entityTag), String.class);
+        assertEquals(HttpStatus.OK, response.status());
+        assertNotEquals(entityTag, response.getHeaders().get("ETag"));
+    }
+
     @Test
     public void canListServiceRequestsByJurisdiction() {
         HttpResponse<?> response;
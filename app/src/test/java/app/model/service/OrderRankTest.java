@@ -0,0 +1,70 @@
+package app.model.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderRankTest {
+
+    @Test
+    void positionKeysOrderAsThePositionsDo() {
+        int[] positions = {Integer.MIN_VALUE, -1000, -1, 0, 1, 2, 9, 10, 35, 36, 1000, Integer.MAX_VALUE};
+        for (int i = 1; i < positions.length; i++) {
+            String lower = OrderRank.ofPosition(positions[i - 1]);
+            String upper = OrderRank.ofPosition(positions[i]);
+            assertTrue(lower.compareTo(upper) < 0, lower + " < " + upper);
+            assertEquals(8, upper.length());
+        }
+        assertEquals("0000000I", OrderRank.ofPosition(Integer.MIN_VALUE));
+        assertEquals("0ZIK0ZJI", OrderRank.ofPosition(-1));
+        assertEquals("0ZIK0ZKI", OrderRank.ofPosition(0));
+    }
+
+    @Test
+    void makesShortKeysBetweenOthers() {
+        assertEquals("I", OrderRank.between(null, null));
+        assertEquals("R", OrderRank.between("I", null));
+        assertEquals("9", OrderRank.between(null, "I"));
+        assertEquals("0ZR", OrderRank.between("0ZIK0ZKI", "1"));
+        assertEquals("0ZIK0ZKD", OrderRank.between("0ZIK0ZK9", "0ZIK0ZKI"));
+        assertEquals("0I", OrderRank.between(null, "1"));
+        assertEquals("00I", OrderRank.between(null, "01"));
+        assertEquals("AI", OrderRank.between("A", "B"));
+    }
+
+    @Test
+    void rejectsKeysOutOfOrder() {
+        assertThrows(IllegalArgumentException.class, () -> OrderRank.between("B", "A"));
+        assertThrows(IllegalArgumentException.class, () -> OrderRank.between("A", "A"));
+    }
+
+    @Test
+    void keepsOrderOverManyInsertions() {
+        Random random = new Random(311);
+        List<String> keys = new ArrayList<>(List.of(OrderRank.ofPosition(0), OrderRank.ofPosition(1)));
+        for (int i = 0; i < 5000; i++) {
+            int index = random.nextInt(keys.size() + 1);
+            String before = index == 0 ? null : keys.get(index - 1);
+            String after = index == keys.size() ? null : keys.get(index);
+            String key = OrderRank.between(before, after);
+
+            assertFalse(key.endsWith("0"), key);
+            assertTrue(before == null || before.compareTo(key) < 0, before + " < " + key);
+            assertTrue(after == null || key.compareTo(after) < 0, key + " < " + after);
+            keys.add(index, key);
+        }
+    }
+
+    @Test
+    void keysGrowSlowlyWhenAlwaysInsertingAtTheSameEnd() {
+        String key = OrderRank.ofPosition(0);
+        for (int i = 0; i < 100; i++) {
+            key = OrderRank.between(null, key);
+        }
+        assertTrue(key.length() < 24, key);
+    }
+}
@@ -0,0 +1,57 @@
+package app.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.security.GradientConcurrencyLimiter.Priority;
+import org.junit.jupiter.api.Test;
+
+class GradientConcurrencyLimiterTest {
+
+    @Test
+    void shedsAnonymousReadsBeforeWritesAndAdmin() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(10, 1, 100, 0.5, 0.8);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(Priority.ANONYMOUS_READ));
+        }
+        assertFalse(limiter.tryAcquire(Priority.ANONYMOUS_READ));
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire(Priority.WRITE));
+        }
+        assertFalse(limiter.tryAcquire(Priority.WRITE));
+
+        assertTrue(limiter.tryAcquire(Priority.ADMIN));
+        assertTrue(limiter.tryAcquire(Priority.ADMIN));
+        assertFalse(limiter.tryAcquire(Priority.ADMIN));
+        assertEquals(10, limiter.getInFlight());
+    }
+
+    @Test
+    void shrinksWhenLatencyRisesAndGrowsWhenItRecovers() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(20, 5, 100, 1.0, 1.0);
+        saturate(limiter, 1_000_000L, 200);
+        int healthyLimit = limiter.getLimit();
+
+        saturate(limiter, 50_000_000L, 20);
+        int degradedLimit = limiter.getLimit();
+        assertTrue(degradedLimit < healthyLimit);
+
+        saturate(limiter, 1_000_000L, 400);
+        assertTrue(limiter.getLimit() > degradedLimit);
+    }
+
+    private static void saturate(GradientConcurrencyLimiter limiter, long rttNanos, int rounds) {
+        for (int i = 0; i < rounds; i++) {
+            int admitted = 0;
+            while (limiter.tryAcquire(Priority.ADMIN)) {
+                admitted++;
+            }
+            for (int j = 0; j < admitted; j++) {
+                limiter.release(rttNanos);
+            }
+        }
+    }
+}
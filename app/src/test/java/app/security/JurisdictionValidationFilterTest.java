@@ -0,0 +1,122 @@
+package app.security;
+
+import app.dto.service.ServiceDTO;
+import app.model.jurisdiction.Jurisdiction;
+import app.model.jurisdiction.JurisdictionRepository;
+import app.model.service.Service;
+import app.model.service.ServiceRepository;
+import app.model.service.ServiceType;
+import app.model.service.group.ServiceGroup;
+import app.model.service.group.ServiceGroupRepository;
+import app.service.jurisdiction.JurisdictionBoundaryService;
+import app.util.DbCleanup;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static app.util.JurisdictionBoundaryUtil.DEFAULT_BOUNDS;
+import static app.util.JurisdictionBoundaryUtil.IN_BOUNDS_COORDINATE;
+import static io.micronaut.http.HttpStatus.BAD_REQUEST;
+import static io.micronaut.http.HttpStatus.NOT_FOUND;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@MicronautTest(transactional = false)
+public class JurisdictionValidationFilterTest {
+
+    // a square around Kansas City, away from DEFAULT_BOUNDS (format [lat, lng])
+    private static final Double[][] VILLAGE_BOUNDS = new Double[][]{
+        new Double[]{39.0, -95.0},
+        new Double[]{39.0, -94.5},
+        new Double[]{39.3, -94.5},
+        new Double[]{39.3, -95.0},
+        new Double[]{39.0, -95.0},
+    };
+    private static final String IN_VILLAGE = "lat=39.129514523061744&long=-94.74894776569042";
+    private static final String IN_CITY_AND_TOWN = "lat=" + IN_BOUNDS_COORDINATE.getY() + "&long=" + IN_BOUNDS_COORDINATE.getX();
+    private static final String NOWHERE = "lat=0.5&long=0.5";
+
+    @Inject
+    @Client("/api")
+    HttpClient client;
+
+    @Inject
+    JurisdictionRepository jurisdictionRepository;
+
+    @Inject
+    JurisdictionBoundaryService jurisdictionBoundaryService;
+
+    @Inject
+    ServiceGroupRepository serviceGroupRepository;
+
+    @Inject
+    ServiceRepository serviceRepository;
+
+    @Inject
+    DbCleanup dbCleanup;
+
+    private Service villageService;
+
+    @BeforeEach
+    void setup() {
+        Jurisdiction city = jurisdictionRepository.save(new Jurisdiction("city.gov", 1L));
+        jurisdictionBoundaryService.saveBoundary(city, DEFAULT_BOUNDS);
+        Jurisdiction town = jurisdictionRepository.save(new Jurisdiction("town.gov", 2L));
+        jurisdictionBoundaryService.saveBoundary(town, DEFAULT_BOUNDS);
+        Jurisdiction village = jurisdictionRepository.save(new Jurisdiction("village.gov", 3L));
+        jurisdictionBoundaryService.saveBoundary(village, VILLAGE_BOUNDS);
+
+        ServiceGroup group = serviceGroupRepository.save(new ServiceGroup("Roads", village));
+        Service service = new Service("Pothole");
+        service.setType(ServiceType.REALTIME);
+        service.setJurisdiction(village);
+        service.setServiceGroup(group);
+        villageService = serviceRepository.save(service);
+    }
+
+    @AfterEach
+    void teardown() {
+        dbCleanup.cleanupAll();
+    }
+
+    @Test
+    public void resolvesTheJurisdictionCoveringTheLocation() {
+        HttpResponse<ServiceDTO[]> response = client.toBlocking().exchange("/services?" + IN_VILLAGE, ServiceDTO[].class);
+
+        assertEquals(HttpStatus.OK, response.status());
+        ServiceDTO[] services = response.body();
+        assertEquals(1, services.length);
+        assertEquals(villageService.getId(), services[0].getId());
+    }
+
+    @Test
+    public void rejectsALocationInSeveralJurisdictions() {
+        HttpClientResponseException thrown = assertThrows(HttpClientResponseException.class, () ->
+            client.toBlocking().exchange("/services?" + IN_CITY_AND_TOWN, ServiceDTO[].class));
+
+        assertEquals(BAD_REQUEST, thrown.getStatus());
+    }
+
+    @Test
+    public void rejectsALocationInNoJurisdiction() {
+        HttpClientResponseException thrown = assertThrows(HttpClientResponseException.class, () ->
+            client.toBlocking().exchange("/services?" + NOWHERE, ServiceDTO[].class));
+
+        assertEquals(NOT_FOUND, thrown.getStatus());
+    }
+
+    @Test
+    public void onlyResolvesLocationsOnThePublicListings() {
+        HttpClientResponseException thrown = assertThrows(HttpClientResponseException.class, () ->
+            client.toBlocking().exchange("/services/" + villageService.getId() + "?" + IN_VILLAGE, ServiceDTO.class));
+
+        assertEquals(BAD_REQUEST, thrown.getStatus());
+    }
+}
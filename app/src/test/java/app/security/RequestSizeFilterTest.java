@@ -0,0 +1,50 @@
+package app.security;
+
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import static io.micronaut.http.HttpStatus.REQUEST_ENTITY_TOO_LARGE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@MicronautTest
+@Property(name = "app.max-request-size", value = "1000")
+public class RequestSizeFilterTest {
+
+    private static final byte[] LARGE_BODY = new byte[2000];
+
+    @Inject
+    @Client("/api")
+    HttpClient client;
+
+    @Test
+    public void rejectsLargeBodiesOnOrdinaryRoutes() {
+        HttpRequest<?> request = HttpRequest.POST("/requests?jurisdiction_id=city.gov", LARGE_BODY)
+            .contentType(MediaType.APPLICATION_FORM_URLENCODED);
+
+        HttpClientResponseException thrown = assertThrows(HttpClientResponseException.class, () ->
+            client.toBlocking().exchange(request));
+
+        assertEquals(REQUEST_ENTITY_TOO_LARGE, thrown.getStatus());
+    }
+
+    @Test
+    public void letsLargeBoundaryImportsThrough() {
+        HttpRequest<?> request = HttpRequest.PUT("/tenant-admin/jurisdictions/city.gov/boundary?tenant_id=1", LARGE_BODY)
+            .contentType("application/geo+json");
+
+        // rejected further on, as the caller isn't signed in
+        HttpClientResponseException thrown = assertThrows(HttpClientResponseException.class, () ->
+            client.toBlocking().exchange(request));
+
+        assertNotEquals(REQUEST_ENTITY_TOO_LARGE, thrown.getStatus());
+    }
+}
@@ -0,0 +1,82 @@
+package app.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketRateLimiterTest {
+
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    private final AtomicLong clock = new AtomicLong(123 * SECOND);
+    private final TokenBucketRateLimiter limiter =
+        new TokenBucketRateLimiter(3, Duration.ofSeconds(1), clock::get);
+
+    @Test
+    void allowsBurstUpToCapacity() {
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(0, limiter.tryAcquire("a"));
+
+        long wait = limiter.tryAcquire("a");
+        assertEquals(SECOND, wait);
+    }
+
+    @Test
+    void refillsOneTokenPerPeriod() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("a");
+        }
+
+        clock.addAndGet(SECOND);
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a") > 0);
+    }
+
+    @Test
+    void keysAreIndependent() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("a");
+        }
+
+        assertTrue(limiter.tryAcquire("a") > 0);
+        assertEquals(0, limiter.tryAcquire("b"));
+    }
+
+    @Test
+    void evictsOnlyFullyRefilledBuckets() {
+        limiter.tryAcquire("a");
+        clock.addAndGet(SECOND / 2);
+        limiter.tryAcquire("b");
+
+        clock.addAndGet(SECOND / 2);
+        assertEquals(1, limiter.evictIdle());
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    void peekingNeitherTakesTokensNorTracksKeys() {
+        assertEquals(0, limiter.peek("a"));
+        assertEquals(0, limiter.size());
+
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("a");
+        }
+        assertEquals(SECOND, limiter.peek("a"));
+        assertEquals(SECOND, limiter.peek("a"));
+    }
+
+    @Test
+    void refundedTokensCanBeTakenAgain() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("a");
+        }
+
+        limiter.refund("a");
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a") > 0);
+    }
+}
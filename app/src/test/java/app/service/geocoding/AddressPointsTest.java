@@ -0,0 +1,69 @@
+package app.service.geocoding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import app.service.geometry.GeoDistance;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class AddressPointsTest {
+
+    // the tree measures distances on a plane scaled to the dataset's mean latitude, so it may pick a
+    // different one of two addresses at almost the same distance than a great-circle scan would
+    @Test
+    void findsTheNearestAddressFoundByAScan() {
+        Random random = new Random(42);
+        int size = 5000;
+        double[] lats = new double[size];
+        double[] lngs = new double[size];
+        AddressPoints.Builder builder = AddressPoints.builder();
+        for (int i = 0; i < size; i++) {
+            lats[i] = 38.55 + random.nextDouble() * 0.2;
+            lngs[i] = -90.35 + random.nextDouble() * 0.25;
+            builder.add(lats[i], lngs[i], "address " + i, String.valueOf(i), null);
+        }
+        AddressPoints addresses = builder.build();
+
+        for (int query = 0; query < 500; query++) {
+            double lat = 38.55 + random.nextDouble() * 0.2;
+            double lng = -90.35 + random.nextDouble() * 0.25;
+            double nearestMeters = Double.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                double meters = GeoDistance.haversineMeters(lat, lng, lats[i], lngs[i]);
+                nearestMeters = Math.min(nearestMeters, meters);
+            }
+
+            Address found = addresses.findNearest(lat, lng, 10_000);
+            assertEquals(nearestMeters, GeoDistance.haversineMeters(lat, lng, found.getLat(), found.getLng()), 0.5);
+        }
+    }
+
+    @Test
+    void findsNothingBeyondTheMaximumDistance() {
+        AddressPoints addresses = AddressPoints.builder()
+            .add(38.6270, -90.1994, "1 Market St", "1", "63101")
+            .build();
+
+        assertEquals("1 Market St", addresses.findNearest(38.6271, -90.1994, 100).getAddressString());
+        assertNull(addresses.findNearest(38.6370, -90.1994, 100));
+        assertNull(AddressPoints.builder().build().findNearest(38.6270, -90.1994, 100));
+    }
+
+    @Test
+    void readsCsvAddresses() throws IOException {
+        String csv = "Address,Address_ID,ZipCode,Lat,Long\n"
+            + "1 Market St,A-1,63101,38.6270,-90.1994\n"
+            + "2 Market St,A-2,not a zip,38.6280,-90.1994\n"
+            + "No Location St,A-3,63101,,\n";
+        AddressPoints addresses = AddressFileReader.readCsv(new StringReader(csv));
+        assertEquals(2, addresses.size());
+
+        Address second = addresses.findNearest(38.6280, -90.1994, 10);
+        assertEquals("2 Market St", second.getAddressString());
+        assertEquals("A-2", second.getAddressId());
+        assertNull(second.getZipCode());
+    }
+}
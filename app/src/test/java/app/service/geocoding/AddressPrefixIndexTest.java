@@ -0,0 +1,75 @@
+package app.service.geocoding;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class AddressPrefixIndexTest {
+
+    private static final AddressPoints ADDRESSES = AddressPoints.builder()
+        .add(38.6270, -90.1994, "1 Market St", "A-1", null)
+        .add(38.6271, -90.1995, "10 Market St", "A-10", null)
+        .add(38.6272, -90.1996, "12 N. Tucker Blvd", "A-12", null)
+        .add(38.6273, -90.1997, "100 Market Street", "A-100", null)
+        .add(38.6274, -90.1998, "5 Marketplace Dr", "A-5", null)
+        .build();
+
+    private static final AddressPrefixIndex INDEX = AddressPrefixIndex.of(ADDRESSES);
+
+    @Test
+    void matchesTheStartOfTheAddressOrOfAnyWord() {
+        assertEquals(
+            List.of("1 Market St", "10 Market St", "100 Market Street", "12 N. Tucker Blvd"),
+            addresses(INDEX.find("1", 10)));
+        assertEquals(
+            List.of("1 Market St", "10 Market St", "100 Market Street"),
+            addresses(INDEX.find("market s", 10)));
+        assertEquals(List.of("12 N. Tucker Blvd"), addresses(INDEX.find("n tuck", 10)));
+        assertEquals(List.of("5 Marketplace Dr"), addresses(INDEX.find("MARKETP", 10)));
+    }
+
+    @Test
+    void listsEachAddressOnceUpToTheLimit() {
+        // "100 Market Street" matches at "st" and "street"
+        assertEquals(List.of("1 Market St", "10 Market St", "100 Market Street"),
+            addresses(INDEX.find("st", 10)));
+        assertEquals(2, INDEX.find("market", 2).length);
+    }
+
+    @Test
+    void findsNothingForAnUnknownOrEmptyPrefix() {
+        assertArrayEquals(new int[0], INDEX.find("zz", 10));
+        assertArrayEquals(new int[0], INDEX.find(" ,. ", 10));
+        assertArrayEquals(new int[0], INDEX.find("markets", 10));
+    }
+
+    @Test
+    void ordersTheMatchesOfALargerDataset() {
+        AddressPoints.Builder builder = AddressPoints.builder();
+        for (int i = 999; i >= 0; i--) {
+            builder.add(38.6, -90.2, i + " Olive St", "O-" + i, null);
+        }
+        AddressPoints addresses = builder.build();
+        AddressPrefixIndex index = AddressPrefixIndex.of(addresses);
+
+        int[] found = index.find("olive", 1000);
+        assertEquals(1000, found.length);
+        for (int i = 1; i < found.length; i++) {
+            String previous = addresses.getAddressString(found[i - 1]);
+            String current = addresses.getAddressString(found[i]);
+            assertTrue(previous.compareTo(current) < 0, previous + " before " + current);
+        }
+    }
+
+    private static List<String> addresses(int[] found) {
+        List<String> addresses = new ArrayList<>();
+        for (int index : found) {
+            addresses.add(ADDRESSES.getAddressString(index));
+        }
+        return addresses;
+    }
+}
@@ -0,0 +1,49 @@
+package app.service.geometry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Polygon;
+
+class GeoJsonBoundaryReaderTest {
+
+    private final GeoJsonBoundaryReader reader = new GeoJsonBoundaryReader(new LibreGeometryFactory());
+
+    @Test
+    void readsPolygonsAndHolesFromAFeatureCollection() {
+        MultiPolygon boundary = reader.read(stream("{\"type\": \"FeatureCollection\", \"features\": ["
+            + "{\"type\": \"Feature\", \"properties\": {\"name\": \"a\", \"coordinates\": null}, \"geometry\": "
+            + "{\"type\": \"Polygon\", \"coordinates\": [[[0, 0], [10, 0], [10, 10], [0, 10], [0, 0]],"
+            + " [[2, 2, 5], [4, 2, 5], [4, 4, 5], [2, 2, 5]]]}},"
+            + "{\"type\": \"Feature\", \"geometry\": {\"type\": \"Point\", \"coordinates\": [1, 1]}},"
+            + "{\"type\": \"Feature\", \"geometry\": {\"type\": \"MultiPolygon\", \"coordinates\": ["
+            + "[[[20, 20], [21, 20], [21, 21], [20, 20]]],"
+            + "[[[30, 30], [31, 30], [31, 31], [30, 30]]]]}}"
+            + "]}"));
+
+        assertEquals(3, boundary.getNumGeometries());
+        Polygon first = (Polygon) boundary.getGeometryN(0);
+        assertEquals(1, first.getNumInteriorRing());
+        assertEquals(98.0, first.getArea());
+        assertEquals(20.0, boundary.getGeometryN(1).getCoordinate().x);
+    }
+
+    @Test
+    void rejectsInvalidGeoJson() {
+        assertThrows(GeoJsonBoundaryReader.InvalidGeoJsonException.class,
+            () -> reader.read(stream("{\"type\": \"Point\", \"coordinates\": [1, 1]}")));
+        assertThrows(GeoJsonBoundaryReader.InvalidGeoJsonException.class,
+            () -> reader.read(stream("{\"type\": \"Polygon\", \"coordinates\": [[[0, 0], [1, 0], [1, 1], [0, 1]]]}")));
+        assertThrows(GeoJsonBoundaryReader.InvalidGeoJsonException.class,
+            () -> reader.read(stream("{\"type\": \"Polygon\", \"coordinates\": [[[0, 0], [1, 0]")));
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,47 @@
+package app.service.geometry;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
+
+class PolylineCodecTest {
+
+    private static final double[] LAT_LNG = {38.5, -120.2, 40.7, -120.95, 43.252, -126.453};
+    private static final String ENCODED = "_izlhA~rlgdF_{geC~ywl@_kwzCn`{nI";
+
+    @Test
+    void encodesAtSixDecimalPlaces() {
+        assertEquals(ENCODED, PolylineCodec.encode(LAT_LNG));
+        assertArrayEquals(LAT_LNG, PolylineCodec.decode(ENCODED), 1e-9);
+    }
+
+    @Test
+    void encodesCoordinateSequencesInLatLngOrder() {
+        PackedCoordinateSequence.Double sequence = PolylineCodec.decodeSequence(ENCODED);
+
+        assertEquals(3, sequence.size());
+        assertEquals(-120.2, sequence.getX(0), 1e-9);
+        assertEquals(38.5, sequence.getY(0), 1e-9);
+        assertEquals(ENCODED, PolylineCodec.encode(sequence));
+    }
+
+    @Test
+    void roundsToSixDecimalPlacesWithoutDrift() {
+        double[] latLng = {-89.9999994, 179.9999996, 0.0000004, -0.0000006, 38.6270251, -90.1994042};
+        double[] decoded = PolylineCodec.decode(PolylineCodec.encode(latLng));
+
+        for (int i = 0; i < latLng.length; i++) {
+            assertEquals(latLng[i], decoded[i], 0.5e-6);
+        }
+    }
+
+    @Test
+    void rejectsMalformedPolylines() {
+        assertThrows(LibreGeometryFactory.InvalidCoordinateException.class, () -> PolylineCodec.decode("_izlhA"));
+        assertThrows(LibreGeometryFactory.InvalidCoordinateException.class, () -> PolylineCodec.decode("_izlh"));
+        assertThrows(LibreGeometryFactory.InvalidCoordinateException.class, () -> PolylineCodec.decode("_izlhA ~rlgdF"));
+    }
+}
@@ -0,0 +1,103 @@
+package app.service.hotspot;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class DbscanTest {
+
+    private static final double METERS_PER_DEGREE = Math.toRadians(1) * 6_371_008.8;
+
+    @Test
+    void separatesDenseClustersFromNoise() {
+        double[] lats = {38.6, 38.6001, 38.6002, 38.6001, 38.62, 38.6201, 38.6202, 38.65};
+        double[] lngs = {-90.3, -90.3001, -90.3, -90.3002, -90.31, -90.31, -90.3101, -90.3};
+
+        int[] labels = new Dbscan(lats, lngs, 50, 3).cluster();
+
+        assertArrayEquals(new int[]{0, 0, 0, 0, 1, 1, 1, Dbscan.NOISE}, labels);
+    }
+
+    @Test
+    void matchesAScanOfEveryPair() {
+        Random random = new Random(5);
+        int n = 3000;
+        double[] lats = new double[n];
+        double[] lngs = new double[n];
+        for (int i = 0; i < n; i++) {
+            // a few dense blocks over a sparse background
+            if (i % 3 == 0) {
+                lats[i] = 38.5 + random.nextDouble() * 0.2;
+                lngs[i] = -90.4 + random.nextDouble() * 0.2;
+            } else {
+                int block = random.nextInt(10);
+                lats[i] = 38.5 + block * 0.02 + random.nextGaussian() * 0.0005;
+                lngs[i] = -90.4 + block * 0.015 + random.nextGaussian() * 0.0005;
+            }
+        }
+        double eps = 60;
+        int minPoints = 5;
+
+        int[] labels = new Dbscan(lats, lngs, eps, minPoints).cluster();
+
+        boolean[][] within = withinEps(lats, lngs, eps);
+        boolean[] core = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            int count = 0;
+            for (int j = 0; j < n; j++) {
+                count += within[i][j] ? 1 : 0;
+            }
+            core[i] = count >= minPoints;
+        }
+
+        for (int i = 0; i < n; i++) {
+            boolean nearCore = false;
+            for (int j = 0; j < n; j++) {
+                if (within[i][j] && core[j]) {
+                    nearCore = true;
+                    // core points within eps of each other share a cluster
+                    if (core[i]) {
+                        assertEquals(labels[j], labels[i]);
+                    }
+                }
+            }
+            // a border point joins the cluster of one of its core neighbours, others are noise
+            assertEquals(!nearCore, labels[i] == Dbscan.NOISE);
+            if (nearCore && !core[i]) {
+                boolean joinsANeighbour = false;
+                for (int j = 0; j < n; j++) {
+                    joinsANeighbour |= within[i][j] && core[j] && labels[j] == labels[i];
+                }
+                assertTrue(joinsANeighbour);
+            }
+        }
+
+        int clusters = 0;
+        for (int label : labels) {
+            clusters = Math.max(clusters, label + 1);
+        }
+        assertNotEquals(0, clusters);
+    }
+
+    private static boolean[][] withinEps(double[] lats, double[] lngs, double eps) {
+        int n = lats.length;
+        double meanLat = 0;
+        for (double lat : lats) {
+            meanLat += lat / n;
+        }
+        double cosLat = Math.cos(Math.toRadians(meanLat));
+        boolean[][] within = new boolean[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                double dx = (lngs[i] - lngs[j]) * cosLat * METERS_PER_DEGREE;
+                double dy = (lats[i] - lats[j]) * METERS_PER_DEGREE;
+                within[i][j] = dx * dx + dy * dy <= eps * eps;
+            }
+        }
+        return within;
+    }
+}
@@ -2,20 +2,26 @@ package app.service.jurisdiction;
 
 
 import static app.util.JurisdictionBoundaryUtil.DEFAULT_BOUNDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import app.model.jurisdiction.BoundaryDetail;
 import app.model.jurisdiction.Jurisdiction;
 import app.model.jurisdiction.JurisdictionBoundary;
+import app.model.jurisdiction.JurisdictionBoundaryEntity;
 import app.model.jurisdiction.JurisdictionBoundaryRepository;
 import app.model.jurisdiction.JurisdictionRepository;
+import app.service.geometry.LibreGeometryFactory;
 import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.MultiPolygon;
 
 @MicronautTest
 class JurisdictionBoundaryServiceTest  {
@@ -27,6 +33,10 @@ class JurisdictionBoundaryServiceTest  {
     JurisdictionBoundaryService jurisdictionBoundaryService;
     @Inject
     JurisdictionBoundaryRepository jurisdictionBoundaryRepository;
+    @Inject
+    JurisdictionLocator jurisdictionLocator;
+    @Inject
+    LibreGeometryFactory libreGeometryFactory;
 
     Jurisdiction savedJurisdiction;
 
@@ -75,4 +85,66 @@ class JurisdictionBoundaryServiceTest  {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    void containmentFollowsUpdatedBoundary() {
+        jurisdictionBoundaryService.saveBoundary(savedJurisdiction, DEFAULT_BOUNDS);
+        Double[][] elsewhere = new Double[][]{new Double[]{39.0, -95.0},
+            new Double[]{39.0, -94.5}, new Double[]{39.3, -94.5},
+            new Double[]{39.3, -95.0}, new Double[]{39.0, -95.0}};
+
+        jurisdictionBoundaryService.updateBoundary(savedJurisdiction, elsewhere);
+
+        assertTrue(jurisdictionBoundaryService.existsInJurisdiction(savedJurisdiction.getId(),
+            39.129514523061744, -94.74894776569042));
+        assertFalse(jurisdictionBoundaryService.existsInJurisdiction(savedJurisdiction.getId(),
+            38.689033913397765, -90.29517238194957));
+    }
+
+    @Test
+    void locatesJurisdictionsCoveringPoint() {
+        jurisdictionBoundaryService.saveBoundary(savedJurisdiction, DEFAULT_BOUNDS);
+
+        assertTrue(jurisdictionLocator.findJurisdictionIds(38.689033913397765, -90.29517238194957)
+            .contains(savedJurisdiction.getId()));
+        assertFalse(jurisdictionLocator.findJurisdictionIds(39.129514523061744, -94.74894776569042)
+            .contains(savedJurisdiction.getId()));
+    }
+
+    @Test
+    void storesSimplifiedBoundariesAndChecksContainmentAtFullDetail() {
+        // a circle of radius 0.3 degrees with 2000 vertices
+        int vertices = 2000;
+        Double[][] circle = new Double[vertices + 1][];
+        for (int i = 0; i < vertices; i++) {
+            double angle = 2 * Math.PI * i / vertices;
+            circle[i] = new Double[]{38.6 + 0.3 * Math.sin(angle), -90.3 + 0.3 * Math.cos(angle)};
+        }
+        circle[vertices] = circle[0];
+        jurisdictionBoundaryService.saveBoundary(savedJurisdiction, circle);
+
+        MultiPolygon full = jurisdictionBoundaryService.findBoundary(savedJurisdiction.getId(), BoundaryDetail.FULL);
+        MultiPolygon medium = jurisdictionBoundaryService.findBoundary(savedJurisdiction.getId(), BoundaryDetail.MEDIUM);
+        MultiPolygon low = jurisdictionBoundaryService.findBoundary(savedJurisdiction.getId(), BoundaryDetail.LOW);
+        assertEquals(vertices + 1, full.getNumPoints());
+        assertTrue(medium.getNumPoints() < full.getNumPoints());
+        assertTrue(low.getNumPoints() < medium.getNumPoints());
+
+        // just inside the full boundary, between two vertices
+        double angle = 2 * Math.PI * 0.5 / vertices;
+        assertTrue(jurisdictionBoundaryService.existsInJurisdiction(savedJurisdiction.getId(),
+            38.6 + 0.2999 * Math.sin(angle), -90.3 + 0.2999 * Math.cos(angle)));
+    }
+
+    @Test
+    void readsBoundariesWithoutSimplifyingThemAndBackfillsAtStartup() {
+        MultiPolygon full = libreGeometryFactory.createMultiPolygon(DEFAULT_BOUNDS);
+        jurisdictionBoundaryRepository.save(JurisdictionBoundaryEntity.from(savedJurisdiction.getId(), full));
+
+        assertEquals(full, jurisdictionBoundaryService.findBoundary(savedJurisdiction.getId(), BoundaryDetail.LOW));
+        assertNull(jurisdictionBoundaryRepository.findByJurisdictionId(savedJurisdiction.getId()).getBoundary(BoundaryDetail.LOW));
+
+        jurisdictionBoundaryService.backfillSimplifiedBoundaries();
+
+        assertNotNull(jurisdictionBoundaryRepository.findByJurisdictionId(savedJurisdiction.getId()).getBoundary(BoundaryDetail.LOW));
+    }
+}
@@ -0,0 +1,70 @@
+package app.service.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.model.servicerequest.ServiceRequestStatus;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+
+class RequestClustersTest {
+
+    private static final Envelope ST_LOUIS = new Envelope(-90.9, -89.8, 38.2, 39.1);
+
+    @Test
+    void mergesNearbyRequestsWhenZoomedOut() {
+        RequestClusters clusters = new RequestClusters();
+        clusters.add(request(1, 10, 38.6270, -90.1994));
+        clusters.add(request(2, 10, 38.6280, -90.1990));
+        clusters.add(request(3, 20, 38.6290, -90.1980));
+        clusters.add(request(4, 20, 38.7000, -90.3000));
+
+        List<RequestCluster> cityWide = clusters.findWithin(ST_LOUIS, 8);
+        assertEquals(1, cityWide.size());
+        assertEquals(4, cityWide.get(0).getCount());
+        assertEquals(10, cityWide.get(0).getDominantServiceId());
+
+        List<RequestCluster> streetLevel = clusters.findWithin(ST_LOUIS, 16);
+        assertEquals(4, streetLevel.size());
+    }
+
+    @Test
+    void clustersAreUpdatedAsRequestsAreRemoved() {
+        RequestClusters clusters = new RequestClusters();
+        ActiveRequest first = request(1, 10, 38.6270, -90.1994);
+        ActiveRequest second = request(2, 20, 38.6280, -90.1990);
+        clusters.add(first);
+        clusters.add(second);
+
+        clusters.remove(first);
+        List<RequestCluster> found = clusters.findWithin(ST_LOUIS, 10);
+        assertEquals(1, found.size());
+        assertEquals(1, found.get(0).getCount());
+        assertEquals(20, found.get(0).getDominantServiceId());
+        assertEquals(38.6280, found.get(0).getLat(), 1e-9);
+        assertEquals(-90.1990, found.get(0).getLng(), 1e-9);
+
+        clusters.remove(second);
+        for (int zoom = 0; zoom <= RequestClusters.MAX_ZOOM; zoom++) {
+            assertTrue(clusters.findWithin(ST_LOUIS, zoom).isEmpty());
+        }
+    }
+
+    @Test
+    void onlyReturnsClustersInTheViewport() {
+        RequestClusters clusters = new RequestClusters();
+        clusters.add(request(1, 10, 38.6270, -90.1994));
+        clusters.add(request(2, 10, 40.7128, -74.0060));
+
+        assertEquals(1, clusters.findWithin(ST_LOUIS, 12).size());
+        int worldCount = clusters.findWithin(new Envelope(-180, 180, -85, 85), 0).stream()
+            .mapToInt(RequestCluster::getCount)
+            .sum();
+        assertEquals(2, worldCount);
+    }
+
+    private static ActiveRequest request(long id, long serviceId, double lat, double lng) {
+        return new ActiveRequest(id, serviceId, ServiceRequestStatus.OPEN, null, lat, lng);
+    }
+}
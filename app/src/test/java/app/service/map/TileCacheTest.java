@@ -0,0 +1,107 @@
+package app.service.map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import app.service.map.TileCache.TileAddress;
+import app.service.map.TileCache.TileKey;
+import org.junit.jupiter.api.Test;
+
+class TileCacheTest {
+
+    private static final TileAddress ADDRESS = new TileAddress("city.gov", 12, 1020, 1569);
+    private static final TileAddress NEIGHBOUR = new TileAddress("city.gov", 12, 1021, 1569);
+    private static final TileAddress COUNTY = new TileAddress("county.gov", 12, 1020, 1569);
+
+    @Test
+    void evictsTheLeastRecentlyUsedTilesOverTheSizeLimit() {
+        TileCache cache = new TileCache(20);
+        TileKey first = new TileKey(ADDRESS, "all");
+        TileKey second = new TileKey(ADDRESS, "open");
+        TileKey third = new TileKey(NEIGHBOUR, "all");
+
+        cache.put(first, new byte[8], cache.getVersion());
+        cache.put(second, new byte[8], cache.getVersion());
+        cache.get(first);
+        cache.put(third, new byte[8], cache.getVersion());
+
+        assertArrayEquals(new byte[8], cache.get(first));
+        assertNull(cache.get(second));
+        assertArrayEquals(new byte[8], cache.get(third));
+    }
+
+    @Test
+    void invalidatesEveryFilterOfAnAddress() {
+        TileCache cache = new TileCache(1000);
+        TileKey all = new TileKey(ADDRESS, "all");
+        TileKey open = new TileKey(ADDRESS, "open");
+        TileKey neighbour = new TileKey(NEIGHBOUR, "all");
+        cache.put(all, new byte[1], cache.getVersion());
+        cache.put(open, new byte[1], cache.getVersion());
+        cache.put(neighbour, new byte[1], cache.getVersion());
+
+        cache.invalidate(ADDRESS);
+
+        assertNull(cache.get(all));
+        assertNull(cache.get(open));
+        assertArrayEquals(new byte[1], cache.get(neighbour));
+    }
+
+    @Test
+    void doesNotStoreTilesRenderedBeforeAnInvalidation() {
+        TileCache cache = new TileCache(1000);
+        TileKey key = new TileKey(ADDRESS, "all");
+
+        long version = cache.getVersion();
+        cache.invalidate(NEIGHBOUR);
+        cache.put(key, new byte[1], version);
+
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    void invalidationsOnlyAffectTheirJurisdiction() {
+        TileCache cache = new TileCache(1000);
+        TileKey cached = new TileKey(COUNTY, "all");
+        TileKey rendering = new TileKey(new TileAddress("county.gov", 12, 1021, 1569), "all");
+        cache.put(cached, new byte[1], cache.getVersion());
+
+        long version = cache.getVersion();
+        cache.invalidate(ADDRESS);
+        cache.put(rendering, new byte[1], version);
+
+        assertArrayEquals(new byte[1], cache.get(cached));
+        assertArrayEquals(new byte[1], cache.get(rendering));
+    }
+
+    @Test
+    void invalidatesEveryTileOfAJurisdiction() {
+        TileCache cache = new TileCache(1000);
+        TileKey key = new TileKey(ADDRESS, "all");
+        TileKey neighbour = new TileKey(NEIGHBOUR, "district");
+        TileKey county = new TileKey(COUNTY, "district");
+        cache.put(key, new byte[1], cache.getVersion());
+        cache.put(neighbour, new byte[1], cache.getVersion());
+        cache.put(county, new byte[1], cache.getVersion());
+
+        long version = cache.getVersion();
+        cache.invalidate("city.gov");
+        cache.put(key, new byte[1], version);
+
+        assertNull(cache.get(key));
+        assertNull(cache.get(neighbour));
+        assertArrayEquals(new byte[1], cache.get(county));
+    }
+
+    @Test
+    void doesNotStoreTilesRenderedBeforeAClear() {
+        TileCache cache = new TileCache(1000);
+        TileKey key = new TileKey(COUNTY, "all");
+
+        long version = cache.getVersion();
+        cache.clear();
+        cache.put(key, new byte[1], version);
+
+        assertNull(cache.get(key));
+    }
+}
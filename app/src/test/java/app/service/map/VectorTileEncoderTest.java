@@ -0,0 +1,42 @@
+package app.service.map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class VectorTileEncoderTest {
+
+    @Test
+    void encodesAnEmptyTileAsNoBytes() {
+        assertEquals(0, new VectorTileEncoder("requests").encode().length);
+    }
+
+    @Test
+    void encodesPointFeaturesWithSharedKeysAndValues() {
+        VectorTileEncoder encoder = new VectorTileEncoder("r");
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("s", "open");
+        attributes.put("p", null);
+        encoder.addPoint(1, 2, -1, attributes);
+        encoder.addPoint(2, 4096, 0, attributes);
+
+        byte[] expected = {
+            // tile.layers, 50 bytes
+            0x1a, 50,
+            // layer.version = 2, layer.name = "r"
+            0x78, 2, 0x0a, 1, 'r',
+            // feature: id 1, tags [0, 0], type point, geometry MoveTo(2, -1)
+            0x12, 13, 0x08, 1, 0x12, 2, 0, 0, 0x18, 1, 0x22, 3, 9, 4, 1,
+            // feature: id 2, tags [0, 0], type point, geometry MoveTo(4096, 0)
+            0x12, 14, 0x08, 2, 0x12, 2, 0, 0, 0x18, 1, 0x22, 4, 9, (byte) 0x80, 0x40, 0,
+            // layer.keys = ["s"], layer.values = [{string_value: "open"}]
+            0x1a, 1, 's', 0x22, 6, 0x0a, 4, 'o', 'p', 'e', 'n',
+            // layer.extent = 4096
+            0x28, (byte) 0x80, 0x20
+        };
+        assertArrayEquals(expected, encoder.encode());
+    }
+}
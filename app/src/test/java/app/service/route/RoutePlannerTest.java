@@ -0,0 +1,104 @@
+package app.service.route;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class RoutePlannerTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void findsTheShortestRoundTripThroughAFewStops() {
+        Random random = new Random(7);
+        for (int size = 1; size <= 9; size++) {
+            RoutePlanner planner = randomPlanner(random, size, 0.1);
+            int[] tour = planner.plan(executor, 2, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50));
+            assertVisitsEveryStopOnce(tour, size);
+            assertEquals(shortestRoundTrip(planner, size), planner.length(tour), 1e-6);
+        }
+    }
+
+    @Test
+    void plansHundredsOfStopsWithinTheDeadline() {
+        RoutePlanner planner = randomPlanner(new Random(11), 500, 0.3);
+        int[] greedy = planner.plan(executor, 1, System.nanoTime());
+
+        long start = System.nanoTime();
+        int[] tour = planner.plan(executor, 2, start + TimeUnit.MILLISECONDS.toNanos(300));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+
+        assertVisitsEveryStopOnce(tour, 500);
+        assertTrue(planner.length(tour) < planner.length(greedy));
+    }
+
+    @Test
+    void settlesOnALocalOptimumBeforeALongDeadline() {
+        RoutePlanner planner = randomPlanner(new Random(13), 20, 0.1);
+
+        long start = System.nanoTime();
+        int[] tour = planner.plan(executor, 2, start + TimeUnit.SECONDS.toNanos(30));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+
+        assertVisitsEveryStopOnce(tour, 20);
+    }
+
+    private static RoutePlanner randomPlanner(Random random, int size, double spanDegrees) {
+        double[] lats = new double[size];
+        double[] lngs = new double[size];
+        for (int i = 0; i < size; i++) {
+            lats[i] = 38.55 + random.nextDouble() * spanDegrees;
+            lngs[i] = -90.35 + random.nextDouble() * spanDegrees;
+        }
+        return new RoutePlanner(lats, lngs);
+    }
+
+    private static void assertVisitsEveryStopOnce(int[] tour, int size) {
+        assertEquals(size, tour.length);
+        assertEquals(0, tour[0]);
+        boolean[] visited = new boolean[size];
+        for (int stop : tour) {
+            assertTrue(!visited[stop]);
+            visited[stop] = true;
+        }
+    }
+
+    private static double shortestRoundTrip(RoutePlanner planner, int size) {
+        int[] tour = new int[size];
+        for (int i = 0; i < size; i++) {
+            tour[i] = i;
+        }
+        return shortest(planner, tour, 1);
+    }
+
+    // every ordering of the stops after the depot
+    private static double shortest(RoutePlanner planner, int[] tour, int position) {
+        if (position >= tour.length - 1) {
+            return planner.length(tour);
+        }
+        double shortest = Double.MAX_VALUE;
+        for (int i = position; i < tour.length; i++) {
+            swap(tour, position, i);
+            shortest = Math.min(shortest, shortest(planner, tour, position + 1));
+            swap(tour, position, i);
+        }
+        return shortest;
+    }
+
+    private static void swap(int[] tour, int i, int j) {
+        int swap = tour[i];
+        tour[i] = tour[j];
+        tour[j] = swap;
+    }
+}
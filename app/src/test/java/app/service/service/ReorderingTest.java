@@ -0,0 +1,54 @@
+package app.service.service;
+
+import app.model.service.OrderRank;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReorderingTest {
+
+    @Test
+    void movesTheGivenItemsAmongTheirOwnPlaces() {
+        assertEquals(List.of(1L, 2L, 3L), Reordering.order(List.of(3L, 2L, 1L), Map.of(1L, 0, 2L, 1, 3L, 2)));
+        assertEquals(List.of(3L, 2L, 1L, 4L), Reordering.order(List.of(1L, 2L, 3L, 4L), Map.of(1L, 5, 3L, 0)));
+    }
+
+    @Test
+    void movingOneItemRewritesOnlyItsRank() {
+        List<String> ranks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ranks.add(OrderRank.ofPosition(i));
+        }
+        // the last item moved to the front
+        ranks.add(0, ranks.remove(9));
+
+        String[] newRanks = Reordering.newRanks(ranks);
+
+        assertEquals(1, Arrays.stream(newRanks).filter(rank -> rank != null).count());
+        assertTrue(newRanks[0].compareTo(ranks.get(1)) < 0);
+    }
+
+    @Test
+    void givesEveryItemARankInTheNewOrder() {
+        List<String> ranks = Arrays.asList(
+            OrderRank.ofPosition(4), OrderRank.ofPosition(1), null, OrderRank.ofPosition(2),
+            OrderRank.ofPosition(0), OrderRank.ofPosition(3));
+
+        String[] newRanks = Reordering.newRanks(ranks);
+
+        String previous = null;
+        for (int i = 0; i < ranks.size(); i++) {
+            String rank = newRanks[i] != null ? newRanks[i] : ranks.get(i);
+            assertNotNull(rank);
+            assertTrue(previous == null || previous.compareTo(rank) < 0, previous + " < " + rank);
+            previous = rank;
+        }
+        // 1, 2, 3 keep their ranks
+        assertEquals(3, Arrays.stream(newRanks).filter(rank -> rank == null).count());
+    }
+}
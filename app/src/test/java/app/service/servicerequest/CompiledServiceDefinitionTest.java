@@ -0,0 +1,74 @@
+package app.service.servicerequest;
+
+import app.dto.servicedefinition.AttributeValueDTO;
+import app.dto.servicedefinition.ServiceDefinitionAttributeDTO;
+import app.model.service.AttributeDataType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledServiceDefinitionTest {
+
+    private static final CompiledServiceDefinition DEFINITION = new CompiledServiceDefinition(7L, List.of(
+        attribute(1L, AttributeDataType.MULTIVALUELIST, true,
+            new AttributeValueDTO("10", "Cracked"), new AttributeValueDTO("11", "Too narrow")),
+        attribute(2L, AttributeDataType.NUMBER, false),
+        attribute(3L, AttributeDataType.STRING, false)));
+
+    @Test
+    void bindsOnlyTheAnswersToTheDefinitionsAttributes() {
+        Map<String, String> answers = DEFINITION.bind(Map.of(
+            "attribute[1]", "10,11",
+            "attribute[2]", "5",
+            "attribute[4]", "unknown",
+            "description", "not an attribute"));
+
+        assertEquals(Map.of("1", "10,11", "2", "5"), answers);
+        assertEquals(7L, DEFINITION.getVersionId());
+    }
+
+    @Test
+    void doesNotBindWithoutTheRequiredAttributes() {
+        assertNull(DEFINITION.bind(Map.of("attribute[2]", "5")));
+        assertNull(DEFINITION.bind(Map.of("attribute[1]", " ")));
+    }
+
+    @Test
+    void rejectsAnswersThatAreNotOfTheAttributesDatatype() {
+        assertThrows(RuntimeException.class, () -> DEFINITION.bind(Map.of("attribute[1]", "10", "attribute[2]", "five")));
+    }
+
+    @Test
+    void rendersAnswersWithTheNamesOfTheirValues() {
+        List<ServiceDefinitionAttributeDTO> attributes = DEFINITION.render(
+            DEFINITION.bind(Map.of("attribute[1]", "10,11", "attribute[3]", "Near the school")));
+
+        assertEquals(2, attributes.size());
+        ServiceDefinitionAttributeDTO multiValueList = attributes.stream()
+            .filter(attribute -> attribute.getId() == 1L).findFirst().orElseThrow();
+        assertEquals("Attribute 1", multiValueList.getDescription());
+        assertEquals(AttributeDataType.MULTIVALUELIST, multiValueList.getDatatype());
+        assertEquals(2, multiValueList.getValues().size());
+        assertEquals("10", multiValueList.getValues().get(0).getKey());
+        assertEquals("Cracked", multiValueList.getValues().get(0).getName());
+        assertEquals("Too narrow", multiValueList.getValues().get(1).getName());
+
+        ServiceDefinitionAttributeDTO string = attributes.stream()
+            .filter(attribute -> attribute.getId() == 3L).findFirst().orElseThrow();
+        assertEquals("3", string.getValues().get(0).getKey());
+        assertEquals("Near the school", string.getValues().get(0).getName());
+    }
+
+    private static ServiceDefinitionAttributeDTO attribute(Long id, AttributeDataType datatype, boolean required,
+                                                           AttributeValueDTO... values) {
+        ServiceDefinitionAttributeDTO attribute = new ServiceDefinitionAttributeDTO(id, true, datatype, required,
+            "Attribute " + id, id.intValue(), null);
+        if (values.length > 0) {
+            attribute.setValues(List.of(values));
+        }
+        return attribute;
+    }
+}
@@ -0,0 +1,59 @@
+package app.service.servicerequest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentValidationTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void reportsALaterStepFailingWithoutWaitingForASlowerEarlierOne() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        ConcurrentValidation validation = new ConcurrentValidation(executor);
+        Future<?> slow = validation.submit(() -> sleepUntilInterrupted(interrupted));
+        validation.submit(() -> {
+            throw new IllegalStateException("unknown service");
+        });
+
+        long start = System.nanoTime();
+        assertThrows(IllegalStateException.class, validation::awaitAll);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+
+        assertTrue(slow.isCancelled());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void returnsResultsOfPassedSteps() {
+        ConcurrentValidation validation = new ConcurrentValidation(executor);
+        Future<String> step = validation.submit(() -> "ok");
+        validation.submit(() -> {
+        });
+
+        validation.awaitAll();
+
+        assertEquals("ok", ConcurrentValidation.resultOf(step));
+    }
+
+    private static void sleepUntilInterrupted(CountDownLatch interrupted) {
+        try {
+            Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+        } catch (InterruptedException e) {
+            interrupted.countDown();
+        }
+    }
+}
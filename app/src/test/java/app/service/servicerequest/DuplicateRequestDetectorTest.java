@@ -0,0 +1,60 @@
+package app.service.servicerequest;
+
+import app.service.geometry.GeoDistance;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DuplicateRequestDetectorTest {
+
+    private static final double RADIUS_METERS = 25;
+    private static final long SIDEWALK = 1L;
+    private static final long POTHOLE = 2L;
+
+    private final DuplicateRequestDetector.RecentRequestGrid grid =
+        new DuplicateRequestDetector.RecentRequestGrid(GeoDistance.metersToLatitudeDegrees(RADIUS_METERS));
+
+    @Test
+    void findsTheNearestRecentRequestOfTheSameServiceWithinTheRadius() {
+        grid.add(new DuplicateRequestDetector.RecentRequest(10, SIDEWALK, 38.62700, -90.19940, 1_000));
+        grid.add(new DuplicateRequestDetector.RecentRequest(11, SIDEWALK, 38.62710, -90.19940, 1_000));
+        grid.add(new DuplicateRequestDetector.RecentRequest(12, POTHOLE, 38.62705, -90.19940, 1_000));
+
+        DuplicateRequestDetector.RecentRequest nearest = grid.findNearest(SIDEWALK, 38.62709, -90.19940, RADIUS_METERS, 0);
+
+        assertNotNull(nearest);
+        assertEquals(11L, nearest.id);
+    }
+
+    @Test
+    void ignoresRequestsOutsideTheRadiusOrWindow() {
+        // about 33m north
+        grid.add(new DuplicateRequestDetector.RecentRequest(10, SIDEWALK, 38.62730, -90.19940, 5_000));
+        grid.add(new DuplicateRequestDetector.RecentRequest(11, SIDEWALK, 38.62700, -90.19940, 1_000));
+
+        assertNull(grid.findNearest(SIDEWALK, 38.62700, -90.19940, RADIUS_METERS, 2_000));
+        assertNull(grid.findNearest(POTHOLE, 38.62700, -90.19940, RADIUS_METERS, 0));
+    }
+
+    @Test
+    void forgetsRemovedAndExpiredRequests() {
+        grid.add(new DuplicateRequestDetector.RecentRequest(10, SIDEWALK, 38.62700, -90.19940, 1_000));
+        grid.add(new DuplicateRequestDetector.RecentRequest(11, SIDEWALK, 38.62701, -90.19940, 5_000));
+
+        grid.remove(11);
+        assertEquals(10L, grid.findNearest(SIDEWALK, 38.62701, -90.19940, RADIUS_METERS, 0).id);
+
+        grid.evictOlderThan(2_000);
+        assertNull(grid.findNearest(SIDEWALK, 38.62701, -90.19940, RADIUS_METERS, 0));
+    }
+
+    @Test
+    void rejectsANonPositiveRadius() {
+        DuplicateRequestDetector detector = new DuplicateRequestDetector(null);
+        detector.enabled = true;
+        detector.radiusMeters = 0;
+
+        assertThrows(IllegalArgumentException.class, detector::validateRadius);
+        assertThrows(IllegalArgumentException.class, () -> new DuplicateRequestDetector.RecentRequestGrid(0));
+    }
+}
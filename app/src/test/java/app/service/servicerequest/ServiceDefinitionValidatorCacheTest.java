@@ -0,0 +1,86 @@
+package app.service.servicerequest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceDefinitionValidatorCacheTest {
+
+    // each compile is given the next version id, so tests can tell compiles apart
+    private final AtomicLong versions = new AtomicLong();
+
+    @Test
+    void compilesADefinitionOnceUntilItIsInvalidated() {
+        ServiceDefinitionValidatorCache cache = new ServiceDefinitionValidatorCache(this::compile, id -> null);
+
+        CompiledServiceDefinition compiled = cache.get(1L);
+        assertSame(compiled, cache.get(1L));
+
+        cache.invalidate(1L);
+        CompiledServiceDefinition recompiled = cache.get(1L);
+        assertNotSame(compiled, recompiled);
+        assertSame(recompiled, cache.get(1L));
+    }
+
+    @Test
+    void onlyInvalidatesTheGivenService() {
+        ServiceDefinitionValidatorCache cache = new ServiceDefinitionValidatorCache(this::compile, id -> null);
+        CompiledServiceDefinition other = cache.get(2L);
+
+        cache.get(1L);
+        cache.invalidate(1L);
+
+        assertSame(other, cache.get(2L));
+    }
+
+    @Test
+    void doesNotKeepADefinitionCompiledWhileAnInvalidationRacedIt() throws Exception {
+        CountDownLatch compiling = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        ServiceDefinitionValidatorCache cache = new ServiceDefinitionValidatorCache(serviceId -> {
+            CompiledServiceDefinition compiled = compile(serviceId);
+            if (compiled.getVersionId() == 1L) {
+                // the first compile read the definition before the change was committed
+                compiling.countDown();
+                await(invalidated);
+            }
+            return compiled;
+        }, id -> null);
+
+        CompletableFuture<CompiledServiceDefinition> stale = CompletableFuture.supplyAsync(() -> cache.get(1L));
+        compiling.await();
+        cache.invalidate(1L);
+        invalidated.countDown();
+
+        assertEquals(1L, stale.get().getVersionId());
+        assertEquals(2L, cache.get(1L).getVersionId());
+        assertEquals(2L, cache.get(1L).getVersionId());
+    }
+
+    @Test
+    void keepsVersionsOnceLoaded() {
+        ServiceDefinitionValidatorCache cache = new ServiceDefinitionValidatorCache(this::compile,
+            versionId -> versionId == 7L ? new CompiledServiceDefinition(versionId, List.of()) : null);
+
+        assertSame(cache.getVersion(7L), cache.getVersion(7L));
+        assertNull(cache.getVersion(8L));
+    }
+
+    private CompiledServiceDefinition compile(Long serviceId) {
+        return new CompiledServiceDefinition(versions.incrementAndGet(), List.of());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package app.service.servicerequest;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubmissionMergeTest {
+
+    private static final String MEDIA = "https://storage.googleapis.com/bucket/a.jpg";
+    private static final String OTHER_MEDIA = "https://storage.googleapis.com/bucket/b.jpg";
+
+    @Test
+    void appendsTheDescriptionAndKeepsTheMedia() {
+        SubmissionMerge merge = SubmissionMerge.of("Cracked slab", null, " Also uneven ", MEDIA);
+
+        assertNotNull(merge);
+        assertEquals("Cracked slab\n\nAlso uneven", merge.getDescription());
+        assertEquals(MEDIA, merge.getMediaUrl());
+    }
+
+    @Test
+    void keepsTheExistingRequestAsIsWhenTheSubmissionAddsNothing() {
+        SubmissionMerge merge = SubmissionMerge.of("Cracked slab", MEDIA, " ", MEDIA);
+
+        assertNotNull(merge);
+        assertEquals("Cracked slab", merge.getDescription());
+        assertEquals(MEDIA, merge.getMediaUrl());
+    }
+
+    @Test
+    void cannotMergeWhatWouldBeLost() {
+        assertNull(SubmissionMerge.of(null, MEDIA, "Cracked slab", OTHER_MEDIA));
+        assertNull(SubmissionMerge.of("x".repeat(SubmissionMerge.MAX_DESCRIPTION_LENGTH), null, "Cracked slab", null));
+    }
+}
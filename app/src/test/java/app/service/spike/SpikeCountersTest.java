@@ -0,0 +1,100 @@
+package app.service.spike;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class SpikeCountersTest {
+
+    @Test
+    void flagsABucketFarAboveItsBaselineOnce() {
+        SpikeCounters counters = new SpikeCounters(100, 24, 4, 5, 0);
+        Random random = new Random(3);
+        long bucket = 0;
+        for (; bucket < 200; bucket++) {
+            int requests = random.nextInt(4);
+            for (int i = 0; i < requests; i++) {
+                assertEquals(-1, counters.add(1, 7, bucket));
+            }
+        }
+
+        int spikes = 0;
+        for (int i = 0; i < 20; i++) {
+            int slot = counters.add(1, 7, bucket);
+            if (slot >= 0) {
+                spikes++;
+                assertTrue(counters.count(slot) >= 5);
+                assertEquals(1.5, counters.expected(slot), 0.5);
+            }
+        }
+        assertEquals(1, spikes);
+
+        // the same burst in another cell or for another service is counted apart
+        assertEquals(-1, counters.add(1, 8, bucket));
+        assertEquals(-1, counters.add(2, 7, bucket));
+    }
+
+    @Test
+    void flagsTheFirstBurstOfANewCell() {
+        SpikeCounters counters = new SpikeCounters(100, 24, 4, 5, 0);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(-1, counters.add(1, 7, 10));
+        }
+        assertTrue(counters.add(1, 7, 10) >= 0);
+
+        // late requests count towards the current bucket, which has been reported already
+        assertEquals(-1, counters.add(1, 7, 9));
+    }
+
+    @Test
+    void holdsAtMostItsMaximumNumberOfCells() {
+        SpikeCounters counters = new SpikeCounters(100, 24, 4, 5, 0);
+        for (long bucket = 0; bucket < 10_000; bucket++) {
+            counters.add(1, bucket, bucket);
+            assertTrue(counters.size() <= 100);
+        }
+        // the cells that have gone quiet make way for new ones
+        assertEquals(-1, counters.add(1, -1, 10_000));
+        assertTrue(counters.evictQuiet(10_000) < 100);
+    }
+
+    @Test
+    void reportsNoSpikesWhileWarmingUp() {
+        SpikeCounters counters = new SpikeCounters(100, 24, 4, 5, 12);
+        for (long bucket = 100; bucket < 112; bucket++) {
+            for (int i = 0; i < 10; i++) {
+                assertEquals(-1, counters.add(1, bucket, bucket));
+            }
+        }
+
+        // a cell first seen after the warm-up still gets its burst reported
+        for (int i = 0; i < 4; i++) {
+            assertEquals(-1, counters.add(1, 7, 112));
+        }
+        assertTrue(counters.add(1, 7, 112) >= 0);
+    }
+
+    @Test
+    void decaysTheBaselineOverLongGapsAtOnce() {
+        SpikeCounters counters = new SpikeCounters(100, 24, 4, 5, 0);
+        for (long bucket = 0; bucket < 100; bucket++) {
+            for (int i = 0; i < 3; i++) {
+                counters.add(1, 7, bucket);
+            }
+        }
+
+        // a week later a handful of requests is a spike again, without folding each empty bucket
+        long bucket = 100 + 168;
+        int slot = -1;
+        for (int i = 0; i < 5 && slot < 0; i++) {
+            slot = counters.add(1, 7, bucket);
+        }
+        assertTrue(slot >= 0);
+        assertEquals(3 * Math.pow(1 - 2.0 / 25, 168), counters.expected(slot), 0.01);
+
+        // and after long enough it has decayed to nothing
+        assertEquals(0, counters.evictQuiet(Long.MAX_VALUE / 2));
+    }
+}
@@ -14,6 +14,8 @@
 
 package app.util;
 
+import app.model.heatmap.HeatmapCellRepository;
+import app.model.hotspot.HotspotRepository;
 import app.model.jurisdiction.JurisdictionBoundaryRepository;
 import app.model.jurisdiction.JurisdictionRepository;
 import app.model.jurisdictionuser.JurisdictionUserRepository;
@@ -21,8 +23,14 @@ import app.model.service.ServiceRepository;
 import app.model.service.group.ServiceGroupRepository;
 import app.model.servicedefinition.AttributeValueRepository;
 import app.model.servicedefinition.ServiceDefinitionAttributeRepository;
+import app.model.servicedefinition.ServiceDefinitionVersionRepository;
 import app.model.servicerequest.ServiceRequestRepository;
 import app.model.user.UserRepository;
+import app.service.map.ActiveRequestIndex;
+import app.service.map.TileService;
+import app.service.service.ServiceCatalog;
+import app.service.spike.SpikeDetector;
+import app.service.subscription.SubscriptionIndex;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
@@ -48,6 +56,9 @@ public class DbCleanup {
     @Inject
     public AttributeValueRepository attributeValueRepository;
 
+    @Inject
+    public ServiceDefinitionVersionRepository serviceDefinitionVersionRepository;
+
     @Inject
     public JurisdictionBoundaryRepository jurisdictionBoundaryRepository;
 
@@ -57,21 +68,56 @@ public class DbCleanup {
     @Inject
     public JurisdictionUserRepository jurisdictionUserRepository;
 
+    @Inject
+    public HeatmapCellRepository heatmapCellRepository;
+
+    @Inject
+    public HotspotRepository hotspotRepository;
+
+    @Inject
+    public ActiveRequestIndex activeRequestIndex;
+
+    @Inject
+    public TileService tileService;
+
+    @Inject
+    public SubscriptionIndex subscriptionIndex;
+
+    @Inject
+    public SpikeDetector spikeDetector;
+
+    @Inject
+    public ServiceCatalog serviceCatalog;
+
     @Transactional
     public void cleanupAll(){
         userRepository.deleteAll();
         jurisdictionUserRepository.deleteAll();
         attributeValueRepository.deleteAll();
         serviceDefinitionAttributeRepository.deleteAll();
+        serviceDefinitionVersionRepository.deleteAll();
         serviceRepository.deleteAll();
         serviceGroupRepository.deleteAll();
         jurisdictionRepository.deleteAll();
         serviceRequestRepository.deleteAll();
+        heatmapCellRepository.deleteAll();
+        hotspotRepository.deleteAll();
+        activeRequestIndex.clear();
+        tileService.clearCache();
+        spikeDetector.clear();
+        serviceCatalog.clear();
+        subscriptionIndex.clear();
     }
 
     @Transactional
     public void cleanupServiceRequests() {
         serviceRequestRepository.deleteAll();
+        heatmapCellRepository.deleteAll();
+        hotspotRepository.deleteAll();
+        activeRequestIndex.clear();
+        tileService.clearCache();
+        spikeDetector.clear();
+        serviceCatalog.clear();
     }
 
 }
@@ -0,0 +1,63 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.util;
+
+import app.service.subscription.LoggingNotificationSender;
+import app.service.subscription.Notification;
+import app.service.subscription.NotificationSender;
+import app.service.subscription.SubscriptionConfirmation;
+import io.micronaut.context.annotation.Replaces;
+import jakarta.inject.Singleton;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+@Singleton
+@Replaces(LoggingNotificationSender.class)
+public class MockNotificationSender implements NotificationSender {
+
+    private final BlockingQueue<Notification> sent = new LinkedBlockingQueue<>();
+    private final BlockingQueue<SubscriptionConfirmation> confirmations = new LinkedBlockingQueue<>();
+
+    @Override
+    public void send(Notification notification) {
+        sent.add(notification);
+    }
+
+    @Override
+    public void sendConfirmation(SubscriptionConfirmation confirmation) {
+        confirmations.add(confirmation);
+    }
+
+    /**
+     * @return the next notification sent, waiting for it as notifications are sent in the background
+     */
+    public Notification next() throws InterruptedException {
+        return sent.poll(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @return the next confirmation asked for, which is sent before the subscription is returned
+     */
+    public SubscriptionConfirmation nextConfirmation() {
+        return confirmations.poll();
+    }
+
+    public void clear() {
+        sent.clear();
+        confirmations.clear();
+    }
+}
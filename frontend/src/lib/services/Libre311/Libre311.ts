@@ -558,7 +558,7 @@ export type Libre311ServiceProps = z.infer<typeof Libre311ServicePropsSchema> &
 };
 
 const ROUTES = {
-	getJurisdictionConfig: '/config',
+	getJurisdictionConfig: '/config?detail=low',
 	getServiceList: (params: HasJurisdictionId) =>
 		`/services?jurisdiction_id=${params.jurisdiction_id}`,
 	getServiceDefinition: (params: HasJurisdictionId & HasServiceCode) =>